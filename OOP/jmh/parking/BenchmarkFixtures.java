@@ -0,0 +1,76 @@
+package parking;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+// Benchmark'ların ortak kurulumu - otopark, örnek araçlar, konsol susturma
+final class BenchmarkFixtures {
+    private static final PrintStream CONSOLE = System.out;
+
+    private BenchmarkFixtures() {
+    }
+
+    // Servislerin konsol çıktısı ölçüme girmesin
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static void restoreConsole() {
+        System.setOut(CONSOLE);
+    }
+
+    // "10x500" -> {10, 500}
+    static int[] lotSize(String lot) {
+        String[] size = lot.trim().split("x");
+        return new int[]{Integer.parseInt(size[0]), Integer.parseInt(size[1])};
+    }
+
+    // Her katın aynı oranı dolu olsun: yerler rastgele seçilip doğrudan işgal edilir
+    static ParkingLot createLot(int floors, int spotsPerFloor, int occupancyPercent) {
+        ParkingLot parkingLot = new ParkingLot("Bench Lot", "Benchmark", floors, spotsPerFloor);
+        Random random = new Random(floors * 31L + spotsPerFloor + occupancyPercent);
+        int plate = 0;
+
+        for (Floor floor : parkingLot.getFloors()) {
+            for (ParkingSpot spot : floor.getSpots()) {
+                if (random.nextInt(100) >= occupancyPercent) continue;
+                // Yerin kabul ettiği ilk araç tipiyle doldur
+                for (Vehicle vehicle : sampleVehicles("34OC" + plate++)) {
+                    if (!spot.canFitVehicle(vehicle)) continue;
+                    try {
+                        spot.parkVehicle(vehicle);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Fixture spot could not be filled", e);
+                    }
+                    break;
+                }
+            }
+        }
+        return parkingLot;
+    }
+
+    static Vehicle[] sampleVehicles(String plate) {
+        return new Vehicle[]{
+                new Car(plate, "Gray", "Fiat", "Egea", 4),
+                new Motorcycle(plate, "Black", "Honda", "CBR", 600),
+                new Van(plate, "White", "Ford", "Transit", 9),
+                new ElectricVehicle(plate, "Blue", "Tesla", "Model 3", 4, 75)
+        };
+    }
+
+    // Türk plakası biçimi: il kodu + 1-3 harf + 2-4 rakam
+    static String randomPlate(Random random) {
+        StringBuilder plate = new StringBuilder(9);
+        plate.append(String.format("%02d", 1 + random.nextInt(81)));
+        int letters = 1 + random.nextInt(3);
+        for (int i = 0; i < letters; i++) {
+            plate.append((char) ('A' + random.nextInt(26)));
+        }
+        int digits = 2 + random.nextInt(3);
+        for (int i = 0; i < digits; i++) {
+            plate.append((char) ('0' + random.nextInt(10)));
+        }
+        return plate.toString();
+    }
+}
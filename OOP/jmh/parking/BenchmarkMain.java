@@ -0,0 +1,30 @@
+package parking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// benchmarks.jar giriş noktası - bellek tahsisi (B/op) her koşuda raporlansın diye
+// başka profiler verilmediyse "-prof gc" eklenir, sonra JMH'nin kendi Main'i çağrılır
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(withDefaults(args));
+    }
+
+    static String[] withDefaults(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        // -h / -l / -lp gibi bilgi komutlarına dokunma
+        for (String argument : arguments) {
+            if (argument.equals("-prof") || argument.startsWith("-h") || argument.equals("-l")
+                    || argument.equals("-lp") || argument.equals("-lprof") || argument.equals("-lrf")) {
+                return args;
+            }
+        }
+        arguments.add(0, "gc");
+        arguments.add(0, "-prof");
+        return arguments.toArray(new String[0]);
+    }
+}
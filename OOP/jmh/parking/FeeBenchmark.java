@@ -0,0 +1,69 @@
+package parking;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Her Ticket alt sınıfının ücret hesabı - bilet otoparktan alınır, böylece atanan yer tipi
+// (otopark boyutu ve doluluğa göre değişir) tarife aramasına girer
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FeeBenchmark {
+    @Param({"HOURLY", "DAILY", "MONTHLY", "YEARLY", "VIP"})
+    public String ticketType;
+
+    @Param({"3x20", "10x500"})
+    public String lot;
+
+    @Param({"0", "50", "95"})
+    public int occupancy;
+
+    private final Duration[] durations = {Duration.ofMinutes(20), Duration.ofHours(3), Duration.ofHours(30)};
+    private final long[] durationMillis = {durations[0].toMillis(), durations[1].toMillis(), durations[2].toMillis()};
+    private ParkingLot parkingLot;
+    private Ticket ticket;
+    private int next;
+
+    @Setup
+    public void setUp() throws ParkingException {
+        BenchmarkFixtures.silenceConsole();
+        int[] size = BenchmarkFixtures.lotSize(lot);
+        parkingLot = BenchmarkFixtures.createLot(size[0], size[1], occupancy);
+        Customer customer = new Customer("MB001", "Bench", "05550000000", "bench@parking.com", "34MB001");
+        Car car = new Car("34MB001", "Gray", "Fiat", "Egea", 4);
+        ticket = parkingLot.enterVehicle(car, customer, ticketType);
+        parkingLot.awaitSideEffects();
+    }
+
+    @TearDown
+    public void tearDown() {
+        parkingLot.shutdown();
+        BenchmarkFixtures.restoreConsole();
+    }
+
+    @Benchmark
+    public double calculateFee() {
+        return ticket.calculateFee(durations[next++ % durations.length]);
+    }
+
+    // Çıkış yolunun kullandığı kuruş hesabı (tarife tablosu)
+    @Benchmark
+    public long calculateFeeKurus() {
+        return ticket.calculateFeeKurus(durationMillis[next++ % durationMillis.length]);
+    }
+}
@@ -0,0 +1,35 @@
+package parking;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Kapılar aynı üreteci paylaşır: tek thread ve çekişmeli (4 thread) CAS maliyeti
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IdGeneratorBenchmark {
+    private final IdGenerator generator = new IdGenerator(1);
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+}
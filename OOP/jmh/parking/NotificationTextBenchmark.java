@@ -0,0 +1,63 @@
+package parking;
+
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Giriş bildirimi metinleri (SMS + email): her çağrıda yeni formatter (eski) ile paylaşılan formatter
+// Gönderimin tamamı (kısıtlama, bildirim nesneleri, geçmiş) ServiceBenchmark.sendEntryNotification'da ölçülür.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NotificationTextBenchmark {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private Customer customer;
+    private Ticket ticket;
+    private ParkingSpot spot;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer("MB001", "Bench Müşteri", "05550000000", "bench@parking.com", "34MB001");
+        ticket = new HourlyTicket("T1", customer, new Car("34MB001", "Gray", "Fiat", "Egea", 4));
+        spot = new RegularSpot("F2-S17", 2);
+    }
+
+    @Benchmark
+    public void formatterPerCall(Blackhole blackhole) {
+        render(blackhole, ticket.getIssueTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+    }
+
+    @Benchmark
+    public void sharedFormatter(Blackhole blackhole) {
+        render(blackhole, ticket.getIssueTime().format(TIME_FORMAT));
+    }
+
+    private void render(Blackhole blackhole, String time) {
+        blackhole.consume("Aracınız " + ticket.getVehicle().getLicensePlate() +
+                " başarıyla park edildi. Yer: " + spot.getSpotId() +
+                ", Kat: " + spot.getFloor() + ". Zaman: " + time);
+        blackhole.consume("Sayın " + customer.getName() + ",\n\n" +
+                "Aracınız başarıyla park edilmiştir.\n\n" +
+                "Detaylar:\n" +
+                "Araç Plakası: " + ticket.getVehicle().getLicensePlate() + "\n" +
+                "Park Yeri: " + spot.getSpotId() + "\n" +
+                "Kat: " + spot.getFloor() + "\n" +
+                "Giriş Zamanı: " + time + "\n" +
+                "Bilet No: " + ticket.getTicketId() + "\n\n" +
+                "İyi günler dileriz!");
+    }
+}
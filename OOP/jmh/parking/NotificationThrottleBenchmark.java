@@ -0,0 +1,69 @@
+package parking;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Gönderim yolundaki kontrolün maliyeti: 10.000 alıcı, her çağrı farklı bilet (tekrar değil)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NotificationThrottleBenchmark {
+    private static final int RECIPIENTS = 10_000;
+    private static final int TICKETS = 1024;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private NotificationThrottle throttle;
+    private String[] recipients;
+    private String[] tickets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        throttle = new NotificationThrottle();
+        recipients = new String[RECIPIENTS];
+        for (int i = 0; i < RECIPIENTS; i++) {
+            recipients[i] = "C" + i;
+        }
+        tickets = new String[TICKETS];
+        for (int i = 0; i < TICKETS; i++) {
+            tickets[i] = "T" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return check(next++);
+    }
+
+    // Her thread kendi sırasıyla ilerler; dilimler paylaşılır
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean tryAcquireContended(Cursor cursor) {
+        return check(cursor.next++);
+    }
+
+    private boolean check(int n) {
+        int i = n & Integer.MAX_VALUE;
+        return throttle.tryAcquire(NotificationChannel.PUSH, recipients[i % RECIPIENTS], NotificationKind.PAYMENT_PUSH,
+                tickets[(i / RECIPIENTS) % TICKETS], T0 + (i & 0xffff));
+    }
+}
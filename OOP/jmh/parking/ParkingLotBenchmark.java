@@ -0,0 +1,74 @@
+package parking;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Giriş/çıkış ve yer arama - otopark boyutu (kat x yer) ve doluluk oranıyla değişir
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParkingLotBenchmark {
+    private static final int POOL_SIZE = 1024;
+
+    @Param({"3x20", "10x500"})
+    public String lot;
+
+    @Param({"0", "50", "95"})
+    public int occupancy;
+
+    private ParkingLot parkingLot;
+    private Floor firstFloor;
+    private Vehicle[] vehicles;
+    private final Car[] cars = new Car[POOL_SIZE];
+    private final Customer[] customers = new Customer[POOL_SIZE];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.silenceConsole();
+        int[] size = BenchmarkFixtures.lotSize(lot);
+        parkingLot = BenchmarkFixtures.createLot(size[0], size[1], occupancy);
+        firstFloor = parkingLot.getFloors().get(0);
+        vehicles = BenchmarkFixtures.sampleVehicles("34SV1");
+        for (int i = 0; i < POOL_SIZE; i++) {
+            cars[i] = new Car("34MB" + i, "Gray", "Fiat", "Egea", 4);
+            customers[i] = new Customer("MB" + i, "Bench", "05550000000", "bench@parking.com",
+                    cars[i].getLicensePlate());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        parkingLot.awaitSideEffects();
+        parkingLot.shutdown();
+        BenchmarkFixtures.restoreConsole();
+    }
+
+    @Benchmark
+    public ParkingSpot findAvailableSpot() {
+        return firstFloor.findAvailableSpot(vehicles[next++ % vehicles.length]);
+    }
+
+    @Benchmark
+    public Ticket enterVehicleExitVehicle() throws ParkingException {
+        int k = next++ % POOL_SIZE;
+        Ticket ticket = parkingLot.enterVehicle(cars[k], customers[k], "HOURLY");
+        long fee = ticket.calculateFeeKurus(0);
+        parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("P" + k, fee, fee));
+        return ticket;
+    }
+}
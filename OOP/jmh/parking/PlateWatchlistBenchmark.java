@@ -0,0 +1,118 @@
+package parking;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Giriş yolundaki izleme listesi kontrolü: çoğu araç listede değildir (Bloom ile elenir).
+// Karşılaştırma (önce): plakaları String olarak tutan HashSet.
+// hashSet* ölçümleri hash'i önbellekte, normalleştirilmiş String'le en iyi durumdur. Tanıyıcıdan gelen
+// plaka ise yeni ve boşluklu bir String'dir ("34 ABC 123"): HashSet önce normalleştirmek zorundadır
+// (*Spaced). Bellek: 1M plakada liste ~10 MB (çoğu heap dışı), HashSet ~39 MB heap (bkz. PlateWatchlistTest).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class PlateWatchlistBenchmark {
+    private static final int SAMPLES = 4_096;
+
+    @Param("1000000")
+    public int plateCount;
+
+    private PlateWatchlist watchlist;
+    private Set<String> hashSet;
+    private final String[] misses = new String[SAMPLES];
+    private final String[] hits = new String[SAMPLES];
+    private final String[] spacedMisses = new String[SAMPLES];
+    private final String[] spacedHits = new String[SAMPLES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(plateCount);
+        List<String> listed = new ArrayList<>(plateCount);
+        for (int i = 0; i < plateCount; i++) {
+            listed.add(BenchmarkFixtures.randomPlate(random));
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            misses[i] = "99" + BenchmarkFixtures.randomPlate(random).substring(2); // İl kodu 99 listede yok
+            hits[i] = listed.get(random.nextInt(plateCount));
+            spacedMisses[i] = spaced(misses[i]);
+            spacedHits[i] = spaced(hits[i]);
+        }
+        hashSet = new HashSet<>(listed);
+        watchlist = new PlateWatchlist();
+        watchlist.reload(listed, WatchlistReason.STOLEN);
+    }
+
+    @Benchmark
+    public WatchlistReason checkMiss() {
+        return watchlist.check(misses[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public WatchlistReason checkHit() {
+        return watchlist.check(hits[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public boolean hashSetMiss() {
+        return hashSet.contains(misses[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public boolean hashSetHit() {
+        return hashSet.contains(hits[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public WatchlistReason checkMissSpaced() {
+        return watchlist.check(spacedMisses[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public WatchlistReason checkHitSpaced() {
+        return watchlist.check(spacedHits[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public boolean hashSetMissSpaced() {
+        return hashSet.contains(normalize(spacedMisses[next++ & (SAMPLES - 1)]));
+    }
+
+    @Benchmark
+    public boolean hashSetHitSpaced() {
+        return hashSet.contains(normalize(spacedHits[next++ & (SAMPLES - 1)]));
+    }
+
+    // "34ABC123" -> "34 ABC 123" (il kodu, harfler, rakamlar)
+    private static String spaced(String plate) {
+        int digits = plate.length();
+        while (Character.isDigit(plate.charAt(digits - 1))) {
+            digits--;
+        }
+        return plate.substring(0, 2) + " " + plate.substring(2, digits) + " " + plate.substring(digits);
+    }
+
+    // Listenin encode() ile yaptığı normalleştirmenin String karşılığı
+    private static String normalize(String plate) {
+        return plate.replace(" ", "").replace("-", "").toUpperCase(Locale.ROOT);
+    }
+}
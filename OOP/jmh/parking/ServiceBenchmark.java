@@ -0,0 +1,96 @@
+package parking;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Yan etki servisleri - otopark boyutu (kamera ve istasyon sayısı) ve doluluk oranıyla
+// (dolu istasyonlar ve park yerleri atlanarak aranır)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ServiceBenchmark {
+    @Param({"3x20", "10x500"})
+    public String lot;
+
+    @Param({"0", "50", "95"})
+    public int occupancy;
+
+    private int floors;
+    private ParkingLot parkingLot;
+    private Customer customer;
+    private Car car;
+    private Ticket ticket;
+    private List<ParkingSpot> spots;
+    private List<SecurityCamera> cameras;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.silenceConsole();
+        int[] size = BenchmarkFixtures.lotSize(lot);
+        floors = size[0];
+        parkingLot = BenchmarkFixtures.createLot(size[0], size[1], occupancy);
+        customer = new Customer("MB001", "Bench", "05550000000", "bench@parking.com", "34MB001");
+        car = new Car("34MB001", "Gray", "Fiat", "Egea", 4);
+        ticket = new HourlyTicket("T1", customer, car);
+        spots = parkingLot.getFloors().get(floors - 1).getSpots();
+        cameras = parkingLot.getSecuritySystem().getCameras();
+    }
+
+    @TearDown
+    public void tearDown() {
+        parkingLot.shutdown();
+        BenchmarkFixtures.restoreConsole();
+    }
+
+    @Benchmark
+    public void sendEntryNotification() {
+        parkingLot.getNotificationService().sendEntryNotification(customer, ticket, spots.get(next++ % spots.size()));
+    }
+
+    @Benchmark
+    public void logVehicleEntry() {
+        parkingLot.getSecuritySystem().logVehicleEntry(car, spots.get(next++ % spots.size()));
+    }
+
+    // Kapı yolundaki kamera araması: indeksten önceki tam tarama (metin karşılaştırması)
+    @Benchmark
+    public SecurityCamera findCameraScan() {
+        int i = next++;
+        String location = i % 2 == 0 ? "Entry Point" : "Exit Point";
+        int floor = i % floors;
+        for (SecurityCamera camera : cameras) {
+            if (camera.getLocation().equals(location) && camera.getFloor() == floor) {
+                return camera;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public SecurityCamera findCameraIndex() {
+        int i = next++;
+        return parkingLot.getSecuritySystem().getCameraIndex()
+                .find(i % 2 == 0 ? CameraLocation.ENTRY_POINT : CameraLocation.EXIT_POINT, i % floors);
+    }
+
+    @Benchmark
+    public ChargingStation findAvailableStation() {
+        return parkingLot.getChargingManager().findAvailableStation(next++ % 2 == 0 ? "Type2" : null);
+    }
+}
@@ -0,0 +1,53 @@
+package parking;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Bilet bitiş çarkı: dolu bir çarka ekleme + iptal (giriş/çıkış yolundaki maliyet)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TimingWheelBenchmark {
+    private static final long START_MILLIS = 1_735_689_600_000L; // 2025-01-01 UTC
+    private static final long HORIZON_MILLIS = 30 * 86_400_000L;
+
+    @Param({"10000", "1000000"})
+    public int liveTimers;
+
+    private TimingWheel wheel;
+    private final long[] deadlines = new long[4_096];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        wheel = new TimingWheel(TicketExpiryScheduler.DEFAULT_TICK_MILLIS, START_MILLIS);
+        Random random = new Random(11);
+        for (int i = 0; i < liveTimers; i++) {
+            wheel.schedule(new TimerEntry(START_MILLIS + 1 + (long) (random.nextDouble() * HORIZON_MILLIS)));
+        }
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = START_MILLIS + 1 + (long) (random.nextDouble() * HORIZON_MILLIS);
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        TimerEntry entry = new TimerEntry(deadlines[next++ & (deadlines.length - 1)]);
+        wheel.schedule(entry);
+        return wheel.cancel(entry);
+    }
+}
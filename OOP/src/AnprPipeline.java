@@ -0,0 +1,289 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Plaka tanıyıcı - kameradan okunan plaka, okunamazsa "UNKNOWN", kamera kapalıysa null
+interface PlateRecognizer {
+    String UNKNOWN = "UNKNOWN";
+
+    String recognize(SecurityCamera camera, Vehicle vehicle) throws InterruptedException;
+}
+
+// Kameranın kendi simülasyonu (%90 başarı, gecikmesiz) - eski satır içi davranış
+class CameraPlateRecognizer implements PlateRecognizer {
+    @Override
+    public String recognize(SecurityCamera camera, Vehicle vehicle) {
+        return camera.recognizeLicensePlate(vehicle);
+    }
+}
+
+// Test/benchmark için yerel taklit: sabit gecikme ve ayarlanabilir hata oranı, konsola yazmaz
+class StubPlateRecognizer implements PlateRecognizer {
+    private final long latencyMillis;
+    private final double failureRate;
+    private final Random random;
+    private final LongAdder calls = new LongAdder();
+
+    StubPlateRecognizer(long latencyMillis, double failureRate, long seed) {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public String recognize(SecurityCamera camera, Vehicle vehicle) throws InterruptedException {
+        calls.increment();
+        if (!camera.isActive()) return null;
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+        boolean failed;
+        synchronized (random) {
+            failed = random.nextDouble() < failureRate;
+        }
+        return failed ? UNKNOWN : vehicle.getLicensePlate();
+    }
+
+    long getCalls() {
+        return calls.sum();
+    }
+}
+
+// Tanıma işi - bilet (varsa) sonuçla eşlenir
+final class AnprRequest {
+    final SecurityCamera camera;
+    final Vehicle vehicle;
+    final Ticket ticket;
+    final long submittedNanos;
+
+    AnprRequest(SecurityCamera camera, Vehicle vehicle, Ticket ticket) {
+        this.camera = camera;
+        this.vehicle = vehicle;
+        this.ticket = ticket;
+        this.submittedNanos = System.nanoTime();
+    }
+}
+
+// AnprPipeline - Plaka tanımayı kapı/güvenlik kanalından ayırır
+// İşler sınırlı kuyruğa (çok üretici, çok tüketici) girer, işçi havuzu tanıyıcıyı çağırır.
+// Kuyruk doluysa iş bekletilmez, reddedilip sayılır: yavaş tanıyıcı girişi hiçbir zaman durdurmaz.
+// "UNKNOWN" sonucunda aynı kattaki başka bir aktif kamera ile tekrar denenir; sonuç bilete yazılır.
+public class AnprPipeline implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 4_096;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private final BlockingQueue<AnprRequest> queue;
+    private final PlateRecognizer recognizer;
+    private final CameraIndex cameras;
+    private final int maxAttempts;
+    private final List<Thread> workers = new ArrayList<>();
+    private final List<LatencyHistogram> latencies = new ArrayList<>(); // İşçi başına, birleştirilerek okunur
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder recognized = new LongAdder();
+    private final LongAdder unrecognized = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    public AnprPipeline(CameraIndex cameras, PlateRecognizer recognizer, int workerCount) {
+        this(cameras, recognizer, workerCount, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_ATTEMPTS, null);
+    }
+
+    // threadFactory: null -> daemon platform thread'leri (JDK 21'de sanal thread fabrikası verilebilir)
+    public AnprPipeline(CameraIndex cameras, PlateRecognizer recognizer, int workerCount,
+                        int queueCapacity, int maxAttempts, ThreadFactory threadFactory) {
+        if (workerCount <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Invalid ANPR settings");
+        }
+        this.cameras = cameras;
+        this.recognizer = recognizer;
+        this.maxAttempts = maxAttempts;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < workerCount; i++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            latencies.add(histogram);
+            Runnable loop = () -> work(histogram);
+            Thread worker;
+            if (threadFactory != null) {
+                worker = threadFactory.newThread(loop);
+            } else {
+                worker = new Thread(loop, "anpr-worker-" + i);
+                worker.setDaemon(true);
+            }
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    // false: kuyruk dolu ya da kapalı - tanıma atlanır, giriş etkilenmez
+    public boolean submit(SecurityCamera camera, Vehicle vehicle, Ticket ticket) {
+        if (closed || camera == null) {
+            return false;
+        }
+        inFlight.incrementAndGet();
+        if (!queue.offer(new AnprRequest(camera, vehicle, ticket))) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        submitted.increment();
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    private void work(LatencyHistogram histogram) {
+        while (true) {
+            AnprRequest request;
+            try {
+                request = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (request == null) {
+                if (closed) return;
+                continue;
+            }
+            try {
+                process(request);
+            } catch (InterruptedException e) {
+                inFlight.decrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                unrecognized.increment();
+                System.err.println("ANPR failed for " + request.vehicle.getLicensePlate() + ": " + e.getMessage());
+            }
+            synchronized (histogram) {
+                histogram.record(System.nanoTime() - request.submittedNanos);
+            }
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void process(AnprRequest request) throws InterruptedException {
+        SecurityCamera camera = request.camera;
+        List<SecurityCamera> tried = null;
+        for (int attempt = 1; ; attempt++) {
+            String plate = recognizer.recognize(camera, request.vehicle);
+            if (plate != null && !PlateRecognizer.UNKNOWN.equals(plate)) {
+                recognized.increment();
+                if (!plate.equals(request.vehicle.getLicensePlate())) {
+                    mismatches.increment(); // Biletteki plaka ile kamera uyuşmuyor
+                }
+                if (request.ticket != null) {
+                    request.ticket.setRecognizedPlate(plate);
+                }
+                return;
+            }
+            if (attempt >= maxAttempts) break;
+            if (tried == null) tried = new ArrayList<>(maxAttempts);
+            tried.add(camera);
+            camera = alternate(camera, tried);
+            if (camera == null) break;
+            retries.increment();
+        }
+        unrecognized.increment();
+        if (request.ticket != null) {
+            request.ticket.setRecognizedPlate(PlateRecognizer.UNKNOWN);
+        }
+    }
+
+    // Aynı kattan denenmemiş aktif kamera: önce aynı konum tipi, sonra diğerleri
+    private SecurityCamera alternate(SecurityCamera failed, List<SecurityCamera> tried) {
+        SecurityCamera fallback = null;
+        for (SecurityCamera camera : cameras.onFloor(failed.getFloor())) {
+            if (!camera.isActive() || tried.contains(camera)) continue;
+            if (camera.getLocationType() == failed.getLocationType()) return camera;
+            if (fallback == null) fallback = camera;
+        }
+        return fallback;
+    }
+
+    // Kuyruk ve işlenen işler bitene kadar bekle
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (inFlight.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) return false;
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    // Yeni iş alınmaz; kuyruktakiler işlenir, sonra işçiler durur
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            try {
+                worker.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getRecognized() {
+        return recognized.sum();
+    }
+
+    public long getUnrecognized() {
+        return unrecognized.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getMismatches() {
+        return mismatches.sum();
+    }
+
+    // Gönderimden sonuca kadar gecikme (kuyrukta bekleme dahil)
+    LatencyHistogram getLatency() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : latencies) {
+            synchronized (histogram) {
+                merged.merge(histogram);
+            }
+        }
+        return merged;
+    }
+
+    public void printStatistics() {
+        long completed = getRecognized() + getUnrecognized();
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        LatencyHistogram latency = getLatency();
+        System.out.println("📷 ANPR: " + workers.size() + " workers, submitted " + getSubmitted() +
+                ", rejected " + getRejected() + ", recognized " + getRecognized() + ", unknown " + getUnrecognized() +
+                ", retries " + getRetries() + ", mismatches " + getMismatches());
+        System.out.println("   Throughput " + String.format("%.0f", completed / seconds) + "/s, queue " +
+                getQueueDepth() + " (max " + getMaxQueueDepth() + "), latency p50 " +
+                latency.percentile(50) / 1_000_000 + " ms, p99 " + latency.percentile(99) / 1_000_000 + " ms");
+    }
+}
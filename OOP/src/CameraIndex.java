@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Kamera konumları - eski metin etiketleriyle ("Entry Point", ...) eşlenir
+enum CameraLocation {
+    ENTRY_POINT("Entry Point"),
+    EXIT_POINT("Exit Point"),
+    CENTER_AREA("Center Area"),
+    CORNER_AREA("Corner Area"),
+    OTHER(null); // Bilinmeyen etiket: sadece kat listesinde
+
+    static final CameraLocation[] VALUES = values();
+
+    final String label;
+
+    CameraLocation(String label) {
+        this.label = label;
+    }
+
+    // Kamera kurulurken bir kez çağrılır - kapı yolunda metin karşılaştırması yapılmaz
+    static CameraLocation of(String label) {
+        for (CameraLocation location : VALUES) {
+            if (location.label != null && location.label.equals(label)) {
+                return location;
+            }
+        }
+        return OTHER;
+    }
+}
+
+// CameraIndex - (kat, konum) -> kamera yoğun dizisi ve kat başına kamera listesi
+// Okuma kilitsiz ve O(1): dizi referansı volatile, değişiklikte kopyalanıp yeniden yayınlanır
+// (kamera ekleme/açma-kapama nadir, giriş/çıkış sık). Aynı yerde birden fazla kamera varsa
+// aktif olan tercih edilir; aktif kalmadıysa ilk kamera döner (kayıt hatasını kamera bildirir).
+class CameraIndex {
+    private static final int LOCATIONS = CameraLocation.VALUES.length;
+
+    private volatile SecurityCamera[] byFloorLocation = new SecurityCamera[0]; // [floor * LOCATIONS + location]
+    private volatile List<SecurityCamera>[] byFloor = newFloorArray(0);
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    private static List<SecurityCamera>[] newFloorArray(int floors) {
+        return (List<SecurityCamera>[]) new List<?>[floors];
+    }
+
+    synchronized void add(SecurityCamera camera) {
+        int floor = camera.getFloor();
+        if (floor < 0) {
+            throw new IllegalArgumentException("Camera floor must not be negative: " + camera.getCameraId());
+        }
+        List<SecurityCamera>[] floors = byFloor;
+        if (floor >= floors.length) {
+            floors = Arrays.copyOf(floors, floor + 1);
+        } else {
+            floors = floors.clone();
+        }
+        List<SecurityCamera> floorCameras = new ArrayList<>(floors[floor] == null ? List.of() : floors[floor]);
+        floorCameras.add(camera);
+        floors[floor] = Collections.unmodifiableList(floorCameras);
+
+        SecurityCamera[] slots = Arrays.copyOf(byFloorLocation, floors.length * LOCATIONS);
+        slots[floor * LOCATIONS + camera.getLocationType().ordinal()] = select(floorCameras, camera.getLocationType());
+        byFloorLocation = slots;
+        byFloor = floors;
+        size++;
+    }
+
+    // setActive çağırır: o yerin tercih edilen kamerası yeniden seçilir
+    synchronized void onActiveChanged(SecurityCamera camera) {
+        int floor = camera.getFloor();
+        List<SecurityCamera>[] floors = byFloor;
+        if (floor >= floors.length || floors[floor] == null) return;
+        int slot = floor * LOCATIONS + camera.getLocationType().ordinal();
+        SecurityCamera selected = select(floors[floor], camera.getLocationType());
+        if (byFloorLocation[slot] != selected) {
+            SecurityCamera[] slots = byFloorLocation.clone();
+            slots[slot] = selected;
+            byFloorLocation = slots;
+        }
+    }
+
+    private static SecurityCamera select(List<SecurityCamera> floorCameras, CameraLocation location) {
+        SecurityCamera first = null;
+        for (SecurityCamera camera : floorCameras) {
+            if (camera.getLocationType() != location) continue;
+            if (camera.isActive()) return camera;
+            if (first == null) first = camera;
+        }
+        return first;
+    }
+
+    SecurityCamera find(CameraLocation location, int floor) {
+        SecurityCamera[] slots = byFloorLocation;
+        int slot = floor * LOCATIONS + location.ordinal();
+        return floor < 0 || slot >= slots.length ? null : slots[slot];
+    }
+
+    // Değiştirilemez liste - çağıran kopyalamadan gezebilir
+    List<SecurityCamera> onFloor(int floor) {
+        List<SecurityCamera>[] floors = byFloor;
+        if (floor < 0 || floor >= floors.length || floors[floor] == null) {
+            return List.of();
+        }
+        return floors[floor];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
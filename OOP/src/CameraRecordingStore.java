@@ -0,0 +1,469 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// CameraRecordingStore - Bir kameranın kayıtları, başlangıç zamanına göre sıralı
+// Son kayıtlar bellekteki halka tamponda durur; tampon dolunca en eskinin üst verisi diskteki
+// segment dosyasına (sabit boyutlu kayıtlar) taşınır. Yaş ve toplam boyut (MB) sınırını aşan en
+// eski kayıtlar önce diskten, sonra bellekten düşer. Zaman aralığı sorgusu her iki katmanda
+// ikili aramayla başlar; tüm kayıtlar taranmaz. Segment yeniden başlatmada korunur (indeks dosyadan
+// kurulur); baştaki ölü kısmın atılması kopyalama kilit dışında yapılarak eklemeleri bekletmez.
+class CameraRecordingStore {
+    public static final int DEFAULT_RING_CAPACITY = 1_024;
+    public static final long DEFAULT_MAX_AGE_MILLIS = 30L * 24 * 3_600_000L;
+    public static final long DEFAULT_MAX_SIZE_MB = 5_000_000; // ~5 TB video
+
+    // Segment kaydı: start(8) end(8) sizeMB(8) typeLen(1) idLen(1) type(16) id(92)
+    static final int RECORD_BYTES = 134;
+    private static final int TYPE_BYTES = 16;
+    private static final int ID_BYTES = 92;
+
+    private final SecurityCamera camera;
+    private final int ringCapacity;
+    private final long maxAgeMillis;
+    private final long maxSizeMB;
+    private final CameraRecording[] ring;
+    private int ringHead;  // En eski kaydın konumu
+    private int ringSize;
+    private final List<CameraRecording> open = new ArrayList<>(); // Durdurulmamış kayıtlar
+    // Saklanan biten kayıtların süre dağılımı (2'nin kuvveti dilimleri) - uzun kayıt düşünce
+    // sorgu alt sınırı da küçülür
+    private final long[] durationCounts = new long[64];
+    private long totalSizeMB;
+
+    private Path segmentPath;
+    private FileChannel segment;
+    private long diskHead;  // İlk canlı kayıt indeksi (öncesi saklama dışı)
+    private long diskCount; // Dosyadaki kayıt sayısı
+    private CameraRecording diskHeadRecord; // Saklama kontrolü her eklemede diske gitmesin
+    private long spilled;
+    private long expired;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_BYTES);
+    private boolean compactionDue;
+    private boolean compacting;
+    private final List<CameraRecording> stoppedWhileCompacting = new ArrayList<>();
+
+    CameraRecordingStore(SecurityCamera camera) {
+        this(camera, DEFAULT_RING_CAPACITY, DEFAULT_MAX_AGE_MILLIS, DEFAULT_MAX_SIZE_MB);
+    }
+
+    CameraRecordingStore(SecurityCamera camera, int ringCapacity, long maxAgeMillis, long maxSizeMB) {
+        if (ringCapacity <= 0 || maxAgeMillis <= 0 || maxSizeMB <= 0) {
+            throw new IllegalArgumentException("Invalid recording retention");
+        }
+        this.camera = camera;
+        this.ringCapacity = ringCapacity;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxSizeMB = maxSizeMB;
+        this.ring = new CameraRecording[ringCapacity];
+    }
+
+    // Taşma diski: verilmezse tampon dolunca en eski kayıt düşer.
+    // Önceki çalışmanın segmenti silinmez: kayıtlar okunup boyut/süre sayaçları yeniden kurulur,
+    // yeni kayıtlar sona eklenir. Yarım yazılmış son kayıt kesilir.
+    void spillTo(Path directory) throws IOException {
+        synchronized (this) {
+            if (segment != null) return;
+            Files.createDirectories(directory);
+            segmentPath = directory.resolve(camera.getCameraId() + ".seg");
+            segment = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            diskHead = 0;
+            diskCount = segment.size() / RECORD_BYTES;
+            segment.truncate(diskCount * RECORD_BYTES);
+            diskHeadRecord = null;
+            for (long i = 0; i < diskCount; i++) {
+                CameraRecording recording = readRecord(i);
+                totalSizeMB += recording.getFileSizeMB();
+                countDuration(recording, 1);
+            }
+            enforceRetention(camera.getClock().millis());
+        }
+        compactIfDue();
+    }
+
+    void add(CameraRecording recording) {
+        addLocked(recording);
+        compactIfDue();
+    }
+
+    private synchronized void addLocked(CameraRecording recording) {
+        if (ringSize > 0) {
+            CameraRecording newest = ring[(ringHead + ringSize - 1) % ringCapacity];
+            if (recording.getStartMillis() < newest.getStartMillis()) {
+                insertOutOfOrder(recording); // Saat geri alınmış (ör. sanal saat) - nadir yol
+                afterAdd(recording);
+                return;
+            }
+        }
+        if (ringSize == ringCapacity) {
+            evictOldestFromRing();
+        }
+        ring[(ringHead + ringSize) % ringCapacity] = recording;
+        ringSize++;
+        afterAdd(recording);
+    }
+
+    private void afterAdd(CameraRecording recording) {
+        if (recording.getEndMillis() == 0) {
+            open.add(recording);
+        } else {
+            onCompleted(recording);
+        }
+        enforceRetention(camera.getClock().millis());
+    }
+
+    private void insertOutOfOrder(CameraRecording recording) {
+        if (ringSize == ringCapacity) {
+            evictOldestFromRing();
+        }
+        int position = ringSize;
+        while (position > 0 && at(position - 1).getStartMillis() > recording.getStartMillis()) {
+            ring[(ringHead + position) % ringCapacity] = at(position - 1);
+            position--;
+        }
+        ring[(ringHead + position) % ringCapacity] = recording;
+        ringSize++;
+    }
+
+    // CameraRecording.stopRecording bildirir: boyut ve süre artık belli
+    void onStopped(CameraRecording recording) {
+        onStoppedLocked(recording);
+        compactIfDue();
+    }
+
+    private synchronized void onStoppedLocked(CameraRecording recording) {
+        if (open.remove(recording)) {
+            onCompleted(recording);
+            if (recording.spilledIndex >= 0 && recording.spilledIndex >= diskHead) {
+                writeRecord(segment, recording.spilledIndex, recording); // Diskteki kopya bitişi de tutsun
+                if (compacting) {
+                    stoppedWhileCompacting.add(recording); // Kopyaya da yansıtılacak
+                }
+                if (recording.spilledIndex == diskHead) {
+                    diskHeadRecord = null;
+                }
+            }
+            enforceRetention(camera.getClock().millis());
+        }
+    }
+
+    private void onCompleted(CameraRecording recording) {
+        totalSizeMB += recording.getFileSizeMB();
+        countDuration(recording, 1);
+    }
+
+    private void countDuration(CameraRecording recording, int delta) {
+        if (recording.getEndMillis() == 0) return;
+        long duration = Math.max(0, recording.getEndMillis() - recording.getStartMillis());
+        durationCounts[64 - Long.numberOfLeadingZeros(duration)] += delta;
+    }
+
+    // Sorgu alt sınırı: saklanan en uzun biten kaydın süresi (dilim üst sınırı, en fazla 2 katı)
+    private long maxDurationMillis() {
+        for (int bucket = durationCounts.length - 1; bucket > 0; bucket--) {
+            if (durationCounts[bucket] > 0) {
+                return -1L >>> (64 - bucket);
+            }
+        }
+        return 0;
+    }
+
+    private CameraRecording at(int index) {
+        return ring[(ringHead + index) % ringCapacity];
+    }
+
+    private void evictOldestFromRing() {
+        CameraRecording oldest = ring[ringHead];
+        ring[ringHead] = null;
+        ringHead = (ringHead + 1) % ringCapacity;
+        ringSize--;
+        if (segment != null) {
+            oldest.spilledIndex = diskCount;
+            writeRecord(segment, diskCount++, oldest);
+            spilled++;
+        } else {
+            dropped(oldest);
+        }
+    }
+
+    private void dropped(CameraRecording recording) {
+        expired++;
+        if (recording.getEndMillis() != 0) {
+            totalSizeMB -= recording.getFileSizeMB();
+            countDuration(recording, -1);
+        } else {
+            open.remove(recording);
+        }
+    }
+
+    // Yaş ve boyut sınırı: en eski kayıt önce diskte, sonra bellekte
+    private void enforceRetention(long nowMillis) {
+        long cutoff = nowMillis - maxAgeMillis;
+        long head = diskHead;
+        while (diskHead < diskCount) {
+            if (diskHeadRecord == null) {
+                diskHeadRecord = readRecord(diskHead);
+            }
+            CameraRecording oldest = diskHeadRecord;
+            if (oldest.getStartMillis() >= cutoff && totalSizeMB <= maxSizeMB) break;
+            diskHeadRecord = null;
+            diskHead++;
+            expired++;
+            totalSizeMB -= oldest.getFileSizeMB();
+            countDuration(oldest, -1);
+        }
+        if (head != diskHead && !open.isEmpty()) {
+            long firstLive = diskHead;
+            open.removeIf(recording -> recording.spilledIndex >= 0 && recording.spilledIndex < firstLive);
+        }
+        while (ringSize > 0 && (at(0).getStartMillis() < cutoff || totalSizeMB > maxSizeMB)) {
+            CameraRecording oldest = ring[ringHead];
+            ring[ringHead] = null;
+            ringHead = (ringHead + 1) % ringCapacity;
+            ringSize--;
+            dropped(oldest);
+        }
+        if (diskHead > 4_096 && diskHead * 2 > diskCount) {
+            compactionDue = true; // Kilit bırakılınca compactIfDue() yapar
+        }
+    }
+
+    // Zaman aralığıyla kesişen kayıtlar, başlangıç sırasıyla
+    synchronized List<CameraRecording> findOverlapping(long fromMillis, long toMillis) {
+        List<CameraRecording> result = new ArrayList<>();
+        // Aralıktan önce başlayıp içine uzanan kayıtlar: en uzun süre kadar geriden başla
+        long lowerStart = fromMillis - maxDurationMillis();
+        for (long i = firstDiskAtOrAfter(lowerStart); i < diskCount; i++) {
+            CameraRecording recording = readRecord(i);
+            if (recording.getStartMillis() > toMillis) break;
+            if (recording.getEndMillis() != 0 && recording.getEndMillis() >= fromMillis) {
+                result.add(recording);
+            }
+        }
+        for (int i = firstRingAtOrAfter(lowerStart); i < ringSize; i++) {
+            CameraRecording recording = at(i);
+            if (recording.getStartMillis() > toMillis) break;
+            if (recording.getEndMillis() != 0 && recording.getEndMillis() >= fromMillis) {
+                result.add(recording);
+            }
+        }
+        // Süren kayıtlar ayrıca tutulur - ne kadar önce başladıkları bilinmez
+        for (CameraRecording recording : open) {
+            if (recording.getStartMillis() <= toMillis) {
+                result.add(recording);
+            }
+        }
+        return result;
+    }
+
+    private long firstDiskAtOrAfter(long startMillis) {
+        long low = diskHead;
+        long high = diskCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (readStart(mid) < startMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstRingAtOrAfter(long startMillis) {
+        int low = 0;
+        int high = ringSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (at(mid).getStartMillis() < startMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Bellekteki (en yeni) kayıtlar, eskiden yeniye
+    synchronized List<CameraRecording> recent() {
+        List<CameraRecording> result = new ArrayList<>(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            result.add(at(i));
+        }
+        return result;
+    }
+
+    synchronized CameraRecording latest() {
+        return ringSize == 0 ? null : at(ringSize - 1);
+    }
+
+    // Saklanan kayıt sayısı (bellek + disk)
+    synchronized long size() {
+        return ringSize + (diskCount - diskHead);
+    }
+
+    synchronized long getTotalSizeMB() {
+        return totalSizeMB;
+    }
+
+    synchronized long getSpilled() {
+        return spilled;
+    }
+
+    synchronized long getExpired() {
+        return expired;
+    }
+
+    synchronized long getMaxDurationMillis() {
+        return maxDurationMillis();
+    }
+
+    synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+
+    // --- Segment dosyası ---
+
+    private void writeRecord(FileChannel channel, long index, CameraRecording recording) {
+        ByteBuffer buffer = recordBuffer.clear();
+        byte[] type = truncate(recording.getEventType(), TYPE_BYTES);
+        byte[] id = truncate(recording.getRecordingId(), ID_BYTES);
+        buffer.putLong(recording.getStartMillis()).putLong(recording.getEndMillis())
+                .putLong(recording.getFileSizeMB()).put((byte) type.length).put((byte) id.length)
+                .put(Arrays.copyOf(type, TYPE_BYTES)).put(Arrays.copyOf(id, ID_BYTES)).flip();
+        try {
+            long position = index * RECORD_BYTES;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recording segment write failed: " + segmentPath, e);
+        }
+    }
+
+    private CameraRecording readRecord(long index) {
+        ByteBuffer buffer = read(index, RECORD_BYTES);
+        long start = buffer.getLong();
+        long end = buffer.getLong();
+        long sizeMB = buffer.getLong();
+        int typeLength = buffer.get();
+        int idLength = buffer.get();
+        byte[] type = new byte[TYPE_BYTES];
+        byte[] id = new byte[ID_BYTES];
+        buffer.get(type).get(id);
+        CameraRecording recording = new CameraRecording(new String(id, 0, idLength, StandardCharsets.UTF_8), camera,
+                new String(type, 0, typeLength, StandardCharsets.UTF_8), start, end, sizeMB);
+        recording.spilledIndex = index;
+        return recording;
+    }
+
+    private long readStart(long index) {
+        return read(index, Long.BYTES).getLong();
+    }
+
+    private ByteBuffer read(long index, int length) {
+        ByteBuffer buffer = recordBuffer.clear().limit(length);
+        try {
+            long position = index * RECORD_BYTES;
+            while (buffer.hasRemaining()) {
+                int read = segment.read(buffer, position);
+                if (read < 0) throw new IOException("Unexpected end of segment");
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recording segment read failed: " + segmentPath, e);
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] truncate(String text, int maxBytes) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= maxBytes ? bytes : Arrays.copyOf(bytes, maxBytes);
+    }
+
+    // Saklama dışı kalan baş kısmı at: canlı kayıtlar yeni dosyaya kopyalanıp yer değiştirilir.
+    // Kopyalama kilit dışında yapılır (segment konumlu okuma eşzamanlı güvenli); kilit sadece
+    // bu sırada eklenen kuyruğu, yerinde güncellenen kayıtları yazıp dosyayı değiştirirken tutulur.
+    private void compactIfDue() {
+        FileChannel source;
+        long from;
+        long to;
+        synchronized (this) {
+            if (!compactionDue || compacting || segment == null) return;
+            compactionDue = false;
+            compacting = true;
+            source = segment;
+            from = diskHead;
+            to = diskCount;
+        }
+        Path compacted = segmentPath.resolveSibling(segmentPath.getFileName() + ".tmp");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            copy(source, from, to, target);
+            target.force(false);
+            synchronized (this) {
+                if (segment != source) return; // Bu arada kapatıldı
+                copy(segment, to, diskCount, target);
+                for (CameraRecording recording : stoppedWhileCompacting) {
+                    if (recording.spilledIndex >= from && recording.spilledIndex < to) {
+                        writeRecord(target, recording.spilledIndex - from, recording);
+                    }
+                }
+                target.force(false);
+                swapSegment(compacted, from);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (segment != source) return; // Kopyalama sırasında kapatıldı
+            }
+            throw new UncheckedIOException("Recording segment compaction failed: " + segmentPath, e);
+        } finally {
+            synchronized (this) {
+                compacting = false;
+                stoppedWhileCompacting.clear();
+            }
+        }
+    }
+
+    // Kaynaktan konumlu okur (eşzamanlı okuma/yazmayla çakışmaz), hedefin sonuna ekler
+    private static void copy(FileChannel source, long fromIndex, long toIndex, FileChannel target) throws IOException {
+        long from = fromIndex * RECORD_BYTES;
+        long bytes = (toIndex - fromIndex) * RECORD_BYTES;
+        long copied = 0;
+        while (copied < bytes) {
+            copied += source.transferTo(from + copied, bytes - copied, target);
+        }
+    }
+
+    private void swapSegment(Path compacted, long shift) {
+        try {
+            segment.close();
+            Files.move(compacted, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segment = FileChannel.open(segmentPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recording segment swap failed: " + segmentPath, e);
+        }
+        // Diskteki açık kayıtların indeksleri kayar (bellekteki kayıtlar diske yazılmadı)
+        for (CameraRecording recording : open) {
+            if (recording.spilledIndex >= 0) {
+                recording.spilledIndex = recording.spilledIndex >= shift ? recording.spilledIndex - shift : -1;
+            }
+        }
+        diskCount -= shift;
+        diskHead -= shift;
+        diskHeadRecord = null;
+    }
+}
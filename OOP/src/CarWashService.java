@@ -6,20 +6,20 @@ import java.util.*;
 abstract class WashPackage {
     private String packageId;
     private String packageName;
-    private double basePrice;
+    private long basePriceKurus;
     private int estimatedDuration; // dakika cinsinden
 
     public WashPackage(String packageId, String packageName,
-                       double basePrice, int estimatedDuration) {
+                       long basePriceKurus, int estimatedDuration) {
         this.packageId = packageId;
         this.packageName = packageName;
-        this.basePrice = basePrice;
+        this.basePriceKurus = basePriceKurus;
         this.estimatedDuration = estimatedDuration;
     }
 
     // Abstract methods
     public abstract List<String> getServices();
-    public abstract double calculatePrice(Vehicle vehicle);
+    public abstract long calculatePriceKurus(Vehicle vehicle); // kuruş
 
     // Getters
     public String getPackageId() {
@@ -30,8 +30,8 @@ abstract class WashPackage {
         return packageName;
     }
 
-    public double getBasePrice() {
-        return basePrice;
+    public long getBasePriceKurus() {
+        return basePriceKurus;
     }
 
     public int getEstimatedDuration() {
@@ -40,7 +40,7 @@ abstract class WashPackage {
 
     @Override
     public String toString() {
-        return packageName + " - " + basePrice + " TL (" +
+        return packageName + " - " + Money.format(basePriceKurus) + " TL (" +
                 estimatedDuration + " min)";
     }
 }
@@ -49,7 +49,7 @@ abstract class WashPackage {
 class BasicWashPackage extends WashPackage {
 
     public BasicWashPackage() {
-        super("PKG_BASIC", "Dış Yıkama", 50.0, 15);
+        super("PKG_BASIC", "Dış Yıkama", Money.ofLira(50), 15);
     }
 
     @Override
@@ -62,15 +62,15 @@ class BasicWashPackage extends WashPackage {
     }
 
     @Override
-    public double calculatePrice(Vehicle vehicle) {
-        double price = getBasePrice();
+    public long calculatePriceKurus(Vehicle vehicle) {
+        long price = getBasePriceKurus();
         // Araç tipine göre fiyat artışı
         if (vehicle instanceof Truck) {
-            price *= 2.0;
+            price = Money.multiplyByRate(price, 2.0);
         } else if (vehicle instanceof Van) {
-            price *= 1.5;
+            price = Money.multiplyByRate(price, 1.5);
         } else if (vehicle instanceof Motorcycle) {
-            price *= 0.5;
+            price = Money.multiplyByRate(price, 0.5);
         }
         return price;
     }
@@ -80,7 +80,7 @@ class BasicWashPackage extends WashPackage {
 class InteriorWashPackage extends WashPackage {
 
     public InteriorWashPackage() {
-        super("PKG_INTERIOR", "İç Temizlik", 80.0, 30);
+        super("PKG_INTERIOR", "İç Temizlik", Money.ofLira(80), 30);
     }
 
     @Override
@@ -95,12 +95,12 @@ class InteriorWashPackage extends WashPackage {
     }
 
     @Override
-    public double calculatePrice(Vehicle vehicle) {
-        double price = getBasePrice();
+    public long calculatePriceKurus(Vehicle vehicle) {
+        long price = getBasePriceKurus();
         if (vehicle instanceof Truck || vehicle instanceof Van) {
-            price *= 1.8;
+            price = Money.multiplyByRate(price, 1.8);
         } else if (vehicle instanceof Motorcycle) {
-            price *= 0.6;
+            price = Money.multiplyByRate(price, 0.6);
         }
         return price;
     }
@@ -110,7 +110,7 @@ class InteriorWashPackage extends WashPackage {
 class FullWashPackage extends WashPackage {
 
     public FullWashPackage() {
-        super("PKG_FULL", "Full Paket", 150.0, 60);
+        super("PKG_FULL", "Full Paket", Money.ofLira(150), 60);
     }
 
     @Override
@@ -125,14 +125,14 @@ class FullWashPackage extends WashPackage {
     }
 
     @Override
-    public double calculatePrice(Vehicle vehicle) {
-        double price = getBasePrice();
+    public long calculatePriceKurus(Vehicle vehicle) {
+        long price = getBasePriceKurus();
         if (vehicle instanceof Truck) {
-            price *= 2.5;
+            price = Money.multiplyByRate(price, 2.5);
         } else if (vehicle instanceof Van) {
-            price *= 1.8;
+            price = Money.multiplyByRate(price, 1.8);
         } else if (vehicle instanceof Motorcycle) {
-            price *= 0.7;
+            price = Money.multiplyByRate(price, 0.7);
         }
         return price;
     }
@@ -142,7 +142,7 @@ class FullWashPackage extends WashPackage {
 class PremiumWashPackage extends WashPackage {
 
     public PremiumWashPackage() {
-        super("PKG_PREMIUM", "Premium Detaylı Temizlik", 300.0, 120);
+        super("PKG_PREMIUM", "Premium Detaylı Temizlik", Money.ofLira(300), 120);
     }
 
     @Override
@@ -158,14 +158,14 @@ class PremiumWashPackage extends WashPackage {
     }
 
     @Override
-    public double calculatePrice(Vehicle vehicle) {
-        double price = getBasePrice();
+    public long calculatePriceKurus(Vehicle vehicle) {
+        long price = getBasePriceKurus();
         if (vehicle instanceof Truck) {
-            price *= 3.0;
+            price = Money.multiplyByRate(price, 3.0);
         } else if (vehicle instanceof Van) {
-            price *= 2.0;
+            price = Money.multiplyByRate(price, 2.0);
         } else if (vehicle instanceof Motorcycle) {
-            price *= 0.8;
+            price = Money.multiplyByRate(price, 0.8);
         }
         return price;
     }
@@ -176,31 +176,31 @@ class WashOrder {
     private String orderId;
     private Ticket ticket;
     private WashPackage washPackage;
-    private LocalDateTime orderTime;
-    private LocalDateTime startTime;
-    private LocalDateTime completionTime;
+    private long orderMillis; // Zamanlar biletin saatinden, epoch-millis
+    private long startMillis;
+    private long completionMillis;
     private String status; // PENDING, IN_PROGRESS, COMPLETED, CANCELLED
     private WashWorker assignedWorker;
-    private double finalPrice;
+    private long finalPriceKurus;
 
     public WashOrder(String orderId, Ticket ticket, WashPackage washPackage) {
         this.orderId = orderId;
         this.ticket = ticket;
         this.washPackage = washPackage;
-        this.orderTime = LocalDateTime.now();
+        this.orderMillis = ticket.getClock().millis();
         this.status = "PENDING";
-        this.finalPrice = washPackage.calculatePrice(ticket.getVehicle());
+        this.finalPriceKurus = washPackage.calculatePriceKurus(ticket.getVehicle());
     }
 
     public void startWash(WashWorker worker) {
         this.assignedWorker = worker;
-        this.startTime = LocalDateTime.now();
+        this.startMillis = ticket.getClock().millis();
         this.status = "IN_PROGRESS";
         System.out.println("🚿 Wash started by: " + worker.getName());
     }
 
     public void completeWash() {
-        this.completionTime = LocalDateTime.now();
+        this.completionMillis = ticket.getClock().millis();
         this.status = "COMPLETED";
         if (assignedWorker != null) {
             assignedWorker.incrementCompletedJobs();
@@ -230,12 +230,24 @@ class WashOrder {
         return status;
     }
 
-    public double getFinalPrice() {
-        return finalPrice;
+    public long getFinalPriceKurus() {
+        return finalPriceKurus;
     }
 
     public LocalDateTime getOrderTime() {
-        return orderTime;
+        return ticket.getClock().toLocalDateTime(orderMillis);
+    }
+
+    public long getOrderMillis() {
+        return orderMillis;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getCompletionMillis() {
+        return completionMillis;
     }
 
     public WashWorker getAssignedWorker() {
@@ -245,7 +257,7 @@ class WashOrder {
     @Override
     public String toString() {
         return "Order " + orderId + " - " + washPackage.getPackageName() +
-                " [" + status + "] - " + finalPrice + " TL";
+                " [" + status + "] - " + Money.format(finalPriceKurus) + " TL";
     }
 }
 
@@ -289,14 +301,16 @@ public class CarWashService {
     private Queue<WashOrder> pendingOrders;
     private List<WashOrder> completedOrders;
     private List<WashWorker> washWorkers;
-    private double totalRevenue;
+    private final MoneyAccumulator totalRevenue; // kuruş
+    private final IdGenerator idGenerator;
 
     public CarWashService() {
+        this.idGenerator = IdGenerator.getDefault();
         this.availablePackages = new ArrayList<>();
         this.pendingOrders = new LinkedList<>();
         this.completedOrders = new ArrayList<>();
         this.washWorkers = new ArrayList<>();
-        this.totalRevenue = 0.0;
+        this.totalRevenue = new MoneyAccumulator();
 
         initializePackages();
     }
@@ -331,7 +345,7 @@ public class CarWashService {
         }
 
         WashPackage selectedPackage = availablePackages.get(packageIndex);
-        String orderId = "WASH" + System.currentTimeMillis();
+        String orderId = idGenerator.nextId("WASH");
 
         WashOrder order = new WashOrder(orderId, ticket, selectedPackage);
         pendingOrders.add(order);
@@ -339,7 +353,7 @@ public class CarWashService {
         System.out.println("\n✓ Wash order created!");
         System.out.println("Order ID: " + order.getOrderId());
         System.out.println("Package: " + selectedPackage.getPackageName());
-        System.out.println("Price: " + order.getFinalPrice() + " TL");
+        System.out.println("Price: " + Money.format(order.getFinalPriceKurus()) + " TL");
         System.out.println("Estimated time: " + selectedPackage.getEstimatedDuration() + " minutes");
         System.out.println("Queue position: " + pendingOrders.size());
 
@@ -366,7 +380,7 @@ public class CarWashService {
         // Simülasyon: işi tamamla
         order.completeWash();
         completedOrders.add(order);
-        totalRevenue += order.getFinalPrice();
+        totalRevenue.add(order.getFinalPriceKurus());
         availableWorker.setAvailable(true);
     }
 
@@ -401,7 +415,7 @@ public class CarWashService {
         System.out.println("Total Orders: " + (completedOrders.size() + pendingOrders.size()));
         System.out.println("Completed: " + completedOrders.size());
         System.out.println("Pending: " + pendingOrders.size());
-        System.out.println("Total Revenue: " + totalRevenue + " TL");
+        System.out.println("Total Revenue: " + totalRevenue);
 
         if (!washWorkers.isEmpty()) {
             System.out.println("\nWorker Performance:");
@@ -433,8 +447,12 @@ public class CarWashService {
         return availablePackages;
     }
 
+    public long getTotalRevenueKurus() {
+        return totalRevenue.sum();
+    }
+
     public double getTotalRevenue() {
-        return totalRevenue;
+        return Money.toLira(totalRevenue.sum());
     }
 
     public int getPendingOrderCount() {
@@ -1,5 +1,4 @@
 import java.time.LocalDateTime;
-import java.time.Duration;
 import java.util.*;
 
 // ChargingStation - Şarj istasyonu
@@ -9,17 +8,24 @@ class ChargingStation {
     private int maxPowerKW; // Maximum charging power
     private String chargerType; // "Type2", "CCS", "CHAdeMO"
     private boolean isOperational;
-    private double pricePerKWh;
+    private long pricePerKWhKurus;
     private ChargingSession currentSession;
+    private final ParkingClock clock;
 
     public ChargingStation(String stationId, ElectricChargingSpot spot,
-                           int maxPowerKW, String chargerType, double pricePerKWh) {
+                           int maxPowerKW, String chargerType, long pricePerKWhKurus) {
+        this(stationId, spot, maxPowerKW, chargerType, pricePerKWhKurus, ParkingClock.getDefault());
+    }
+
+    public ChargingStation(String stationId, ElectricChargingSpot spot, int maxPowerKW,
+                           String chargerType, long pricePerKWhKurus, ParkingClock clock) {
+        this.clock = clock;
         this.stationId = stationId;
         this.spot = spot;
         this.maxPowerKW = maxPowerKW;
         this.chargerType = chargerType;
         this.isOperational = true;
-        this.pricePerKWh = pricePerKWh;
+        this.pricePerKWhKurus = pricePerKWhKurus;
         this.currentSession = null;
     }
 
@@ -33,7 +39,7 @@ class ChargingStation {
             return null;
         }
 
-        String sessionId = stationId + "_SES_" + System.currentTimeMillis();
+        String sessionId = IdGenerator.getDefault().nextId(stationId + "_SES_");
         currentSession = new ChargingSession(
                 sessionId, this, vehicle, targetPercentage
         );
@@ -70,8 +76,8 @@ class ChargingStation {
         this.isOperational = operational;
     }
 
-    public double getPricePerKWh() {
-        return pricePerKWh;
+    public long getPricePerKWhKurus() {
+        return pricePerKWhKurus;
     }
 
     public ChargingSession getCurrentSession() {
@@ -82,6 +88,10 @@ class ChargingStation {
         return spot;
     }
 
+    public ParkingClock getClock() {
+        return clock;
+    }
+
     @Override
     public String toString() {
         return "Station " + stationId + " [" + chargerType + ", " + maxPowerKW + "kW] - " +
@@ -97,10 +107,10 @@ class ChargingSession {
     private int initialBatteryPercentage;
     private int targetBatteryPercentage;
     private int currentBatteryPercentage;
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
+    private long startMillis; // İstasyonun saatinden, epoch-millis
+    private long endMillis;
     private double energyConsumedKWh;
-    private double totalCost;
+    private long totalCostKurus;
     private String status; // "CHARGING", "COMPLETED", "INTERRUPTED"
     private int estimatedTimeMinutes;
 
@@ -113,12 +123,12 @@ class ChargingSession {
         this.targetBatteryPercentage = targetPercentage;
         this.currentBatteryPercentage = initialBatteryPercentage;
         this.energyConsumedKWh = 0;
-        this.totalCost = 0;
+        this.totalCostKurus = 0;
         this.status = "PENDING";
     }
 
     public void start() {
-        this.startTime = LocalDateTime.now();
+        this.startMillis = station.getClock().millis();
         this.status = "CHARGING";
 
         // Tahmini süre hesapla
@@ -137,11 +147,11 @@ class ChargingSession {
     }
 
     public void stop() {
-        this.endTime = LocalDateTime.now();
+        this.endMillis = station.getClock().millis();
         this.status = "COMPLETED";
 
         // Gerçek süreyi hesapla
-        long actualMinutes = Duration.between(startTime, endTime).toMinutes();
+        long actualMinutes = (endMillis - startMillis) / 60_000;
         if (actualMinutes == 0) actualMinutes = estimatedTimeMinutes; // Simülasyon için
 
         // Enerji tüketimini hesapla
@@ -149,7 +159,7 @@ class ChargingSession {
         this.energyConsumedKWh = (vehicle.getBatteryCapacity() * chargedPercentage) / 100.0;
 
         // Maliyet hesapla
-        this.totalCost = energyConsumedKWh * station.getPricePerKWh();
+        this.totalCostKurus = Money.multiplyByRate(station.getPricePerKWhKurus(), energyConsumedKWh);
 
         // Aracın batarya seviyesini güncelle
         this.currentBatteryPercentage = targetBatteryPercentage;
@@ -158,12 +168,12 @@ class ChargingSession {
         System.out.println("\n✓ CHARGING COMPLETED");
         System.out.println("Duration: " + actualMinutes + " minutes");
         System.out.println("Energy Consumed: " + String.format("%.2f", energyConsumedKWh) + " kWh");
-        System.out.println("Total Cost: " + String.format("%.2f", totalCost) + " TL");
+        System.out.println("Total Cost: " + Money.format(totalCostKurus) + " TL");
         System.out.println("Battery Level: " + currentBatteryPercentage + "%");
     }
 
     public void interrupt(String reason) {
-        this.endTime = LocalDateTime.now();
+        this.endMillis = station.getClock().millis();
         this.status = "INTERRUPTED";
         System.out.println("\n⚠️ Charging interrupted: " + reason);
     }
@@ -189,12 +199,24 @@ class ChargingSession {
         return energyConsumedKWh;
     }
 
+    public long getTotalCostKurus() {
+        return totalCostKurus;
+    }
+
     public double getTotalCost() {
-        return totalCost;
+        return Money.toLira(totalCostKurus);
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        return station.getClock().toLocalDateTime(startMillis);
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
     }
 
     public int getEstimatedTimeMinutes() {
@@ -208,7 +230,7 @@ class ChargingReservation {
     private Customer customer;
     private ElectricVehicle vehicle;
     private ChargingStation station;
-    private LocalDateTime reservationTime;
+    private long reservationMillis;
     private LocalDateTime scheduledTime;
     private int durationMinutes;
     private String status; // "PENDING", "CONFIRMED", "ACTIVE", "COMPLETED", "CANCELLED"
@@ -220,7 +242,7 @@ class ChargingReservation {
         this.customer = customer;
         this.vehicle = vehicle;
         this.station = station;
-        this.reservationTime = LocalDateTime.now();
+        this.reservationMillis = station.getClock().millis();
         this.scheduledTime = scheduledTime;
         this.durationMinutes = durationMinutes;
         this.status = "PENDING";
@@ -272,14 +294,22 @@ public class ChargingStationManager {
     private List<ChargingSession> sessionHistory;
     private List<ChargingReservation> reservations;
     private double totalEnergyDelivered;
-    private double totalRevenue;
+    private final MoneyAccumulator totalRevenue; // kuruş
+    private final IdGenerator idGenerator;
+    private final ParkingClock clock;
 
     public ChargingStationManager() {
+        this(ParkingClock.getDefault());
+    }
+
+    public ChargingStationManager(ParkingClock clock) {
+        this.clock = clock;
+        this.idGenerator = IdGenerator.getDefault();
         this.chargingStations = new ArrayList<>();
         this.sessionHistory = new ArrayList<>();
         this.reservations = new ArrayList<>();
         this.totalEnergyDelivered = 0;
-        this.totalRevenue = 0;
+        this.totalRevenue = new MoneyAccumulator();
     }
 
     // Şarj istasyonlarını başlat
@@ -293,24 +323,24 @@ public class ChargingStationManager {
             // Farklı tip şarj istasyonları
             String chargerType;
             int power;
-            double price;
+            long price; // kuruş / kWh
 
             if (stationCounter % 3 == 0) {
                 chargerType = "CCS"; // Fast charger
                 power = 150;
-                price = 8.0; // TL per kWh
+                price = Money.ofLira(8); // TL per kWh
             } else if (stationCounter % 3 == 1) {
                 chargerType = "Type2"; // Standard
                 power = 50;
-                price = 6.0;
+                price = Money.ofLira(6);
             } else {
                 chargerType = "CHAdeMO"; // Fast
                 power = 100;
-                price = 7.0;
+                price = Money.ofLira(7);
             }
 
             ChargingStation station = new ChargingStation(
-                    stationId, spot, power, chargerType, price
+                    stationId, spot, power, chargerType, price, clock
             );
 
             chargingStations.add(station);
@@ -342,7 +372,7 @@ public class ChargingStationManager {
     }
 
     // Şarj başlat
-    public ChargingSession startCharging(ElectricVehicle vehicle, int targetPercentage) {
+    public synchronized ChargingSession startCharging(ElectricVehicle vehicle, int targetPercentage) {
         ChargingStation station = findAvailableStation(null);
 
         if (station == null) {
@@ -358,7 +388,7 @@ public class ChargingStationManager {
             sessionHistory.add(session);
 
             totalEnergyDelivered += session.getEnergyConsumedKWh();
-            totalRevenue += session.getTotalCost();
+            totalRevenue.add(session.getTotalCostKurus());
         }
 
         return session;
@@ -377,7 +407,7 @@ public class ChargingStationManager {
             return null;
         }
 
-        String reservationId = "RES" + System.currentTimeMillis();
+        String reservationId = idGenerator.nextId("RES");
         ChargingReservation reservation = new ChargingReservation(
                 reservationId, customer, vehicle, station, scheduledTime, durationMinutes
         );
@@ -427,16 +457,15 @@ public class ChargingStationManager {
         System.out.println("Total Sessions: " + sessionHistory.size());
         System.out.println("Total Energy Delivered: " +
                 String.format("%.2f", totalEnergyDelivered) + " kWh");
-        System.out.println("Total Revenue: " +
-                String.format("%.2f", totalRevenue) + " TL");
+        System.out.println("Total Revenue: " + totalRevenue);
 
         if (!sessionHistory.isEmpty()) {
             double avgEnergy = totalEnergyDelivered / sessionHistory.size();
-            double avgRevenue = totalRevenue / sessionHistory.size();
+            long avgRevenue = Money.multiplyByRatio(totalRevenue.sum(), 1, sessionHistory.size());
 
             System.out.println("\nAverage per Session:");
             System.out.println("- Energy: " + String.format("%.2f", avgEnergy) + " kWh");
-            System.out.println("- Revenue: " + String.format("%.2f", avgRevenue) + " TL");
+            System.out.println("- Revenue: " + Money.format(avgRevenue) + " TL");
         }
 
         System.out.println("\nReservations:");
@@ -469,7 +498,11 @@ public class ChargingStationManager {
         return sessionHistory;
     }
 
+    public long getTotalRevenueKurus() {
+        return totalRevenue.sum();
+    }
+
     public double getTotalRevenue() {
-        return totalRevenue;
+        return Money.toLira(totalRevenue.sum());
     }
 }
\ No newline at end of file
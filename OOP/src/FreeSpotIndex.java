@@ -0,0 +1,130 @@
+// Kat bazlı boş yer indeksi - her park yeri tipi için bir long[] bitset
+// Bit = 1 -> yer boş, bit = 0 -> yer dolu. Bit numarası, yerin kattaki sırasıdır (slot).
+// Tüm metotlar indeks nesnesi üzerinde senkronize: her kat ayrı bir kilit şerididir.
+public class FreeSpotIndex {
+    private final ParkingSpot[] spotsBySlot;
+    private final long[][] freeBits;           // [kategori][kelime]
+    private final int[] freeCounts;            // kategori başına boş yer sayısı
+    private final int[] capacities;            // kategori başına toplam yer sayısı
+    private final int[] firstWordHint;         // aramaya başlanacak en küçük kelime
+    private final ParkingSpot[] representatives; // canFitVehicle kontrolü için örnek yer
+
+    public FreeSpotIndex(java.util.List<ParkingSpot> spots) {
+        int categoryCount = SpotCategory.values().length;
+        int words = (spots.size() + 63) >>> 6;
+
+        this.spotsBySlot = new ParkingSpot[spots.size()];
+        this.freeBits = new long[categoryCount][words];
+        this.freeCounts = new int[categoryCount];
+        this.capacities = new int[categoryCount];
+        this.firstWordHint = new int[categoryCount];
+        this.representatives = new ParkingSpot[categoryCount];
+
+        for (int slot = 0; slot < spots.size(); slot++) {
+            ParkingSpot spot = spots.get(slot);
+            int category = spot.getSpotCategory().ordinal();
+
+            spotsBySlot[slot] = spot;
+            capacities[category]++;
+            if (representatives[category] == null) {
+                representatives[category] = spot;
+            }
+
+            spot.attachIndex(this, slot);
+            if (!spot.isOccupied()) {
+                setBit(category, slot);
+            }
+        }
+    }
+
+    // Araca uyan ilk boş yeri bul - kategori sırası eski doğrusal taramayla aynı
+    public synchronized ParkingSpot findAvailableSpot(Vehicle vehicle) {
+        for (int category = 0; category < freeCounts.length; category++) {
+            if (freeCounts[category] == 0) continue;
+            if (!representatives[category].canFitVehicle(vehicle)) continue;
+
+            int slot = nextSetBit(category);
+            if (slot >= 0) {
+                return spotsBySlot[slot];
+            }
+        }
+        return null;
+    }
+
+    // Uygun boş yeri bul ve aynı kilit altında araca ayır
+    public synchronized ParkingSpot claimAvailableSpot(Vehicle vehicle) {
+        for (int category = 0; category < freeCounts.length; category++) {
+            if (freeCounts[category] == 0) continue;
+            if (!representatives[category].canFitVehicle(vehicle)) continue;
+
+            int slot = nextSetBit(category);
+            while (slot >= 0) {
+                ParkingSpot spot = spotsBySlot[slot];
+                // Bit güncel değilse (yer indeks dışından alındıysa) düzeltip devam et
+                boolean claimed = spot.tryClaim(vehicle);
+                markOccupied(spot.getSpotCategory(), slot);
+                if (claimed) {
+                    return spot;
+                }
+                slot = nextSetBit(category);
+            }
+        }
+        return null;
+    }
+
+    // ParkingSpot.parkVehicle tarafından çağrılır
+    synchronized void markOccupied(SpotCategory category, int slot) {
+        int c = category.ordinal();
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        if ((freeBits[c][word] & mask) != 0) {
+            freeBits[c][word] &= ~mask;
+            freeCounts[c]--;
+        }
+    }
+
+    // ParkingSpot.removeVehicle tarafından çağrılır
+    synchronized void markFree(SpotCategory category, int slot) {
+        setBit(category.ordinal(), slot);
+    }
+
+    public synchronized int getFreeCount(SpotCategory category) {
+        return freeCounts[category.ordinal()];
+    }
+
+    public int getCapacity(SpotCategory category) {
+        return capacities[category.ordinal()];
+    }
+
+    public synchronized int getTotalFreeCount() {
+        int total = 0;
+        for (int count : freeCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private void setBit(int category, int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        if ((freeBits[category][word] & mask) == 0) {
+            freeBits[category][word] |= mask;
+            freeCounts[category]++;
+            if (word < firstWordHint[category]) {
+                firstWordHint[category] = word;
+            }
+        }
+    }
+
+    private int nextSetBit(int category) {
+        long[] bits = freeBits[category];
+        for (int word = firstWordHint[category]; word < bits.length; word++) {
+            if (bits[word] != 0) {
+                firstWordHint[category] = word;
+                return (word << 6) + Long.numberOfTrailingZeros(bits[word]);
+            }
+        }
+        firstWordHint[category] = bits.length;
+        return -1;
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Merkezi ID üreteci (Snowflake benzeri) - aynı milisaniyedeki olaylar çakışmaz
+// 64 bit yerleşim: [41 bit zaman (ms, 2024 başından)] [10 bit düğüm] [12 bit sıra]
+// Kilitsiz: tek bir AtomicLong üzerinde CAS. Sıra taşarsa saat bir sonraki ms'ye geçene kadar
+// beklenir (zaman saatin önüne geçmez), saat geri giderse son zaman kullanılmaya devam edilir.
+// Yeniden başlatmada kurtarmada görülen en büyük ID advancePast() ile verilir, o ID tekrar üretilmez.
+public class IdGenerator {
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final IdGenerator DEFAULT =
+            new IdGenerator(Integer.getInteger("parking.nodeId", 0));
+
+    private final long nodeBits;
+    private final LongSupplier clock; // epoch ms
+    private final AtomicLong state; // (zaman << SEQUENCE_BITS) | sıra
+
+    public IdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    IdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        this.state = new AtomicLong(0);
+    }
+
+    // Uygulama genelinde paylaşılan üreteç (düğüm: -Dparking.nodeId)
+    public static IdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    // Sayısal ID - String oluşturmaz
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long previous = state.get();
+            long previousTime = previous >>> SEQUENCE_BITS;
+
+            long next;
+            if (now > previousTime) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = previous + 1;
+            } else {
+                Thread.onSpinWait(); // Bu ms'nin sırası doldu - saatin ilerlemesini bekle
+                continue;
+            }
+
+            if (state.compareAndSet(previous, next)) {
+                long time = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (time << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+            }
+        }
+    }
+
+    // Daha önce üretilmiş bir ID'yi bildir (ör. günlükteki en büyük ID): sonraki ID'ler ondan büyük olur.
+    // Önceki çalışmada saat geri gitmiş ve zaman ileride kalmışsa yeniden başlatmada çakışmayı önler.
+    public void advancePast(long id) {
+        if (id <= 0) return;
+        long seen = ((id >>> (NODE_BITS + SEQUENCE_BITS)) << SEQUENCE_BITS) | (id & SEQUENCE_MASK);
+        state.accumulateAndGet(seen, Math::max);
+    }
+
+    // Önekli ID - String hemen oluşturulur (soğuk yollar için). Sıcak yolda nextId() saklanır,
+    // metin okunduğunda format() ile üretilir (bkz. Transaction, Notification)
+    public String nextId(String prefix) {
+        return format(prefix, nextId());
+    }
+
+    public static String format(String prefix, long id) {
+        return prefix + id;
+    }
+
+    // Önekli ID'den sayısal kısmı geri çıkar ("T123" -> 123), sayı yoksa -1
+    public static long parse(String formattedId) {
+        int start = formattedId.length();
+        while (start > 0 && Character.isDigit(formattedId.charAt(start - 1))) {
+            start--;
+        }
+        if (start == formattedId.length()) {
+            return -1;
+        }
+        return Long.parseLong(formattedId.substring(start));
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,316 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// JournalRecovery - Günlükten yeniden kurulan otopark durumu
+// Aktif biletler (ENTRY kaydının kopyası), müşteri ziyaret sayıları ve ödeme toplamı tutulur.
+// Durum bir snapshot'tan başlatılıp sadece sonraki kuyruk kayıtları üzerinden ilerletilir.
+// Ziyaret sayıları en fazla maxVisitCustomers müşteri için tutulur: sınır aşılınca en uzun süredir
+// gelmeyen müşterinin sayısı düşer (o müşteri kurtarmada 0 ziyaretle başlar).
+public class JournalRecovery {
+    public static final int DEFAULT_MAX_VISIT_CUSTOMERS = 250_000;
+
+    private final Map<Long, byte[]> activeEntries;  // bilet no -> ENTRY kaydının kopyası
+    private final Map<String, Integer> visitCounts; // müşteri ID -> ziyaret sayısı (son ziyaret sırasıyla)
+    private long revenueKurus;
+    private long position;        // bir sonraki okunacak kaydın konumu
+    private long replayedRecords; // son replay'de okunan kayıt sayısı
+    private boolean fromSnapshot;
+
+    JournalRecovery() {
+        this(DEFAULT_MAX_VISIT_CUSTOMERS);
+    }
+
+    JournalRecovery(int maxVisitCustomers) {
+        this.activeEntries = new HashMap<>();
+        // Ekleme sırası = son ziyaret sırası (bkz. apply); okumalar sırayı değiştirmez
+        this.visitCounts = new LinkedHashMap<String, Integer>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxVisitCustomers;
+            }
+        };
+    }
+
+    // Son snapshot'ı yükle ve günlüğün geri kalanını oynat
+    public static JournalRecovery recover(TransactionJournal journal) {
+        return recover(journal, DEFAULT_MAX_VISIT_CUSTOMERS);
+    }
+
+    static JournalRecovery recover(TransactionJournal journal, int maxVisitCustomers) {
+        JournalRecovery state = JournalSnapshot.loadLatest(journal.getDirectory(), maxVisitCustomers);
+        if (state == null) {
+            state = new JournalRecovery(maxVisitCustomers);
+        }
+        state.replay(journal, Long.MAX_VALUE);
+        return state;
+    }
+
+    // Günlüğü mevcut konumdan verilen konuma kadar oynat
+    void replay(TransactionJournal journal, long endPosition) {
+        replayedRecords = 0;
+        try (JournalCursor cursor = journal.openCursor(position)) {
+            while (cursor.getPosition() < endPosition && cursor.next()) {
+                apply(cursor);
+                replayedRecords++;
+                position = cursor.getPosition();
+            }
+        }
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record.getType()) {
+            case TransactionJournal.TYPE_ENTRY:
+                activeEntries.put(record.getTicketId(), record.copyRecord());
+                String customerId = record.getCustomerId();
+                Integer visits = visitCounts.remove(customerId); // Yeniden eklenince sona geçer
+                visitCounts.put(customerId, visits == null ? 1 : visits + 1);
+                break;
+            case TransactionJournal.TYPE_EXIT:
+                // Günlük açılmadan önce girmiş araçların EXIT kaydı eşleşmez, yok sayılır
+                activeEntries.remove(record.getTicketId());
+                break;
+            case TransactionJournal.TYPE_PAYMENT:
+                revenueKurus += record.getAmountKurus();
+                break;
+            default:
+                // Bilinmeyen kayıt tipi - ileri uyumluluk için atlanır
+        }
+    }
+
+    // Aktif ENTRY kayıtlarını sırayla gezen görünüm (nesne oluşturmaz)
+    public void forEachActiveEntry(Consumer<JournalRecord> action) {
+        JournalRecord view = new JournalRecord();
+        for (byte[] entry : activeEntries.values()) {
+            view.moveTo(ByteBuffer.wrap(entry).order(ByteOrder.LITTLE_ENDIAN), 0);
+            action.accept(view);
+        }
+    }
+
+    public int getActiveTicketCount() {
+        return activeEntries.size();
+    }
+
+    public Map<String, Integer> getVisitCounts() {
+        return visitCounts;
+    }
+
+    public long getRevenueKurus() {
+        return revenueKurus;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+
+    Map<Long, byte[]> getActiveEntries() {
+        return activeEntries;
+    }
+
+    void restore(long position, long revenueKurus) {
+        this.position = position;
+        this.revenueKurus = revenueKurus;
+        this.fromSnapshot = true;
+    }
+}
+
+// JournalSnapshot - Kurtarma durumunun diske yazılmış hali
+// Dosya adı günlük konumunu içerir (snapshot-<konum>.snap), en yenisi en büyük addır.
+// Önce geçici dosyaya yazılır, sonra atomik olarak taşınır: yarım snapshot okunmaz.
+class JournalSnapshot {
+    private static final int MAGIC = 0x50534E50; // "PNSP"
+    private static final int VERSION = 2; // 2: kayıtlar değişken uzunlukta, uzunluk önekli
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    // Durumu yaz ve eski snapshot'ları sil
+    static Path write(Path directory, JournalRecovery state) {
+        Map<Long, byte[]> entries = state.getActiveEntries();
+        List<byte[]> customerIds = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        int size = 4 + 4 + 8 + 8 + 4 + 4;
+        for (byte[] entry : entries.values()) {
+            size += 4 + entry.length;
+        }
+        for (Map.Entry<String, Integer> visit : state.getVisitCounts().entrySet()) {
+            byte[] bytes = visit.getKey().getBytes(StandardCharsets.UTF_8);
+            customerIds.add(bytes);
+            counts.add(visit.getValue());
+            size += 2 + bytes.length + 4;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(state.getPosition());
+        buffer.putLong(state.getRevenueKurus());
+        buffer.putInt(entries.size());
+        for (byte[] entry : entries.values()) {
+            buffer.putInt(entry.length);
+            buffer.put(entry);
+        }
+        buffer.putInt(customerIds.size());
+        for (int i = 0; i < customerIds.size(); i++) {
+            buffer.putShort((short) customerIds.get(i).length);
+            buffer.put(customerIds.get(i));
+            buffer.putInt(counts.get(i));
+        }
+
+        Path target = directory.resolve(PREFIX + String.format("%016x", state.getPosition()) + SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Path old : listSnapshots(directory)) {
+                if (old.getFileName().toString().compareTo(target.getFileName().toString()) < 0) {
+                    Files.deleteIfExists(old);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot could not be written: " + target, e);
+        }
+        return target;
+    }
+
+    // En yeni snapshot'ı oku - yoksa null
+    static JournalRecovery loadLatest(Path directory) {
+        return loadLatest(directory, JournalRecovery.DEFAULT_MAX_VISIT_CUSTOMERS);
+    }
+
+    // Ziyaret sayıları yazıldıkları sırayla (en eski ziyaretçi önce) yüklenir, sıra korunur
+    static JournalRecovery loadLatest(Path directory, int maxVisitCustomers) {
+        List<Path> snapshots = listSnapshots(directory);
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        Path latest = snapshots.get(snapshots.size() - 1);
+
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(latest)).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot could not be read: " + latest, e);
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalStateException("Unsupported snapshot format: " + latest);
+        }
+
+        JournalRecovery state = new JournalRecovery(maxVisitCustomers);
+        state.restore(buffer.getLong(), buffer.getLong());
+
+        int activeCount = buffer.getInt();
+        for (int i = 0; i < activeCount; i++) {
+            byte[] entry = new byte[buffer.getInt()];
+            buffer.get(entry);
+            long ticketId = ByteBuffer.wrap(entry).order(ByteOrder.LITTLE_ENDIAN).getLong(24);
+            state.getActiveEntries().put(ticketId, entry);
+        }
+
+        int customerCount = buffer.getInt();
+        for (int i = 0; i < customerCount; i++) {
+            byte[] customerId = new byte[buffer.getShort()];
+            buffer.get(customerId);
+            state.getVisitCounts().put(new String(customerId, StandardCharsets.UTF_8), buffer.getInt());
+        }
+        return state;
+    }
+
+    private static List<Path> listSnapshots(Path directory) {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().forEach(snapshots::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return snapshots;
+    }
+}
+
+// JournalSnapshotter - Belirli sayıda kayıtta bir arka planda snapshot alır
+// Canlı otopark nesnelerine dokunmaz: kendi durumunu günlükten ilerletir,
+// bu yüzden kapılar snapshot sırasında beklemez.
+class JournalSnapshotter {
+    private final TransactionJournal journal;
+    private final long intervalRecords;
+    private final AtomicBoolean running;
+    private JournalRecovery state;          // sadece snapshot thread'i erişir
+    private volatile long lastSnapshotRecord;
+    private volatile long snapshotCount;
+    private boolean closed;
+
+    JournalSnapshotter(TransactionJournal journal, long intervalRecords) {
+        this.journal = journal;
+        this.intervalRecords = intervalRecords;
+        this.running = new AtomicBoolean(false);
+        this.lastSnapshotRecord = journal.getRecordCount();
+    }
+
+    // Yazma yolundan çağrılır - eşik aşıldıysa arka planda snapshot başlat
+    void onAppended(long recordCount) {
+        if (recordCount - lastSnapshotRecord < intervalRecords) return;
+        if (!running.compareAndSet(false, true)) return;
+
+        Thread worker = new Thread(() -> {
+            try {
+                snapshotNow();
+            } catch (RuntimeException e) {
+                System.err.println("Journal snapshot failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }, "journal-snapshot");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Günlüğün şu anki konumuna kadar durumu ilerlet ve diske yaz
+    synchronized Path snapshotNow() {
+        if (closed) return null;
+        if (state == null) {
+            state = JournalSnapshot.loadLatest(journal.getDirectory());
+            if (state == null) {
+                state = new JournalRecovery();
+            }
+        }
+        JournalMark mark = journal.mark(); // Konum ve kayıt sayısı aynı andan
+        journal.sync(); // Snapshot, diskte olmayan kayıtları kapsamamalı
+        state.replay(journal, mark.getPosition());
+        Path path = JournalSnapshot.write(journal.getDirectory(), state);
+        lastSnapshotRecord = mark.getRecordCount();
+        snapshotCount++;
+        return path;
+    }
+
+    // Günlük kapanmadan önce çağrılır - devam eden snapshot biter, yenisi başlamaz
+    synchronized void close() {
+        closed = true;
+    }
+
+    long getSnapshotCount() {
+        return snapshotCount;
+    }
+}
@@ -32,6 +32,7 @@ public class Main {
             // Kapsamlı rapor
             System.out.println("\n" + "=".repeat(60));
             parkingLot.generateComprehensiveReport();
+            parkingLot.shutdown();
 
         } catch (Exception e) {
             System.err.println("ERROR: " + e.getMessage());
@@ -92,7 +93,7 @@ public class Main {
         simulateWait(2);
 
         System.out.println("\n>>> Exiting vehicle...");
-        CashPayment payment1 = new CashPayment("P001", 20, 50);
+        CashPayment payment1 = CashPayment.ofLira("P001", 20, 50);
         parkingLot.exitVehicle(ticket1.getTicketId(), payment1);
 
         // SENARYO 2: VIP Müşteri
@@ -178,7 +179,8 @@ public class Main {
             incident2.updateStatus("INVESTIGATING");
         }
 
-        // Araç erişim geçmişini göster
+        // Araç erişim geçmişini göster (güvenlik kayıtları olay hattında işlenir)
+        parkingLot.awaitSideEffects();
         parkingLot.getSecuritySystem().showVehicleAccessHistory("34ABC123");
     }
 
@@ -217,7 +219,7 @@ public class Main {
                 "34EV222", "Black", "BMW", "iX3", 4, 80
         );
 
-        LocalDateTime scheduledTime = LocalDateTime.now().plusHours(2);
+        LocalDateTime scheduledTime = parkingLot.getClock().now().plusHours(2);
         ChargingReservation reservation = parkingLot.reserveCharging(
                 customer5, ev2, scheduledTime, 60
         );
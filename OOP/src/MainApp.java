@@ -241,10 +241,10 @@ public class MainApp {
         Ticket ticket = activeTickets.get(selectedTicketId);
 
         // Ücret hesapla (simülasyon için sabit değer)
-        double fee = 50.0; // Gerçekte calculateFee ile hesaplanacak
+        long fee = Money.ofLira(50); // Gerçekte calculateFee ile hesaplanacak (kuruş)
 
         System.out.println("\n💰 ÖDEME BİLGİLERİ");
-        System.out.println("Toplam Ücret: " + fee + " TL");
+        System.out.println("Toplam Ücret: " + Money.format(fee) + " TL");
         System.out.println("\nÖdeme Yöntemi Seçin:");
         System.out.println("1. Nakit");
         System.out.println("2. Kredi Kartı");
@@ -561,23 +561,23 @@ public class MainApp {
         }
     }
 
-    private static Payment createPayment(int choice, double amount) {
+    private static Payment createPayment(int choice, long amount) {
         String paymentId = "PAY" + System.currentTimeMillis();
 
         switch (choice) {
             case 1:
-                double cash = getDoubleInput("Verilen nakit: ");
-                return new CashPayment(paymentId, amount, cash);
+                long cash = Money.fromLira(getDoubleInput("Verilen nakit: "));
+                return CashPayment.ofKurus(paymentId, amount, cash);
             case 2:
                 String cardNumber = getStringInput("Kart numarası: ");
                 String cardHolder = getStringInput("Kart sahibi: ");
                 String expiry = getStringInput("Son kullanma (MM/YY): ");
                 String cvv = getStringInput("CVV: ");
-                return new CreditCardPayment(paymentId, amount, cardNumber, cardHolder, expiry, cvv);
+                return CreditCardPayment.ofKurus(paymentId, amount, cardNumber, cardHolder, expiry, cvv);
             case 3:
                 String phone = getStringInput("Telefon numarası: ");
                 String provider = getStringInput("Sağlayıcı (ApplePay/GooglePay/SamsungPay): ");
-                return new MobilePayment(paymentId, amount, phone, provider);
+                return MobilePayment.ofKurus(paymentId, amount, phone, provider);
             default:
                 return null;
         }
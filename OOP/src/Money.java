@@ -0,0 +1,116 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.LongAdder;
+
+// Money - Sabit noktalı para: tutarlar long kuruş (1 TL = 100 kuruş) olarak taşınır
+// Nesne ve kutulama yok; tüm işlemler long üzerinde statik yardımcılardır. double sadece
+// sınırda kullanılır (kullanıcı girişi, eski gösterim getter'ları). Taşma sessiz geçmez.
+public final class Money {
+    public static final long ZERO = 0;
+    public static final int KURUS_PER_LIRA = 100;
+
+    private Money() {
+    }
+
+    // Tam TL tutarı (katalog fiyatları, sabitler)
+    public static long ofLira(long lira) {
+        return Math.multiplyExact(lira, KURUS_PER_LIRA);
+    }
+
+    // Kesirli TL (kullanıcı girişi) - en yakın kuruşa yuvarlanır
+    public static long fromLira(double lira) {
+        if (Double.isNaN(lira) || Double.isInfinite(lira)) {
+            throw new IllegalArgumentException("Invalid amount: " + lira);
+        }
+        return Math.round(lira * KURUS_PER_LIRA);
+    }
+
+    // "12.5", "12,50" gibi metinler - double'a çevrilmeden tam olarak okunur
+    public static long parse(String text) {
+        try {
+            return new BigDecimal(text.trim().replace(',', '.'))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + text, e);
+        }
+    }
+
+    // Sadece gösterim ve eski double API'ler için
+    public static double toLira(long kurus) {
+        return kurus / (double) KURUS_PER_LIRA;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long multiply(long kurus, long quantity) {
+        return Math.multiplyExact(kurus, quantity);
+    }
+
+    // Oranla çarpma (araç çarpanı, kWh vb.) - sonuç en yakın kuruşa yuvarlanır, yarım yukarı
+    public static long multiplyByRate(long kurus, double rate) {
+        return Math.round(kurus * rate);
+    }
+
+    // Tam sayı oranı (ör. 3/2, yüzde için x/100) - double kullanılmaz
+    public static long multiplyByRatio(long kurus, long numerator, long denominator) {
+        long product = Math.multiplyExact(kurus, numerator);
+        long half = denominator / 2;
+        return product >= 0
+                ? Math.floorDiv(product + half, denominator)
+                : -Math.floorDiv(-product + half, denominator);
+    }
+
+    // "1234.50" - String.format kullanmaz
+    public static String format(long kurus) {
+        StringBuilder text = new StringBuilder(24);
+        appendTo(text, kurus);
+        return text.toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder target, long kurus) {
+        if (kurus < 0) {
+            target.append('-');
+            if (kurus == Long.MIN_VALUE) {
+                return target.append("92233720368547758.08");
+            }
+            kurus = -kurus;
+        }
+        long fraction = kurus % KURUS_PER_LIRA;
+        target.append(kurus / KURUS_PER_LIRA).append('.');
+        if (fraction < 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+}
+
+// MoneyAccumulator - Kilitsiz gelir toplayıcı (LongAdder üzerinde kuruş)
+// Toplam tam sayıdır: milyonlarca işlemden sonra da kuruşu kuruşuna tutar.
+class MoneyAccumulator {
+    private final LongAdder kurus = new LongAdder();
+
+    public void add(long amountKurus) {
+        kurus.add(amountKurus);
+    }
+
+    public long sum() {
+        return kurus.sum();
+    }
+
+    public void reset() {
+        kurus.reset();
+    }
+
+    @Override
+    public String toString() {
+        return Money.format(sum()) + " TL";
+    }
+}
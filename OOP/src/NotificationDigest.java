@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Özete girecek tek giriş/çıkış olayı
+class DigestEvent {
+    final boolean exit;
+    final String plate;
+    final String spotId;   // Sadece giriş
+    final long feeKurus;   // Sadece çıkış
+    final long eventMillis;
+
+    DigestEvent(boolean exit, String plate, String spotId, long feeKurus, long eventMillis) {
+        this.exit = exit;
+        this.plate = plate;
+        this.spotId = spotId;
+        this.feeKurus = feeKurus;
+        this.eventMillis = eventMillis;
+    }
+}
+
+// Bir müşterinin açık özet penceresi - ilk olayla açılır, pencere süresi dolunca gönderilir
+// Olay listesi müşteri başına sınırlıdır; fazlası sadece sayılır ("+N olay daha").
+class CustomerDigest {
+    final Customer customer;
+    final long windowStartMillis;
+    final ParkingClock clock;
+    final List<DigestEvent> events = new ArrayList<>();
+    int entries;
+    int exits;
+    int dropped;
+    long totalFeeKurus;
+
+    CustomerDigest(Customer customer, long windowStartMillis, ParkingClock clock) {
+        this.customer = customer;
+        this.windowStartMillis = windowStartMillis;
+        this.clock = clock;
+    }
+
+    int getEventCount() {
+        return entries + exits;
+    }
+}
+
+// NotificationDigest - Filo müşterileri için giriş/çıkış bildirimlerini pencere başına tek özette toplar
+// Açık pencereler açılış sırasıyla tutulur (LinkedHashMap): vadesi gelenler baştan, bellek sınırı
+// aşılınca en eski pencereler erkenden gönderilir. Gönderim kilit dışında sink'e devredilir.
+public class NotificationDigest implements AutoCloseable {
+    public static final long DEFAULT_WINDOW_MILLIS = 15 * 60_000L;
+    public static final int DEFAULT_MAX_BUFFERED_EVENTS = 10_000;
+    public static final int DEFAULT_MAX_EVENTS_PER_DIGEST = 50;
+
+    private final ParkingClock clock;
+    private final long windowMillis;
+    private final int maxBufferedEvents;
+    private final int maxEventsPerDigest;
+    private final Consumer<CustomerDigest> sink;
+    private final Set<String> enrolled = ConcurrentHashMap.newKeySet();
+    private final LinkedHashMap<String, CustomerDigest> open = new LinkedHashMap<>();
+    private int bufferedEvents;
+    private final LongAdder eventsBuffered = new LongAdder();
+    private final LongAdder digestsSent = new LongAdder();
+    private final LongAdder pressureFlushes = new LongAdder();
+    private volatile Thread ticker;
+
+    public NotificationDigest(ParkingClock clock, long windowMillis, Consumer<CustomerDigest> sink) {
+        this(clock, windowMillis, DEFAULT_MAX_BUFFERED_EVENTS, DEFAULT_MAX_EVENTS_PER_DIGEST, sink);
+    }
+
+    public NotificationDigest(ParkingClock clock, long windowMillis, int maxBufferedEvents,
+                              int maxEventsPerDigest, Consumer<CustomerDigest> sink) {
+        if (windowMillis <= 0 || maxBufferedEvents <= 0 || maxEventsPerDigest <= 0) {
+            throw new IllegalArgumentException("Invalid digest settings");
+        }
+        this.clock = clock;
+        this.windowMillis = windowMillis;
+        this.maxBufferedEvents = maxBufferedEvents;
+        this.maxEventsPerDigest = maxEventsPerDigest;
+        this.sink = sink;
+    }
+
+    // Özet modundaki müşteriler (filo hesapları); diğerleri tek tek bildirim alır
+    public void enroll(String customerId) {
+        enrolled.add(customerId);
+    }
+
+    public void unenroll(String customerId) {
+        enrolled.remove(customerId);
+    }
+
+    public boolean isEnrolled(String customerId) {
+        return enrolled.contains(customerId);
+    }
+
+    // false: müşteri özet modunda değil, bildirim normal gönderilmeli
+    public boolean offerEntry(Customer customer, String plate, String spotId, long eventMillis) {
+        return offer(customer, new DigestEvent(false, plate, spotId, 0, eventMillis));
+    }
+
+    public boolean offerExit(Customer customer, String plate, long feeKurus, long eventMillis) {
+        return offer(customer, new DigestEvent(true, plate, null, feeKurus, eventMillis));
+    }
+
+    private boolean offer(Customer customer, DigestEvent event) {
+        if (!enrolled.contains(customer.getId())) {
+            return false;
+        }
+        List<CustomerDigest> ready;
+        synchronized (this) {
+            long now = clock.millis();
+            ready = collectDue(now, null);
+            CustomerDigest digest = open.get(customer.getId());
+            if (digest == null) {
+                digest = new CustomerDigest(customer, now, clock);
+                open.put(customer.getId(), digest);
+            }
+            if (event.exit) {
+                digest.exits++;
+                digest.totalFeeKurus += event.feeKurus;
+            } else {
+                digest.entries++;
+            }
+            if (digest.events.size() < maxEventsPerDigest) {
+                digest.events.add(event);
+                bufferedEvents++;
+            } else {
+                digest.dropped++; // Sadece sayılır - tampon büyümez
+            }
+            // Bellek baskısı: en eski pencereler vaktinden önce gönderilir
+            while (bufferedEvents > maxBufferedEvents && !open.isEmpty()) {
+                ready = add(ready, removeOldest());
+                pressureFlushes.increment();
+            }
+        }
+        eventsBuffered.increment();
+        send(ready);
+        return true;
+    }
+
+    // Vadesi gelen pencereleri gönder - zamanlayıcı thread'i ya da sanal saatte çağıran kullanır
+    public int flushDue() {
+        List<CustomerDigest> ready;
+        synchronized (this) {
+            ready = collectDue(clock.millis(), null);
+        }
+        send(ready);
+        return ready == null ? 0 : ready.size();
+    }
+
+    // Kapanışta: açık tüm pencereler
+    public int flushAll() {
+        List<CustomerDigest> ready = null;
+        synchronized (this) {
+            while (!open.isEmpty()) {
+                ready = add(ready, removeOldest());
+            }
+        }
+        send(ready);
+        return ready == null ? 0 : ready.size();
+    }
+
+    // Açılış sırası = vade sırası: ilk vadesi gelmemiş pencerede durulur
+    private List<CustomerDigest> collectDue(long now, List<CustomerDigest> ready) {
+        Iterator<CustomerDigest> iterator = open.values().iterator();
+        while (iterator.hasNext()) {
+            CustomerDigest digest = iterator.next();
+            if (now - digest.windowStartMillis < windowMillis) {
+                break;
+            }
+            iterator.remove();
+            bufferedEvents -= digest.events.size();
+            ready = add(ready, digest);
+        }
+        return ready;
+    }
+
+    private CustomerDigest removeOldest() {
+        Iterator<CustomerDigest> iterator = open.values().iterator();
+        CustomerDigest digest = iterator.next();
+        iterator.remove();
+        bufferedEvents -= digest.events.size();
+        return digest;
+    }
+
+    private static List<CustomerDigest> add(List<CustomerDigest> ready, CustomerDigest digest) {
+        if (ready == null) {
+            ready = new ArrayList<>();
+        }
+        ready.add(digest);
+        return ready;
+    }
+
+    private void send(List<CustomerDigest> ready) {
+        if (ready == null) return;
+        for (CustomerDigest digest : ready) {
+            try {
+                sink.accept(digest);
+                digestsSent.increment();
+            } catch (RuntimeException e) {
+                System.err.println("Digest for " + digest.customer.getId() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Gerçek saat için: pencereleri dakika altı hassasiyetle kapatan daemon thread
+    public synchronized void start() {
+        if (ticker != null) return;
+        long sleepMillis = Math.max(10, Math.min(windowMillis / 10, 1000));
+        Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                flushDue();
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "notification-digest");
+        thread.setDaemon(true);
+        thread.start();
+        ticker = thread;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (ticker != null) {
+                ticker.interrupt();
+                ticker = null;
+            }
+        }
+        flushAll();
+    }
+
+    public synchronized int getOpenWindows() {
+        return open.size();
+    }
+
+    public synchronized int getBufferedEvents() {
+        return bufferedEvents;
+    }
+
+    public long getEventsBuffered() {
+        return eventsBuffered.sum();
+    }
+
+    public long getDigestsSent() {
+        return digestsSent.sum();
+    }
+
+    public long getPressureFlushes() {
+        return pressureFlushes.sum();
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void printStatistics() {
+        System.out.println("📨 Digest: " + getEventsBuffered() + " events -> " + getDigestsSent() + " digests, " +
+                getOpenWindows() + " open windows (" + getBufferedEvents() + "/" + maxBufferedEvents +
+                " buffered), " + getPressureFlushes() + " early flushes");
+    }
+}
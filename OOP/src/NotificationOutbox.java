@@ -0,0 +1,655 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+// Bildirim kanalı - her kanalın kendi gönderici thread'i vardır
+enum NotificationChannel {
+    SMS, EMAIL, PUSH;
+
+    static NotificationChannel of(Notification notification) {
+        return valueOf(notification.getNotificationType());
+    }
+}
+
+// Outbox'taki bildirim: diske yazılan alanlar + bellekteki deneme durumu
+class OutboxMessage {
+    final long sequence;
+    final NotificationChannel channel;
+    final String notificationId;
+    final String recipient;
+    final String subject; // Email konusu / push başlığı, SMS'te boş
+    final String body;
+    int attempts;           // Sadece kanal thread'i değiştirir
+    long nextAttemptNanos;
+    private Notification notification;
+
+    OutboxMessage(long sequence, NotificationChannel channel, String notificationId,
+                  String recipient, String subject, String body) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.notificationId = notificationId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    static OutboxMessage of(long sequence, Notification notification) {
+        String subject = "";
+        if (notification instanceof EmailNotification) {
+            subject = ((EmailNotification) notification).getSubject();
+        } else if (notification instanceof PushNotification) {
+            subject = ((PushNotification) notification).getTitle();
+        }
+        OutboxMessage message = new OutboxMessage(sequence, NotificationChannel.of(notification),
+                notification.getNotificationId(), notification.getRecipient(), subject, notification.getMessage());
+        message.notification = notification;
+        return message;
+    }
+
+    // Yeniden başlatmada nesne yoktur - kayıttaki alanlardan kurulur
+    Notification getNotification() {
+        if (notification == null) {
+            switch (channel) {
+                case SMS:
+                    notification = new SMSNotification(notificationId, recipient, body);
+                    break;
+                case EMAIL:
+                    notification = new EmailNotification(notificationId, recipient, subject, body);
+                    break;
+                default:
+                    notification = new PushNotification(notificationId, recipient, subject, body);
+                    break;
+            }
+        }
+        return notification;
+    }
+}
+
+// Bildirim sağlayıcısı - tek çağrıda bir grup mesaj; sonuç dizisi mesaj sırasıyla
+interface NotificationProvider {
+    boolean[] sendBatch(NotificationChannel channel, List<OutboxMessage> batch);
+}
+
+// Mevcut simülasyon: her bildirimin kendi send() metodu (konsol çıktısı, rastgele hata)
+class SimulatedNotificationProvider implements NotificationProvider {
+
+    @Override
+    public boolean[] sendBatch(NotificationChannel channel, List<OutboxMessage> batch) {
+        boolean[] results = new boolean[batch.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = batch.get(i).getNotification().send();
+        }
+        return results;
+    }
+}
+
+// Yerel sağlayıcı taslağı - çağrı başına sabit gecikme ve ayarlanabilir hata oranı
+// Teslim edilen bildirim ID'lerini tutar: kayıp ve tekrar kontrolü için
+class StubNotificationProvider implements NotificationProvider {
+    private final long latencyMillis;
+    private volatile double failureRate;
+    private final Random random;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final Set<String> delivered = ConcurrentHashMap.newKeySet();
+
+    StubNotificationProvider(long latencyMillis, double failureRate, long seed) {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public boolean[] sendBatch(NotificationChannel channel, List<OutboxMessage> batch) {
+        calls.increment();
+        messages.add(batch.size());
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new boolean[batch.size()];
+            }
+        }
+        boolean[] results = new boolean[batch.size()];
+        for (int i = 0; i < results.length; i++) {
+            boolean ok;
+            synchronized (random) {
+                ok = random.nextDouble() >= failureRate;
+            }
+            if (ok && !delivered.add(batch.get(i).notificationId)) {
+                duplicates.increment();
+            }
+            results[i] = ok;
+        }
+        return results;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    public Set<String> getDelivered() {
+        return delivered;
+    }
+}
+
+// Outbox kaydı - eklemeli ikili dosya: [uzunluk][crc32][tip][sıra no][alanlar]
+// Kuyruğa ekleme, çağrı dönmeden işletim sistemine yazılır (süreç çökmesinde kaybolmaz).
+// Teslim/iptal kayıtları grup halinde yazılır; dosya büyüyünce bekleyenlerle yeniden yazılır.
+class OutboxLog implements AutoCloseable {
+    static final String FILE_NAME = "notification-outbox.log";
+    static final byte ENQUEUED = 1;
+    static final byte DELIVERED = 2;
+    static final byte DEAD = 3;
+
+    private final Path file;
+    private FileOutputStream output;
+    private DataOutputStream data;
+    private long sizeBytes;
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(512);
+    private final DataOutputStream record = new DataOutputStream(scratch);
+    private final CRC32 crc = new CRC32();
+    // Grup fsync: yazılan ENQUEUED kayıt sayısı ve diske indiği bilinen sayı
+    private final Object syncLock = new Object();
+    private long written;
+    private long synced; // syncLock altında
+
+    OutboxLog(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        open();
+    }
+
+    private void open() throws IOException {
+        this.output = new FileOutputStream(file.toFile(), true);
+        this.data = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        this.sizeBytes = Files.size(file);
+    }
+
+    // Teslim edilmemiş mesajlar, sıra numarasıyla
+    static LinkedHashMap<Long, OutboxMessage> replay(Path directory) throws IOException {
+        LinkedHashMap<Long, OutboxMessage> pending = new LinkedHashMap<>();
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) return pending;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(file), 1 << 16))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = input.readInt();
+                    int checksum = input.readInt();
+                    if (length <= 0 || length > (1 << 20)) break;
+                    payload = new byte[length];
+                    input.readFully(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) break;
+                } catch (EOFException e) {
+                    break; // Dosya sonu ya da yarım kalmış son kayıt
+                }
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = fields.readByte();
+                long sequence = fields.readLong();
+                if (type == ENQUEUED) {
+                    NotificationChannel channel = NotificationChannel.values()[fields.readByte()];
+                    pending.put(sequence, new OutboxMessage(sequence, channel, fields.readUTF(),
+                            fields.readUTF(), fields.readUTF(), fields.readUTF()));
+                } else {
+                    pending.remove(sequence);
+                }
+            }
+        }
+        return pending;
+    }
+
+    // Dönen sıra awaitDurable() ile beklenir
+    synchronized long appendEnqueued(OutboxMessage message) throws IOException {
+        writeEnqueued(data, message);
+        return ++written;
+    }
+
+    // Kayıt diske inene kadar bekle. Tek fsync o ana kadar yazılan tüm kayıtları kapsar:
+    // aynı anda bekleyen üreticiler bir sonraki fsync'i paylaşır.
+    void awaitDurable(long ticket) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= ticket) return;
+            long upTo;
+            FileChannel channel;
+            synchronized (this) {
+                data.flush();
+                upTo = written;
+                channel = output.getChannel();
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Arada sıkıştırma dosyayı değiştirdi: yeni dosya bekleyenlerle birlikte zaten diske indi
+            }
+            synced = upTo;
+        }
+    }
+
+    synchronized void appendDone(long sequence, byte type) throws IOException {
+        scratch.reset();
+        record.writeByte(type);
+        record.writeLong(sequence);
+        writeRecord(data);
+    }
+
+    synchronized void flush() throws IOException {
+        data.flush();
+    }
+
+    // Sadece bekleyen mesajlarla yeni dosya yaz ve atomik olarak değiştir
+    synchronized void rewrite(Collection<OutboxMessage> pending) throws IOException {
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try (FileOutputStream tempOutput = new FileOutputStream(temp.toFile())) {
+            DataOutputStream tempData = new DataOutputStream(new BufferedOutputStream(tempOutput, 1 << 16));
+            for (OutboxMessage message : pending) {
+                writeEnqueued(tempData, message);
+            }
+            tempData.flush();
+            tempOutput.getChannel().force(true);
+        }
+        data.flush();
+        data.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open();
+    }
+
+    private void writeEnqueued(DataOutputStream target, OutboxMessage message) throws IOException {
+        scratch.reset();
+        record.writeByte(ENQUEUED);
+        record.writeLong(message.sequence);
+        record.writeByte(message.channel.ordinal());
+        record.writeUTF(message.notificationId);
+        record.writeUTF(message.recipient);
+        record.writeUTF(message.subject);
+        record.writeUTF(message.body);
+        writeRecord(target);
+    }
+
+    private void writeRecord(DataOutputStream target) throws IOException {
+        record.flush();
+        crc.reset();
+        crc.update(scratch.toByteArray(), 0, scratch.size());
+        target.writeInt(scratch.size());
+        target.writeInt((int) crc.getValue());
+        scratch.writeTo(target);
+        if (target == data) {
+            sizeBytes += 8 + scratch.size();
+        }
+    }
+
+    synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        data.flush();
+        output.getChannel().force(true);
+        data.close();
+    }
+}
+
+// NotificationOutbox - Bildirimler önce diske, sonra kanal kuyruğuna yazılır
+// Kapı/olay thread'i sağlayıcıyı beklemez; kanal thread'leri kuyruğu gruplar halinde
+// (ör. tek çağrıda 500 SMS) sağlayıcıya iletir. Başarısız mesajlar üstel bekleme ile yeniden
+// denenir, deneme hakkı bitenler "failed" sayılır. Kapasite dolarsa ekleme bekler (bellek sınırlı).
+// Yeniden başlatmada teslim edilmemiş tüm mesajlar kayıttan yüklenip tekrar gönderilir.
+public class NotificationOutbox implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 100_000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+    public static final long DEFAULT_BASE_BACKOFF_MILLIS = 200;
+    static final long MAX_BACKOFF_MILLIS = 60_000;
+    static final long COMPACT_BYTES = 32L << 20;
+
+    private final OutboxLog log;
+    private final NotificationProvider provider;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final Semaphore capacity;
+    private final AtomicInteger overdraft; // Kapasiteyi aşan kurtarılmış mesajlar - teslimde izin bırakmaz
+    private final Map<Long, OutboxMessage> pending;
+    private final AtomicLong sequence;
+    private final ChannelDispatcher[] dispatchers;
+    private final LongAdder enqueued;
+    private final LongAdder blockedEnqueues;
+    private final int recovered;
+    private volatile boolean closed;
+
+    public NotificationOutbox(Path directory, NotificationProvider provider) throws IOException {
+        this(directory, provider, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_ATTEMPTS,
+                DEFAULT_BASE_BACKOFF_MILLIS);
+    }
+
+    public NotificationOutbox(Path directory, NotificationProvider provider, int capacity,
+                              int batchSize, int maxAttempts, long baseBackoffMillis) throws IOException {
+        this.provider = provider;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(baseBackoffMillis);
+        this.pending = new ConcurrentHashMap<>();
+        this.enqueued = new LongAdder();
+        this.blockedEnqueues = new LongAdder();
+
+        LinkedHashMap<Long, OutboxMessage> unsent = OutboxLog.replay(directory);
+        long lastSequence = 0;
+        for (OutboxMessage message : unsent.values()) {
+            pending.put(message.sequence, message);
+            lastSequence = Math.max(lastSequence, message.sequence);
+        }
+        this.recovered = unsent.size();
+        this.sequence = new AtomicLong(lastSequence);
+        // Kurtarılanlar da kapasiteden düşer; kapasiteden fazlası kurtarıldıysa izin sıfırdan başlar
+        // ve fazlalık teslim edildikçe izin geri verilmeden kapanır
+        this.capacity = new Semaphore(Math.max(0, capacity - recovered));
+        this.overdraft = new AtomicInteger(Math.max(0, recovered - capacity));
+        this.log = new OutboxLog(directory);
+        log.rewrite(unsent.values()); // Teslim edilmişlerin kayıtları atılır
+        if (recovered > 0) {
+            System.out.println("♻️ Notification outbox: " + recovered + " undelivered messages recovered");
+        }
+
+        NotificationChannel[] channels = NotificationChannel.values();
+        this.dispatchers = new ChannelDispatcher[channels.length];
+        for (NotificationChannel channel : channels) {
+            dispatchers[channel.ordinal()] = new ChannelDispatcher(channel);
+        }
+        for (OutboxMessage message : unsent.values()) {
+            dispatchers[message.channel.ordinal()].queue.add(message);
+        }
+        for (ChannelDispatcher dispatcher : dispatchers) {
+            dispatcher.worker.start();
+        }
+    }
+
+    // Kalıcı olarak kuyruğa al - dönüşte mesaj diske inmiştir (fsync)
+    public void enqueue(Notification notification) {
+        if (closed) {
+            throw new IllegalStateException("Notification outbox is closed");
+        }
+        if (!capacity.tryAcquire()) {
+            blockedEnqueues.increment();
+            capacity.acquireUninterruptibly();
+        }
+        OutboxMessage message = OutboxMessage.of(sequence.incrementAndGet(), notification);
+        pending.put(message.sequence, message); // Kayıttan önce: sıkıştırma arada kalırsa kaybolmasın
+        try {
+            log.awaitDurable(log.appendEnqueued(message));
+        } catch (IOException e) {
+            pending.remove(message.sequence);
+            capacity.release();
+            throw new UncheckedIOException("Notification outbox write failed", e);
+        }
+        enqueued.increment();
+        dispatchers[message.channel.ordinal()].queue.add(message);
+    }
+
+    // Tüm mesajlar teslim edilene (ya da deneme hakkı bitene) kadar bekle
+    public boolean awaitDelivered(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!pending.isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void complete(OutboxMessage message, byte outcome) {
+        pending.remove(message.sequence);
+        try {
+            log.appendDone(message.sequence, outcome);
+        } catch (IOException e) {
+            // Kayıt yazılamazsa mesaj yeniden başlatmada tekrar gönderilir (en az bir kez)
+            System.err.println("Outbox acknowledgement failed: " + e.getMessage());
+        }
+        if (overdraft.get() > 0 && overdraft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            return;
+        }
+        capacity.release();
+    }
+
+    // Kopya ve yeniden yazım kayıt kilidi altında: arada gelen ekleme ya kopyadadır ya da
+    // yeni dosyaya yazılır, değiştirilen eski dosyada kalıp kaybolamaz
+    private void compactIfNeeded() {
+        if (log.getSizeBytes() < COMPACT_BYTES) return;
+        synchronized (log) {
+            if (log.getSizeBytes() < COMPACT_BYTES) return;
+            try {
+                List<OutboxMessage> snapshot = new ArrayList<>(pending.values());
+                snapshot.sort(Comparator.comparingLong(m -> m.sequence));
+                log.rewrite(snapshot);
+            } catch (IOException e) {
+                System.err.println("Outbox compaction failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private long backoffNanos(int attempts) {
+        long delay = Math.min(baseBackoffNanos << Math.min(attempts - 1, 20),
+                TimeUnit.MILLISECONDS.toNanos(MAX_BACKOFF_MILLIS));
+        // Yarısı sabit, yarısı rastgele: aynı anda düşen mesajlar birlikte tekrar denenmesin
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    // Kanal başına gönderici - kuyruğu ve yeniden deneme yığınını boşaltır
+    private final class ChannelDispatcher implements Runnable {
+        private final NotificationChannel channel;
+        private final LinkedBlockingQueue<OutboxMessage> queue;
+        private final PriorityQueue<OutboxMessage> retries; // Sadece bu thread erişir
+        private final Thread worker;
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retried = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private volatile int retryDepth;
+
+        ChannelDispatcher(NotificationChannel channel) {
+            this.channel = channel;
+            this.queue = new LinkedBlockingQueue<>(); // Sınır kapasite semaforunda
+            this.retries = new PriorityQueue<>(Comparator.comparingLong(m -> m.nextAttemptNanos));
+            this.worker = new Thread(this, "notification-outbox-" + channel.name().toLowerCase());
+            this.worker.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<OutboxMessage> batch = new ArrayList<>(batchSize);
+            while (!closed) {
+                try {
+                    long waitNanos = TimeUnit.MILLISECONDS.toNanos(100);
+                    if (!retries.isEmpty()) {
+                        waitNanos = Math.min(waitNanos, retries.peek().nextAttemptNanos - System.nanoTime());
+                    }
+                    OutboxMessage first = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, batchSize - 1);
+                    }
+                    long now = System.nanoTime();
+                    while (batch.size() < batchSize && !retries.isEmpty()
+                            && retries.peek().nextAttemptNanos <= now) {
+                        batch.add(retries.poll());
+                    }
+                    if (!batch.isEmpty()) {
+                        dispatch(batch);
+                        batch.clear();
+                        compactIfNeeded();
+                    }
+                } catch (InterruptedException e) {
+                    // close(): bekleyenler kayıtta kalır, sonraki açılışta gönderilir
+                    return;
+                }
+            }
+        }
+
+        private void dispatch(List<OutboxMessage> batch) {
+            boolean[] results;
+            try {
+                results = provider.sendBatch(channel, batch);
+            } catch (RuntimeException e) {
+                System.err.println(channel + " provider call failed: " + e.getMessage());
+                results = new boolean[batch.size()];
+            }
+            batches.increment();
+
+            long now = System.nanoTime();
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxMessage message = batch.get(i);
+                if (results[i]) {
+                    Notification notification = message.getNotification();
+                    if (!notification.isDelivered()) {
+                        notification.markAsDelivered();
+                    }
+                    delivered.increment();
+                    complete(message, OutboxLog.DELIVERED);
+                } else if (++message.attempts >= maxAttempts) {
+                    failed.increment();
+                    complete(message, OutboxLog.DEAD);
+                } else {
+                    retried.increment();
+                    message.nextAttemptNanos = now + backoffNanos(message.attempts);
+                    retries.add(message);
+                }
+            }
+            retryDepth = retries.size();
+            try {
+                log.flush();
+            } catch (IOException e) {
+                System.err.println("Outbox flush failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long getDeliveredCount() {
+        long total = 0;
+        for (ChannelDispatcher dispatcher : dispatchers) total += dispatcher.delivered.sum();
+        return total;
+    }
+
+    public long getDeliveredCount(NotificationChannel channel) {
+        return dispatchers[channel.ordinal()].delivered.sum();
+    }
+
+    public long getFailedCount() {
+        long total = 0;
+        for (ChannelDispatcher dispatcher : dispatchers) total += dispatcher.failed.sum();
+        return total;
+    }
+
+    public long getRetriedCount() {
+        long total = 0;
+        for (ChannelDispatcher dispatcher : dispatchers) total += dispatcher.retried.sum();
+        return total;
+    }
+
+    public long getBatchCount() {
+        long total = 0;
+        for (ChannelDispatcher dispatcher : dispatchers) total += dispatcher.batches.sum();
+        return total;
+    }
+
+    public long getBlockedEnqueueCount() {
+        return blockedEnqueues.sum();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public int getRecoveredCount() {
+        return recovered;
+    }
+
+    public void printStatistics() {
+        System.out.println("\n=== NOTIFICATION OUTBOX ===");
+        for (ChannelDispatcher dispatcher : dispatchers) {
+            long batches = dispatcher.batches.sum();
+            System.out.println(dispatcher.channel + ": delivered " + dispatcher.delivered.sum() +
+                    ", failed " + dispatcher.failed.sum() + ", retries " + dispatcher.retried.sum() +
+                    ", provider calls " + batches + ", queue " + dispatcher.queue.size() +
+                    ", waiting retry " + dispatcher.retryDepth);
+        }
+        System.out.println("Pending: " + getPendingCount() + ", blocked enqueues: " + getBlockedEnqueueCount() +
+                ", recovered at start: " + recovered);
+        System.out.println("===========================\n");
+    }
+
+    // Gönderici thread'leri durdurur; teslim edilmemişler kayıtta kalır
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        for (ChannelDispatcher dispatcher : dispatchers) {
+            dispatcher.worker.interrupt();
+        }
+        for (ChannelDispatcher dispatcher : dispatchers) {
+            try {
+                dispatcher.worker.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.close();
+    }
+}
@@ -1,342 +1,609 @@
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
-// Notification interface
-interface Notifiable {
-    boolean send();
-    String getNotificationType();
-}
-
-// Abstract Notification sınıfı
-abstract class Notification implements Notifiable {
-    private String notificationId;
-    private String recipient;
-    private String message;
-    private LocalDateTime sentTime;
-    private boolean isDelivered;
-
-    public Notification(String notificationId, String recipient, String message) {
-        this.notificationId = notificationId;
-        this.recipient = recipient;
-        this.message = message;
-        this.sentTime = null;
-        this.isDelivered = false;
-    }
-
-    protected void markAsDelivered() {
-        this.isDelivered = true;
-        this.sentTime = LocalDateTime.now();
-    }
-
-    // Getters
-    public String getNotificationId() {
-        return notificationId;
-    }
-
-    public String getRecipient() {
-        return recipient;
-    }
-
-    public String getMessage() {
-        return message;
-    }
-
-    public LocalDateTime getSentTime() {
-        return sentTime;
-    }
-
-    public boolean isDelivered() {
-        return isDelivered;
-    }
-
-    @Override
-    public String toString() {
-        return getNotificationType() + " to " + recipient +
-                " - " + (isDelivered ? "DELIVERED" : "PENDING");
-    }
-}
-
-// SMSNotification sınıfı
-class SMSNotification extends Notification {
-    private String phoneNumber;
-
-    public SMSNotification(String notificationId, String phoneNumber, String message) {
-        super(notificationId, phoneNumber, message);
-        this.phoneNumber = phoneNumber;
-    }
-
-    @Override
-    public String getNotificationType() {
-        return "SMS";
-    }
-
-    @Override
-    public boolean send() {
-        // SMS gönderme simülasyonu
-        System.out.println("\n📱 Sending SMS...");
-        System.out.println("To: " + phoneNumber);
-        System.out.println("Message: " + getMessage());
-
-        // Simülasyon: %95 başarı oranı
-        boolean success = Math.random() < 0.95;
-
-        if (success) {
-            markAsDelivered();
-            System.out.println("✓ SMS delivered successfully!");
-        } else {
-            System.out.println("✗ SMS delivery failed!");
-        }
-
-        return success;
-    }
-
-    public String getPhoneNumber() {
-        return phoneNumber;
-    }
-}
-
-// EmailNotification sınıfı
-class EmailNotification extends Notification {
-    private String emailAddress;
-    private String subject;
-
-    public EmailNotification(String notificationId, String emailAddress,
-                             String subject, String message) {
-        super(notificationId, emailAddress, message);
-        this.emailAddress = emailAddress;
-        this.subject = subject;
-    }
-
-    @Override
-    public String getNotificationType() {
-        return "EMAIL";
-    }
-
-    @Override
-    public boolean send() {
-        // Email gönderme simülasyonu
-        System.out.println("\n📧 Sending Email...");
-        System.out.println("To: " + emailAddress);
-        System.out.println("Subject: " + subject);
-        System.out.println("Message: " + getMessage());
-
-        // Simülasyon: %98 başarı oranı
-        boolean success = Math.random() < 0.98;
-
-        if (success) {
-            markAsDelivered();
-            System.out.println("✓ Email sent successfully!");
-        } else {
-            System.out.println("✗ Email delivery failed!");
-        }
-
-        return success;
-    }
-
-    public String getEmailAddress() {
-        return emailAddress;
-    }
-
-    public String getSubject() {
-        return subject;
-    }
-}
-
-// PushNotification sınıfı
-class PushNotification extends Notification {
-    private String deviceToken;
-    private String title;
-
-    public PushNotification(String notificationId, String deviceToken,
-                            String title, String message) {
-        super(notificationId, deviceToken, message);
-        this.deviceToken = deviceToken;
-        this.title = title;
-    }
-
-    @Override
-    public String getNotificationType() {
-        return "PUSH";
-    }
-
-    @Override
-    public boolean send() {
-        // Push notification gönderme simülasyonu
-        System.out.println("\n🔔 Sending Push Notification...");
-        System.out.println("Device: " + deviceToken);
-        System.out.println("Title: " + title);
-        System.out.println("Message: " + getMessage());
-
-        // Simülasyon: %97 başarı oranı
-        boolean success = Math.random() < 0.97;
-
-        if (success) {
-            markAsDelivered();
-            System.out.println("✓ Push notification delivered!");
-        } else {
-            System.out.println("✗ Push notification failed!");
-        }
-
-        return success;
-    }
-
-    public String getDeviceToken() {
-        return deviceToken;
-    }
-
-    public String getTitle() {
-        return title;
-    }
-}
-
-// NotificationService - Merkezi bildirim yönetimi
-public class NotificationService {
-    private static NotificationService instance;
-    private java.util.List<Notification> notificationHistory;
-
-    private NotificationService() {
-        this.notificationHistory = new java.util.ArrayList<>();
-    }
-
-    // Singleton pattern
-    public static NotificationService getInstance() {
-        if (instance == null) {
-            instance = new NotificationService();
-        }
-        return instance;
-    }
-
-    // Giriş bildirimi gönder
-    public void sendEntryNotification(Customer customer, Ticket ticket, ParkingSpot spot) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String time = LocalDateTime.now().format(formatter);
-
-        // SMS gönder
-        String smsMessage = "Aracınız " + ticket.getVehicle().getLicensePlate() +
-                " başarıyla park edildi. Yer: " + spot.getSpotId() +
-                ", Kat: " + spot.getFloor() + ". Zaman: " + time;
-
-        SMSNotification sms = new SMSNotification(
-                "SMS" + System.currentTimeMillis(),
-                customer.getPhone(),
-                smsMessage
-        );
-        sms.send();
-        notificationHistory.add(sms);
-
-        // Email gönder
-        String emailMessage = "Sayın " + customer.getName() + ",\n\n" +
-                "Aracınız başarıyla park edilmiştir.\n\n" +
-                "Detaylar:\n" +
-                "Araç Plakası: " + ticket.getVehicle().getLicensePlate() + "\n" +
-                "Park Yeri: " + spot.getSpotId() + "\n" +
-                "Kat: " + spot.getFloor() + "\n" +
-                "Giriş Zamanı: " + time + "\n" +
-                "Bilet No: " + ticket.getTicketId() + "\n\n" +
-                "İyi günler dileriz!";
-
-        EmailNotification email = new EmailNotification(
-                "EMAIL" + System.currentTimeMillis(),
-                customer.getEmail(),
-                "Otopark Giriş Bildirimi",
-                emailMessage
-        );
-        email.send();
-        notificationHistory.add(email);
-    }
-
-    // Çıkış bildirimi gönder
-    public void sendExitNotification(Customer customer, Ticket ticket, double fee) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String time = LocalDateTime.now().format(formatter);
-
-        // SMS gönder
-        String smsMessage = "Aracınız " + ticket.getVehicle().getLicensePlate() +
-                " otoparktan çıkış yaptı. Ücret: " + fee + " TL. " +
-                "Zaman: " + time;
-
-        SMSNotification sms = new SMSNotification(
-                "SMS" + System.currentTimeMillis(),
-                customer.getPhone(),
-                smsMessage
-        );
-        sms.send();
-        notificationHistory.add(sms);
-
-        // Fatura emaili
-        String emailMessage = "Sayın " + customer.getName() + ",\n\n" +
-                "Otoparktan çıkış işleminiz tamamlanmıştır.\n\n" +
-                "FATURA BİLGİLERİ:\n" +
-                "====================\n" +
-                "Araç Plakası: " + ticket.getVehicle().getLicensePlate() + "\n" +
-                "Çıkış Zamanı: " + time + "\n" +
-                "Bilet No: " + ticket.getTicketId() + "\n" +
-                "Toplam Ücret: " + fee + " TL\n\n" +
-                "Bizi tercih ettiğiniz için teşekkür ederiz!";
-
-        EmailNotification email = new EmailNotification(
-                "EMAIL" + System.currentTimeMillis(),
-                customer.getEmail(),
-                "Otopark Çıkış Faturası",
-                emailMessage
-        );
-        email.send();
-        notificationHistory.add(email);
-    }
-
-    // Hatırlatma bildirimi
-    public void sendReminderNotification(Customer customer, Ticket ticket, int hoursRemaining) {
-        String smsMessage = "Hatırlatma: Aracınız " + ticket.getVehicle().getLicensePlate() +
-                " için kalan süre: " + hoursRemaining + " saat. " +
-                "Bilet: " + ticket.getTicketId();
-
-        SMSNotification sms = new SMSNotification(
-                "SMS" + System.currentTimeMillis(),
-                customer.getPhone(),
-                smsMessage
-        );
-        sms.send();
-        notificationHistory.add(sms);
-    }
-
-    // Ödeme hatırlatması
-    public void sendPaymentReminderNotification(Customer customer, double amount) {
-        PushNotification push = new PushNotification(
-                "PUSH" + System.currentTimeMillis(),
-                "DEVICE_" + customer.getId(),
-                "Ödeme Hatırlatması",
-                "Ödemeniz gereken tutar: " + amount + " TL"
-        );
-        push.send();
-        notificationHistory.add(push);
-    }
-
-    // Bildirim geçmişi
-    public java.util.List<Notification> getNotificationHistory() {
-        return notificationHistory;
-    }
-
-    // İstatistikler
-    public void printStatistics() {
-        System.out.println("\n=== NOTIFICATION STATISTICS ===");
-        long smsCount = notificationHistory.stream()
-                .filter(n -> n instanceof SMSNotification)
-                .count();
-        long emailCount = notificationHistory.stream()
-                .filter(n -> n instanceof EmailNotification)
-                .count();
-        long pushCount = notificationHistory.stream()
-                .filter(n -> n instanceof PushNotification)
-                .count();
-        long delivered = notificationHistory.stream()
-                .filter(Notification::isDelivered)
-                .count();
-
-        System.out.println("Total Notifications: " + notificationHistory.size());
-        System.out.println("SMS: " + smsCount);
-        System.out.println("Email: " + emailCount);
-        System.out.println("Push: " + pushCount);
-        System.out.println("Delivered: " + delivered);
-        System.out.println("===============================\n");
-    }
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Notification interface
+interface Notifiable {
+    boolean send();
+    String getNotificationType();
+}
+
+// Abstract Notification sınıfı
+abstract class Notification implements Notifiable {
+    private String notificationId; // null: numaradan ilk okunduğunda biçimlenir
+    private final String idPrefix;
+    private final long idNumber;
+    private String recipient;
+    private String message;
+    private long sentMillis; // 0 = henüz gönderilmedi
+    private boolean isDelivered;
+
+    public Notification(String notificationId, String recipient, String message) {
+        this(notificationId, null, -1, recipient, message);
+    }
+
+    // Sayısal ID (IdGenerator) - gönderim yolunda String oluşturulmaz
+    protected Notification(String idPrefix, long idNumber, String recipient, String message) {
+        this(null, idPrefix, idNumber, recipient, message);
+    }
+
+    private Notification(String notificationId, String idPrefix, long idNumber, String recipient, String message) {
+        this.notificationId = notificationId;
+        this.idPrefix = idPrefix;
+        this.idNumber = idNumber;
+        this.recipient = recipient;
+        this.message = message;
+        this.sentMillis = 0;
+        this.isDelivered = false;
+    }
+
+    protected void markAsDelivered() {
+        this.isDelivered = true;
+        this.sentMillis = ParkingClock.getDefault().millis();
+    }
+
+    // Getters
+    public String getNotificationId() {
+        String id = notificationId;
+        if (id == null) {
+            id = IdGenerator.format(idPrefix, idNumber); // Yarış zararsız: aynı metin
+            notificationId = id;
+        }
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getSentTime() {
+        return sentMillis == 0 ? null : ParkingClock.getDefault().toLocalDateTime(sentMillis);
+    }
+
+    public long getSentMillis() {
+        return sentMillis;
+    }
+
+    public boolean isDelivered() {
+        return isDelivered;
+    }
+
+    @Override
+    public String toString() {
+        return getNotificationType() + " to " + recipient +
+                " - " + (isDelivered ? "DELIVERED" : "PENDING");
+    }
+}
+
+// SMSNotification sınıfı
+class SMSNotification extends Notification {
+    private String phoneNumber;
+
+    public SMSNotification(String notificationId, String phoneNumber, String message) {
+        super(notificationId, phoneNumber, message);
+        this.phoneNumber = phoneNumber;
+    }
+
+    public SMSNotification(String idPrefix, long idNumber, String phoneNumber, String message) {
+        super(idPrefix, idNumber, phoneNumber, message);
+        this.phoneNumber = phoneNumber;
+    }
+
+    @Override
+    public String getNotificationType() {
+        return "SMS";
+    }
+
+    @Override
+    public boolean send() {
+        // SMS gönderme simülasyonu
+        System.out.println("\n📱 Sending SMS...");
+        System.out.println("To: " + phoneNumber);
+        System.out.println("Message: " + getMessage());
+
+        // Simülasyon: %95 başarı oranı
+        boolean success = Math.random() < 0.95;
+
+        if (success) {
+            markAsDelivered();
+            System.out.println("✓ SMS delivered successfully!");
+        } else {
+            System.out.println("✗ SMS delivery failed!");
+        }
+
+        return success;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+}
+
+// EmailNotification sınıfı
+class EmailNotification extends Notification {
+    private String emailAddress;
+    private String subject;
+
+    public EmailNotification(String notificationId, String emailAddress,
+                             String subject, String message) {
+        super(notificationId, emailAddress, message);
+        this.emailAddress = emailAddress;
+        this.subject = subject;
+    }
+
+    public EmailNotification(String idPrefix, long idNumber, String emailAddress,
+                             String subject, String message) {
+        super(idPrefix, idNumber, emailAddress, message);
+        this.emailAddress = emailAddress;
+        this.subject = subject;
+    }
+
+    @Override
+    public String getNotificationType() {
+        return "EMAIL";
+    }
+
+    @Override
+    public boolean send() {
+        // Email gönderme simülasyonu
+        System.out.println("\n📧 Sending Email...");
+        System.out.println("To: " + emailAddress);
+        System.out.println("Subject: " + subject);
+        System.out.println("Message: " + getMessage());
+
+        // Simülasyon: %98 başarı oranı
+        boolean success = Math.random() < 0.98;
+
+        if (success) {
+            markAsDelivered();
+            System.out.println("✓ Email sent successfully!");
+        } else {
+            System.out.println("✗ Email delivery failed!");
+        }
+
+        return success;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+}
+
+// PushNotification sınıfı
+class PushNotification extends Notification {
+    private String deviceToken;
+    private String title;
+
+    public PushNotification(String notificationId, String deviceToken,
+                            String title, String message) {
+        super(notificationId, deviceToken, message);
+        this.deviceToken = deviceToken;
+        this.title = title;
+    }
+
+    public PushNotification(String idPrefix, long idNumber, String deviceToken,
+                            String title, String message) {
+        super(idPrefix, idNumber, deviceToken, message);
+        this.deviceToken = deviceToken;
+        this.title = title;
+    }
+
+    @Override
+    public String getNotificationType() {
+        return "PUSH";
+    }
+
+    @Override
+    public boolean send() {
+        // Push notification gönderme simülasyonu
+        System.out.println("\n🔔 Sending Push Notification...");
+        System.out.println("Device: " + deviceToken);
+        System.out.println("Title: " + title);
+        System.out.println("Message: " + getMessage());
+
+        // Simülasyon: %97 başarı oranı
+        boolean success = Math.random() < 0.97;
+
+        if (success) {
+            markAsDelivered();
+            System.out.println("✓ Push notification delivered!");
+        } else {
+            System.out.println("✗ Push notification failed!");
+        }
+
+        return success;
+    }
+
+    public String getDeviceToken() {
+        return deviceToken;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
+
+// Son bildirimler - sabit boyutlu, kilitsiz halka tampon
+// Yazan thread kendi hücresini atomik sayaçla alır; eski kayıtlar üzerine yazılır, bellek sabit kalır.
+class NotificationHistory {
+    private final AtomicReferenceArray<Notification> slots;
+    private final int mask;
+    private final AtomicLong cursor;
+
+    NotificationHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1); // 2'nin kuvveti
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.cursor = new AtomicLong();
+    }
+
+    void add(Notification notification) {
+        slots.set((int) (cursor.getAndIncrement() & mask), notification);
+    }
+
+    // Eskiden yeniye son kayıtlar (eşzamanlı yazmada en yeni birkaç kayıt eksik görülebilir)
+    List<Notification> snapshot() {
+        long end = cursor.get();
+        long start = Math.max(0, end - slots.length());
+        List<Notification> recent = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            Notification notification = slots.get((int) (i & mask));
+            if (notification != null) {
+                recent.add(notification);
+            }
+        }
+        return recent;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long totalAdded() {
+        return cursor.get();
+    }
+}
+
+// Bildirim türleri - tekrar önleme anahtarının parçası (aynı bilet için giriş SMS'i bir kez)
+enum NotificationKind {
+    ENTRY_SMS, ENTRY_EMAIL, EXIT_SMS, EXIT_EMAIL, REMINDER_SMS, EXPIRY_SMS, PAYMENT_PUSH,
+    DIGEST_EMAIL, DIGEST_PUSH
+}
+
+// NotificationRoute - Bir otoparkın bildirim ayarları: outbox, özet modu ve hız sınırı
+// Servis tekil olduğundan bu ayarlar serviste değil otoparkta tutulur ve her gönderime verilir:
+// bir otoparkın outbox'ı veya kısıtlaması başka otoparkın bildirimlerine karışmaz.
+final class NotificationRoute {
+    private volatile NotificationOutbox outbox;     // null: bildirimler çağıran thread'de gönderilir
+    private volatile NotificationDigest digest;     // null: özet modu kapalı
+    private volatile NotificationThrottle throttle; // null: sınırlama ve tekrar önleme kapalı
+
+    NotificationOutbox getOutbox() {
+        return outbox;
+    }
+
+    void setOutbox(NotificationOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    NotificationDigest getDigest() {
+        return digest;
+    }
+
+    void setDigest(NotificationDigest digest) {
+        this.digest = digest;
+    }
+
+    NotificationThrottle getThrottle() {
+        return throttle;
+    }
+
+    void setThrottle(NotificationThrottle throttle) {
+        this.throttle = throttle;
+    }
+}
+
+// NotificationService - Merkezi bildirim yönetimi
+public class NotificationService {
+    public static final int HISTORY_CAPACITY = 1024;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final NotificationHistory notificationHistory; // Sadece son bildirimler
+    private final LongAdder[] sentByChannel;      // Kanal başına toplam (geçmişten bağımsız)
+    private final LongAdder[] deliveredByChannel; // Doğrudan gönderimde teslim edilenler
+    private final IdGenerator idGenerator;
+    private final NotificationRoute direct = new NotificationRoute(); // Otoparksız çağrılar: ayar yok
+
+    private NotificationService() {
+        this.idGenerator = IdGenerator.getDefault();
+        this.notificationHistory = new NotificationHistory(HISTORY_CAPACITY);
+        int channels = NotificationChannel.values().length;
+        this.sentByChannel = new LongAdder[channels];
+        this.deliveredByChannel = new LongAdder[channels];
+        for (int i = 0; i < channels; i++) {
+            sentByChannel[i] = new LongAdder();
+            deliveredByChannel[i] = new LongAdder();
+        }
+    }
+
+    // GÜNCELLEME: Singleton - holder sınıfı ilk erişimde, JVM sınıf yükleme kilidiyle bir kez kurulur
+    private static final class Holder {
+        static final NotificationService INSTANCE = new NotificationService();
+    }
+
+    public static NotificationService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Metin üretilmeden ve kuyruğa girmeden önce kontrol - bastırılan bildirim hiç oluşturulmaz
+    private boolean admit(NotificationRoute route, NotificationChannel channel, Customer customer,
+                          NotificationKind kind, String ticketId, ParkingClock clock) {
+        NotificationThrottle current = route.getThrottle();
+        return current == null || current.tryAcquire(channel, customer.getId(), kind, ticketId, clock.millis());
+    }
+
+    // Outbox varsa kuyruğa al, yoksa hemen gönder
+    private void deliver(NotificationRoute route, Notification notification) {
+        int channel = NotificationChannel.of(notification).ordinal();
+        NotificationOutbox current = route.getOutbox();
+        if (current != null) {
+            current.enqueue(notification); // Teslim sayacı outbox'ta
+        } else if (notification.send()) {
+            deliveredByChannel[channel].increment();
+        }
+        sentByChannel[channel].increment();
+        notificationHistory.add(notification);
+    }
+
+    // Giriş bildirimi gönder
+    public void sendEntryNotification(Customer customer, Ticket ticket, ParkingSpot spot) {
+        sendEntryNotification(direct, customer, ticket, spot);
+    }
+
+    // Otoparkın outbox, özet ve kısıtlama ayarlarıyla
+    public void sendEntryNotification(NotificationRoute route, Customer customer, Ticket ticket, ParkingSpot spot) {
+        NotificationDigest currentDigest = route.getDigest();
+        if (currentDigest != null && currentDigest.offerEntry(customer, ticket.getVehicle().getLicensePlate(),
+                spot.getSpotId(), ticket.getIssueMillis())) {
+            return; // Özete eklendi
+        }
+        String time = ticket.getIssueTime().format(TIME_FORMAT); // Giriş zamanı = bilet kesim zamanı
+
+        // SMS gönder
+        if (admit(route, NotificationChannel.SMS, customer, NotificationKind.ENTRY_SMS, ticket.getTicketId(), ticket.getClock())) {
+            String smsMessage = "Aracınız " + ticket.getVehicle().getLicensePlate() +
+                    " başarıyla park edildi. Yer: " + spot.getSpotId() +
+                    ", Kat: " + spot.getFloor() + ". Zaman: " + time;
+            deliver(route, new SMSNotification(
+                    "SMS", idGenerator.nextId(),
+                    customer.getPhone(),
+                    smsMessage
+            ));
+        }
+
+        // Email gönder
+        if (admit(route, NotificationChannel.EMAIL, customer, NotificationKind.ENTRY_EMAIL, ticket.getTicketId(), ticket.getClock())) {
+            String emailMessage = "Sayın " + customer.getName() + ",\n\n" +
+                    "Aracınız başarıyla park edilmiştir.\n\n" +
+                    "Detaylar:\n" +
+                    "Araç Plakası: " + ticket.getVehicle().getLicensePlate() + "\n" +
+                    "Park Yeri: " + spot.getSpotId() + "\n" +
+                    "Kat: " + spot.getFloor() + "\n" +
+                    "Giriş Zamanı: " + time + "\n" +
+                    "Bilet No: " + ticket.getTicketId() + "\n\n" +
+                    "İyi günler dileriz!";
+            deliver(route, new EmailNotification(
+                    "EMAIL", idGenerator.nextId(),
+                    customer.getEmail(),
+                    "Otopark Giriş Bildirimi",
+                    emailMessage
+            ));
+        }
+    }
+
+    // Çıkış bildirimi gönder
+    public void sendExitNotification(Customer customer, Ticket ticket, long feeKurus) {
+        sendExitNotification(direct, customer, ticket, feeKurus);
+    }
+
+    public void sendExitNotification(NotificationRoute route, Customer customer, Ticket ticket, long feeKurus) {
+        NotificationDigest currentDigest = route.getDigest();
+        if (currentDigest != null && currentDigest.offerExit(customer, ticket.getVehicle().getLicensePlate(),
+                feeKurus, ticket.getClock().millis())) {
+            return;
+        }
+        String time = ticket.getClock().now().format(TIME_FORMAT); // Otoparkın saatiyle
+        String fee = Money.format(feeKurus);
+
+        // SMS gönder
+        if (admit(route, NotificationChannel.SMS, customer, NotificationKind.EXIT_SMS, ticket.getTicketId(), ticket.getClock())) {
+            String smsMessage = "Aracınız " + ticket.getVehicle().getLicensePlate() +
+                    " otoparktan çıkış yaptı. Ücret: " + fee + " TL. " +
+                    "Zaman: " + time;
+            deliver(route, new SMSNotification(
+                    "SMS", idGenerator.nextId(),
+                    customer.getPhone(),
+                    smsMessage
+            ));
+        }
+
+        // Fatura emaili
+        if (admit(route, NotificationChannel.EMAIL, customer, NotificationKind.EXIT_EMAIL, ticket.getTicketId(), ticket.getClock())) {
+            String emailMessage = "Sayın " + customer.getName() + ",\n\n" +
+                    "Otoparktan çıkış işleminiz tamamlanmıştır.\n\n" +
+                    "FATURA BİLGİLERİ:\n" +
+                    "====================\n" +
+                    "Araç Plakası: " + ticket.getVehicle().getLicensePlate() + "\n" +
+                    "Çıkış Zamanı: " + time + "\n" +
+                    "Bilet No: " + ticket.getTicketId() + "\n" +
+                    "Toplam Ücret: " + fee + " TL\n\n" +
+                    "Bizi tercih ettiğiniz için teşekkür ederiz!";
+            deliver(route, new EmailNotification(
+                    "EMAIL", idGenerator.nextId(),
+                    customer.getEmail(),
+                    "Otopark Çıkış Faturası",
+                    emailMessage
+            ));
+        }
+    }
+
+    // Özet penceresi kapandı: olay satırları tek metinde, bir email + bir push
+    public void sendDigestNotification(NotificationRoute route, CustomerDigest window) {
+        Customer customer = window.customer;
+        String windowId = Long.toString(window.windowStartMillis); // Tekrar önleme anahtarı: pencere
+        String totalFee = Money.format(window.totalFeeKurus);
+
+        if (admit(route, NotificationChannel.EMAIL, customer, NotificationKind.DIGEST_EMAIL, windowId, window.clock)) {
+            StringBuilder lines = new StringBuilder(window.events.size() * 48);
+            for (DigestEvent event : window.events) {
+                lines.append(window.clock.toLocalDateTime(event.eventMillis).format(TIME_FORMAT));
+                if (event.exit) {
+                    lines.append("  Çıkış  ").append(event.plate).append("  Ücret: ");
+                    Money.appendTo(lines, event.feeKurus).append(" TL\n");
+                } else {
+                    lines.append("  Giriş  ").append(event.plate).append("  Yer: ").append(event.spotId).append('\n');
+                }
+            }
+            if (window.dropped > 0) {
+                lines.append("... ve ").append(window.dropped).append(" hareket daha\n");
+            }
+            String emailMessage = "Sayın " + customer.getName() + ",\n\n" +
+                    "Araçlarınızın son hareketleri (" + window.entries + " giriş, " + window.exits + " çıkış):\n\n" +
+                    lines + "\n" +
+                    "Toplam Ücret: " + totalFee + " TL\n\n" +
+                    "İyi günler dileriz!";
+            deliver(route, new EmailNotification(
+                    "EMAIL", idGenerator.nextId(),
+                    customer.getEmail(),
+                    "Otopark Hareket Özeti",
+                    emailMessage
+            ));
+        }
+        if (admit(route, NotificationChannel.PUSH, customer, NotificationKind.DIGEST_PUSH, windowId, window.clock)) {
+            deliver(route, new PushNotification(
+                    "PUSH", idGenerator.nextId(),
+                    "DEVICE_" + customer.getId(),
+                    "Otopark Özeti",
+                    window.getEventCount() + " araç hareketi: " + window.entries + " giriş, " +
+                            window.exits + " çıkış. Toplam: " + totalFee + " TL"
+            ));
+        }
+    }
+
+    // Hatırlatma bildirimi
+    public void sendReminderNotification(Customer customer, Ticket ticket, int hoursRemaining) {
+        sendReminderNotification(direct, customer, ticket, hoursRemaining);
+    }
+
+    public void sendReminderNotification(NotificationRoute route, Customer customer, Ticket ticket,
+                                         int hoursRemaining) {
+        if (!admit(route, NotificationChannel.SMS, customer, NotificationKind.REMINDER_SMS, ticket.getTicketId(), ticket.getClock())) {
+            return;
+        }
+        String smsMessage = "Hatırlatma: Aracınız " + ticket.getVehicle().getLicensePlate() +
+                " için kalan süre: " + hoursRemaining + " saat. " +
+                "Bilet: " + ticket.getTicketId();
+        deliver(route, new SMSNotification(
+                "SMS", idGenerator.nextId(),
+                customer.getPhone(),
+                smsMessage
+        ));
+    }
+
+    // YENİ: Bilet süresi doldu (zamanlayıcı tetikler)
+    public void sendExpiryNotification(Customer customer, Ticket ticket) {
+        sendExpiryNotification(direct, customer, ticket);
+    }
+
+    public void sendExpiryNotification(NotificationRoute route, Customer customer, Ticket ticket) {
+        if (!admit(route, NotificationChannel.SMS, customer, NotificationKind.EXPIRY_SMS, ticket.getTicketId(), ticket.getClock())) {
+            return;
+        }
+        String smsMessage = "Bilgi: " + ticket.getVehicle().getLicensePlate() +
+                " için " + ticket.getTicketType() + " süresi doldu. " +
+                "Bilet: " + ticket.getTicketId();
+        deliver(route, new SMSNotification(
+                "SMS", idGenerator.nextId(),
+                customer.getPhone(),
+                smsMessage
+        ));
+    }
+
+    // Ödeme hatırlatması
+    public void sendPaymentReminderNotification(Customer customer, double amount) {
+        sendPaymentReminderNotification(direct, customer, amount);
+    }
+
+    public void sendPaymentReminderNotification(NotificationRoute route, Customer customer, double amount) {
+        // Bilete bağlı değil: aynı müşteriye pencere içinde tek ödeme hatırlatması
+        if (!admit(route, NotificationChannel.PUSH, customer, NotificationKind.PAYMENT_PUSH, null, ParkingClock.getDefault())) {
+            return;
+        }
+        deliver(route, new PushNotification(
+                "PUSH", idGenerator.nextId(),
+                "DEVICE_" + customer.getId(),
+                "Ödeme Hatırlatması",
+                "Ödemeniz gereken tutar: " + amount + " TL"
+        ));
+    }
+
+    // Bildirim geçmişi - son HISTORY_CAPACITY bildirim, eskiden yeniye
+    public List<Notification> getNotificationHistory() {
+        return notificationHistory.snapshot();
+    }
+
+    public long getSentCount(NotificationChannel channel) {
+        return sentByChannel[channel.ordinal()].sum();
+    }
+
+    // Doğrudan gönderilenler - outbox üzerinden teslim edilenler otoparkın outbox'ında sayılır
+    public long getDeliveredCount(NotificationChannel channel) {
+        return deliveredByChannel[channel.ordinal()].sum();
+    }
+
+    public long getTotalSentCount() {
+        long total = 0;
+        for (LongAdder counter : sentByChannel) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    // İstatistikler - sayaçlardan okunur, geçmiş taranmaz
+    public void printStatistics() {
+        printStatistics(direct);
+    }
+
+    // Otoparkın outbox teslimleri ve kısıtlama sayaçlarıyla
+    public void printStatistics(NotificationRoute route) {
+        System.out.println("\n=== NOTIFICATION STATISTICS ===");
+        NotificationOutbox outbox = route.getOutbox();
+        long delivered = outbox == null ? 0 : outbox.getDeliveredCount();
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            delivered += getDeliveredCount(channel);
+        }
+
+        System.out.println("Total Notifications: " + getTotalSentCount());
+        System.out.println("SMS: " + getSentCount(NotificationChannel.SMS));
+        System.out.println("Email: " + getSentCount(NotificationChannel.EMAIL));
+        System.out.println("Push: " + getSentCount(NotificationChannel.PUSH));
+        System.out.println("Delivered: " + delivered);
+        NotificationThrottle current = route.getThrottle();
+        if (current != null) {
+            System.out.println("Suppressed (rate limit/duplicate): " + current.getSuppressed());
+        }
+        System.out.println("===============================\n");
+    }
 }
\ No newline at end of file
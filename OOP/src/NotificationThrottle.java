@@ -0,0 +1,256 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// Kanal başına token kovası ayarı: kapasite (ani gönderim) ve saatlik dolum
+class RateLimit {
+    final int capacity;
+    final int refillPerHour;
+
+    RateLimit(int capacity, int refillPerHour) {
+        if (capacity <= 0 || refillPerHour < 0) {
+            throw new IllegalArgumentException("Invalid rate limit: " + capacity + "/" + refillPerHour);
+        }
+        this.capacity = capacity;
+        this.refillPerHour = refillPerHour;
+    }
+}
+
+// SlotTable - Sabit boyutlu, 4 yollu küme ilişkili tablo (ilkel diziler, kutulama yok)
+// Her hücre: 64 bit anahtar, zaman damgası ve bir int değer. Küme doluysa damgası en eski kayıt düşer.
+// Kendi başına thread-safe değildir: ThrottleShard kilidi altında kullanılır.
+final class SlotTable {
+    static final int WAYS = 4;
+
+    final long[] keys; // 0: boş hücre
+    final long[] stamps;
+    final int[] values;
+    private final int setMask;
+    long evictions;
+
+    SlotTable(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(1, capacity / WAYS - 1) << 1);
+        this.keys = new long[sets * WAYS];
+        this.stamps = new long[sets * WAYS];
+        this.values = new int[sets * WAYS];
+        this.setMask = sets - 1;
+    }
+
+    // Anahtarın bulunduğu hücre, yoksa -1
+    int find(long key) {
+        int base = base(key);
+        for (int way = 0; way < WAYS; way++) {
+            if (keys[base + way] == key) return base + way;
+        }
+        return -1;
+    }
+
+    // Yeni anahtar için hücre: boş hücre, yoksa kümedeki en eski kayıt. Yer her zaman açılır.
+    int insert(long key, long stamp, int value) {
+        int base = base(key);
+        int victim = base;
+        for (int way = 0; way < WAYS; way++) {
+            if (keys[base + way] == 0) {
+                victim = base + way;
+                break;
+            }
+            if (stamps[base + way] < stamps[victim]) victim = base + way;
+        }
+        if (keys[victim] != 0) evictions++;
+        keys[victim] = key;
+        stamps[victim] = stamp;
+        values[victim] = value;
+        return victim;
+    }
+
+    private int base(long key) {
+        long mixed = key ^ (key >>> 29);
+        return (int) (mixed & setMask) * WAYS;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+}
+
+// ThrottleShard - Alıcıların bir dilimi: kovalar ve tekrar kayıtları aynı kilit altında
+final class ThrottleShard {
+    final SlotTable buckets; // damga: son dolum zamanı, değer: tam token
+    final SlotTable recent;  // damga: son gönderim zamanı
+
+    ThrottleShard(int capacity) {
+        this.buckets = new SlotTable(capacity);
+        this.recent = new SlotTable(capacity);
+    }
+}
+
+// NotificationThrottle - Alıcı + kanal başına token kovası ve (alıcı, bildirim türü, bilet) tekrar önleme
+// Tablolar sabit boyutludur: çok sayıda alıcıda kümedeki en eski kayıt düşer (düşen alıcı dolu
+// kovayla yeniden başlar - sınır en kötü durumda biraz gevşer, bellek hiç büyümez). Tablo dolu diye
+// kontrol hiçbir zaman atlanmaz: yer her zaman en eski kayıt silinerek açılır.
+// Bir alıcının tüm kayıtları aynı dilimdedir; tekrar kontrolü, token alma ve kayıt tek kilit altında
+// yapılır - aynı bildirimi eşzamanlı gönderen iki thread'den yalnızca biri geçer.
+public class NotificationThrottle {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final long DEFAULT_DEDUP_WINDOW_MILLIS = 10 * 60_000L;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int SHARDS = 64;
+
+    private final RateLimit[] limits;
+    private final long dedupWindowMillis;
+    private final ThrottleShard[] shards;
+    private final LongAdder[] allowed;
+    private final LongAdder[] rateLimited;
+    private final LongAdder[] duplicates;
+
+    public NotificationThrottle() {
+        this(DEFAULT_CAPACITY, DEFAULT_DEDUP_WINDOW_MILLIS);
+    }
+
+    public NotificationThrottle(int capacity, long dedupWindowMillis) {
+        this.dedupWindowMillis = dedupWindowMillis;
+        this.shards = new ThrottleShard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ThrottleShard(Math.max(SlotTable.WAYS, capacity / SHARDS));
+        }
+        int channels = NotificationChannel.values().length;
+        this.limits = new RateLimit[channels];
+        limits[NotificationChannel.SMS.ordinal()] = new RateLimit(10, 10);    // SMS ücretli: en sıkı
+        limits[NotificationChannel.EMAIL.ordinal()] = new RateLimit(20, 20);
+        limits[NotificationChannel.PUSH.ordinal()] = new RateLimit(30, 60);
+        this.allowed = counters(channels);
+        this.rateLimited = counters(channels);
+        this.duplicates = counters(channels);
+    }
+
+    private static LongAdder[] counters(int count) {
+        LongAdder[] counters = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    public void setRateLimit(NotificationChannel channel, RateLimit limit) {
+        limits[channel.ordinal()] = limit;
+    }
+
+    // true: gönderilebilir. Önce tekrar kontrolü (token harcamasın), sonra kova, sonra kayıt - hepsi tek adımda.
+    // Zaman çağırandan gelir: sanal saatli otoparklar kendi saatiyle sınırlanır.
+    public boolean tryAcquire(NotificationChannel channel, String recipient, NotificationKind kind,
+                              String ticketId, long now) {
+        int c = channel.ordinal();
+        long dedupKey = fingerprint(recipient, kind.ordinal() + 1, ticketId);
+        long bucketKey = fingerprint(recipient, -1 - c, null);
+        ThrottleShard shard = shards[shardOf(recipient)];
+        synchronized (shard) {
+            int sent = shard.recent.find(dedupKey);
+            if (sent >= 0 && now - shard.recent.stamps[sent] < dedupWindowMillis) {
+                duplicates[c].increment();
+                return false;
+            }
+            if (!takeToken(shard.buckets, bucketKey, limits[c], now)) {
+                rateLimited[c].increment();
+                return false;
+            }
+            if (sent >= 0) {
+                shard.recent.stamps[sent] = now;
+            } else {
+                shard.recent.insert(dedupKey, now, 0);
+            }
+        }
+        allowed[c].increment();
+        return true;
+    }
+
+    private static boolean takeToken(SlotTable buckets, long key, RateLimit limit, long now) {
+        int index = buckets.find(key);
+        if (index < 0) {
+            // İlk gönderim: dolu kova, bir token harcanmış olarak yazılır
+            buckets.insert(key, now, limit.capacity - 1);
+            return true;
+        }
+        int tokens = buckets.values[index];
+        long refillMillis = buckets.stamps[index];
+        if (tokens >= limit.capacity || limit.refillPerHour == 0) {
+            refillMillis = now; // Dolu kova birikmez
+        } else if (now > refillMillis) {
+            long gained = (now - refillMillis) * limit.refillPerHour / HOUR_MILLIS;
+            if (gained > 0) {
+                // Zaman yalnızca tam token'a çevrilen kadar ilerler - artan kesir bir sonraki kontrole kalır
+                tokens = (int) Math.min(limit.capacity, tokens + gained);
+                refillMillis = tokens == limit.capacity ? now : refillMillis + gained * HOUR_MILLIS / limit.refillPerHour;
+            }
+        }
+        buckets.stamps[index] = refillMillis;
+        if (tokens == 0) {
+            buckets.values[index] = 0;
+            return false;
+        }
+        buckets.values[index] = tokens - 1;
+        return true;
+    }
+
+    private static int shardOf(String recipient) {
+        int h = recipient == null ? 0 : recipient.hashCode();
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9 >>> 26) & (SHARDS - 1);
+    }
+
+    // FNV-1a 64 bit - String birleştirme olmadan anahtar
+    static long fingerprint(String first, int tag, String second) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, first);
+        hash = (hash ^ tag) * 0x100000001b3L;
+        hash = mix(hash, second);
+        return hash == 0 ? 1 : hash; // 0 boş hücre işaretidir
+    }
+
+    private static long mix(long hash, String text) {
+        if (text == null) {
+            return (hash ^ 0xff) * 0x100000001b3L;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return (hash ^ text.length()) * 0x100000001b3L;
+    }
+
+    public long getAllowed(NotificationChannel channel) {
+        return allowed[channel.ordinal()].sum();
+    }
+
+    public long getRateLimited(NotificationChannel channel) {
+        return rateLimited[channel.ordinal()].sum();
+    }
+
+    public long getDuplicates(NotificationChannel channel) {
+        return duplicates[channel.ordinal()].sum();
+    }
+
+    public long getSuppressed() {
+        long total = 0;
+        for (int i = 0; i < allowed.length; i++) {
+            total += rateLimited[i].sum() + duplicates[i].sum();
+        }
+        return total;
+    }
+
+    public long getEvictions() {
+        long total = 0;
+        for (ThrottleShard shard : shards) {
+            synchronized (shard) {
+                total += shard.buckets.evictions + shard.recent.evictions;
+            }
+        }
+        return total;
+    }
+
+    public void printStatistics() {
+        System.out.println("🚦 Throttle (" + SHARDS * shards[0].buckets.capacity() + " buckets, " +
+                SHARDS * shards[0].recent.capacity() + " dedup slots):");
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            System.out.println("   " + channel + ": allowed " + getAllowed(channel) + ", rate limited " +
+                    getRateLimited(channel) + ", duplicates " + getDuplicates(channel));
+        }
+        System.out.println("   Evictions: " + getEvictions());
+    }
+}
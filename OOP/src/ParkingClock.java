@@ -0,0 +1,137 @@
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ParkingClock - Otopark genelinde zaman kaynağı
+// Zaman damgaları içeride epoch-millis (long) olarak tutulur; LocalDateTime sadece
+// gösterim için, getter çağrıldığında üretilir. ParkingLot kendi saatini bilete, işleme ve
+// servislere aktarır. Bağlamı olmayan nesneler (Payment, Notification) varsayılan saati kullanır.
+public abstract class ParkingClock {
+    private static volatile ParkingClock defaultClock = new SystemParkingClock(ZoneId.systemDefault());
+
+    private final ZoneId zone;
+
+    protected ParkingClock(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    // Şu anki zaman (epoch-millis) - sıcak yollarda nesne oluşturmaz
+    public abstract long millis();
+
+    public LocalDateTime now() {
+        return toLocalDateTime(millis());
+    }
+
+    public LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    public long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public static ParkingClock getDefault() {
+        return defaultClock;
+    }
+
+    // Simülasyon ve testler için varsayılan saati değiştir
+    public static void setDefault(ParkingClock clock) {
+        defaultClock = clock;
+    }
+
+    public static ParkingClock system() {
+        return new SystemParkingClock(ZoneId.systemDefault());
+    }
+
+    // tickMillis aralıkla güncellenen önbellekli saat (çok sık okunan yollar için)
+    public static CachedParkingClock cached(long tickMillis) {
+        return new CachedParkingClock(ZoneId.systemDefault(), tickMillis);
+    }
+
+    public static VirtualParkingClock virtual(long startMillis) {
+        return new VirtualParkingClock(ZoneId.systemDefault(), startMillis);
+    }
+}
+
+// Sistem saati
+class SystemParkingClock extends ParkingClock {
+
+    public SystemParkingClock(ZoneId zone) {
+        super(zone);
+    }
+
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+}
+
+// Önbellekli saat - arka plan thread'i değeri periyodik yeniler, okuma sadece volatile okumadır
+// Hassasiyet tickMillis kadardır; ücret ve süre hesaplarında bu fark önemsizdir.
+class CachedParkingClock extends ParkingClock implements AutoCloseable {
+    private final Thread ticker;
+    private volatile long currentMillis;
+    private volatile boolean running;
+
+    public CachedParkingClock(ZoneId zone, long tickMillis) {
+        super(zone);
+        this.currentMillis = System.currentTimeMillis();
+        this.running = true;
+        this.ticker = new Thread(() -> {
+            while (running) {
+                currentMillis = System.currentTimeMillis();
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "parking-clock-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    @Override
+    public long millis() {
+        return currentMillis;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+    }
+}
+
+// Sanal saat - sadece elle ilerletilir (simülasyon ve hızlandırılmış faturalama)
+class VirtualParkingClock extends ParkingClock {
+    private final AtomicLong currentMillis;
+
+    public VirtualParkingClock(ZoneId zone, long startMillis) {
+        super(zone);
+        this.currentMillis = new AtomicLong(startMillis);
+    }
+
+    @Override
+    public long millis() {
+        return currentMillis.get();
+    }
+
+    public long advance(Duration duration) {
+        return advanceMillis(duration.toMillis());
+    }
+
+    public long advanceMillis(long millis) {
+        return currentMillis.addAndGet(millis);
+    }
+
+    public void setMillis(long millis) {
+        currentMillis.set(millis);
+    }
+}
@@ -0,0 +1,430 @@
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Otopark olayları - park yeri ve bilet kaydı tamamlandıktan sonra yayınlanır
+abstract class ParkingEvent {
+    private final Ticket ticket;
+    private final ParkingSpot spot;
+    private final long publishedNanos;
+    private final long epochMillis; // Olayın gerçekleştiği an (analitik için)
+
+    public ParkingEvent(Ticket ticket, ParkingSpot spot) {
+        this.ticket = ticket;
+        this.spot = spot;
+        this.publishedNanos = System.nanoTime();
+        this.epochMillis = ticket.getClock().millis(); // Otoparkın saatiyle
+    }
+
+    public abstract String getEventType();
+
+    public Ticket getTicket() {
+        return ticket;
+    }
+
+    public ParkingSpot getSpot() {
+        return spot;
+    }
+
+    public Vehicle getVehicle() {
+        return ticket.getVehicle();
+    }
+
+    public Customer getCustomer() {
+        return ticket.getCustomer();
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+}
+
+// Araç girişi olayı
+class VehicleEnteredEvent extends ParkingEvent {
+
+    public VehicleEnteredEvent(Ticket ticket, ParkingSpot spot) {
+        super(ticket, spot);
+    }
+
+    @Override
+    public String getEventType() {
+        return "VEHICLE_ENTERED";
+    }
+}
+
+// Araç çıkışı olayı
+class VehicleExitedEvent extends ParkingEvent {
+    private final long feeKurus;
+
+    public VehicleExitedEvent(Ticket ticket, ParkingSpot spot, long feeKurus) {
+        super(ticket, spot);
+        this.feeKurus = feeKurus;
+    }
+
+    @Override
+    public String getEventType() {
+        return "VEHICLE_EXITED";
+    }
+
+    public long getFeeKurus() {
+        return feeKurus;
+    }
+}
+
+// Olay dinleyici interface
+interface ParkingEventHandler {
+    String getHandlerName();
+
+    default void onVehicleEntered(VehicleEnteredEvent event) {
+    }
+
+    default void onVehicleExited(VehicleExitedEvent event) {
+    }
+}
+
+// Güvenlik kaydı (plaka tanıma + kamera kaydı)
+class SecurityEventHandler implements ParkingEventHandler {
+    private final SecuritySystem securitySystem;
+
+    public SecurityEventHandler(SecuritySystem securitySystem) {
+        this.securitySystem = securitySystem;
+    }
+
+    @Override
+    public String getHandlerName() {
+        return "security";
+    }
+
+    @Override
+    public void onVehicleEntered(VehicleEnteredEvent event) {
+        securitySystem.logVehicleEntry(event.getVehicle(), event.getSpot(), event.getTicket());
+    }
+
+    @Override
+    public void onVehicleExited(VehicleExitedEvent event) {
+        securitySystem.logVehicleExit(event.getVehicle(), event.getSpot(), event.getTicket());
+    }
+}
+
+// Giriş/çıkış bildirimleri
+class NotificationEventHandler implements ParkingEventHandler {
+    private final NotificationService notificationService;
+    private final NotificationRoute route; // Otoparkın outbox/özet/kısıtlama ayarları
+
+    public NotificationEventHandler(NotificationService notificationService, NotificationRoute route) {
+        this.notificationService = notificationService;
+        this.route = route;
+    }
+
+    @Override
+    public String getHandlerName() {
+        return "notification";
+    }
+
+    @Override
+    public void onVehicleEntered(VehicleEnteredEvent event) {
+        notificationService.sendEntryNotification(route, event.getCustomer(), event.getTicket(), event.getSpot());
+    }
+
+    @Override
+    public void onVehicleExited(VehicleExitedEvent event) {
+        notificationService.sendExitNotification(route, event.getCustomer(), event.getTicket(), event.getFeeKurus());
+    }
+}
+
+// Elektrikli araç şarjı
+class ChargingEventHandler implements ParkingEventHandler {
+    private final ChargingStationManager chargingManager;
+
+    public ChargingEventHandler(ChargingStationManager chargingManager) {
+        this.chargingManager = chargingManager;
+    }
+
+    @Override
+    public String getHandlerName() {
+        return "charging";
+    }
+
+    @Override
+    public void onVehicleEntered(VehicleEnteredEvent event) {
+        if (!(event.getVehicle() instanceof ElectricVehicle)) return;
+
+        ElectricVehicle ev = (ElectricVehicle) event.getVehicle();
+        if (ev.isNeedsCharging() && event.getSpot() instanceof ElectricChargingSpot) {
+            System.out.println("\n🔋 Electric vehicle detected. Starting charging...");
+            chargingManager.startCharging(ev, 100); // %100'e kadar şarj
+        }
+    }
+}
+
+// ParkingEventBus - Yan etkileri kapı thread'inden ayıran olay hattı
+// Her dinleyicinin kendi sınırlı kuyruğu ve kendi thread'i vardır.
+// Kuyruk dolarsa yayınlayan thread bekler (backpressure), olay kaybolmaz.
+// Durdurulmuş kanala gelen olay yayınlayan thread'de işlenir.
+public class ParkingEventBus {
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private final List<HandlerChannel> channels;
+    private volatile boolean shutdown;
+    private final Thread drainHook; // shutdown() kaldırır: kapatılan otopark JVM sonuna kadar tutulmaz
+
+    public ParkingEventBus() {
+        this.channels = new CopyOnWriteArrayList<>();
+        this.shutdown = false;
+
+        // JVM kapanırken kuyrukta kalan olayları işle
+        this.drainHook = new Thread(() -> shutdown(5, TimeUnit.SECONDS), "parking-event-bus-drain");
+        Runtime.getRuntime().addShutdownHook(drainHook);
+    }
+
+    public synchronized void register(ParkingEventHandler handler) {
+        register(handler, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public synchronized void register(ParkingEventHandler handler, int queueCapacity) {
+        HandlerChannel channel = new HandlerChannel(handler, queueCapacity);
+        channels.add(channel);
+        channel.start();
+    }
+
+    // Dinleyiciyi çıkar: kuyruğunda kalanlar işlenir, thread durur.
+    // Trafik yokken çağrılmalı (ölçümlerde yan etki servislerini kapatmak için)
+    public synchronized boolean unregister(String handlerName) {
+        for (HandlerChannel channel : channels) {
+            if (channel.getHandlerName().equals(handlerName)) {
+                channels.remove(channel);
+                channel.stop(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void publish(ParkingEvent event) {
+        for (HandlerChannel channel : channels) {
+            channel.enqueue(event);
+        }
+    }
+
+    // Tüm kuyruklar boşalıp işlenene kadar bekle (raporlar ve testler için)
+    public void awaitIdle() {
+        for (HandlerChannel channel : channels) {
+            channel.awaitIdle();
+        }
+    }
+
+    // Yeni olay kabul etme, kuyruktakileri işle ve thread'leri durdur
+    public void shutdown(long timeout, TimeUnit unit) {
+        if (shutdown) return;
+        shutdown = true;
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (HandlerChannel channel : channels) {
+            channel.stop(deadline);
+        }
+        if (Thread.currentThread() != drainHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(drainHook);
+            } catch (IllegalStateException e) {
+                // JVM zaten kapanıyor - kanca kendi çalışacak (shutdown tekrar çağrılırsa hemen döner)
+            }
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public void printStatistics() {
+        System.out.println("\n=== EVENT PIPELINE STATISTICS ===");
+        for (HandlerChannel channel : channels) {
+            System.out.println(channel.getHandlerName() + ": " +
+                    "processed " + channel.getProcessedCount() + "/" + channel.getPublishedCount() +
+                    ", queue " + channel.getQueueDepth() +
+                    ", failed " + channel.getFailedCount() +
+                    ", blocked publishes " + channel.getBlockedPublishCount() +
+                    ", lag avg " + String.format("%.2f", channel.getAverageLagMillis()) + " ms" +
+                    ", lag max " + String.format("%.2f", channel.getMaxLagMillis()) + " ms");
+        }
+        System.out.println("=================================\n");
+    }
+
+    public List<HandlerChannel> getChannels() {
+        return channels;
+    }
+
+    // Tek bir dinleyicinin kuyruğu, thread'i ve gecikme metrikleri
+    static class HandlerChannel implements Runnable {
+        private final ParkingEventHandler handler;
+        private final BlockingQueue<ParkingEvent> queue;
+        private final Thread worker;
+        private final AtomicLong published;
+        private final AtomicLong processed;
+        private final LongAdder failed;
+        private final LongAdder blockedPublishes;
+        private final LongAdder totalLagNanos;
+        private final AtomicLong maxLagNanos;
+        // Kuyruğa ekleme okuma kilidiyle, durdurma yazma kilidiyle: stop() döndükten sonra
+        // kuyruğa olay giremez, işçi çıkmadan önce kuyruktakilerin hepsini görür
+        private final ReentrantReadWriteLock stateLock;
+        private volatile boolean running;
+
+        HandlerChannel(ParkingEventHandler handler, int queueCapacity) {
+            this.handler = handler;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.worker = new Thread(this, "parking-events-" + handler.getHandlerName());
+            this.worker.setDaemon(true);
+            this.published = new AtomicLong();
+            this.processed = new AtomicLong();
+            this.failed = new LongAdder();
+            this.blockedPublishes = new LongAdder();
+            this.totalLagNanos = new LongAdder();
+            this.maxLagNanos = new AtomicLong();
+            this.stateLock = new ReentrantReadWriteLock();
+            this.running = true;
+        }
+
+        void start() {
+            worker.start();
+        }
+
+        void enqueue(ParkingEvent event) {
+            stateLock.readLock().lock();
+            try {
+                published.incrementAndGet();
+                if (running && (queue.offer(event) || awaitSpace(event))) return;
+            } finally {
+                stateLock.readLock().unlock();
+            }
+            // Kanal durdu (kapanış) ya da işçi yok: olay kaybolmasın, burada işlenir
+            dispatch(event);
+            processed.incrementAndGet();
+        }
+
+        // Kuyruk dolu: işçi yaşadıkça aralıklarla yeniden dene; sınırsız put() yerine zaman aşımlı
+        private boolean awaitSpace(ParkingEvent event) {
+            blockedPublishes.increment();
+            try {
+                while (worker.isAlive()) {
+                    if (queue.offer(event, 100, TimeUnit.MILLISECONDS)) return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    ParkingEvent event = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        dispatch(event);
+                        recordLag(event);
+                        processed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    // stop() sonrası kalanları boşaltmaya devam et
+                }
+            }
+        }
+
+        void dispatch(ParkingEvent event) {
+            try {
+                if (event instanceof VehicleEnteredEvent) {
+                    handler.onVehicleEntered((VehicleEnteredEvent) event);
+                } else if (event instanceof VehicleExitedEvent) {
+                    handler.onVehicleExited((VehicleExitedEvent) event);
+                }
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.err.println("Event handler " + handler.getHandlerName() +
+                        " failed on " + event.getEventType() + ": " + e.getMessage());
+            }
+        }
+
+        private void recordLag(ParkingEvent event) {
+            long lag = System.nanoTime() - event.getPublishedNanos();
+            totalLagNanos.add(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+        }
+
+        void awaitIdle() {
+            while (processed.get() < published.get() && worker.isAlive()) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        void stop(long deadlineNanos) {
+            stateLock.writeLock().lock(); // Süren eklemeler bitsin, yenileri çağıranda işlensin
+            try {
+                running = false;
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // İşçi beklenmedik şekilde (Error) öldüyse kuyrukta kalanlar burada işlenir
+            if (!worker.isAlive()) {
+                ParkingEvent event;
+                while ((event = queue.poll()) != null) {
+                    dispatch(event);
+                    processed.incrementAndGet();
+                }
+            }
+        }
+
+        String getHandlerName() {
+            return handler.getHandlerName();
+        }
+
+        long getPublishedCount() {
+            return published.get();
+        }
+
+        long getProcessedCount() {
+            return processed.get();
+        }
+
+        long getFailedCount() {
+            return failed.sum();
+        }
+
+        long getBlockedPublishCount() {
+            return blockedPublishes.sum();
+        }
+
+        int getQueueDepth() {
+            return queue.size();
+        }
+
+        double getAverageLagMillis() {
+            long count = processed.get();
+            return count == 0 ? 0 : totalLagNanos.sum() / (count * 1_000_000.0);
+        }
+
+        double getMaxLagMillis() {
+            return maxLagNanos.get() / 1_000_000.0;
+        }
+    }
+}
@@ -53,17 +53,21 @@ class InvalidVehicleException extends ParkingException {
 
 // PaymentFailedException - Ödeme hatası
 class PaymentFailedException extends ParkingException {
-    private double amount;
+    private long amountKurus;
     private String paymentMethod;
 
-    public PaymentFailedException(String message, double amount, String paymentMethod) {
+    public PaymentFailedException(String message, long amountKurus, String paymentMethod) {
         super(message, "PAYMENT_FAILED");
-        this.amount = amount;
+        this.amountKurus = amountKurus;
         this.paymentMethod = paymentMethod;
     }
 
+    public long getAmountKurus() {
+        return amountKurus;
+    }
+
     public double getAmount() {
-        return amount;
+        return Money.toLira(amountKurus);
     }
 
     public String getPaymentMethod() {
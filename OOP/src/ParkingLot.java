@@ -1,43 +1,99 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 // Ana otopark sistemi sınıfı - YENİ ÖZELLİKLERLE GÜNCELLENDİ
+// Birden fazla giriş/çıkış kapısı aynı örneği eşzamanlı kullanabilir
 public class ParkingLot {
     private String name;
     private String address;
     private int totalFloors;
+    private int spotsPerFloor;
     private List<Floor> floors;
     private List<Gate> gates;
     private Map<String, Ticket> activeTickets;
     private List<Transaction> transactionHistory;
-    private List<Customer> customers;
+    private Set<Customer> customers;
     private List<Employee> employees;
-    private double totalRevenue;
+    private final MoneyAccumulator totalRevenue; // Park ücretleri (kuruş)
+    private final IdGenerator idGenerator; // Çakışmasız bilet/işlem ID'leri
+    private final ParkingClock clock; // Bilet, işlem ve servis zaman damgalarının kaynağı
 
     // YENİ: Eklenen servisler
     private NotificationService notificationService;
     private CarWashService carWashService;
     private SecuritySystem securitySystem;
     private ChargingStationManager chargingManager;
+    private ParkingEventBus eventBus; // Giriş/çıkış sonrası yan etkiler
+    private TransactionJournal journal; // Kalıcı işlem günlüğü (opsiyonel)
+    // Bu otoparkın outbox, özet ve hız sınırı ayarları (opsiyonel) - tekil servise değil her gönderime verilir
+    private final NotificationRoute notificationRoute = new NotificationRoute();
+    private JournalSnapshotter snapshotter; // Kurtarmayı kısaltan periyodik snapshot
+    private final ParkingMetrics metrics; // Rapor sayaçları (geçmiş taranmaz)
+    private final RollupStore rollups; // Dakika/saat/gün kovalı geçmiş analitiği
+    private final SubscriptionExpiryIndex subscriptions; // Abonelikler bitiş zamanına göre (toplu yenileme)
+    private final TicketExpiryScheduler expiryScheduler; // Bitiş ve hatırlatma zamanlayıcıları
+
+    // Günlük açıkken bellekte sadece son işlemler tutulur
+    private static final int RECENT_TRANSACTION_LIMIT = 1000;
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 100_000; // kayıt
 
     public ParkingLot(String name, String address, int totalFloors) {
+        this(name, address, totalFloors, 20);
+    }
+
+    // YENİ: Kat başına yer sayısı ayarlanabilir (büyük otoparklar için)
+    public ParkingLot(String name, String address, int totalFloors, int spotsPerFloor) {
+        this(name, address, totalFloors, spotsPerFloor, ParkingClock.getDefault());
+    }
+
+    // YENİ: Saat dışarıdan verilebilir (önbellekli saat veya simülasyon için sanal saat)
+    public ParkingLot(String name, String address, int totalFloors, int spotsPerFloor,
+                      ParkingClock clock) {
         this.name = name;
+        this.clock = clock;
         this.address = address;
         this.totalFloors = totalFloors;
+        this.spotsPerFloor = spotsPerFloor;
         this.floors = new ArrayList<>();
         this.gates = new ArrayList<>();
-        this.activeTickets = new HashMap<>();
-        this.transactionHistory = new ArrayList<>();
-        this.customers = new ArrayList<>();
-        this.employees = new ArrayList<>();
-        this.totalRevenue = 0.0;
+        this.activeTickets = new ConcurrentHashMap<>();
+        this.transactionHistory = Collections.synchronizedList(new ArrayList<>());
+        this.customers = ConcurrentHashMap.newKeySet();
+        this.employees = new CopyOnWriteArrayList<>();
+        this.totalRevenue = new MoneyAccumulator();
+        this.idGenerator = IdGenerator.getDefault();
+        this.metrics = new ParkingMetrics(totalFloors, clock);
+        this.rollups = new RollupStore(clock.getZone());
+        this.subscriptions = new SubscriptionExpiryIndex();
 
         // YENİ: Servisleri başlat
         this.notificationService = NotificationService.getInstance();
         this.carWashService = new CarWashService();
-        this.securitySystem = new SecuritySystem();
-        this.chargingManager = new ChargingStationManager();
+        this.securitySystem = new SecuritySystem(clock);
+        this.chargingManager = new ChargingStationManager(clock);
+        this.eventBus = new ParkingEventBus();
+        this.expiryScheduler = new TicketExpiryScheduler(clock, new TicketTimerListener() {
+            @Override
+            public void onReminder(Ticket ticket, int hoursRemaining) {
+                notificationService.sendReminderNotification(notificationRoute, ticket.getCustomer(), ticket,
+                        hoursRemaining);
+            }
+
+            @Override
+            public void onExpired(Ticket ticket) {
+                notificationService.sendExpiryNotification(notificationRoute, ticket.getCustomer(), ticket);
+            }
+        });
+        // Sanal saat elle ilerletilir: zamanlayıcılar runDueTimers() ile tetiklenir.
+        // Gerçek saatte thread ilk abonelik biletiyle açılır, shutdown() kapatır
+        if (!(clock instanceof VirtualParkingClock)) {
+            expiryScheduler.startLazily();
+        }
 
         initializeFloors();
         initializeGates();
@@ -46,7 +102,7 @@ public class ParkingLot {
 
     private void initializeFloors() {
         for (int i = 0; i < totalFloors; i++) {
-            floors.add(new Floor(i, 20));
+            floors.add(new Floor(i, spotsPerFloor));
         }
     }
 
@@ -71,6 +127,12 @@ public class ParkingLot {
         }
         chargingManager.initializeStations(evSpots);
 
+        // Yan etkiler kendi thread'lerinde çalışır - kapı sadece yer ayırmayı bekler
+        eventBus.register(new SecurityEventHandler(securitySystem));
+        eventBus.register(new NotificationEventHandler(notificationService, notificationRoute));
+        eventBus.register(new ChargingEventHandler(chargingManager));
+        eventBus.register(new RollupEventHandler(rollups));
+
         // Yıkama çalışanlarını ekle
         carWashService.addWashWorker(new WashWorker(
                 "W001", "Kemal Yıkama", "05551112233",
@@ -86,52 +148,65 @@ public class ParkingLot {
     public Ticket enterVehicle(Vehicle vehicle, Customer customer, String ticketType)
             throws ParkingException {
 
-        if (!customers.contains(customer)) {
-            customers.add(customer);
+        // Günlük açıksa plaka ve müşteri no kayıt alanına sığmalı - yer ayrılmadan reddedilir
+        if (journal != null) {
+            try {
+                TransactionJournal.checkText("License plate", vehicle.getLicensePlate());
+                TransactionJournal.checkText("Customer ID", customer.getId());
+            } catch (IllegalArgumentException e) {
+                throw new ParkingException(e.getMessage());
+            }
         }
 
-        ParkingSpot availableSpot = findAvailableSpot(vehicle);
+        customers.add(customer);
+
+        // Yer, kat kilidi altında bu araca ayrılır - başka kapı aynı yeri alamaz
+        ParkingSpot availableSpot = claimAvailableSpot(vehicle);
         if (availableSpot == null) {
             throw new SpotNotAvailableException(vehicle.getVehicleType());
         }
 
-        String ticketId = "T" + System.currentTimeMillis();
+        String ticketId = idGenerator.nextId("T");
         Ticket ticket = createTicket(ticketId, customer, vehicle, ticketType);
 
         Employee attendant = findAvailableAttendant();
         EntryTransaction entry = new EntryTransaction(
-                "ET" + System.currentTimeMillis(),
+                "ET", idGenerator.nextId(),
                 ticket,
                 attendant,
                 availableSpot
         );
 
-        entry.execute();
+        try {
+            entry.execute();
+        } catch (ParkingException e) {
+            releaseSpot(availableSpot, vehicle);
+            throw e;
+        }
 
+        // Günlüğe bilet görünür olmadan yazılır: EXIT kaydı ENTRY'den önce gelemez
+        if (journal != null) {
+            journal.appendEntry(entry);
+            onJournalAppended();
+        }
         activeTickets.put(ticket.getTicketId(), ticket);
-        transactionHistory.add(entry);
-
-        // YENİ: Güvenlik kaydı
-        securitySystem.logVehicleEntry(vehicle, availableSpot);
-
-        // YENİ: Bildirim gönder
-        notificationService.sendEntryNotification(customer, ticket, availableSpot);
-
-        // YENİ: Elektrikli araç ise şarj başlat
-        if (vehicle instanceof ElectricVehicle) {
-            ElectricVehicle ev = (ElectricVehicle) vehicle;
-            if (ev.isNeedsCharging() && availableSpot instanceof ElectricChargingSpot) {
-                System.out.println("\n🔋 Electric vehicle detected. Starting charging...");
-                chargingManager.startCharging(ev, 100); // %100'e kadar şarj
-            }
+        if (ticket instanceof Renewable) {
+            subscriptions.add(ticket);
         }
+        expiryScheduler.schedule(ticket);
+        recordTransaction(entry);
+        metrics.recordEntry(entry.getTransactionMillis(), availableSpot);
+
+        // Güvenlik kaydı, bildirim ve şarj başlatma olay hattında işlenir
+        eventBus.publish(new VehicleEnteredEvent(ticket, availableSpot));
 
         return ticket;
     }
 
     // GÜNCELLEME: Araç çıkışı - bildirim ve güvenlik eklendi
     public void exitVehicle(String ticketId, Payment payment) throws ParkingException {
-        Ticket ticket = activeTickets.get(ticketId);
+        // Bileti atomik olarak al - aynı bilet iki kapıdan birden çıkamaz
+        Ticket ticket = activeTickets.remove(ticketId);
 
         if (ticket == null) {
             throw new ParkingException("Ticket not found: " + ticketId);
@@ -139,30 +214,249 @@ public class ParkingLot {
 
         Employee attendant = findAvailableAttendant();
         ExitTransaction exit = new ExitTransaction(
-                "XT" + System.currentTimeMillis(),
+                "XT", idGenerator.nextId(),
                 ticket,
                 attendant
         );
 
-        if (exit.getTotalFee() > 0 && payment != null) {
-            exit.processPayment(payment);
-            totalRevenue += exit.getTotalFee();
+        try {
+            if (exit.getTotalFeeKurus() > 0 && payment != null) {
+                exit.processPayment(payment);
+            }
+
+            exit.execute();
+        } catch (ParkingException e) {
+            activeTickets.put(ticketId, ticket);
+            throw e;
+        }
+        expiryScheduler.cancel(ticketId);
+
+        long paidFee = exit.getPayment() != null ? exit.getTotalFeeKurus() : Money.ZERO;
+        totalRevenue.add(paidFee);
+        recordTransaction(exit);
+        metrics.recordExit(exit.getTransactionMillis(), paidFee);
+        if (journal != null) {
+            journal.appendExit(exit);
+            onJournalAppended();
         }
 
-        exit.execute();
+        // Güvenlik kaydı ve çıkış bildirimi olay hattında işlenir - tahsil edilen tutarla
+        eventBus.publish(new VehicleExitedEvent(ticket, ticket.getAssignedSpot(), paidFee));
+    }
 
-        activeTickets.remove(ticketId);
-        transactionHistory.add(exit);
+    // YENİ: İşlemleri kalıcı günlüğe yaz - bellek kullanımı işlem sayısından bağımsız olur
+    public void enableJournal(TransactionJournal journal) {
+        enableJournal(journal, DEFAULT_SNAPSHOT_INTERVAL);
+    }
 
-        // YENİ: Güvenlik kaydı
-        securitySystem.logVehicleExit(ticket.getVehicle(), ticket.getAssignedSpot());
+    // snapshotInterval kayıtta bir arka planda snapshot alınır (0: snapshot yok)
+    public void enableJournal(TransactionJournal journal, long snapshotInterval) {
+        // Önceki çalışmanın ID'leri (saatin önüne geçmiş olsalar da) tekrar verilmesin
+        idGenerator.advancePast(journal.getHighestId());
+        this.journal = journal;
+        this.snapshotter = snapshotInterval > 0 ? new JournalSnapshotter(journal, snapshotInterval) : null;
+    }
 
-        // YENİ: Çıkış bildirimi gönder
-        notificationService.sendExitNotification(
-                ticket.getCustomer(),
-                ticket,
-                exit.getTotalFee()
-        );
+    // YENİ: Bildirimler diskteki outbox üzerinden gruplar halinde gönderilir
+    // Önceki çalışmadan kalan teslim edilmemiş bildirimler hemen yeniden kuyruğa alınır.
+    public NotificationOutbox enableNotificationOutbox(Path directory) throws IOException {
+        return enableNotificationOutbox(directory, new SimulatedNotificationProvider());
+    }
+
+    public NotificationOutbox enableNotificationOutbox(Path directory, NotificationProvider provider)
+            throws IOException {
+        if (notificationRoute.getOutbox() != null) {
+            throw new IllegalStateException("Notification outbox is already enabled");
+        }
+        NotificationOutbox outbox = new NotificationOutbox(directory, provider);
+        notificationRoute.setOutbox(outbox);
+        return outbox;
+    }
+
+    public NotificationOutbox getNotificationOutbox() {
+        return notificationRoute.getOutbox();
+    }
+
+    // YENİ: Özet modu - kayıtlı (filo) müşterilere pencere başına tek email + push
+    // Sanal saatte pencereler runDueTimers() ile kapanır, gerçek saatte arka plan thread'iyle.
+    public NotificationDigest enableNotificationDigest(long windowMillis) {
+        if (notificationRoute.getDigest() != null) {
+            throw new IllegalStateException("Notification digest is already enabled");
+        }
+        NotificationDigest digest = new NotificationDigest(clock, windowMillis,
+                window -> notificationService.sendDigestNotification(notificationRoute, window));
+        if (!(clock instanceof VirtualParkingClock)) {
+            digest.start();
+        }
+        notificationRoute.setDigest(digest);
+        return digest;
+    }
+
+    public NotificationDigest getNotificationDigest() {
+        return notificationRoute.getDigest();
+    }
+
+    // YENİ: Alıcı başına hız sınırı ve tekrar önleme - varsayılan olarak kapalıdır
+    public NotificationThrottle enableNotificationThrottle() {
+        if (notificationRoute.getThrottle() != null) {
+            throw new IllegalStateException("Notification throttle is already enabled");
+        }
+        NotificationThrottle throttle = new NotificationThrottle();
+        notificationRoute.setThrottle(throttle);
+        return throttle;
+    }
+
+    public NotificationThrottle getNotificationThrottle() {
+        return notificationRoute.getThrottle();
+    }
+
+    // YENİ: Plaka tanıma işçi havuzunda - güvenlik kanalı tanıyıcı gecikmesini beklemez
+    public AnprPipeline enableAnpr(int workers, PlateRecognizer recognizer) {
+        AnprPipeline pipeline = new AnprPipeline(securitySystem.getCameraIndex(), recognizer, workers);
+        securitySystem.setAnprPipeline(pipeline);
+        return pipeline;
+    }
+
+    private void onJournalAppended() {
+        if (snapshotter != null) {
+            snapshotter.onAppended(journal.getRecordCount());
+        }
+    }
+
+    // Günlüğün şu anki haliyle hemen snapshot al (kapanışta veya bakımda)
+    public void snapshotJournal() {
+        if (journal == null) return;
+        if (snapshotter == null) {
+            snapshotter = new JournalSnapshotter(journal, 0);
+        }
+        snapshotter.snapshotNow();
+    }
+
+    // YENİ: Yeniden başlatma sonrası durumu günlükten kur
+    // Son snapshot yüklenir, sadece ondan sonraki kayıtlar oynatılır. Aktif biletler,
+    // park yerleri, müşteri ziyaret sayıları ve otopark geliri geri yüklenir.
+    // Trafik başlamadan, boş bir otopark üzerinde çağrılmalıdır.
+    public JournalRecovery recoverFromJournal(Collection<Customer> knownCustomers) {
+        if (journal == null) {
+            throw new IllegalStateException("Journal is not enabled");
+        }
+        if (!activeTickets.isEmpty()) {
+            throw new IllegalStateException("Recovery requires an empty parking lot");
+        }
+
+        long start = System.nanoTime();
+        JournalRecovery recovery = JournalRecovery.recover(journal);
+
+        Map<String, Customer> customersById = new HashMap<>();
+        for (Customer customer : knownCustomers) {
+            customersById.put(customer.getId(), customer);
+        }
+        for (Map.Entry<String, Integer> visit : recovery.getVisitCounts().entrySet()) {
+            Customer customer = customersById.get(visit.getKey());
+            if (customer != null) {
+                customer.restoreVisitCount(visit.getValue());
+                customers.add(customer);
+            }
+        }
+
+        int[] skipped = new int[1];
+        recovery.forEachActiveEntry(record -> {
+            String plate = record.getLicensePlate();
+            Customer customer = customersById.computeIfAbsent(record.getCustomerId(), id -> {
+                // Kayıtlı olmayan müşteri - iletişim bilgileri günlükte tutulmaz
+                Customer placeholder = new Customer(id, "Recovered Customer", "", "", plate);
+                placeholder.restoreVisitCount(recovery.getVisitCounts().getOrDefault(id, 0));
+                return placeholder;
+            });
+            Vehicle vehicle = restoreVehicle(record.getVehicleCategory(), plate);
+            Ticket ticket = createTicket(IdGenerator.format("T", record.getTicketId()),
+                    customer, vehicle, record.getTicketCategory().name(), record.getEpochMillis());
+
+            ParkingSpot spot = findSpot(record.getFloor(), record.getSlot());
+            try {
+                if (spot == null) {
+                    throw new ParkingException("Unknown spot " + record.getFloor() + "/" + record.getSlot());
+                }
+                spot.parkVehicle(vehicle);
+            } catch (Exception e) {
+                skipped[0]++;
+                System.err.println("Recovery skipped ticket " + ticket.getTicketId() + ": " + e.getMessage());
+                return;
+            }
+            ticket.setAssignedSpot(spot);
+            activeTickets.put(ticket.getTicketId(), ticket);
+            if (ticket instanceof Renewable) {
+                subscriptions.add(ticket);
+            }
+            expiryScheduler.schedule(ticket);
+            customers.add(customer);
+            rollups.recordRestored(spot.getSpotCategory(), vehicle.getVehicleCategory());
+        });
+
+        totalRevenue.add(recovery.getRevenueKurus());
+
+        // Rapor sayaçları snapshot'ta tutulmaz: günlüğün tamamı baştan okunur (sadece başlık alanları)
+        try (JournalCursor cursor = journal.openCursor()) {
+            while (cursor.next()) {
+                metrics.replay(cursor);
+            }
+        }
+
+        System.out.println("♻️ Recovered " + activeTickets.size() + " active tickets from " +
+                recovery.getReplayedRecords() + " journal records" +
+                (recovery.isFromSnapshot() ? " (after snapshot)" : "") +
+                (skipped[0] > 0 ? ", skipped " + skipped[0] : "") +
+                " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return recovery;
+    }
+
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    private void recordTransaction(Transaction transaction) {
+        synchronized (transactionHistory) {
+            transactionHistory.add(transaction);
+            if (journal != null && transactionHistory.size() > RECENT_TRANSACTION_LIMIT) {
+                transactionHistory.remove(0);
+            }
+        }
+    }
+
+    // Olay hattındaki tüm yan etkilerin tamamlanmasını bekle
+    public void awaitSideEffects() {
+        eventBus.awaitIdle();
+    }
+
+    // Kuyruktaki olayları işleyip olay hattını kapat
+    public void shutdown() {
+        expiryScheduler.close();
+        eventBus.shutdown(5, java.util.concurrent.TimeUnit.SECONDS);
+        AnprPipeline anpr = securitySystem.getAnprPipeline();
+        if (anpr != null) {
+            securitySystem.setAnprPipeline(null);
+            anpr.close(); // Kuyruktaki tanımalar bitirilir
+        }
+        securitySystem.closeRecordingStores();
+        NotificationDigest digest = notificationRoute.getDigest();
+        if (digest != null) {
+            digest.close(); // Açık pencereler outbox kapanmadan gönderilir
+            notificationRoute.setDigest(null);
+        }
+        NotificationOutbox outbox = notificationRoute.getOutbox();
+        if (outbox != null) {
+            notificationRoute.setOutbox(null);
+            try {
+                outbox.close(); // Teslim edilmemişler kayıtta kalır
+            } catch (IOException e) {
+                System.err.println("Notification outbox close failed: " + e.getMessage());
+            }
+        }
+        if (journal != null) {
+            snapshotJournal(); // Sonraki açılışta replay sadece bu noktadan sonrasını kapsar
+            snapshotter.close();
+            journal.close();
+        }
     }
 
     // YENİ: Araç yıkama servisi siparişi
@@ -180,7 +474,7 @@ public class ParkingLot {
         if (order != null) {
             Customer customer = ticket.getCustomer();
             SMSNotification sms = new SMSNotification(
-                    "SMS" + System.currentTimeMillis(),
+                    "SMS", idGenerator.nextId(),
                     customer.getPhone(),
                     "Araç yıkama siparişiniz alındı. Sipariş No: " + order.getOrderId() +
                             ". Tahmini süre: " + order.getWashPackage().getEstimatedDuration() + " dk."
@@ -201,7 +495,7 @@ public class ParkingLot {
         }
 
         return securitySystem.createIncidentReport(
-                incidentType, description, LocalDateTime.now(),
+                incidentType, description, clock.now(),
                 location, floor, guard
         );
     }
@@ -215,9 +509,10 @@ public class ParkingLot {
         );
     }
 
-    private ParkingSpot findAvailableSpot(Vehicle vehicle) {
+    private ParkingSpot claimAvailableSpot(Vehicle vehicle) {
         for (Floor floor : floors) {
-            ParkingSpot spot = floor.findAvailableSpot(vehicle);
+            if (floor.getAvailableSpotCount() == 0) continue; // Dolu katı atla
+            ParkingSpot spot = floor.claimAvailableSpot(vehicle);
             if (spot != null) {
                 return spot;
             }
@@ -225,24 +520,62 @@ public class ParkingLot {
         return null;
     }
 
+    // Başarısız giriş sonrası ayrılan yeri geri bırak
+    private void releaseSpot(ParkingSpot spot, Vehicle vehicle) {
+        if (spot.getParkedVehicle() == vehicle) {
+            try {
+                spot.removeVehicle();
+            } catch (Exception ignored) {
+                // Yer bu arada boşaltılmış
+            }
+        }
+    }
+
     private Ticket createTicket(String ticketId, Customer customer,
                                 Vehicle vehicle, String type) {
+        return createTicket(ticketId, customer, vehicle, type, clock.millis());
+    }
+
+    private Ticket createTicket(String ticketId, Customer customer,
+                                Vehicle vehicle, String type, long issueMillis) {
         switch (type.toUpperCase()) {
             case "HOURLY":
-                return new HourlyTicket(ticketId, customer, vehicle);
+                return new HourlyTicket(ticketId, customer, vehicle, clock, issueMillis);
             case "DAILY":
-                return new DailyTicket(ticketId, customer, vehicle);
+                return new DailyTicket(ticketId, customer, vehicle, clock, issueMillis);
             case "MONTHLY":
-                return new MonthlySubscription(ticketId, customer, vehicle);
+                return new MonthlySubscription(ticketId, customer, vehicle, clock, issueMillis);
             case "YEARLY":
-                return new YearlySubscription(ticketId, customer, vehicle, false);
+                return new YearlySubscription(ticketId, customer, vehicle, false, clock, issueMillis);
             case "VIP":
-                return new VIPMembership(ticketId, customer, vehicle);
+                return new VIPMembership(ticketId, customer, vehicle, clock, issueMillis);
+            default:
+                return new HourlyTicket(ticketId, customer, vehicle, clock, issueMillis);
+        }
+    }
+
+    // Günlükte sadece plaka ve araç tipi tutulur, diğer bilgiler bilinmez
+    private Vehicle restoreVehicle(VehicleCategory category, String plate) {
+        switch (category) {
+            case MOTORCYCLE:
+                return new Motorcycle(plate, "Unknown", "Unknown", "Unknown", 0);
+            case VAN:
+                return new Van(plate, "Unknown", "Unknown", "Unknown", 0);
+            case TRUCK:
+                return new Truck(plate, "Unknown", "Unknown", "Unknown", 0);
+            case ELECTRIC:
+                return new ElectricVehicle(plate, "Unknown", "Unknown", "Unknown", 4, 0);
             default:
-                return new HourlyTicket(ticketId, customer, vehicle);
+                return new Car(plate, "Unknown", "Unknown", "Unknown", 4);
         }
     }
 
+    private ParkingSpot findSpot(int floor, int slot) {
+        if (floor < 0 || floor >= floors.size()) return null;
+        List<ParkingSpot> spots = floors.get(floor).getSpots();
+        return slot < 0 || slot >= spots.size() ? null : spots.get(slot);
+    }
+
     private Employee findAvailableAttendant() {
         for (Employee emp : employees) {
             if (emp instanceof ParkingAttendant) {
@@ -272,39 +605,79 @@ public class ParkingLot {
         System.out.println("║     COMPREHENSIVE PARKING LOT REPORT          ║");
         System.out.println("╚════════════════════════════════════════════════╝");
 
+        // Rapor tüm yan etkileri yansıtsın
+        eventBus.awaitIdle();
+
         generateDailyReport();
         generateVehicleTypeReport();
 
         // Servis raporları
         carWashService.generateReport();
         securitySystem.generateSecurityReport();
+        if (securitySystem.getAnprPipeline() != null) {
+            securitySystem.getAnprPipeline().printStatistics();
+        }
         chargingManager.generateChargingReport();
-        notificationService.printStatistics();
+        notificationService.printStatistics(notificationRoute);
+        if (notificationRoute.getDigest() != null) {
+            notificationRoute.getDigest().printStatistics();
+        }
+        eventBus.printStatistics();
     }
 
+    // GÜNCELLEME: Sayaçlardan okunur - maliyet işlem geçmişinin boyutundan bağımsız
     public void generateDailyReport() {
+        DailyCounters today = metrics.getToday();
+        DailyCounters yesterday = metrics.getPreviousDay();
+
         System.out.println("\n========== DAILY REPORT ==========");
         System.out.println("Parking Lot: " + name);
-        System.out.println("Date: " + LocalDateTime.now().toLocalDate());
+        System.out.println("Date: " + today.getDate());
 
-        System.out.println("\nTotal Revenue: " + totalRevenue + " TL");
+        System.out.println("\nToday's Parking Revenue: " + Money.format(today.getRevenueKurus()) + " TL");
+        System.out.println("Total Revenue (all time): " + Money.format(totalRevenue.sum()) + " TL");
 
-        int totalSpots = totalFloors * 20;
+        int totalSpots = getTotalCapacity();
         int occupiedSpots = activeTickets.size();
         double occupancyRate = (occupiedSpots * 100.0) / totalSpots;
         System.out.println("Occupancy Rate: " + String.format("%.2f", occupancyRate) + "%");
         System.out.println("Available Spots: " + (totalSpots - occupiedSpots));
 
-        long todayEntries = transactionHistory.stream()
-                .filter(t -> t instanceof EntryTransaction)
-                .count();
-        long todayExits = transactionHistory.stream()
-                .filter(t -> t instanceof ExitTransaction)
-                .count();
+        System.out.println("\nToday's Transactions:");
+        System.out.println("- Entries: " + today.getEntries());
+        System.out.println("- Exits: " + today.getExits());
+        System.out.println("- Yesterday (" + yesterday.getDate() + "): " + yesterday.getEntries() +
+                " entries, " + yesterday.getExits() + " exits");
+
+        System.out.println("\nHourly Traffic:");
+        for (int hour = 0; hour < DailyCounters.HOURS; hour++) {
+            long entries = today.getEntriesInHour(hour);
+            long exits = today.getExitsInHour(hour);
+            if (entries > 0 || exits > 0) {
+                System.out.println("- " + String.format("%02d:00", hour) + "  entries: " + entries +
+                        ", exits: " + exits);
+            }
+        }
 
-        System.out.println("\nTransactions:");
-        System.out.println("- Entries: " + todayEntries);
-        System.out.println("- Exits: " + todayExits);
+        System.out.println("\nBy Floor:");
+        for (Floor floor : floors) {
+            int capacity = floor.getSpots().size();
+            System.out.println("- Floor " + floor.getFloorNumber() + ": " +
+                    (capacity - floor.getAvailableSpotCount()) + "/" + capacity + " occupied, " +
+                    today.getEntriesOnFloor(floor.getFloorNumber()) + " entries today");
+        }
+
+        System.out.println("\nBy Spot Type:");
+        for (SpotCategory category : SpotCategory.values()) {
+            int capacity = 0;
+            int available = 0;
+            for (Floor floor : floors) {
+                capacity += floor.getCapacity(category);
+                available += floor.getAvailableSpotCount(category);
+            }
+            System.out.println("- " + category + ": " + (capacity - available) + "/" + capacity +
+                    " occupied, " + today.getEntries(category) + " entries today");
+        }
 
         System.out.println("==================================\n");
     }
@@ -341,6 +714,49 @@ public class ParkingLot {
         return notificationService;
     }
 
+    public ParkingEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public ParkingMetrics getMetrics() {
+        return metrics;
+    }
+
+    public RollupStore getRollups() {
+        return rollups;
+    }
+
+    public ParkingClock getClock() {
+        return clock;
+    }
+
+    // YENİ: Vadesi gelen bitiş/hatırlatma zamanlayıcılarını tetikle (sanal saatte çağıran ilerletir)
+    public int runDueTimers() {
+        int fired = expiryScheduler.advance();
+        if (notificationRoute.getDigest() != null) {
+            fired += notificationRoute.getDigest().flushDue();
+        }
+        return fired;
+    }
+
+    public TicketExpiryScheduler getExpiryScheduler() {
+        return expiryScheduler;
+    }
+
+    // Toplu abonelik yenilemesi için (bkz. SubscriptionBillingEngine)
+    public SubscriptionExpiryIndex getSubscriptionIndex() {
+        return subscriptions;
+    }
+
+    public TariffTable getTariffTable() {
+        return TariffTable.getDefault();
+    }
+
+    // YENİ: Tarifeleri yeniden başlatmadan güncelle (properties dosyası)
+    public long reloadTariffs(Path file) throws IOException {
+        return getTariffTable().reload(file);
+    }
+
     // Mevcut getter'lar
     public void addEmployee(Employee employee) {
         employees.add(employee);
@@ -356,7 +772,7 @@ public class ParkingLot {
     }
 
     public int getTotalCapacity() {
-        return totalFloors * 20;
+        return totalFloors * spotsPerFloor;
     }
 
     public int getOccupiedSpots() {
@@ -364,26 +780,49 @@ public class ParkingLot {
     }
 
     public double getTotalRevenue() {
-        // Tüm servislerin gelirini topla
-        double washRevenue = carWashService.getTotalRevenue();
-        double chargingRevenue = chargingManager.getTotalRevenue();
-        return totalRevenue + washRevenue + chargingRevenue;
+        return Money.toLira(getTotalRevenueKurus());
+    }
+
+    // Tüm servislerin geliri (kuruş) - tam toplam
+    public long getTotalRevenueKurus() {
+        long washRevenue = carWashService.getTotalRevenueKurus();
+        long chargingRevenue = chargingManager.getTotalRevenueKurus();
+        return Money.add(Money.add(totalRevenue.sum(), washRevenue), chargingRevenue);
     }
 
+    // Günlük açıksa sadece son RECENT_TRANSACTION_LIMIT işlem, tamamı için günlük okunmalı.
+    // Kopya döner: kapılar eklerken çağıranın gezinmesi kilit gerektirmesin
     public List<Transaction> getTransactionHistory() {
-        return transactionHistory;
+        synchronized (transactionHistory) {
+            return new ArrayList<>(transactionHistory);
+        }
+    }
+
+    // Sadece park ücretleri (yıkama ve şarj hariç)
+    public double getParkingRevenue() {
+        return Money.toLira(totalRevenue.sum());
+    }
+
+    public long getParkingRevenueKurus() {
+        return totalRevenue.sum();
+    }
+
+    public List<Floor> getFloors() {
+        return floors;
     }
 }
 
-// Floor sınıfı (değişiklik yok)
+// Floor sınıfı - GÜNCELLEME: bitset tabanlı boş yer indeksi eklendi
 class Floor {
     private int floorNumber;
     private List<ParkingSpot> spots;
+    private FreeSpotIndex freeSpotIndex;
 
     public Floor(int floorNumber, int spotsPerFloor) {
         this.floorNumber = floorNumber;
         this.spots = new ArrayList<>();
         initializeSpots(spotsPerFloor);
+        this.freeSpotIndex = new FreeSpotIndex(spots);
     }
 
     private void initializeSpots(int count) {
@@ -404,13 +843,26 @@ class Floor {
         }
     }
 
+    // Tüm yerleri taramak yerine indeksten uygun kategorinin ilk boş bitini al
     public ParkingSpot findAvailableSpot(Vehicle vehicle) {
-        for (ParkingSpot spot : spots) {
-            if (!spot.isOccupied() && spot.canFitVehicle(vehicle)) {
-                return spot;
-            }
-        }
-        return null;
+        return freeSpotIndex.findAvailableSpot(vehicle);
+    }
+
+    // Boş yeri bul ve atomik olarak araca ayır
+    public ParkingSpot claimAvailableSpot(Vehicle vehicle) {
+        return freeSpotIndex.claimAvailableSpot(vehicle);
+    }
+
+    public int getAvailableSpotCount() {
+        return freeSpotIndex.getTotalFreeCount();
+    }
+
+    public int getAvailableSpotCount(SpotCategory category) {
+        return freeSpotIndex.getFreeCount(category);
+    }
+
+    public int getCapacity(SpotCategory category) {
+        return freeSpotIndex.getCapacity(category);
     }
 
     public int getFloorNumber() {
@@ -0,0 +1,229 @@
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bir günün giriş/çıkış sayaçları - saat, kat ve park yeri tipine göre
+// Tüm sayaçlar kilitsizdir, kapı thread'leri aynı anda artırabilir.
+// Saat dilimi yerel saattir (yaz saati günlerinde atlanan saat boş kalır, tekrarlanan saat birleşir).
+class DailyCounters {
+    static final int HOURS = 24;
+
+    private final LocalDate date;
+    private final ZoneId zone;
+    private final long startMillis;
+    private final long endMillis;
+    private final LongAdder entries;
+    private final LongAdder exits;
+    private final LongAdder revenueKurus;
+    private final AtomicLongArray entriesByHour;
+    private final AtomicLongArray exitsByHour;
+    private final AtomicLongArray entriesByFloor;
+    private final AtomicLongArray entriesBySpotCategory;
+
+    DailyCounters(LocalDate date, ZoneId zone, int floorCount) {
+        this.date = date;
+        this.zone = zone;
+        this.startMillis = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        this.endMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        this.entries = new LongAdder();
+        this.exits = new LongAdder();
+        this.revenueKurus = new LongAdder();
+        this.entriesByHour = new AtomicLongArray(HOURS);
+        this.exitsByHour = new AtomicLongArray(HOURS);
+        this.entriesByFloor = new AtomicLongArray(floorCount);
+        this.entriesBySpotCategory = new AtomicLongArray(SpotCategory.values().length);
+    }
+
+    boolean contains(long epochMillis) {
+        return epochMillis >= startMillis && epochMillis < endMillis;
+    }
+
+    void recordEntry(long epochMillis, int floor, SpotCategory category) {
+        recordEntry(epochMillis, floor, category.ordinal());
+    }
+
+    // Günlükten okunan kayıtlar için: kat/tip bilinmiyorsa (-1) sadece toplam ve saat sayılır
+    void recordEntry(long epochMillis, int floor, int categoryIndex) {
+        entries.increment();
+        entriesByHour.incrementAndGet(hourOf(epochMillis));
+        if (floor >= 0 && floor < entriesByFloor.length()) {
+            entriesByFloor.incrementAndGet(floor);
+        }
+        if (categoryIndex >= 0 && categoryIndex < entriesBySpotCategory.length()) {
+            entriesBySpotCategory.incrementAndGet(categoryIndex);
+        }
+    }
+
+    void recordExit(long epochMillis, long paidKurus) {
+        exits.increment();
+        exitsByHour.incrementAndGet(hourOf(epochMillis));
+        revenueKurus.add(paidKurus);
+    }
+
+    void addRevenue(long paidKurus) {
+        revenueKurus.add(paidKurus);
+    }
+
+    private int hourOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).getHour();
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getEntries() {
+        return entries.sum();
+    }
+
+    public long getExits() {
+        return exits.sum();
+    }
+
+    public long getRevenueKurus() {
+        return revenueKurus.sum();
+    }
+
+    public double getRevenue() {
+        return Money.toLira(revenueKurus.sum());
+    }
+
+    public long getEntriesInHour(int hour) {
+        return entriesByHour.get(hour);
+    }
+
+    public long getExitsInHour(int hour) {
+        return exitsByHour.get(hour);
+    }
+
+    public long getEntriesOnFloor(int floor) {
+        return entriesByFloor.get(floor);
+    }
+
+    public long getEntries(SpotCategory category) {
+        return entriesBySpotCategory.get(category.ordinal());
+    }
+}
+
+// ParkingMetrics - Rapor sayaçları, giriş/çıkış anında O(1) güncellenir
+// Raporlar işlem geçmişini taramaz: maliyet geçmiş boyutundan bağımsızdır.
+// Gün değişince yeni sayaç seti açılır. "Dün" takvimde bir önceki gündür: o gün trafik
+// olmadıysa sıfır sayaçlar döner (son trafikli gün değil).
+public class ParkingMetrics {
+    private final ParkingClock clock;
+    private final ZoneId zone;
+    private final int floorCount;
+    private final AtomicReference<DailyCounters> today;
+    private volatile DailyCounters previousDay;
+    private final LongAdder lifetimeEntries;
+    private final LongAdder lifetimeExits;
+
+    public ParkingMetrics(int floorCount) {
+        this(floorCount, ParkingClock.getDefault());
+    }
+
+    public ParkingMetrics(int floorCount, ParkingClock clock) {
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.floorCount = floorCount;
+        this.today = new AtomicReference<>(newDay(clock.millis()));
+        this.previousDay = new DailyCounters(today.get().getDate().minusDays(1), zone, floorCount);
+        this.lifetimeEntries = new LongAdder();
+        this.lifetimeExits = new LongAdder();
+    }
+
+    public void recordEntry(long epochMillis, ParkingSpot spot) {
+        lifetimeEntries.increment();
+        countersFor(epochMillis).recordEntry(epochMillis, spot.getFloor(), spot.getSpotCategory());
+    }
+
+    public void recordExit(long epochMillis, long paidKurus) {
+        lifetimeExits.increment();
+        countersFor(epochMillis).recordExit(epochMillis, paidKurus);
+    }
+
+    // Günlükten yeniden kurma (kurtarma): her kayıt ömür boyu sayaçlara, bugüne veya düne
+    // düşenler günlük sayaçlara da yazılır. Daha eski kayıtlar "bugün"e eklenmez.
+    void replay(JournalRecord record) {
+        long epochMillis = record.getEpochMillis();
+        DailyCounters counters = replayCounters(epochMillis);
+        switch (record.getType()) {
+            case TransactionJournal.TYPE_ENTRY:
+                lifetimeEntries.increment();
+                if (counters != null) {
+                    counters.recordEntry(epochMillis, record.getFloor(), record.getSpotCategoryIndex());
+                }
+                break;
+            case TransactionJournal.TYPE_EXIT:
+                lifetimeExits.increment();
+                if (counters != null) {
+                    counters.recordExit(epochMillis, 0); // Tahsilat ardından gelen PAYMENT kaydında
+                }
+                break;
+            case TransactionJournal.TYPE_PAYMENT:
+                if (counters != null) {
+                    counters.addRevenue(record.getAmountKurus());
+                }
+                break;
+            default:
+        }
+    }
+
+    private DailyCounters replayCounters(long epochMillis) {
+        DailyCounters current = getToday();
+        if (current.contains(epochMillis)) {
+            return current;
+        }
+        DailyCounters previous = previousDay;
+        return previous.contains(epochMillis) ? previous : null;
+    }
+
+    // Rapor anında da gün kontrol edilir - trafik olmayan günde dünkü sayılar "bugün" görünmez
+    public DailyCounters getToday() {
+        return countersFor(clock.millis());
+    }
+
+    public DailyCounters getPreviousDay() {
+        getToday();
+        return previousDay;
+    }
+
+    public long getLifetimeEntries() {
+        return lifetimeEntries.sum();
+    }
+
+    public long getLifetimeExits() {
+        return lifetimeExits.sum();
+    }
+
+    public int getFloorCount() {
+        return floorCount;
+    }
+
+    // Gün değişimi: tek CAS ile yeni gün açılır, yarışı kaybeden thread kazananınkini kullanır
+    private DailyCounters countersFor(long epochMillis) {
+        DailyCounters current = today.get();
+        while (!current.contains(epochMillis)) {
+            DailyCounters next = newDay(epochMillis);
+            if (next.getDate().isBefore(current.getDate())) {
+                return current; // Saat geri gittiyse mevcut güne yaz
+            }
+            if (today.compareAndSet(current, next)) {
+                LocalDate yesterday = next.getDate().minusDays(1);
+                previousDay = current.getDate().equals(yesterday)
+                        ? current : new DailyCounters(yesterday, zone, floorCount);
+                return next;
+            }
+            current = today.get();
+        }
+        return current;
+    }
+
+    private DailyCounters newDay(long epochMillis) {
+        LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+        return new DailyCounters(date, zone, floorCount);
+    }
+}
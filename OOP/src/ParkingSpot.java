@@ -1,45 +1,92 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+// Park yeri kategorileri - sıra, boş yer aramasındaki öncelik sırasıdır
+enum SpotCategory {
+    DISABLED,
+    COMPACT,
+    VIP,
+    ELECTRIC,
+    REGULAR
+}
+
 // Temel park yeri sınıfı (Abstract)
+// GÜNCELLEME: Yer sahipliği CAS ile alınır, eşzamanlı girişlerde çift rezervasyon olmaz
 public abstract class ParkingSpot {
     private String spotId;
     private int floor;
-    private boolean isOccupied;
-    private Vehicle parkedVehicle;
+    private final AtomicReference<Vehicle> parkedVehicle;
+    private FreeSpotIndex freeSpotIndex; // Katın boş yer indeksi
+    private int slot;                    // Kattaki sıra numarası
 
     public ParkingSpot(String spotId, int floor) {
         this.spotId = spotId;
         this.floor = floor;
-        this.isOccupied = false;
-        this.parkedVehicle = null;
+        this.parkedVehicle = new AtomicReference<>(null);
     }
 
     // Abstract methods
     public abstract String getSpotType();
-    public abstract double getPriceMultiplier();
     public abstract boolean canFitVehicle(Vehicle vehicle);
+    public abstract SpotCategory getSpotCategory();
+
+    // Ücret çarpanı tek yerde tutulur (TariffRates) - yeniden yüklenen tarifeyi de izler
+    public double getPriceMultiplier() {
+        return TariffTable.getDefault().getRates().getSpotMultiplier(getSpotCategory());
+    }
+
+    // Floor tarafından indeks oluşturulurken çağrılır
+    void attachIndex(FreeSpotIndex index, int slot) {
+        this.freeSpotIndex = index;
+        this.slot = slot;
+    }
 
     // Park etme metodu
+    // Yer daha önce aynı araç için claimAvailableSpot ile alındıysa tekrar alınmaz
     public void parkVehicle(Vehicle vehicle) throws Exception {
-        if (isOccupied) {
-            throw new Exception("Spot is already occupied!");
-        }
         if (!canFitVehicle(vehicle)) {
             throw new Exception("Vehicle cannot fit in this spot!");
         }
-        this.parkedVehicle = vehicle;
-        this.isOccupied = true;
+        if (freeSpotIndex == null) {
+            claimOrThrow(vehicle);
+            return;
+        }
+        // İndeks kilidi kat bazlı kilit şeridi olarak kullanılır
+        synchronized (freeSpotIndex) {
+            claimOrThrow(vehicle);
+            freeSpotIndex.markOccupied(getSpotCategory(), slot);
+        }
     }
 
     // Aracı çıkarma metodu
     public Vehicle removeVehicle() throws Exception {
-        if (!isOccupied) {
+        Vehicle vehicle;
+        if (freeSpotIndex == null) {
+            vehicle = parkedVehicle.getAndSet(null);
+        } else {
+            synchronized (freeSpotIndex) {
+                vehicle = parkedVehicle.getAndSet(null);
+                if (vehicle != null) {
+                    freeSpotIndex.markFree(getSpotCategory(), slot);
+                }
+            }
+        }
+        if (vehicle == null) {
             throw new Exception("No vehicle parked in this spot!");
         }
-        Vehicle vehicle = this.parkedVehicle;
-        this.parkedVehicle = null;
-        this.isOccupied = false;
         return vehicle;
     }
 
+    // Boş yeri atomik olarak sahiplen (CAS) - başarısızsa başka bir kapı almıştır
+    boolean tryClaim(Vehicle vehicle) {
+        return parkedVehicle.compareAndSet(null, vehicle);
+    }
+
+    private void claimOrThrow(Vehicle vehicle) throws Exception {
+        if (!tryClaim(vehicle) && parkedVehicle.get() != vehicle) {
+            throw new Exception("Spot is already occupied!");
+        }
+    }
+
     // Getters
     public String getSpotId() {
         return spotId;
@@ -49,18 +96,22 @@ public abstract class ParkingSpot {
         return floor;
     }
 
+    public int getSlot() {
+        return slot;
+    }
+
     public boolean isOccupied() {
-        return isOccupied;
+        return parkedVehicle.get() != null;
     }
 
     public Vehicle getParkedVehicle() {
-        return parkedVehicle;
+        return parkedVehicle.get();
     }
 
     @Override
     public String toString() {
         return getSpotType() + " - " + spotId + " (Floor " + floor + ") - " +
-                (isOccupied ? "OCCUPIED" : "AVAILABLE");
+                (isOccupied() ? "OCCUPIED" : "AVAILABLE");
     }
 }
 
@@ -77,8 +128,8 @@ class RegularSpot extends ParkingSpot {
     }
 
     @Override
-    public double getPriceMultiplier() {
-        return 1.0;
+    public SpotCategory getSpotCategory() {
+        return SpotCategory.REGULAR;
     }
 
     @Override
@@ -101,8 +152,8 @@ class CompactSpot extends ParkingSpot {
     }
 
     @Override
-    public double getPriceMultiplier() {
-        return 0.8; // Daha ucuz
+    public SpotCategory getSpotCategory() {
+        return SpotCategory.COMPACT;
     }
 
     @Override
@@ -128,8 +179,8 @@ class DisabledSpot extends ParkingSpot {
     }
 
     @Override
-    public double getPriceMultiplier() {
-        return 0.5; // İndirimli
+    public SpotCategory getSpotCategory() {
+        return SpotCategory.DISABLED;
     }
 
     @Override
@@ -153,8 +204,8 @@ class VIPSpot extends ParkingSpot {
     }
 
     @Override
-    public double getPriceMultiplier() {
-        return 2.5; // Premium fiyat
+    public SpotCategory getSpotCategory() {
+        return SpotCategory.VIP;
     }
 
     @Override
@@ -184,8 +235,8 @@ class ElectricChargingSpot extends ParkingSpot {
     }
 
     @Override
-    public double getPriceMultiplier() {
-        return 1.8; // Şarj ücreti dahil
+    public SpotCategory getSpotCategory() {
+        return SpotCategory.ELECTRIC;
     }
 
     @Override
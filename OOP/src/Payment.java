@@ -2,21 +2,23 @@ import java.time.LocalDateTime;
 
 // Payment interface
 interface Payable {
-    boolean processPayment(double amount);
+    boolean processPayment(long amountKurus);
     String getPaymentMethod();
 }
 
 // Abstract Payment sınıfı
 public abstract class Payment implements Payable {
     private String paymentId;
-    private double amount;
-    private LocalDateTime paymentTime;
+    private long amountKurus; // Money: kuruş
+    private final ParkingClock clock;
+    private long paymentMillis;
     private boolean isSuccessful;
 
-    public Payment(String paymentId, double amount) {
+    protected Payment(String paymentId, long amountKurus) {
         this.paymentId = paymentId;
-        this.amount = amount;
-        this.paymentTime = LocalDateTime.now();
+        this.amountKurus = amountKurus;
+        this.clock = ParkingClock.getDefault();
+        this.paymentMillis = clock.millis();
         this.isSuccessful = false;
     }
 
@@ -28,12 +30,21 @@ public abstract class Payment implements Payable {
         return paymentId;
     }
 
+    public long getAmountKurus() {
+        return amountKurus;
+    }
+
+    // Gösterim için TL
     public double getAmount() {
-        return amount;
+        return Money.toLira(amountKurus);
     }
 
     public LocalDateTime getPaymentTime() {
-        return paymentTime;
+        return clock.toLocalDateTime(paymentMillis);
+    }
+
+    public long getPaymentMillis() {
+        return paymentMillis;
     }
 
     public boolean isSuccessful() {
@@ -48,20 +59,29 @@ public abstract class Payment implements Payable {
     public String toString() {
         return "Payment ID: " + paymentId +
                 ", Method: " + getPaymentMethod() +
-                ", Amount: " + amount + " TL" +
+                ", Amount: " + Money.format(amountKurus) + " TL" +
                 ", Status: " + (isSuccessful ? "SUCCESS" : "FAILED");
     }
 }
 
 // CashPayment sınıfı
 class CashPayment extends Payment {
-    private double receivedAmount;
-    private double change;
+    private long receivedKurus;
+    private long changeKurus;
+
+    // Tutar birimi adından okunsun diye kurucu gizli: eski new CashPayment(id, 20, 50) derlenmez
+    private CashPayment(String paymentId, long amountKurus, long receivedKurus) {
+        super(paymentId, amountKurus);
+        this.receivedKurus = receivedKurus;
+        this.changeKurus = 0;
+    }
 
-    public CashPayment(String paymentId, double amount, double receivedAmount) {
-        super(paymentId, amount);
-        this.receivedAmount = receivedAmount;
-        this.change = 0;
+    public static CashPayment ofKurus(String paymentId, long amountKurus, long receivedKurus) {
+        return new CashPayment(paymentId, amountKurus, receivedKurus);
+    }
+
+    public static CashPayment ofLira(String paymentId, double amount, double receivedAmount) {
+        return new CashPayment(paymentId, Money.fromLira(amount), Money.fromLira(receivedAmount));
     }
 
     @Override
@@ -71,30 +91,30 @@ class CashPayment extends Payment {
 
     @Override
     public boolean validate() {
-        return receivedAmount >= getAmount();
+        return receivedKurus >= getAmountKurus();
     }
 
     @Override
-    public boolean processPayment(double amount) {
+    public boolean processPayment(long amountKurus) {
         if (validate()) {
-            this.change = receivedAmount - amount;
+            this.changeKurus = Money.subtract(receivedKurus, amountKurus);
             setSuccessful(true);
             System.out.println("Cash payment processed successfully.");
-            System.out.println("Change: " + change + " TL");
+            System.out.println("Change: " + Money.format(changeKurus) + " TL");
             return true;
         } else {
             System.out.println("Insufficient cash! Need " +
-                    (amount - receivedAmount) + " TL more.");
+                    Money.format(amountKurus - receivedKurus) + " TL more.");
             return false;
         }
     }
 
-    public double getReceivedAmount() {
-        return receivedAmount;
+    public long getReceivedKurus() {
+        return receivedKurus;
     }
 
-    public double getChange() {
-        return change;
+    public long getChangeKurus() {
+        return changeKurus;
     }
 }
 
@@ -105,16 +125,29 @@ class CreditCardPayment extends Payment {
     private String expiryDate;
     private String cvv;
 
-    public CreditCardPayment(String paymentId, double amount,
-                             String cardNumber, String cardHolderName,
-                             String expiryDate, String cvv) {
-        super(paymentId, amount);
+    private CreditCardPayment(String paymentId, long amountKurus,
+                              String cardNumber, String cardHolderName,
+                              String expiryDate, String cvv) {
+        super(paymentId, amountKurus);
         this.cardNumber = maskCardNumber(cardNumber);
         this.cardHolderName = cardHolderName;
         this.expiryDate = expiryDate;
         this.cvv = cvv;
     }
 
+    public static CreditCardPayment ofKurus(String paymentId, long amountKurus,
+                                            String cardNumber, String cardHolderName,
+                                            String expiryDate, String cvv) {
+        return new CreditCardPayment(paymentId, amountKurus, cardNumber, cardHolderName, expiryDate, cvv);
+    }
+
+    public static CreditCardPayment ofLira(String paymentId, double amount,
+                                           String cardNumber, String cardHolderName,
+                                           String expiryDate, String cvv) {
+        return new CreditCardPayment(paymentId, Money.fromLira(amount), cardNumber, cardHolderName,
+                expiryDate, cvv);
+    }
+
     @Override
     public String getPaymentMethod() {
         return "Credit Card";
@@ -130,7 +163,7 @@ class CreditCardPayment extends Payment {
     }
 
     @Override
-    public boolean processPayment(double amount) {
+    public boolean processPayment(long amountKurus) {
         if (validate()) {
             // Simülasyon: %95 başarı oranı
             boolean success = Math.random() < 0.95;
@@ -165,14 +198,24 @@ class MobilePayment extends Payment {
     private String provider; // "ApplePay", "GooglePay", "SamsungPay"
     private String transactionCode;
 
-    public MobilePayment(String paymentId, double amount,
-                         String phoneNumber, String provider) {
-        super(paymentId, amount);
+    private MobilePayment(String paymentId, long amountKurus,
+                          String phoneNumber, String provider) {
+        super(paymentId, amountKurus);
         this.phoneNumber = phoneNumber;
         this.provider = provider;
         this.transactionCode = generateTransactionCode();
     }
 
+    public static MobilePayment ofKurus(String paymentId, long amountKurus,
+                                        String phoneNumber, String provider) {
+        return new MobilePayment(paymentId, amountKurus, phoneNumber, provider);
+    }
+
+    public static MobilePayment ofLira(String paymentId, double amount,
+                                       String phoneNumber, String provider) {
+        return new MobilePayment(paymentId, Money.fromLira(amount), phoneNumber, provider);
+    }
+
     @Override
     public String getPaymentMethod() {
         return "Mobile Payment (" + provider + ")";
@@ -190,7 +233,7 @@ class MobilePayment extends Payment {
     }
 
     @Override
-    public boolean processPayment(double amount) {
+    public boolean processPayment(long amountKurus) {
         if (validate()) {
             // Simülasyon: %98 başarı oranı
             boolean success = Math.random() < 0.98;
@@ -211,7 +254,7 @@ class MobilePayment extends Payment {
     }
 
     private String generateTransactionCode() {
-        return "TXN" + System.currentTimeMillis();
+        return IdGenerator.getDefault().nextId("TXN");
     }
 
     public String getPhoneNumber() {
@@ -227,20 +270,80 @@ class MobilePayment extends Payment {
     }
 }
 
+// DirectDebitPayment - Talimatlı ödeme (abonelik yenilemeleri)
+// Ödeme ID'si çağıran tarafından belirlenir (ekstre ile mutabakat için). Sağlayıcı aynı ID'yi
+// tekrar tahsil etmemeyi garanti etmez - tekrar gönderimi faturalama kaydı engeller.
+class DirectDebitPayment extends Payment {
+    private String customerId;
+    private String mandateId;
+
+    private DirectDebitPayment(String paymentId, long amountKurus,
+                               String customerId, String mandateId) {
+        super(paymentId, amountKurus);
+        this.customerId = customerId;
+        this.mandateId = mandateId;
+    }
+
+    public static DirectDebitPayment ofKurus(String paymentId, long amountKurus,
+                                             String customerId, String mandateId) {
+        return new DirectDebitPayment(paymentId, amountKurus, customerId, mandateId);
+    }
+
+    @Override
+    public String getPaymentMethod() {
+        return "Direct Debit";
+    }
+
+    @Override
+    public boolean validate() {
+        return customerId != null && mandateId != null && !mandateId.isEmpty();
+    }
+
+    @Override
+    public boolean processPayment(long amountKurus) {
+        if (validate() && amountKurus == getAmountKurus()) {
+            setSuccessful(true);
+            System.out.println("Direct debit collected: " + Money.format(amountKurus) +
+                    " TL from " + customerId);
+            return true;
+        }
+        System.out.println("Direct debit rejected for " + customerId);
+        return false;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getMandateId() {
+        return mandateId;
+    }
+}
+
 // OnlinePayment sınıfı (Bonus)
 class OnlinePayment extends Payment {
     private String email;
     private String paymentGateway; // "PayPal", "Stripe", "Iyzico"
     private String confirmationToken;
 
-    public OnlinePayment(String paymentId, double amount,
-                         String email, String paymentGateway) {
-        super(paymentId, amount);
+    private OnlinePayment(String paymentId, long amountKurus,
+                          String email, String paymentGateway) {
+        super(paymentId, amountKurus);
         this.email = email;
         this.paymentGateway = paymentGateway;
         this.confirmationToken = null;
     }
 
+    public static OnlinePayment ofKurus(String paymentId, long amountKurus,
+                                        String email, String paymentGateway) {
+        return new OnlinePayment(paymentId, amountKurus, email, paymentGateway);
+    }
+
+    public static OnlinePayment ofLira(String paymentId, double amount,
+                                       String email, String paymentGateway) {
+        return new OnlinePayment(paymentId, Money.fromLira(amount), email, paymentGateway);
+    }
+
     @Override
     public String getPaymentMethod() {
         return "Online Payment (" + paymentGateway + ")";
@@ -252,13 +355,13 @@ class OnlinePayment extends Payment {
     }
 
     @Override
-    public boolean processPayment(double amount) {
+    public boolean processPayment(long amountKurus) {
         if (validate()) {
             boolean success = Math.random() < 0.97;
             setSuccessful(success);
 
             if (success) {
-                this.confirmationToken = "CONF" + System.currentTimeMillis();
+                this.confirmationToken = IdGenerator.getDefault().nextId("CONF");
                 System.out.println("Online payment processed successfully.");
                 System.out.println("Gateway: " + paymentGateway);
                 System.out.println("Confirmation: " + confirmationToken);
@@ -1,3 +1,5 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
 // Temel kişi sınıfı (Abstract)
 public abstract class Person {
     private String id;
@@ -59,12 +61,12 @@ public abstract class Person {
 // Customer sınıfı
 class Customer extends Person {
     private String licensePlate;
-    private int visitCount;
+    private final AtomicInteger visitCount;
 
     public Customer(String id, String name, String phone, String email, String licensePlate) {
         super(id, name, phone, email);
         this.licensePlate = licensePlate;
-        this.visitCount = 0;
+        this.visitCount = new AtomicInteger(0);
     }
 
     @Override
@@ -73,7 +75,12 @@ class Customer extends Person {
     }
 
     public void incrementVisitCount() {
-        this.visitCount++;
+        visitCount.incrementAndGet();
+    }
+
+    // Günlükten kurtarma sırasında kullanılır
+    void restoreVisitCount(int count) {
+        visitCount.set(count);
     }
 
     public String getLicensePlate() {
@@ -81,7 +88,7 @@ class Customer extends Person {
     }
 
     public int getVisitCount() {
-        return visitCount;
+        return visitCount.get();
     }
 }
 
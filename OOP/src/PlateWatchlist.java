@@ -0,0 +1,337 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// İzleme listesi nedeni - olay raporu tipi ve önem derecesi buradan gelir
+enum WatchlistReason {
+    STOLEN("STOLEN_VEHICLE"),
+    BANNED("BANNED_VEHICLE"),
+    WANTED("WANTED_VEHICLE");
+
+    static final WatchlistReason[] VALUES = values();
+
+    final String incidentType;
+
+    WatchlistReason(String incidentType) {
+        this.incidentType = incidentType;
+    }
+
+    // Bilinmeyen metin: BANNED (listede olması yeterli)
+    static WatchlistReason of(String text) {
+        for (WatchlistReason reason : VALUES) {
+            if (reason.name().equalsIgnoreCase(text)) {
+                return reason;
+            }
+        }
+        return BANNED;
+    }
+}
+
+// Bir yükleme neslinin değiştirilemez görüntüsü: Bloom filtresi + heap dışı plaka tablosu
+// Plaka boşluk/tire atılıp büyük harfe çevrilir ve 37 tabanında tek long'a kodlanır (en fazla 11 karakter).
+// Tablo girdisi: (kod << 3) | neden. Girdiler hash kovasına göre sıralı (kova içinde koda göre);
+// kova başlangıçları küçük bir dizinde. Doğrulama: bir dizin okuması + ~4 girdilik tarama, ikili arama yok.
+// Filtre bloklu: bir plakanın tüm bitleri aynı 64 baytlık blokta (tek önbellek satırı okunur).
+// Plaka başına: tablo 8 bayt + dizin ~1 bayt + filtre ~1.25 bayt.
+final class WatchlistSnapshot {
+    static final int MAX_PLATE_LENGTH = 11;
+    static final int BITS_PER_PLATE = 10; // ~%1-2 yanlış pozitif
+    static final int HASHES = 7;
+    static final int PLATES_PER_BUCKET = 4;
+    private static final int REASON_BITS = 3;
+    private static final int BLOCK_WORDS = 8; // 512 bit
+
+    private final long[] bloom;
+    private final long blocks;
+    private final LongBuffer table; // Heap dışı, GC taramaz
+    private final int[] bucketStarts; // Kova b: [bucketStarts[b], bucketStarts[b + 1])
+    private final long buckets;
+    private final int size;
+    final long generation;
+
+    private WatchlistSnapshot(long[] sortedEntries, int size, long generation) {
+        this.size = size;
+        this.generation = generation;
+        this.blocks = Math.max(1, ((long) size * BITS_PER_PLATE + 511) >>> 9);
+        this.bloom = new long[(int) (blocks * BLOCK_WORDS)];
+        this.table = ByteBuffer.allocateDirect(Math.max(1, size) * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        this.buckets = Math.max(1, (size + PLATES_PER_BUCKET - 1) / PLATES_PER_BUCKET);
+        this.bucketStarts = new int[(int) buckets + 1];
+        // Sayma sıralaması: kova boyları -> başlangıçlar -> yerleştirme (girdi sırası kova içinde korunur)
+        for (int i = 0; i < size; i++) {
+            bucketStarts[bucket(mix(sortedEntries[i] >>> REASON_BITS)) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        int[] cursor = Arrays.copyOf(bucketStarts, (int) buckets);
+        for (int i = 0; i < size; i++) {
+            long entry = sortedEntries[i];
+            long hash = mix(entry >>> REASON_BITS);
+            table.put(cursor[bucket(hash)]++, entry);
+            int base = blockBase(hash);
+            long inner = mix(hash ^ 0x9e3779b97f4a7c15L);
+            for (int k = 0; k < HASHES; k++) {
+                int bit = (int) (inner >>> (9 * k)) & 511;
+                bloom[base + (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    static final WatchlistSnapshot EMPTY = new WatchlistSnapshot(new long[0], 0, 0);
+
+    // entries sıralanır ve aynı plakanın tekrarları atılır (ilk neden kalır)
+    static WatchlistSnapshot build(long[] entries, int count, long generation) {
+        Arrays.parallelSort(entries, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique > 0 && entries[unique - 1] >>> REASON_BITS == entries[i] >>> REASON_BITS) continue;
+            entries[unique++] = entries[i];
+        }
+        return new WatchlistSnapshot(entries, unique, generation);
+    }
+
+    static long entry(long code, WatchlistReason reason) {
+        return code << REASON_BITS | reason.ordinal();
+    }
+
+    // Normalleştirilmiş plaka kodu; listelenemeyecek plaka (boş, çok uzun, geçersiz karakter) için -1
+    // Nesne ayırmaz: giriş yolunda her araçta çağrılır
+    static long encode(String plate) {
+        long code = 0;
+        int length = 0;
+        for (int i = 0; i < plate.length(); i++) {
+            char c = plate.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0' + 1;
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 11;
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + 11;
+            } else if (c == ' ' || c == '-') {
+                continue;
+            } else {
+                return -1;
+            }
+            if (++length > MAX_PLATE_LENGTH) return -1;
+            code = code * 37 + digit;
+        }
+        return length == 0 ? -1 : code;
+    }
+
+    // null: listede yok
+    WatchlistReason lookup(long code, WatchlistStats stats) {
+        long hash = mix(code);
+        int base = blockBase(hash);
+        long inner = mix(hash ^ 0x9e3779b97f4a7c15L);
+        for (int k = 0; k < HASHES; k++) {
+            int bit = (int) (inner >>> (9 * k)) & 511;
+            if ((bloom[base + (bit >>> 6)] & 1L << bit) == 0) {
+                stats.bloomNegatives.increment();
+                return null;
+            }
+        }
+        int bucket = bucket(hash);
+        for (int i = bucketStarts[bucket], end = bucketStarts[bucket + 1]; i < end; i++) {
+            long entry = table.get(i);
+            if (entry >>> REASON_BITS == code) {
+                return WatchlistReason.VALUES[(int) (entry & ((1 << REASON_BITS) - 1))];
+            }
+        }
+        stats.falsePositives.increment();
+        return null;
+    }
+
+    // Blok: hash'in üst 32 biti [0, blocks) aralığına ölçeklenir (bölme yok)
+    private int blockBase(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_WORDS;
+    }
+
+    // Kova: alt 32 bit kullanılır, filtre bloğundan bağımsız
+    private int bucket(long hash) {
+        return (int) (((hash & 0xFFFF_FFFFL) * buckets) >>> 32);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getBloomBytes() {
+        return (long) bloom.length * Long.BYTES;
+    }
+
+    long getTableBytes() {
+        return (long) size * Long.BYTES + (long) bucketStarts.length * Integer.BYTES;
+    }
+}
+
+// Arama sayaçları - nesiller arasında korunur; toplam arama = sayaçların toplamı (sıcak yolda tek artırma)
+final class WatchlistStats {
+    final LongAdder unencodable = new LongAdder(); // Listelenemeyecek plaka (boş, uzun, geçersiz karakter)
+    final LongAdder bloomNegatives = new LongAdder();
+    final LongAdder falsePositives = new LongAdder();
+    final LongAdder hits = new LongAdder();
+}
+
+// PlateWatchlist - Çalıntı/yasaklı plaka listesi (her gece milyonlarca plaka yeniden yüklenir)
+// Aramalar kilitsiz: volatile görüntü referansı okunur. Yeniden yükleme yeni görüntüyü
+// yan tarafta kurar ve tek atamayla yayınlar; eski görüntüyü okuyan aramalar onunla biter,
+// heap dışı belleği GC temizler. Yüklemeler kendi aralarında sıralıdır.
+public class PlateWatchlist {
+    private volatile WatchlistSnapshot snapshot = WatchlistSnapshot.EMPTY;
+    private final WatchlistStats stats = new WatchlistStats();
+    private long generation;
+    private long rejectedPlates; // Son yüklemede kodlanamayan satırlar
+
+    public WatchlistReason check(String licensePlate) {
+        long code = licensePlate == null ? -1 : WatchlistSnapshot.encode(licensePlate);
+        if (code < 0) {
+            stats.unencodable.increment();
+            return null;
+        }
+        WatchlistReason reason = snapshot.lookup(code, stats);
+        if (reason != null) {
+            stats.hits.increment();
+        }
+        return reason;
+    }
+
+    public boolean isListed(String licensePlate) {
+        return check(licensePlate) != null;
+    }
+
+    // Bellekteki listeden yükle (plaka -> neden)
+    public synchronized int reload(Map<String, WatchlistReason> plates) {
+        long[] entries = new long[plates.size()];
+        int count = 0;
+        long rejected = 0;
+        for (Map.Entry<String, WatchlistReason> plate : plates.entrySet()) {
+            long code = WatchlistSnapshot.encode(plate.getKey());
+            if (code < 0) {
+                rejected++;
+                continue;
+            }
+            entries[count++] = WatchlistSnapshot.entry(code, plate.getValue());
+        }
+        return publish(entries, count, rejected);
+    }
+
+    public synchronized int reload(Collection<String> plates, WatchlistReason reason) {
+        long[] entries = new long[plates.size()];
+        int count = 0;
+        long rejected = 0;
+        for (String plate : plates) {
+            long code = WatchlistSnapshot.encode(plate);
+            if (code < 0) {
+                rejected++;
+                continue;
+            }
+            entries[count++] = WatchlistSnapshot.entry(code, reason);
+        }
+        return publish(entries, count, rejected);
+    }
+
+    // Gece içe aktarımı: satır başına "PLAKA[,NEDEN]", '#' ile başlayan satırlar yorum
+    public synchronized int reload(Path file) throws IOException {
+        long[] entries = new long[1 << 16];
+        int count = 0;
+        long rejected = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                int comma = line.indexOf(',');
+                String plate = comma < 0 ? line : line.substring(0, comma);
+                WatchlistReason reason = comma < 0 ? WatchlistReason.BANNED
+                        : WatchlistReason.of(line.substring(comma + 1).trim());
+                long code = WatchlistSnapshot.encode(plate);
+                if (code < 0) {
+                    rejected++;
+                    continue;
+                }
+                if (count == entries.length) {
+                    entries = Arrays.copyOf(entries, count * 2);
+                }
+                entries[count++] = WatchlistSnapshot.entry(code, reason);
+            }
+        }
+        return publish(entries, count, rejected);
+    }
+
+    // Kodlanamayan satır sayısı getRejectedPlates() ile okunur
+    private int publish(long[] entries, int count, long rejected) {
+        WatchlistSnapshot next = WatchlistSnapshot.build(entries, count, ++generation);
+        rejectedPlates = rejected;
+        snapshot = next; // Yayın: sonraki aramalar yeni nesli görür
+        return next.size();
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    public long getGeneration() {
+        return snapshot.generation;
+    }
+
+    public synchronized long getRejectedPlates() {
+        return rejectedPlates;
+    }
+
+    // Filtre (heap) + tablo (heap dışı)
+    public long getMemoryBytes() {
+        WatchlistSnapshot current = snapshot;
+        return current.getBloomBytes() + current.getTableBytes();
+    }
+
+    public long getLookups() {
+        return stats.unencodable.sum() + stats.bloomNegatives.sum() + stats.falsePositives.sum() + stats.hits.sum();
+    }
+
+    public long getHits() {
+        return stats.hits.sum();
+    }
+
+    public long getBloomNegatives() {
+        return stats.bloomNegatives.sum();
+    }
+
+    public long getFalsePositives() {
+        return stats.falsePositives.sum();
+    }
+
+    // Listede olmayan plakalardan filtreyi geçip tabloda bulunamayanların oranı
+    public double getFalsePositiveRate() {
+        long negatives = getBloomNegatives() + getFalsePositives();
+        return negatives == 0 ? 0 : getFalsePositives() / (double) negatives;
+    }
+
+    public void printStatistics() {
+        WatchlistSnapshot current = snapshot;
+        System.out.println("🚨 Watchlist: " + current.size() + " plates (generation " + current.generation +
+                "), " + (current.getBloomBytes() + current.getTableBytes()) / 1024 + " KB");
+        System.out.println("   Lookups " + getLookups() + ", hits " + getHits() + ", filtered by bloom " +
+                getBloomNegatives() + ", false positives " + getFalsePositives() +
+                String.format(" (%.2f%%)", getFalsePositiveRate() * 100));
+    }
+}
@@ -0,0 +1,358 @@
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+// Rollup çözünürlükleri - her biri sabit sayıda kova tutan bir halka
+enum RollupResolution {
+    MINUTE(60_000L, 2 * 24 * 60),   // son 2 gün
+    HOUR(3_600_000L, 100 * 24),     // son 100 gün
+    DAY(86_400_000L, 800);          // son ~2 yıl
+
+    private final long widthMillis;
+    private final int retainedBuckets;
+
+    RollupResolution(long widthMillis, int retainedBuckets) {
+        this.widthMillis = widthMillis;
+        this.retainedBuckets = retainedBuckets;
+    }
+
+    public long getWidthMillis() {
+        return widthMillis;
+    }
+
+    public int getRetainedBuckets() {
+        return retainedBuckets;
+    }
+}
+
+// Kova başına tutulan ölçüler
+enum RollupMetric {
+    ENTRIES, EXITS, REVENUE_KURUS, PEAK_OCCUPANCY
+}
+
+// Birleştirilmiş kova sonucu
+class RollupTotals {
+    private long entries;
+    private long exits;
+    private long revenueKurus;
+    private long peakOccupancy;
+
+    void add(long entries, long exits, long revenueKurus, long peakOccupancy) {
+        this.entries += entries;
+        this.exits += exits;
+        this.revenueKurus += revenueKurus;
+        this.peakOccupancy = Math.max(this.peakOccupancy, peakOccupancy);
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getExits() {
+        return exits;
+    }
+
+    public long getRevenueKurus() {
+        return revenueKurus;
+    }
+
+    public double getRevenue() {
+        return revenueKurus / 100.0;
+    }
+
+    public long getPeakOccupancy() {
+        return peakOccupancy;
+    }
+
+    @Override
+    public String toString() {
+        return "Entries: " + entries + ", Exits: " + exits +
+                ", Revenue: " + Money.format(revenueKurus) + " TL" +
+                ", Peak occupancy: " + peakOccupancy;
+    }
+}
+
+// Tek çözünürlüklü halka tampon
+// values düz bir long[] dizisidir: [slot][seri][ölçü]. bucketIds hangi kovanın hangi
+// slotta olduğunu tutar; eski veri üzerine yazılırken slot temizlenir.
+class RollupRing {
+    private final RollupResolution resolution;
+    private final int slots;
+    private final long[] bucketIds;
+    private final long[] values;
+    private long latestBucket;
+
+    RollupRing(RollupResolution resolution) {
+        this.resolution = resolution;
+        this.slots = resolution.getRetainedBuckets();
+        this.bucketIds = new long[slots];
+        this.values = new long[slots * RollupStore.SERIES * RollupStore.METRICS];
+        this.latestBucket = Long.MIN_VALUE;
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+    }
+
+    // Yerel zamandaki kovanın taban indeksini ver - halkanın gerisinde kalan olay için -1
+    int baseFor(long localMillis, int[] levels) {
+        long bucket = Math.floorDiv(localMillis, resolution.getWidthMillis());
+        if (bucket > latestBucket) {
+            advanceTo(bucket, levels);
+        } else if (bucket <= latestBucket - slots) {
+            return -1;
+        }
+        int slot = slotOf(bucket);
+        return bucketIds[slot] == bucket ? slot * RollupStore.SERIES * RollupStore.METRICS : -1;
+    }
+
+    // Aradaki boş kovalar da açılır: olay olmayan saatlerde doluluk tepe değeri korunur
+    private void advanceTo(long bucket, int[] levels) {
+        long first = latestBucket == Long.MIN_VALUE ? bucket : Math.max(latestBucket + 1, bucket - slots + 1);
+        for (long b = first; b <= bucket; b++) {
+            int slot = slotOf(b);
+            bucketIds[slot] = b;
+            int base = slot * RollupStore.SERIES * RollupStore.METRICS;
+            for (int series = 0; series < RollupStore.SERIES; series++) {
+                int offset = base + series * RollupStore.METRICS;
+                values[offset] = 0;
+                values[offset + 1] = 0;
+                values[offset + 2] = 0;
+                values[offset + 3] = levels[series];
+            }
+        }
+        latestBucket = bucket;
+    }
+
+    boolean contains(long bucket) {
+        return bucket <= latestBucket && bucket > latestBucket - slots && bucketIds[slotOf(bucket)] == bucket;
+    }
+
+    // Kovadaki seri ölçüsü - kova tutulmuyorsa 0
+    long get(long bucket, int series, int metric) {
+        if (!contains(bucket)) return 0;
+        return values[slotOf(bucket) * RollupStore.SERIES * RollupStore.METRICS
+                + series * RollupStore.METRICS + metric];
+    }
+
+    long[] getValues() {
+        return values;
+    }
+
+    RollupResolution getResolution() {
+        return resolution;
+    }
+
+    long getMemoryBytes() {
+        return (long) bucketIds.length * Long.BYTES + (long) values.length * Long.BYTES;
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) slots);
+    }
+}
+
+// RollupStore - Geçmiş doluluk ve gelir analitiği için zaman kovaları
+// Dakika/saat/gün çözünürlüğünde, park yeri tipi x araç tipi serileri için sayaçlar tutar.
+// Transaction nesneleri saklanmaz: bellek kullanımı trafikten bağımsız ve sabittir.
+// Olay hattının tek thread'i yazar, sorgular aynı kilit altında okunur.
+public class RollupStore {
+    static final int SPOT_TYPES = SpotCategory.values().length;
+    static final int VEHICLE_TYPES = VehicleCategory.values().length;
+    static final int SERIES = SPOT_TYPES * VEHICLE_TYPES;
+    static final int METRICS = RollupMetric.values().length;
+
+    private final ZoneRules zoneRules;
+    private final RollupRing[] rings;
+    private final int[] levels; // seri başına anlık doluluk
+
+    public RollupStore() {
+        this(ZoneId.systemDefault());
+    }
+
+    public RollupStore(ZoneId zone) {
+        this.zoneRules = zone.getRules();
+        this.rings = new RollupRing[RollupResolution.values().length];
+        for (RollupResolution resolution : RollupResolution.values()) {
+            rings[resolution.ordinal()] = new RollupRing(resolution);
+        }
+        this.levels = new int[SERIES];
+    }
+
+    public synchronized void recordEntry(long epochMillis, SpotCategory spot, VehicleCategory vehicle) {
+        int series = seriesOf(spot, vehicle);
+        levels[series]++;
+        record(epochMillis, series, RollupMetric.ENTRIES.ordinal(), 1);
+    }
+
+    public synchronized void recordExit(long epochMillis, SpotCategory spot, VehicleCategory vehicle,
+                                        long revenueKurus) {
+        int series = seriesOf(spot, vehicle);
+        if (levels[series] > 0) {
+            levels[series]--;
+        }
+        record(epochMillis, series, RollupMetric.EXITS.ordinal(), 1);
+        record(epochMillis, series, RollupMetric.REVENUE_KURUS.ordinal(), revenueKurus);
+    }
+
+    // Kurtarılan aktif biletler: sadece anlık doluluk
+    public synchronized void recordRestored(SpotCategory spot, VehicleCategory vehicle) {
+        levels[seriesOf(spot, vehicle)]++;
+    }
+
+    private void record(long epochMillis, int series, int metric, long amount) {
+        long local = toLocalMillis(epochMillis);
+        int peak = RollupMetric.PEAK_OCCUPANCY.ordinal();
+        for (RollupRing ring : rings) {
+            int base = ring.baseFor(local, levels);
+            if (base < 0) continue; // Bu çözünürlüğün tutma süresinden eski
+            long[] values = ring.getValues();
+            int offset = base + series * METRICS;
+            values[offset + metric] += amount;
+            values[offset + peak] = Math.max(values[offset + peak], levels[series]);
+        }
+    }
+
+    // Aralık toplamı [from, to) - tam günler gün kovasından, tam saatler saat kovasından,
+    // kalan kenarlar dakika kovasından birleştirilir. Dakika verisi tutulmayan eski kenarlar
+    // içinde bulundukları saat/gün kovasına yuvarlanır. null filtre: tüm tipler.
+    // Birden fazla seri birleşince tepe doluluk, seri tepelerinin toplamıdır (üst sınır).
+    public synchronized RollupTotals total(long fromMillis, long toMillis,
+                                           SpotCategory spot, VehicleCategory vehicle) {
+        RollupTotals totals = new RollupTotals();
+        long time = toLocalMillis(fromMillis);
+        long end = toLocalMillis(toMillis);
+
+        while (time < end) {
+            RollupRing ring = pickRing(time, end);
+            if (ring == null) {
+                // Hiçbir çözünürlükte veri yok - sonraki saate atla
+                time = (Math.floorDiv(time, RollupResolution.HOUR.getWidthMillis()) + 1)
+                        * RollupResolution.HOUR.getWidthMillis();
+                continue;
+            }
+            long width = ring.getResolution().getWidthMillis();
+            long bucket = Math.floorDiv(time, width);
+            addBucket(totals, ring, bucket, spot, vehicle);
+            time = (bucket + 1) * width;
+        }
+        return totals;
+    }
+
+    // Kova bazında seri: [kova][park yeri tipi] (ör. son 90 günün saatlik gelirleri)
+    public synchronized long[][] seriesBySpotCategory(RollupResolution resolution, long fromMillis,
+                                                      long toMillis, RollupMetric metric) {
+        return series(resolution, fromMillis, toMillis, metric, true);
+    }
+
+    // Kova bazında seri: [kova][araç tipi]
+    public synchronized long[][] seriesByVehicleCategory(RollupResolution resolution, long fromMillis,
+                                                         long toMillis, RollupMetric metric) {
+        return series(resolution, fromMillis, toMillis, metric, false);
+    }
+
+    public synchronized int getCurrentOccupancy(SpotCategory spot, VehicleCategory vehicle) {
+        return levels[seriesOf(spot, vehicle)];
+    }
+
+    // Halka tamponların toplam boyutu - trafikten bağımsız
+    public long getMemoryBytes() {
+        long total = (long) levels.length * Integer.BYTES;
+        for (RollupRing ring : rings) {
+            total += ring.getMemoryBytes();
+        }
+        return total;
+    }
+
+    private long[][] series(RollupResolution resolution, long fromMillis, long toMillis,
+                            RollupMetric metric, boolean bySpot) {
+        RollupRing ring = rings[resolution.ordinal()];
+        long width = resolution.getWidthMillis();
+        long first = Math.floorDiv(toLocalMillis(fromMillis), width);
+        long last = Math.floorDiv(toLocalMillis(toMillis) - 1, width);
+        int buckets = (int) Math.max(0, last - first + 1);
+        long[][] result = new long[buckets][bySpot ? SPOT_TYPES : VEHICLE_TYPES];
+
+        for (int i = 0; i < buckets; i++) {
+            long bucket = first + i;
+            if (!ring.contains(bucket)) continue;
+            for (int s = 0; s < SPOT_TYPES; s++) {
+                for (int v = 0; v < VEHICLE_TYPES; v++) {
+                    long value = ring.get(bucket, s * VEHICLE_TYPES + v, metric.ordinal());
+                    result[i][bySpot ? s : v] += value;
+                }
+            }
+        }
+        return result;
+    }
+
+    private RollupRing pickRing(long time, long end) {
+        RollupRing day = rings[RollupResolution.DAY.ordinal()];
+        RollupRing hour = rings[RollupResolution.HOUR.ordinal()];
+        RollupRing minute = rings[RollupResolution.MINUTE.ordinal()];
+
+        if (fits(day, time, end)) return day;
+        if (fits(hour, time, end)) return hour;
+        if (minute.contains(Math.floorDiv(time, RollupResolution.MINUTE.getWidthMillis()))) return minute;
+        if (hour.contains(Math.floorDiv(time, RollupResolution.HOUR.getWidthMillis()))) return hour;
+        if (day.contains(Math.floorDiv(time, RollupResolution.DAY.getWidthMillis()))) return day;
+        return null;
+    }
+
+    // Kova aralığa tam oturuyor ve tutuluyor mu?
+    private boolean fits(RollupRing ring, long time, long end) {
+        long width = ring.getResolution().getWidthMillis();
+        return Math.floorMod(time, width) == 0 && time + width <= end
+                && ring.contains(Math.floorDiv(time, width));
+    }
+
+    private void addBucket(RollupTotals totals, RollupRing ring, long bucket,
+                           SpotCategory spot, VehicleCategory vehicle) {
+        long entries = 0, exits = 0, revenue = 0, peak = 0;
+        for (int s = 0; s < SPOT_TYPES; s++) {
+            if (spot != null && spot.ordinal() != s) continue;
+            for (int v = 0; v < VEHICLE_TYPES; v++) {
+                if (vehicle != null && vehicle.ordinal() != v) continue;
+                int series = s * VEHICLE_TYPES + v;
+                entries += ring.get(bucket, series, RollupMetric.ENTRIES.ordinal());
+                exits += ring.get(bucket, series, RollupMetric.EXITS.ordinal());
+                revenue += ring.get(bucket, series, RollupMetric.REVENUE_KURUS.ordinal());
+                peak += ring.get(bucket, series, RollupMetric.PEAK_OCCUPANCY.ordinal());
+            }
+        }
+        totals.add(entries, exits, revenue, peak);
+    }
+
+    private static int seriesOf(SpotCategory spot, VehicleCategory vehicle) {
+        return spot.ordinal() * VEHICLE_TYPES + vehicle.ordinal();
+    }
+
+    // Kovalar yerel saate göre hizalanır (gün kovası gece yarısında başlar)
+    private long toLocalMillis(long epochMillis) {
+        return epochMillis + zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+    }
+}
+
+// Olay hattından rollup beslemesi
+class RollupEventHandler implements ParkingEventHandler {
+    private final RollupStore rollups;
+
+    public RollupEventHandler(RollupStore rollups) {
+        this.rollups = rollups;
+    }
+
+    @Override
+    public String getHandlerName() {
+        return "rollup";
+    }
+
+    @Override
+    public void onVehicleEntered(VehicleEnteredEvent event) {
+        rollups.recordEntry(event.getEpochMillis(), event.getSpot().getSpotCategory(),
+                event.getVehicle().getVehicleCategory());
+    }
+
+    @Override
+    public void onVehicleExited(VehicleExitedEvent event) {
+        rollups.recordExit(event.getEpochMillis(), event.getSpot().getSpotCategory(),
+                event.getVehicle().getVehicleCategory(), event.getFeeKurus());
+    }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -6,20 +8,40 @@ import java.util.*;
 class SecurityCamera {
     private String cameraId;
     private String location;
+    private final CameraLocation locationType; // İndeks anahtarı - metin bir kez eşlenir
     private int floor;
-    private boolean isActive;
+    private volatile boolean isActive;
+    private volatile CameraIndex index; // setActive değişikliğini indekse bildirir
     private boolean isRecording;
     private String quality; // "720p", "1080p", "4K"
-    private List<CameraRecording> recordings;
+    private final CameraRecordingStore recordings; // GÜNCELLEME: Sınırlı, zamana göre sıralı
+    private final ParkingClock clock;
 
     public SecurityCamera(String cameraId, String location, int floor, String quality) {
+        this(cameraId, location, floor, quality, ParkingClock.getDefault());
+    }
+
+    public SecurityCamera(String cameraId, String location, int floor, String quality,
+                          ParkingClock clock) {
+        this(cameraId, location, CameraLocation.of(location), floor, quality, clock);
+    }
+
+    public SecurityCamera(String cameraId, CameraLocation location, int floor, String quality,
+                          ParkingClock clock) {
+        this(cameraId, location.label, location, floor, quality, clock);
+    }
+
+    private SecurityCamera(String cameraId, String location, CameraLocation locationType, int floor,
+                           String quality, ParkingClock clock) {
+        this.clock = clock;
         this.cameraId = cameraId;
         this.location = location;
+        this.locationType = locationType;
         this.floor = floor;
         this.quality = quality;
         this.isActive = true;
         this.isRecording = true;
-        this.recordings = new ArrayList<>();
+        this.recordings = new CameraRecordingStore(this);
     }
 
     // Kayıt başlat
@@ -29,9 +51,9 @@ class SecurityCamera {
             return null;
         }
 
-        String recordingId = cameraId + "_REC_" + System.currentTimeMillis();
+        String recordingId = IdGenerator.getDefault().nextId(cameraId + "_REC_");
         CameraRecording recording = new CameraRecording(
-                recordingId, this, eventType, LocalDateTime.now()
+                recordingId, this, eventType, clock.millis()
         );
 
         recordings.add(recording);
@@ -64,6 +86,10 @@ class SecurityCamera {
         return location;
     }
 
+    public CameraLocation getLocationType() {
+        return locationType;
+    }
+
     public int getFloor() {
         return floor;
     }
@@ -74,6 +100,14 @@ class SecurityCamera {
 
     public void setActive(boolean active) {
         this.isActive = active;
+        CameraIndex current = index;
+        if (current != null) {
+            current.onActiveChanged(this); // Yerine aktif kamera seçilsin
+        }
+    }
+
+    void attachTo(CameraIndex index) {
+        this.index = index;
     }
 
     public boolean isRecording() {
@@ -84,10 +118,19 @@ class SecurityCamera {
         this.isRecording = recording;
     }
 
+    // Bellekteki son kayıtlar (eskiden yeniye); daha eskileri için getRecordingStore()
     public List<CameraRecording> getRecordings() {
+        return recordings.recent();
+    }
+
+    CameraRecordingStore getRecordingStore() {
         return recordings;
     }
 
+    public ParkingClock getClock() {
+        return clock;
+    }
+
     @Override
     public String toString() {
         return "Camera " + cameraId + " [" + location + ", Floor " + floor + "] - " +
@@ -100,25 +143,33 @@ class CameraRecording {
     private String recordingId;
     private SecurityCamera camera;
     private String eventType; // "ENTRY", "EXIT", "INCIDENT", "ROUTINE"
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
+    private long startMillis;
+    private long endMillis; // 0 = kayıt sürüyor
     private long fileSizeMB;
+    long spilledIndex = -1; // Segment dosyasındaki yeri (-1: sadece bellekte)
 
     public CameraRecording(String recordingId, SecurityCamera camera,
-                           String eventType, LocalDateTime startTime) {
+                           String eventType, long startMillis) {
+        this(recordingId, camera, eventType, startMillis, 0, 0);
+    }
+
+    // Segment dosyasından okunurken kullanılır
+    CameraRecording(String recordingId, SecurityCamera camera, String eventType,
+                    long startMillis, long endMillis, long fileSizeMB) {
         this.recordingId = recordingId;
         this.camera = camera;
         this.eventType = eventType;
-        this.startTime = startTime;
-        this.endTime = null;
-        this.fileSizeMB = 0;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.fileSizeMB = fileSizeMB;
     }
 
     public void stopRecording() {
-        this.endTime = LocalDateTime.now();
+        this.endMillis = camera.getClock().millis();
         // Simülasyon: dosya boyutu
-        long durationMinutes = java.time.Duration.between(startTime, endTime).toMinutes();
+        long durationMinutes = (endMillis - startMillis) / 60_000;
         this.fileSizeMB = durationMinutes * 50; // 50 MB per minute
+        camera.getRecordingStore().onStopped(this); // Boyut bütçesi ve sorgu sınırı güncellenir
     }
 
     // Getters
@@ -135,11 +186,19 @@ class CameraRecording {
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        return camera.getClock().toLocalDateTime(startMillis);
     }
 
     public LocalDateTime getEndTime() {
-        return endTime;
+        return endMillis == 0 ? null : camera.getClock().toLocalDateTime(endMillis);
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
     }
 
     public long getFileSizeMB() {
@@ -165,10 +224,17 @@ class IncidentReport {
     public IncidentReport(String reportId, String incidentType, String description,
                           LocalDateTime incidentTime, String location, int floor,
                           SecurityGuard reportedBy) {
+        this(reportId, incidentType, description, incidentTime, location, floor,
+                reportedBy, ParkingClock.getDefault().now());
+    }
+
+    public IncidentReport(String reportId, String incidentType, String description,
+                          LocalDateTime incidentTime, String location, int floor,
+                          SecurityGuard reportedBy, LocalDateTime reportTime) {
         this.reportId = reportId;
         this.incidentType = incidentType;
         this.description = description;
-        this.reportTime = LocalDateTime.now();
+        this.reportTime = reportTime;
         this.incidentTime = incidentTime;
         this.location = location;
         this.floor = floor;
@@ -181,8 +247,12 @@ class IncidentReport {
 
     private String determineSeverity(String type) {
         switch (type.toUpperCase()) {
+            case "STOLEN_VEHICLE":
+            case "WANTED_VEHICLE":
+                return "CRITICAL";
             case "THEFT":
             case "VANDALISM":
+            case "BANNED_VEHICLE":
                 return "HIGH";
             case "ACCIDENT":
                 return "MEDIUM";
@@ -201,6 +271,10 @@ class IncidentReport {
         relatedRecordings.add(recording);
     }
 
+    public List<CameraRecording> getRelatedRecordings() {
+        return relatedRecordings;
+    }
+
     public void updateStatus(String newStatus) {
         this.status = newStatus;
         System.out.println("Incident " + reportId + " status updated to: " + newStatus);
@@ -216,7 +290,7 @@ class IncidentReport {
         System.out.println("Status: " + status);
         System.out.println("Location: " + location + ", Floor " + floor);
         System.out.println("Incident Time: " + incidentTime.format(formatter));
-        System.out.println("Reported By: " + reportedBy.getName());
+        System.out.println("Reported By: " + (reportedBy != null ? reportedBy.getName() : "Security System (automatic)"));
         System.out.println("\nDescription:");
         System.out.println(description);
 
@@ -259,20 +333,40 @@ class IncidentReport {
 // SecuritySystem - Ana güvenlik sistemi
 public class SecuritySystem {
     private List<SecurityCamera> cameras;
+    private final CameraIndex cameraIndex; // YENİ: (kat, konum) -> kamera, O(1)
+    private volatile AnprPipeline anprPipeline; // null: plaka tanıma satır içi (eski davranış)
+    private volatile Path recordingSpillDirectory; // null: eski kayıtlar bellekten düşer
+    static final long INCIDENT_WINDOW_MILLIS = 15 * 60_000L; // Olay anından önce ve sonra
     private List<IncidentReport> incidentReports;
     private List<SecurityGuard> securityGuards;
-    private Map<String, List<String>> vehicleAccessLog; // licensePlate -> timestamps
+    private final VehicleAccessLog vehicleAccessLog; // GÜNCELLEME: Sütunlu, olay başına tek long
+    private final PlateWatchlist watchlist = new PlateWatchlist(); // YENİ: Çalıntı/yasaklı plakalar
+    private final IdGenerator idGenerator;
+    private final ParkingClock clock;
 
     public SecuritySystem() {
+        this(ParkingClock.getDefault());
+    }
+
+    public SecuritySystem(ParkingClock clock) {
+        this.clock = clock;
+        this.idGenerator = IdGenerator.getDefault();
         this.cameras = new ArrayList<>();
+        this.cameraIndex = new CameraIndex();
         this.incidentReports = new ArrayList<>();
         this.securityGuards = new ArrayList<>();
-        this.vehicleAccessLog = new HashMap<>();
+        this.vehicleAccessLog = new VehicleAccessLog(clock);
     }
 
     // Kamera ekle
     public void addCamera(SecurityCamera camera) {
         cameras.add(camera);
+        cameraIndex.add(camera);
+        camera.attachTo(cameraIndex);
+        Path spill = recordingSpillDirectory;
+        if (spill != null) {
+            spillRecordings(camera, spill);
+        }
         System.out.println("✓ Camera added: " + camera.getCameraId() +
                 " at " + camera.getLocation());
     }
@@ -284,31 +378,80 @@ public class SecuritySystem {
         for (int floor = 0; floor < totalFloors; floor++) {
             // Her katta 4 kamera
             addCamera(new SecurityCamera("CAM_F" + floor + "_ENTRY",
-                    "Entry Point", floor, "1080p"));
+                    CameraLocation.ENTRY_POINT, floor, "1080p", clock));
             addCamera(new SecurityCamera("CAM_F" + floor + "_EXIT",
-                    "Exit Point", floor, "1080p"));
+                    CameraLocation.EXIT_POINT, floor, "1080p", clock));
             addCamera(new SecurityCamera("CAM_F" + floor + "_CENTER",
-                    "Center Area", floor, "4K"));
+                    CameraLocation.CENTER_AREA, floor, "4K", clock));
             addCamera(new SecurityCamera("CAM_F" + floor + "_CORNER",
-                    "Corner Area", floor, "720p"));
+                    CameraLocation.CORNER_AREA, floor, "720p", clock));
         }
 
         System.out.println("✓ Total cameras installed: " + cameras.size() + "\n");
     }
 
+    // YENİ: Bellekteki halka tamponundan taşan kayıt üst verileri kamera başına segment dosyasına yazılır
+    public void enableRecordingSpill(Path directory) {
+        this.recordingSpillDirectory = directory;
+        for (SecurityCamera camera : cameras) {
+            spillRecordings(camera, directory);
+        }
+    }
+
+    private void spillRecordings(SecurityCamera camera, Path directory) {
+        try {
+            camera.getRecordingStore().spillTo(directory);
+        } catch (IOException e) {
+            System.err.println("Recording spill disabled for " + camera.getCameraId() + ": " + e.getMessage());
+        }
+    }
+
+    public void closeRecordingStores() {
+        for (SecurityCamera camera : cameras) {
+            try {
+                camera.getRecordingStore().close();
+            } catch (IOException e) {
+                System.err.println("Recording store close failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // YENİ: Plaka tanıma işçi havuzuna devredilir - kayıt yolu tanıyıcıyı beklemez
+    public void setAnprPipeline(AnprPipeline pipeline) {
+        this.anprPipeline = pipeline;
+    }
+
+    public AnprPipeline getAnprPipeline() {
+        return anprPipeline;
+    }
+
+    private void recognizePlate(SecurityCamera camera, Vehicle vehicle, Ticket ticket) {
+        AnprPipeline pipeline = anprPipeline;
+        if (pipeline != null) {
+            pipeline.submit(camera, vehicle, ticket); // Sonuç bilete sonradan yazılır
+            return;
+        }
+        String plate = camera.recognizeLicensePlate(vehicle);
+        if (ticket != null && plate != null) {
+            ticket.setRecognizedPlate(plate);
+        }
+    }
+
     // Araç girişi kaydet
     public void logVehicleEntry(Vehicle vehicle, ParkingSpot spot) {
+        logVehicleEntry(vehicle, spot, null);
+    }
+
+    public synchronized void logVehicleEntry(Vehicle vehicle, ParkingSpot spot, Ticket ticket) {
         String licensePlate = vehicle.getLicensePlate();
-        LocalDateTime now = LocalDateTime.now();
 
-        // Access log'a ekle
-        vehicleAccessLog.putIfAbsent(licensePlate, new ArrayList<>());
-        vehicleAccessLog.get(licensePlate).add("ENTRY: " + now);
+        // Access log'a ekle - metin okunurken üretilir
+        vehicleAccessLog.recordEntry(licensePlate, spot.getSpotId(), clock.millis());
 
         // İlgili kamerayı bul ve plaka tanıma
-        SecurityCamera camera = findCameraByLocation("Entry Point", spot.getFloor());
+        SecurityCamera camera = findCameraByLocation(CameraLocation.ENTRY_POINT, spot.getFloor());
         if (camera != null) {
-            camera.recognizeLicensePlate(vehicle);
+            recognizePlate(camera, vehicle, ticket);
             CameraRecording recording = camera.startRecording("ENTRY");
             if (recording != null) {
                 // Simülasyon: 2 dakika sonra kayıt durdur
@@ -316,23 +459,41 @@ public class SecuritySystem {
             }
         }
 
+        // YENİ: İzleme listesi - listede olmayan plakaların çoğu Bloom filtresinde elenir
+        WatchlistReason watchlistReason = watchlist.check(licensePlate);
+        if (watchlistReason != null) {
+            raiseWatchlistIncident(vehicle, spot, watchlistReason);
+        }
+
         System.out.println("🔒 Security: Vehicle " + licensePlate + " entry logged");
     }
 
+    // Otomatik olay raporu - görevli yoksa rapor sistem adına açılır
+    private void raiseWatchlistIncident(Vehicle vehicle, ParkingSpot spot, WatchlistReason reason) {
+        SecurityGuard guard = securityGuards.isEmpty() ? null : securityGuards.get(0);
+        System.out.println("🚨 WATCHLIST MATCH: " + vehicle.getLicensePlate() + " (" + reason + ") at " +
+                spot.getSpotId());
+        IncidentReport report = createIncidentReport(reason.incidentType,
+                "Watchlisted vehicle entered: " + vehicle.getLicensePlate() + " (" + reason + ")",
+                clock.now(), CameraLocation.ENTRY_POINT.label, spot.getFloor(), guard);
+        report.addInvolvedVehicle(vehicle.getLicensePlate());
+    }
+
     // Araç çıkışı kaydet
     public void logVehicleExit(Vehicle vehicle, ParkingSpot spot) {
+        logVehicleExit(vehicle, spot, null);
+    }
+
+    public synchronized void logVehicleExit(Vehicle vehicle, ParkingSpot spot, Ticket ticket) {
         String licensePlate = vehicle.getLicensePlate();
-        LocalDateTime now = LocalDateTime.now();
 
-        // Access log'a ekle
-        if (vehicleAccessLog.containsKey(licensePlate)) {
-            vehicleAccessLog.get(licensePlate).add("EXIT: " + now);
-        }
+        // Access log'a ekle (girişi görülmüş araçlar)
+        vehicleAccessLog.recordExit(licensePlate, spot.getSpotId(), clock.millis());
 
         // İlgili kamerayı bul
-        SecurityCamera camera = findCameraByLocation("Exit Point", spot.getFloor());
+        SecurityCamera camera = findCameraByLocation(CameraLocation.EXIT_POINT, spot.getFloor());
         if (camera != null) {
-            camera.recognizeLicensePlate(vehicle);
+            recognizePlate(camera, vehicle, ticket);
             CameraRecording recording = camera.startRecording("EXIT");
             if (recording != null) {
                 recording.stopRecording();
@@ -346,11 +507,11 @@ public class SecuritySystem {
     public IncidentReport createIncidentReport(String incidentType, String description,
                                                LocalDateTime incidentTime, String location,
                                                int floor, SecurityGuard guard) {
-        String reportId = "INC" + System.currentTimeMillis();
+        String reportId = idGenerator.nextId("INC");
 
         IncidentReport report = new IncidentReport(
                 reportId, incidentType, description, incidentTime,
-                location, floor, guard
+                location, floor, guard, clock.now()
         );
 
         incidentReports.add(report);
@@ -360,13 +521,13 @@ public class SecuritySystem {
         System.out.println("Type: " + incidentType);
         System.out.println("Severity: " + report.getSeverity());
 
-        // İlgili kamera kayıtlarını bul
+        // GÜNCELLEME: Olay anının çevresindeki tüm kayıtlar (sadece son kayıt değil)
+        long incidentMillis = incidentTime.atZone(clock.getZone()).toInstant().toEpochMilli();
         List<SecurityCamera> nearbyCamera = findCamerasByFloor(floor);
         for (SecurityCamera camera : nearbyCamera) {
-            if (!camera.getRecordings().isEmpty()) {
-                CameraRecording lastRecording = camera.getRecordings()
-                        .get(camera.getRecordings().size() - 1);
-                report.addRecording(lastRecording);
+            for (CameraRecording recording : camera.getRecordingStore().findOverlapping(
+                    incidentMillis - INCIDENT_WINDOW_MILLIS, incidentMillis + INCIDENT_WINDOW_MILLIS)) {
+                report.addRecording(recording);
             }
         }
 
@@ -378,25 +539,14 @@ public class SecuritySystem {
         securityGuards.add(guard);
     }
 
-    // Kamera bul (lokasyon ve kat)
-    private SecurityCamera findCameraByLocation(String location, int floor) {
-        for (SecurityCamera camera : cameras) {
-            if (camera.getLocation().equals(location) && camera.getFloor() == floor) {
-                return camera;
-            }
-        }
-        return null;
+    // GÜNCELLEME: Kamera bul (lokasyon ve kat) - indeksten O(1), metin karşılaştırması yok
+    private SecurityCamera findCameraByLocation(CameraLocation location, int floor) {
+        return cameraIndex.find(location, floor);
     }
 
-    // Kattaki tüm kameraları bul
+    // Kattaki tüm kameralar (değiştirilemez liste, kopyalanmaz)
     private List<SecurityCamera> findCamerasByFloor(int floor) {
-        List<SecurityCamera> floorCameras = new ArrayList<>();
-        for (SecurityCamera camera : cameras) {
-            if (camera.getFloor() == floor) {
-                floorCameras.add(camera);
-            }
-        }
-        return floorCameras;
+        return cameraIndex.onFloor(floor);
     }
 
     // Araç erişim geçmişini göster
@@ -404,8 +554,8 @@ public class SecuritySystem {
         System.out.println("\n═══ VEHICLE ACCESS HISTORY ═══");
         System.out.println("License Plate: " + licensePlate);
 
-        if (vehicleAccessLog.containsKey(licensePlate)) {
-            List<String> logs = vehicleAccessLog.get(licensePlate);
+        List<String> logs = vehicleAccessLog.history(licensePlate);
+        if (logs != null) {
             System.out.println("Total Access: " + logs.size());
             for (String log : logs) {
                 System.out.println("- " + log);
@@ -425,7 +575,7 @@ public class SecuritySystem {
         System.out.println("Active Cameras: " + activeCameras);
 
         long totalRecordings = cameras.stream()
-                .mapToLong(c -> c.getRecordings().size())
+                .mapToLong(c -> c.getRecordingStore().size())
                 .sum();
         System.out.println("Total Recordings: " + totalRecordings);
 
@@ -457,11 +607,32 @@ public class SecuritySystem {
                 .count();
         System.out.println("\nOpen Incidents: " + openIncidents);
 
-        System.out.println("\nVehicles Tracked: " + vehicleAccessLog.size());
+        System.out.println("Watchlist: " + watchlist.size() + " plates, " + watchlist.getHits() + " matches");
+
+        System.out.println("\nVehicles Tracked: " + vehicleAccessLog.getTrackedVehicles());
+        System.out.println("Access Events: " + vehicleAccessLog.getEventCount() +
+                " (" + vehicleAccessLog.getCompactedEvents() + " past retention removed)");
 
         System.out.println("╚════════════════════════════════════════╝\n");
     }
 
+    // Saklama süresini aşan erişim kayıtlarını hemen at (normalde eklerken periyodik)
+    public long compactAccessLog() {
+        return vehicleAccessLog.compact(clock.millis());
+    }
+
+    VehicleAccessLog getVehicleAccessLog() {
+        return vehicleAccessLog;
+    }
+
+    public PlateWatchlist getWatchlist() {
+        return watchlist;
+    }
+
+    CameraIndex getCameraIndex() {
+        return cameraIndex;
+    }
+
     // Getters
     public List<SecurityCamera> getCameras() {
         return cameras;
@@ -0,0 +1,684 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+// Abonelik bitiş indeksi - bitiş zamanına göre sıralı (ConcurrentSkipListSet)
+// Vadesi gelenler baştan okunur, tüm abonelikler taranmaz. Müşteri + abonelik tipi başına
+// tek kayıt tutulur: aynı müşterinin sonraki girişleri ikinci bir abonelik açmaz.
+class SubscriptionExpiryIndex {
+    private static final Comparator<ExpiryEntry> ORDER =
+            Comparator.comparingLong((ExpiryEntry e) -> e.expiryMillis).thenComparing(e -> e.ticketId);
+
+    // Sıralama anahtarı değişmez; yenilemede eski kayıt silinip yenisi eklenir
+    static final class ExpiryEntry {
+        final long expiryMillis;
+        final String ticketId;
+        final Ticket ticket;
+
+        ExpiryEntry(long expiryMillis, String ticketId, Ticket ticket) {
+            this.expiryMillis = expiryMillis;
+            this.ticketId = ticketId;
+            this.ticket = ticket;
+        }
+    }
+
+    private final ConcurrentSkipListSet<ExpiryEntry> byExpiry = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, ExpiryEntry> byTicketId = new ConcurrentHashMap<>();
+    private final Map<String, String> ticketBySubscriber = new ConcurrentHashMap<>();
+
+    // false: müşterinin bu tipte aboneliği zaten kayıtlı
+    public boolean add(Ticket ticket) {
+        if (!(ticket instanceof Renewable)) {
+            throw new IllegalArgumentException("Not a subscription: " + ticket.getTicketId());
+        }
+        String key = subscriberKey(ticket);
+        if (ticketBySubscriber.putIfAbsent(key, ticket.getTicketId()) != null) {
+            return false;
+        }
+        ExpiryEntry entry = new ExpiryEntry(((Renewable) ticket).getExpiryMillis(), ticket.getTicketId(), ticket);
+        byTicketId.put(entry.ticketId, entry);
+        byExpiry.add(entry);
+        return true;
+    }
+
+    public void remove(String ticketId) {
+        ExpiryEntry entry = byTicketId.remove(ticketId);
+        if (entry != null) {
+            byExpiry.remove(entry);
+            ticketBySubscriber.remove(subscriberKey(entry.ticket), ticketId);
+        }
+    }
+
+    // Bitişi asOfMillis veya öncesi olanlar, bitiş sırasıyla
+    public List<Ticket> dueUntil(long asOfMillis) {
+        List<Ticket> due = new ArrayList<>();
+        for (ExpiryEntry entry : byExpiry.headSet(new ExpiryEntry(asOfMillis, "\uffff", null), true)) {
+            due.add(entry.ticket);
+        }
+        return due;
+    }
+
+    // Bitişi ilerlet ve indeksi güncelle (geri alma yapılmaz)
+    // Kilit bilet bazındadır (compute): farklı müşterilerin grupları paralel yenilenir
+    public boolean renew(Ticket ticket, long newExpiryMillis) {
+        boolean[] renewed = new boolean[1];
+        byTicketId.computeIfPresent(ticket.getTicketId(), (id, current) -> {
+            if (current.expiryMillis >= newExpiryMillis) {
+                return current;
+            }
+            ((Renewable) current.ticket).renewTo(newExpiryMillis);
+            ExpiryEntry next = new ExpiryEntry(newExpiryMillis, id, current.ticket);
+            byExpiry.add(next);
+            byExpiry.remove(current);
+            renewed[0] = true;
+            return next;
+        });
+        return renewed[0];
+    }
+
+    public Ticket get(String ticketId) {
+        ExpiryEntry entry = byTicketId.get(ticketId);
+        return entry == null ? null : entry.ticket;
+    }
+
+    public long getNextExpiryMillis() {
+        ExpiryEntry first = byExpiry.isEmpty() ? null : byExpiry.first();
+        return first == null ? Long.MAX_VALUE : first.expiryMillis;
+    }
+
+    public int size() {
+        return byTicketId.size();
+    }
+
+    private static String subscriberKey(Ticket ticket) {
+        return ticket.getCustomer().getId() + ":" + ticket.getTicketCategory();
+    }
+}
+
+// Bir aboneliğin bu turdaki yenilemesi
+class RenewalItem {
+    final Ticket ticket;
+    final int periods;
+    final long newExpiryMillis;
+    final long chargeKurus;
+
+    RenewalItem(Ticket ticket, int periods, long newExpiryMillis, long chargeKurus) {
+        this.ticket = ticket;
+        this.periods = periods;
+        this.newExpiryMillis = newExpiryMillis;
+        this.chargeKurus = chargeKurus;
+    }
+}
+
+// Müşteri başına toplanmış yenilemeler - tek Payment ile tahsil edilir
+class RenewalGroup {
+    private final Customer customer;
+    private final List<RenewalItem> items;
+    private long totalKurus;
+
+    RenewalGroup(Customer customer) {
+        this.customer = customer;
+        this.items = new ArrayList<>(2);
+    }
+
+    void add(RenewalItem item) {
+        items.add(item);
+        totalKurus = Money.add(totalKurus, item.chargeKurus);
+    }
+
+    void merge(RenewalGroup other) {
+        for (RenewalItem item : other.items) {
+            add(item);
+        }
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public List<RenewalItem> getItems() {
+        return items;
+    }
+
+    public long getTotalKurus() {
+        return totalKurus;
+    }
+}
+
+// Faturalama ilerleme kaydı - eklemeli metin dosyası
+//   B <batch> <asOf>                                          tur başladı
+//   I <batch> <müşteri> <kuruş> <ödeme> <bilet>=<bitiş>,...   tahsilat denenecek (niyet)
+//   G <batch> <müşteri> <kuruş> <ödeme> <bilet>=<bitiş>,...   grup tahsil edildi ve yenilendi
+//   F <batch> <ödeme>                                         tahsilat reddedildi
+//   E <batch>                                                 tur tamamlandı
+// I satırları ödeme gönderilmeden ÖNCE diske zorlanır (parça başına tek fsync). G/F satırları
+// grup commit ile yazılır; çökmede kaybolanlar I satırından "belirsiz" olarak geri gelir.
+// Belirsiz ödemeler tekrar gönderilmez, biletleri sağlayıcı ekstresiyle kapatılana kadar bekletilir.
+class BillingCheckpoint implements AutoCloseable {
+    static final String FILE_NAME = "billing-checkpoint.log";
+
+    private final Path file;
+    private final int syncEvery;
+    private FileOutputStream output;
+    private BufferedWriter writer;
+    private int unsynced;
+
+    // Dosyadan okunan durum
+    private long lastBatchId;
+    private long unfinishedBatchId = -1;
+    private long unfinishedAsOfMillis;
+    private final Map<String, Long> renewedExpiries = new HashMap<>();
+    private final Set<String> loggedPaymentIds = new HashSet<>();          // son turda niyeti yazılanlar
+    private final Map<String, String> inDoubt = new LinkedHashMap<>();     // ödeme ID -> I satırı
+    private final Set<String> heldTicketIds = new HashSet<>();
+
+    BillingCheckpoint(Path directory, int syncEvery) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.syncEvery = syncEvery;
+        load();
+        this.output = new FileOutputStream(file.toFile(), true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) return;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                try {
+                    switch (parts[0]) {
+                        case "B":
+                            lastBatchId = Long.parseLong(parts[1]);
+                            unfinishedBatchId = lastBatchId;
+                            unfinishedAsOfMillis = Long.parseLong(parts[2]);
+                            loggedPaymentIds.clear();
+                            break;
+                        case "I":
+                            parseRenewals(parts[5]); // Yarım satır niyet sayılmaz
+                            loggedPaymentIds.add(parts[4]);
+                            inDoubt.put(parts[4], line);
+                            break;
+                        case "G":
+                            for (Map.Entry<String, Long> renewal : parseRenewals(parts[5]).entrySet()) {
+                                renewedExpiries.merge(renewal.getKey(), renewal.getValue(), Math::max);
+                            }
+                            inDoubt.remove(parts[4]);
+                            break;
+                        case "F":
+                            inDoubt.remove(parts[2]);
+                            break;
+                        case "E":
+                            if (Long.parseLong(parts[1]) == unfinishedBatchId) {
+                                unfinishedBatchId = -1;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                } catch (RuntimeException e) {
+                    // Çökme anında yarım kalmış son satır
+                    System.err.println("Ignoring torn checkpoint line: " + line);
+                }
+            }
+        }
+        for (String intent : inDoubt.values()) {
+            heldTicketIds.addAll(parseRenewals(intent.split(" ")[5]).keySet());
+        }
+    }
+
+    private static Map<String, Long> parseRenewals(String field) {
+        Map<String, Long> renewals = new LinkedHashMap<>();
+        for (String renewal : field.split(",")) {
+            int eq = renewal.indexOf('=');
+            renewals.put(renewal.substring(0, eq), Long.parseLong(renewal.substring(eq + 1)));
+        }
+        return renewals;
+    }
+
+    synchronized void beginBatch(long batchId, long asOfMillis) throws IOException {
+        writer.write("B " + batchId + " " + asOfMillis + "\n");
+        sync();
+        loggedPaymentIds.clear();
+    }
+
+    // Bir parçadaki tüm grupların niyeti tek fsync ile diske - ödemeler bundan sonra gönderilir
+    synchronized void intentsLogged(long batchId, List<RenewalGroup> groups) throws IOException {
+        for (RenewalGroup group : groups) {
+            writer.append(groupLine('I', batchId, group, SubscriptionBillingEngine.paymentIdFor(batchId, group)))
+                    .append('\n');
+        }
+        sync();
+    }
+
+    synchronized void groupCommitted(long batchId, RenewalGroup group, String paymentId) throws IOException {
+        writer.append(groupLine('G', batchId, group, paymentId)).append('\n');
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    synchronized void groupFailed(long batchId, String paymentId) throws IOException {
+        writer.write("F " + batchId + " " + paymentId + "\n");
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    private static StringBuilder groupLine(char type, long batchId, RenewalGroup group, String paymentId) {
+        StringBuilder line = new StringBuilder(96);
+        line.append(type).append(' ').append(batchId).append(' ').append(group.getCustomer().getId())
+                .append(' ').append(group.getTotalKurus()).append(' ').append(paymentId).append(' ');
+        List<RenewalItem> items = group.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) line.append(',');
+            line.append(items.get(i).ticket.getTicketId()).append('=').append(items.get(i).newExpiryMillis);
+        }
+        return line;
+    }
+
+    // Belirsiz ödemeyi kapat: tahsil edildiyse G (yenilemeler döner), edilmediyse F yazılır
+    synchronized Map<String, Long> resolveInDoubt(String paymentId, boolean collected) throws IOException {
+        String intent = inDoubt.remove(paymentId);
+        if (intent == null) {
+            throw new IllegalArgumentException("Payment is not in doubt: " + paymentId);
+        }
+        String[] parts = intent.split(" ");
+        Map<String, Long> renewals = parseRenewals(parts[5]);
+        writer.write(collected ? "G" + intent.substring(1) + "\n" : "F " + parts[1] + " " + paymentId + "\n");
+        sync();
+        heldTicketIds.removeAll(renewals.keySet());
+        return collected ? renewals : Collections.emptyMap();
+    }
+
+    synchronized void endBatch(long batchId) throws IOException {
+        writer.write("E " + batchId + "\n");
+        sync();
+    }
+
+    private void sync() throws IOException {
+        writer.flush();
+        output.getChannel().force(false);
+        unsynced = 0;
+    }
+
+    long getLastBatchId() {
+        return lastBatchId;
+    }
+
+    long getUnfinishedBatchId() {
+        return unfinishedBatchId;
+    }
+
+    long getUnfinishedAsOfMillis() {
+        return unfinishedAsOfMillis;
+    }
+
+    Map<String, Long> getRenewedExpiries() {
+        return renewedExpiries;
+    }
+
+    boolean isPaymentLogged(String paymentId) {
+        return loggedPaymentIds.contains(paymentId);
+    }
+
+    synchronized Map<String, Long> getInDoubtPayments() {
+        Map<String, Long> amounts = new LinkedHashMap<>();
+        for (Map.Entry<String, String> intent : inDoubt.entrySet()) {
+            amounts.put(intent.getKey(), Long.parseLong(intent.getValue().split(" ")[3]));
+        }
+        return amounts;
+    }
+
+    synchronized boolean isHeld(String ticketId) {
+        return heldTicketIds.contains(ticketId);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            sync();
+            writer.close();
+            writer = null;
+        }
+    }
+}
+
+// Bir faturalama turunun sonucu
+class BillingRunResult {
+    final long batchId;
+    final long asOfMillis;
+    final boolean resumed;
+    int dueSubscriptions;
+    int groups;
+    final LongAdder renewedSubscriptions = new LongAdder();
+    final LongAdder successfulPayments = new LongAdder();
+    final LongAdder failedPayments = new LongAdder();
+    final MoneyAccumulator collected = new MoneyAccumulator();
+    long computeNanos;
+    long elapsedNanos;
+
+    BillingRunResult(long batchId, long asOfMillis, boolean resumed) {
+        this.batchId = batchId;
+        this.asOfMillis = asOfMillis;
+        this.resumed = resumed;
+    }
+
+    public double getSubscriptionsPerSecond() {
+        return elapsedNanos == 0 ? 0 : dueSubscriptions / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public long getRenewedSubscriptions() {
+        return renewedSubscriptions.sum();
+    }
+
+    public long getCollectedKurus() {
+        return collected.sum();
+    }
+
+    public long getFailedPayments() {
+        return failedPayments.sum();
+    }
+
+    public void printReport() {
+        System.out.println("\n=== SUBSCRIPTION BILLING (batch " + batchId + (resumed ? ", resumed" : "") + ") ===");
+        System.out.println("Due subscriptions: " + dueSubscriptions + " in " + groups + " customer groups");
+        System.out.println("Renewed: " + getRenewedSubscriptions() + ", payments OK: " +
+                successfulPayments.sum() + ", failed: " + failedPayments.sum());
+        System.out.println("Collected: " + collected);
+        System.out.println("Time: " + (elapsedNanos / 1_000_000) + " ms (charges computed in " +
+                (computeNanos / 1_000_000) + " ms)");
+        System.out.println("Throughput: " + String.format("%.0f", getSubscriptionsPerSecond()) + " subscriptions/sec");
+        System.out.println("==============================================");
+    }
+}
+
+// Kurtarma sonucu - kayıttan geri yüklenen yenilemeler, belirsiz ödemeler ve tamamlanan yarım tur
+class BillingRecoveryResult {
+    private final int restoredRenewals;
+    private final int inDoubtPayments;
+    private final BillingRunResult resumedRun; // Yarım tur yoksa null
+
+    BillingRecoveryResult(int restoredRenewals, int inDoubtPayments, BillingRunResult resumedRun) {
+        this.restoredRenewals = restoredRenewals;
+        this.inDoubtPayments = inDoubtPayments;
+        this.resumedRun = resumedRun;
+    }
+
+    public int getRestoredRenewals() {
+        return restoredRenewals;
+    }
+
+    public int getInDoubtPayments() {
+        return inDoubtPayments;
+    }
+
+    public BillingRunResult getResumedRun() {
+        return resumedRun;
+    }
+
+    public void printReport() {
+        System.out.println("♻️ Billing checkpoint: " + restoredRenewals + " renewals restored, " +
+                inDoubtPayments + " payments in doubt");
+        if (resumedRun != null) {
+            resumedRun.printReport();
+        }
+    }
+}
+
+// SubscriptionBillingEngine - Abonelik yenilemelerini toplu tahsil eder
+// 1) Vadesi gelenler bitiş indeksinden sırayla alınır
+// 2) Yenileme ücretleri fork/join parçalarında paralel hesaplanır, müşteri başına gruplanır
+// 3) Her grup tek Payment ile tahsil edilir; niyet kayda zorlanmadan ödeme gönderilmez,
+//    başarılıysa abonelikler yenilenir ve kayda yazılır
+// Çökme sonrası recover(): kayıttaki yenilemeler yeniden uygulanır, yarım kalan tur aynı
+// asOf ile tekrar çalıştırılır - niyeti yazılmış ödemeler tekrar gönderilmez. Sonucu bilinmeyen
+// ödemeler getInDoubtPayments() ile listelenir, resolveInDoubt() ile ekstreye göre kapatılır.
+public class SubscriptionBillingEngine implements AutoCloseable {
+    static final int CHUNK_SIZE = 1024;
+    static final int DEFAULT_SYNC_EVERY = 256;
+
+    private final SubscriptionExpiryIndex index;
+    private final ForkJoinPool pool;
+    private final BillingCheckpoint checkpoint;
+    private final BiFunction<RenewalGroup, String, Payment> paymentFactory;
+    private long nextBatchId;
+
+    public SubscriptionBillingEngine(SubscriptionExpiryIndex index, Path checkpointDirectory) throws IOException {
+        this(index, checkpointDirectory, ForkJoinPool.commonPool(), DEFAULT_SYNC_EVERY,
+                (group, paymentId) -> DirectDebitPayment.ofKurus(paymentId, group.getTotalKurus(),
+                        group.getCustomer().getId(), "MANDATE-" + group.getCustomer().getId()));
+    }
+
+    public SubscriptionBillingEngine(SubscriptionExpiryIndex index, Path checkpointDirectory,
+                                     ForkJoinPool pool, int syncEvery,
+                                     BiFunction<RenewalGroup, String, Payment> paymentFactory) throws IOException {
+        this.index = index;
+        this.pool = pool;
+        this.paymentFactory = paymentFactory;
+        this.checkpoint = new BillingCheckpoint(checkpointDirectory, syncEvery);
+        this.nextBatchId = checkpoint.getLastBatchId() + 1;
+    }
+
+    // Kayıttaki yenilemeleri indekse uygula; yarım tur varsa tamamla
+    public BillingRecoveryResult recover() throws IOException {
+        int restored = 0;
+        for (Map.Entry<String, Long> renewal : checkpoint.getRenewedExpiries().entrySet()) {
+            Ticket ticket = index.get(renewal.getKey());
+            if (ticket != null && index.renew(ticket, renewal.getValue())) {
+                restored++;
+            }
+        }
+        long unfinished = checkpoint.getUnfinishedBatchId();
+        BillingRunResult resumed = unfinished < 0
+                ? null : runBatch(unfinished, checkpoint.getUnfinishedAsOfMillis(), true);
+        return new BillingRecoveryResult(restored, checkpoint.getInDoubtPayments().size(), resumed);
+    }
+
+    // Sonucu bilinmeyen (niyeti yazılmış, tahsilatı kaydedilmemiş) ödemeler: ödeme ID -> kuruş
+    public Map<String, Long> getInDoubtPayments() {
+        return checkpoint.getInDoubtPayments();
+    }
+
+    // Sağlayıcı ekstresine göre belirsiz ödemeyi kapat: tahsil edildiyse abonelikler yenilenir,
+    // edilmediyse bekletme kalkar ve sonraki turda yeni ödeme ID'si ile tahsil edilir
+    public void resolveInDoubt(String paymentId, boolean collected) throws IOException {
+        for (Map.Entry<String, Long> renewal : checkpoint.resolveInDoubt(paymentId, collected).entrySet()) {
+            Ticket ticket = index.get(renewal.getKey());
+            if (ticket != null) {
+                index.renew(ticket, renewal.getValue());
+            }
+        }
+    }
+
+    // asOfMillis anına kadar vadesi gelen tüm abonelikleri yenile
+    public BillingRunResult runBilling(long asOfMillis) throws IOException {
+        return runBatch(nextBatchId, asOfMillis, false);
+    }
+
+    private BillingRunResult runBatch(long batchId, long asOfMillis, boolean resumed) throws IOException {
+        BillingRunResult result = new BillingRunResult(batchId, asOfMillis, resumed);
+        long start = System.nanoTime();
+        if (!resumed) {
+            checkpoint.beginBatch(batchId, asOfMillis);
+        }
+        nextBatchId = Math.max(nextBatchId, batchId + 1);
+
+        // Belirsiz ödemedeki abonelikler ekstre ile kapatılana kadar tahsil edilmez
+        Ticket[] due = index.dueUntil(asOfMillis).stream()
+                .filter(ticket -> !checkpoint.isHeld(ticket.getTicketId()))
+                .toArray(Ticket[]::new);
+        result.dueSubscriptions = due.length;
+
+        Map<String, RenewalGroup> grouped = pool.invoke(new ComputeCharges(due, 0, due.length, asOfMillis));
+        // Yarım turda niyeti yazılmış ödemeler tekrar gönderilmez
+        RenewalGroup[] groups = grouped.values().stream()
+                .filter(group -> !checkpoint.isPaymentLogged(paymentIdFor(batchId, group)))
+                .toArray(RenewalGroup[]::new);
+        Arrays.sort(groups, Comparator.comparing(g -> g.getCustomer().getId()));
+        result.groups = groups.length;
+        result.computeNanos = System.nanoTime() - start;
+
+        pool.invoke(new SubmitPayments(groups, 0, groups.length, batchId, result));
+
+        checkpoint.endBatch(batchId);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    // Tek aboneliğin yenileme hesabı: bitiş asOf'u geçene kadar dönem eklenir
+    static RenewalItem computeRenewal(Ticket ticket, long asOfMillis) {
+        Renewable subscription = (Renewable) ticket;
+        int periods = 0;
+        long expiry = subscription.getExpiryMillis();
+        while (expiry <= asOfMillis) {
+            periods++;
+            expiry = subscription.expiryAfter(periods);
+        }
+        long charge = Money.multiply(subscription.getRenewalFeeKurus(), periods);
+        return new RenewalItem(ticket, periods, expiry, charge);
+    }
+
+    static String paymentIdFor(long batchId, RenewalGroup group) {
+        return "SUB-" + batchId + "-" + group.getCustomer().getId();
+    }
+
+    // Ücret hesabı: parçalara bölünür, sonuçlar müşteri bazında birleştirilir
+    private static final class ComputeCharges extends RecursiveTask<Map<String, RenewalGroup>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Ticket[] due;
+        private final int from;
+        private final int to;
+        private final long asOfMillis;
+
+        ComputeCharges(Ticket[] due, int from, int to, long asOfMillis) {
+            this.due = due;
+            this.from = from;
+            this.to = to;
+            this.asOfMillis = asOfMillis;
+        }
+
+        @Override
+        protected Map<String, RenewalGroup> compute() {
+            if (to - from <= CHUNK_SIZE) {
+                Map<String, RenewalGroup> groups = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    Ticket ticket = due[i];
+                    groups.computeIfAbsent(ticket.getCustomer().getId(), id -> new RenewalGroup(ticket.getCustomer()))
+                            .add(computeRenewal(ticket, asOfMillis));
+                }
+                return groups;
+            }
+            int middle = (from + to) >>> 1;
+            ComputeCharges left = new ComputeCharges(due, from, middle, asOfMillis);
+            left.fork();
+            Map<String, RenewalGroup> right = new ComputeCharges(due, middle, to, asOfMillis).compute();
+            Map<String, RenewalGroup> merged = left.join();
+            for (Map.Entry<String, RenewalGroup> entry : right.entrySet()) {
+                RenewalGroup existing = merged.putIfAbsent(entry.getKey(), entry.getValue());
+                if (existing != null) {
+                    existing.merge(entry.getValue());
+                }
+            }
+            return merged;
+        }
+    }
+
+    // Tahsilat: gruplar parçalar halinde paralel gönderilir
+    private final class SubmitPayments extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RenewalGroup[] groups;
+        private final int from;
+        private final int to;
+        private final long batchId;
+        private final BillingRunResult result;
+
+        SubmitPayments(RenewalGroup[] groups, int from, int to, long batchId, BillingRunResult result) {
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+            this.batchId = batchId;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE / 4) {
+                List<RenewalGroup> chunk = Arrays.asList(groups).subList(from, to);
+                try {
+                    checkpoint.intentsLogged(batchId, chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Niyet yazılamadıysa hiçbir ödeme gönderilmez
+                }
+                for (RenewalGroup group : chunk) {
+                    submit(group);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SubmitPayments(groups, from, middle, batchId, result),
+                    new SubmitPayments(groups, middle, to, batchId, result));
+        }
+
+        private void submit(RenewalGroup group) {
+            String paymentId = paymentIdFor(batchId, group);
+            Payment payment = paymentFactory.apply(group, paymentId);
+            if (!payment.processPayment(group.getTotalKurus())) {
+                result.failedPayments.increment(); // Abonelikler vadeli kalır, sonraki turda tekrar denenir
+                try {
+                    checkpoint.groupFailed(batchId, paymentId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            for (RenewalItem item : group.getItems()) {
+                if (index.renew(item.ticket, item.newExpiryMillis)) {
+                    result.renewedSubscriptions.increment();
+                }
+            }
+            try {
+                checkpoint.groupCommitted(batchId, group, paymentId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            result.successfulPayments.increment();
+            result.collected.add(group.getTotalKurus());
+        }
+    }
+
+    public SubscriptionExpiryIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkpoint.close();
+    }
+}
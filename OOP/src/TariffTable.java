@@ -0,0 +1,227 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// Tarife parametreleri - bilet tipine göre birim ücret (kuruş) ve araç/park yeri çarpanları
+// Değişmez nesne: with* metotları kopya döndürür. Çarpanların tek kaynağıdır:
+// Vehicle.getSizeMultiplier() ve ParkingSpot.getPriceMultiplier() buradan okur.
+class TariffRates {
+    private final long[] unitRateKurus;
+    private final double[] vehicleMultipliers;
+    private final double[] spotMultipliers;
+
+    private TariffRates(long[] unitRateKurus, double[] vehicleMultipliers, double[] spotMultipliers) {
+        this.unitRateKurus = unitRateKurus;
+        this.vehicleMultipliers = vehicleMultipliers;
+        this.spotMultipliers = spotMultipliers;
+    }
+
+    public static TariffRates defaults() {
+        long[] rates = new long[TicketCategory.values().length];
+        rates[TicketCategory.HOURLY.ordinal()] = 10_000; // 100 TL / saat
+        rates[TicketCategory.DAILY.ordinal()] = 50_000;  // 500 TL / gün
+        // Abonelikler önceden ödenir: park ücreti 0
+
+        double[] vehicles = new double[VehicleCategory.values().length];
+        vehicles[VehicleCategory.CAR.ordinal()] = 1.0;        // Normal ücret
+        vehicles[VehicleCategory.MOTORCYCLE.ordinal()] = 0.5;
+        vehicles[VehicleCategory.VAN.ordinal()] = 1.5;
+        vehicles[VehicleCategory.TRUCK.ordinal()] = 2.0;
+        vehicles[VehicleCategory.ELECTRIC.ordinal()] = 1.2;   // Şarj hizmeti için ek ücret
+
+        double[] spots = new double[SpotCategory.values().length];
+        spots[SpotCategory.DISABLED.ordinal()] = 0.5;
+        spots[SpotCategory.COMPACT.ordinal()] = 0.8;
+        spots[SpotCategory.VIP.ordinal()] = 2.5;
+        spots[SpotCategory.ELECTRIC.ordinal()] = 1.8;
+        spots[SpotCategory.REGULAR.ordinal()] = 1.0;
+
+        return new TariffRates(rates, vehicles, spots);
+    }
+
+    // Dosyadan okunan anahtarlar varsayılanların üzerine yazılır:
+    //   rate.HOURLY=10000   (kuruş / birim)
+    //   vehicle.TRUCK=2.0
+    //   spot.VIP=2.5
+    public static TariffRates fromProperties(Properties properties) {
+        TariffRates rates = defaults();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            int dot = key.indexOf('.');
+            String name = dot < 0 ? "" : key.substring(dot + 1).trim().toUpperCase();
+            try {
+                if (key.startsWith("rate.")) {
+                    rates = rates.withRate(TicketCategory.valueOf(name), Long.parseLong(value));
+                } else if (key.startsWith("vehicle.")) {
+                    rates = rates.withVehicleMultiplier(VehicleCategory.valueOf(name), Double.parseDouble(value));
+                } else if (key.startsWith("spot.")) {
+                    rates = rates.withSpotMultiplier(SpotCategory.valueOf(name), Double.parseDouble(value));
+                } else {
+                    throw new IllegalArgumentException("Unknown tariff key: " + key);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid tariff entry " + key + "=" + value, e);
+            }
+        }
+        return rates;
+    }
+
+    public TariffRates withRate(TicketCategory category, long kurusPerUnit) {
+        if (kurusPerUnit < 0) {
+            throw new IllegalArgumentException("Rate cannot be negative: " + kurusPerUnit);
+        }
+        long[] rates = unitRateKurus.clone();
+        rates[category.ordinal()] = kurusPerUnit;
+        return new TariffRates(rates, vehicleMultipliers, spotMultipliers);
+    }
+
+    public TariffRates withVehicleMultiplier(VehicleCategory category, double multiplier) {
+        double[] vehicles = vehicleMultipliers.clone();
+        vehicles[category.ordinal()] = checkMultiplier(multiplier);
+        return new TariffRates(unitRateKurus, vehicles, spotMultipliers);
+    }
+
+    public TariffRates withSpotMultiplier(SpotCategory category, double multiplier) {
+        double[] spots = spotMultipliers.clone();
+        spots[category.ordinal()] = checkMultiplier(multiplier);
+        return new TariffRates(unitRateKurus, vehicleMultipliers, spots);
+    }
+
+    private static double checkMultiplier(double multiplier) {
+        if (!(multiplier >= 0) || Double.isInfinite(multiplier)) {
+            throw new IllegalArgumentException("Invalid multiplier: " + multiplier);
+        }
+        return multiplier;
+    }
+
+    public long getUnitRateKurus(TicketCategory category) {
+        return unitRateKurus[category.ordinal()];
+    }
+
+    public double getVehicleMultiplier(VehicleCategory category) {
+        return vehicleMultipliers[category.ordinal()];
+    }
+
+    // null: yer henüz atanmamış (çarpan 1.0)
+    public double getSpotMultiplier(SpotCategory category) {
+        return category == null ? 1.0 : spotMultipliers[category.ordinal()];
+    }
+}
+
+// TariffTable - Ücretler [bilet][araç][park yeri] yoğun dizisinde, kuruş olarak önceden hesaplanır
+// Ücret = birim sayısı * tablo değeri: sanal çağrı, double çarpma veya dallanma yok.
+// Tarifeler çalışırken yeniden yüklenebilir: yeni tablo hazırlanır ve tek volatile yazma ile
+// yayınlanır. Her ücret hesabı tek bir tablo görüntüsünden okur, yarım güncelleme görülmez.
+public class TariffTable {
+    static final int TICKET_TYPES = TicketCategory.values().length;
+    static final int VEHICLE_TYPES = VehicleCategory.values().length;
+    static final int SPOT_SLOTS = SpotCategory.values().length + 1; // son sütun: yer atanmamış
+    static final int UNASSIGNED_SPOT = SPOT_SLOTS - 1;
+
+    private static final TariffTable DEFAULT = new TariffTable(TariffRates.defaults());
+
+    // Tablonun bir sürümü - oluşturulduktan sonra değişmez
+    private static final class Snapshot {
+        final TariffRates rates;
+        final long version;
+        final long[] feeKurus;   // birim başına ücret
+        final long[] unitMillis; // ücret biriminin süresi (aynı indeks)
+
+        Snapshot(TariffRates rates, long version) {
+            this.rates = rates;
+            this.version = version;
+            this.feeKurus = new long[TICKET_TYPES * VEHICLE_TYPES * SPOT_SLOTS];
+            this.unitMillis = new long[feeKurus.length];
+
+            for (TicketCategory ticket : TicketCategory.values()) {
+                long rate = rates.getUnitRateKurus(ticket);
+                long unit = unitMillisOf(ticket);
+                for (VehicleCategory vehicle : VehicleCategory.values()) {
+                    double vehicleMultiplier = rates.getVehicleMultiplier(vehicle);
+                    for (int spot = 0; spot < SPOT_SLOTS; spot++) {
+                        SpotCategory category = spot == UNASSIGNED_SPOT ? null : SpotCategory.values()[spot];
+                        int index = index(ticket.ordinal(), vehicle.ordinal(), spot);
+                        // Yuvarlama tablo kurulurken bir kez yapılır
+                        feeKurus[index] = Math.round(rate * vehicleMultiplier * rates.getSpotMultiplier(category));
+                        unitMillis[index] = unit;
+                    }
+                }
+            }
+        }
+    }
+
+    private volatile Snapshot current;
+
+    public TariffTable(TariffRates rates) {
+        this.current = new Snapshot(rates, 1);
+    }
+
+    // Uygulama genelinde paylaşılan tablo
+    public static TariffTable getDefault() {
+        return DEFAULT;
+    }
+
+    static int index(int ticket, int vehicle, int spot) {
+        return (ticket * VEHICLE_TYPES + vehicle) * SPOT_SLOTS + spot;
+    }
+
+    // Bilet başına bir kez hesaplanır (yer atanınca güncellenir)
+    public static int indexOf(TicketCategory ticket, VehicleCategory vehicle, SpotCategory spot) {
+        return index(ticket.ordinal(), vehicle.ordinal(), spot == null ? UNASSIGNED_SPOT : spot.ordinal());
+    }
+
+    // Sıcak yol: en az bir birim ücretlendirilir, kalan kesir yuvarlanmaz (mevcut davranış)
+    public long feeKurus(int index, long durationMillis) {
+        Snapshot snapshot = current;
+        long units = Math.max(1, durationMillis / snapshot.unitMillis[index]);
+        return units * snapshot.feeKurus[index];
+    }
+
+    public long feeKurus(TicketCategory ticket, VehicleCategory vehicle, SpotCategory spot,
+                         long durationMillis) {
+        return feeKurus(indexOf(ticket, vehicle, spot), durationMillis);
+    }
+
+    public long unitFeeKurus(TicketCategory ticket, VehicleCategory vehicle, SpotCategory spot) {
+        return current.feeKurus[indexOf(ticket, vehicle, spot)];
+    }
+
+    // Yeni tarifeyi yayınla - devam eden hesaplar eski görüntüyle tamamlanır.
+    // Dönen değer yeni tablo sürümü; raporlamak çağıranın işidir.
+    public synchronized long reload(TariffRates rates) {
+        Snapshot next = new Snapshot(rates, current.version + 1);
+        current = next;
+        return next.version;
+    }
+
+    // Properties dosyasından yükle (bkz. TariffRates.fromProperties)
+    public long reload(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return reload(TariffRates.fromProperties(properties));
+    }
+
+    public TariffRates getRates() {
+        return current.rates;
+    }
+
+    public long getVersion() {
+        return current.version;
+    }
+
+    private static long unitMillisOf(TicketCategory ticket) {
+        switch (ticket) {
+            case HOURLY:
+                return 3_600_000L;
+            case DAILY:
+                return 86_400_000L;
+            default:
+                return Long.MAX_VALUE; // Abonelik: süre ne olursa olsun tek birim
+        }
+    }
+}
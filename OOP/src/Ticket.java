@@ -1,23 +1,56 @@
 import java.time.LocalDateTime;
 import java.time.Duration;
 
+// Bilet kategorileri - ücret tabloları ve kayıtlarda dizi indeksi olarak kullanılır
+enum TicketCategory {
+    HOURLY,
+    DAILY,
+    MONTHLY,
+    YEARLY,
+    VIP
+}
+
+// Yenilenebilir abonelik - toplu faturalama motoru (SubscriptionBillingEngine) kullanır
+interface Renewable {
+    long getExpiryMillis();
+
+    // Bir dönemlik yenileme ücreti (kuruş)
+    long getRenewalFeeKurus();
+
+    // Mevcut bitişten itibaren periods dönem sonrası (durum değişmez)
+    long expiryAfter(int periods);
+
+    void renewTo(long expiryMillis);
+}
+
 // Temel bilet sınıfı (Abstract)
 public abstract class Ticket {
     private String ticketId;
-    private LocalDateTime issueTime;
+    private final ParkingClock clock;
+    private final long issueMillis; // epoch-millis, LocalDateTime sadece getter'da üretilir
     private Customer customer;
     private Vehicle vehicle;
     private ParkingSpot assignedSpot;
+    private int tariffIndex = -1; // TariffTable hücresi, ilk ücret hesabında bulunur
+    private volatile String recognizedPlate; // YENİ: Kameranın okuduğu plaka (ANPR sonucu gelince)
 
     public Ticket(String ticketId, Customer customer, Vehicle vehicle) {
+        this(ticketId, customer, vehicle, ParkingClock.getDefault(), ParkingClock.getDefault().millis());
+    }
+
+    // Otoparkın saatiyle kesim - kurtarmada orijinal kesim zamanı verilir
+    protected Ticket(String ticketId, Customer customer, Vehicle vehicle,
+                     ParkingClock clock, long issueMillis) {
         this.ticketId = ticketId;
         this.customer = customer;
         this.vehicle = vehicle;
-        this.issueTime = LocalDateTime.now();
+        this.clock = clock;
+        this.issueMillis = issueMillis;
     }
 
     // Abstract methods
     public abstract String getTicketType();
+    public abstract TicketCategory getTicketCategory();
     public abstract double calculateFee(Duration parkingDuration);
     public abstract boolean isValid();
 
@@ -27,7 +60,25 @@ public abstract class Ticket {
     }
 
     public LocalDateTime getIssueTime() {
-        return issueTime;
+        return clock.toLocalDateTime(issueMillis);
+    }
+
+    public long getIssueMillis() {
+        return issueMillis;
+    }
+
+    public ParkingClock getClock() {
+        return clock;
+    }
+
+    // Bitiş zamanı (epoch-millis) - süresiz biletlerde Long.MAX_VALUE
+    public long getExpiryMillis() {
+        return Long.MAX_VALUE;
+    }
+
+    // Süreli biletler için ortak kontrol
+    protected boolean isBefore(long expiryMillis) {
+        return clock.millis() < expiryMillis;
     }
 
     public Customer getCustomer() {
@@ -42,42 +93,66 @@ public abstract class Ticket {
         return assignedSpot;
     }
 
+    // null: tanıma henüz bitmedi, "UNKNOWN": hiçbir kamera okuyamadı
+    public String getRecognizedPlate() {
+        return recognizedPlate;
+    }
+
+    void setRecognizedPlate(String plate) {
+        this.recognizedPlate = plate;
+    }
+
     public void setAssignedSpot(ParkingSpot spot) {
         this.assignedSpot = spot;
+        this.tariffIndex = -1; // Park yeri tipi değişti
+    }
+
+    // Ücret (kuruş) - tablo araması, sanal çağrı ve double hesabı yok
+    // Önceden ödenmiş biletler 0 döndürmek için override eder
+    public long calculateFeeKurus(long parkingMillis) {
+        int index = tariffIndex;
+        if (index < 0) {
+            index = TariffTable.indexOf(getTicketCategory(), vehicle.getVehicleCategory(),
+                    assignedSpot != null ? assignedSpot.getSpotCategory() : null);
+            tariffIndex = index;
+        }
+        return TariffTable.getDefault().feeKurus(index, parkingMillis);
     }
 
     @Override
     public String toString() {
         return "Ticket ID: " + ticketId +
                 ", Type: " + getTicketType() +
-                ", Issue Time: " + issueTime;
+                ", Issue Time: " + getIssueTime();
     }
 }
 
 // HourlyTicket sınıfı
 class HourlyTicket extends Ticket {
-    private static final double BASE_RATE_PER_HOUR = 100;
 
     public HourlyTicket(String ticketId, Customer customer, Vehicle vehicle) {
         super(ticketId, customer, vehicle);
     }
 
+    public HourlyTicket(String ticketId, Customer customer, Vehicle vehicle,
+                        ParkingClock clock, long issueMillis) {
+        super(ticketId, customer, vehicle, clock, issueMillis);
+    }
+
     @Override
     public String getTicketType() {
         return "Hourly Ticket";
     }
 
     @Override
-    public double calculateFee(Duration parkingDuration) {
-        long hours = parkingDuration.toHours();
-        if (hours == 0) hours = 1; // Minimum 1 saat
-
-        double baseFee = hours * BASE_RATE_PER_HOUR;
-        double vehicleMultiplier = getVehicle().getSizeMultiplier();
-        double spotMultiplier = getAssignedSpot() != null ?
-                getAssignedSpot().getPriceMultiplier() : 1.0;
+    public TicketCategory getTicketCategory() {
+        return TicketCategory.HOURLY;
+    }
 
-        return baseFee * vehicleMultiplier * spotMultiplier;
+    @Override
+    public double calculateFee(Duration parkingDuration) {
+        // Minimum 1 saat - ücret TariffTable'dan (saat * saatlik tarife)
+        return calculateFeeKurus(parkingDuration.toMillis()) / 100.0;
     }
 
     @Override
@@ -88,12 +163,17 @@ class HourlyTicket extends Ticket {
 
 // DailyTicket sınıfı
 class DailyTicket extends Ticket {
-    private static final double DAILY_RATE = 500;
-    private LocalDateTime expiryTime;
+    private long expiryMillis;
 
     public DailyTicket(String ticketId, Customer customer, Vehicle vehicle) {
         super(ticketId, customer, vehicle);
-        this.expiryTime = getIssueTime().plusDays(1);
+        this.expiryMillis = getClock().toMillis(getIssueTime().plusDays(1));
+    }
+
+    public DailyTicket(String ticketId, Customer customer, Vehicle vehicle,
+                       ParkingClock clock, long issueMillis) {
+        super(ticketId, customer, vehicle, clock, issueMillis);
+        this.expiryMillis = clock.toMillis(getIssueTime().plusDays(1));
     }
 
     @Override
@@ -102,37 +182,47 @@ class DailyTicket extends Ticket {
     }
 
     @Override
-    public double calculateFee(Duration parkingDuration) {
-        long days = parkingDuration.toDays();
-        if (days == 0) days = 1; // Minimum 1 gün
-
-        double baseFee = days * DAILY_RATE;
-        double vehicleMultiplier = getVehicle().getSizeMultiplier();
-        double spotMultiplier = getAssignedSpot() != null ?
-                getAssignedSpot().getPriceMultiplier() : 1.0;
+    public TicketCategory getTicketCategory() {
+        return TicketCategory.DAILY;
+    }
 
-        return baseFee * vehicleMultiplier * spotMultiplier;
+    @Override
+    public double calculateFee(Duration parkingDuration) {
+        // Minimum 1 gün - ücret TariffTable'dan (gün * günlük tarife)
+        return calculateFeeKurus(parkingDuration.toMillis()) / 100.0;
     }
 
     @Override
     public boolean isValid() {
-        return LocalDateTime.now().isBefore(expiryTime);
+        return isBefore(expiryMillis);
     }
 
     public LocalDateTime getExpiryTime() {
-        return expiryTime;
+        return getClock().toLocalDateTime(expiryMillis);
+    }
+
+    @Override
+    public long getExpiryMillis() {
+        return expiryMillis;
     }
 }
 
 // MonthlySubscription sınıfı
-class MonthlySubscription extends Ticket {
-    private static final double MONTHLY_RATE = 3500;
-    private LocalDateTime expiryTime;
+class MonthlySubscription extends Ticket implements Renewable {
+    private static final long MONTHLY_RATE_KURUS = Money.ofLira(3500);
+    private volatile long expiryMillis; // Faturalama motoru yeniler, kapılar okur
     private int remainingEntries;
 
     public MonthlySubscription(String ticketId, Customer customer, Vehicle vehicle) {
         super(ticketId, customer, vehicle);
-        this.expiryTime = getIssueTime().plusMonths(1);
+        this.expiryMillis = getClock().toMillis(getIssueTime().plusMonths(1));
+        this.remainingEntries = -1; // Sınırsız giriş
+    }
+
+    public MonthlySubscription(String ticketId, Customer customer, Vehicle vehicle,
+                               ParkingClock clock, long issueMillis) {
+        super(ticketId, customer, vehicle, clock, issueMillis);
+        this.expiryMillis = clock.toMillis(getIssueTime().plusMonths(1));
         this.remainingEntries = -1; // Sınırsız giriş
     }
 
@@ -141,36 +231,77 @@ class MonthlySubscription extends Ticket {
         return "Monthly Subscription";
     }
 
+    @Override
+    public TicketCategory getTicketCategory() {
+        return TicketCategory.MONTHLY;
+    }
+
     @Override
     public double calculateFee(Duration parkingDuration) {
         // Abonelik ücreti önceden ödenmiş
         return 0.0;
     }
 
+    @Override
+    public long calculateFeeKurus(long parkingMillis) {
+        return Money.ZERO;
+    }
+
     @Override
     public boolean isValid() {
-        return LocalDateTime.now().isBefore(expiryTime);
+        return isBefore(expiryMillis);
+    }
+
+    public long getSubscriptionFeeKurus() {
+        return MONTHLY_RATE_KURUS;
     }
 
     public double getSubscriptionFee() {
-        return MONTHLY_RATE;
+        return Money.toLira(getSubscriptionFeeKurus());
     }
 
     public LocalDateTime getExpiryTime() {
-        return expiryTime;
+        return getClock().toLocalDateTime(expiryMillis);
+    }
+
+    @Override
+    public long getExpiryMillis() {
+        return expiryMillis;
+    }
+
+    @Override
+    public long getRenewalFeeKurus() {
+        return getSubscriptionFeeKurus();
+    }
+
+    @Override
+    public long expiryAfter(int periods) {
+        return getClock().toMillis(getExpiryTime().plusMonths(periods));
+    }
+
+    @Override
+    public void renewTo(long expiryMillis) {
+        this.expiryMillis = expiryMillis;
     }
 }
 
 // YearlySubscription sınıfı
-class YearlySubscription extends Ticket {
-    private static final double YEARLY_RATE = 30000.0;
-    private LocalDateTime expiryTime;
+class YearlySubscription extends Ticket implements Renewable {
+    private static final long YEARLY_RATE_KURUS = Money.ofLira(30000);
+    private volatile long expiryMillis;
     private boolean hasVIPAccess;
 
     public YearlySubscription(String ticketId, Customer customer,
                               Vehicle vehicle, boolean hasVIPAccess) {
         super(ticketId, customer, vehicle);
-        this.expiryTime = getIssueTime().plusYears(1);
+        this.expiryMillis = getClock().toMillis(getIssueTime().plusYears(1));
+        this.hasVIPAccess = hasVIPAccess;
+    }
+
+    public YearlySubscription(String ticketId, Customer customer, Vehicle vehicle,
+                              boolean hasVIPAccess, ParkingClock clock, long issueMillis) {
+        super(ticketId, customer, vehicle, clock, issueMillis);
+        this.expiryMillis = clock.toMillis(getIssueTime().plusYears(1));
         this.hasVIPAccess = hasVIPAccess;
     }
 
@@ -179,18 +310,33 @@ class YearlySubscription extends Ticket {
         return "Yearly Subscription";
     }
 
+    @Override
+    public TicketCategory getTicketCategory() {
+        return TicketCategory.YEARLY;
+    }
+
     @Override
     public double calculateFee(Duration parkingDuration) {
         return 0.0; // Abonelik önceden ödenmiş
     }
 
+    @Override
+    public long calculateFeeKurus(long parkingMillis) {
+        return Money.ZERO;
+    }
+
     @Override
     public boolean isValid() {
-        return LocalDateTime.now().isBefore(expiryTime);
+        return isBefore(expiryMillis);
+    }
+
+    public long getSubscriptionFeeKurus() {
+        // VIP erişimi %50 fazladan
+        return hasVIPAccess ? Money.multiplyByRatio(YEARLY_RATE_KURUS, 3, 2) : YEARLY_RATE_KURUS;
     }
 
     public double getSubscriptionFee() {
-        return hasVIPAccess ? YEARLY_RATE * 1.5 : YEARLY_RATE;
+        return Money.toLira(getSubscriptionFeeKurus());
     }
 
     public boolean hasVIPAccess() {
@@ -198,20 +344,48 @@ class YearlySubscription extends Ticket {
     }
 
     public LocalDateTime getExpiryTime() {
-        return expiryTime;
+        return getClock().toLocalDateTime(expiryMillis);
+    }
+
+    @Override
+    public long getExpiryMillis() {
+        return expiryMillis;
+    }
+
+    @Override
+    public long getRenewalFeeKurus() {
+        return getSubscriptionFeeKurus();
+    }
+
+    @Override
+    public long expiryAfter(int periods) {
+        return getClock().toMillis(getExpiryTime().plusYears(periods));
+    }
+
+    @Override
+    public void renewTo(long expiryMillis) {
+        this.expiryMillis = expiryMillis;
     }
 }
 
 // VIPMembership sınıfı
-class VIPMembership extends Ticket {
-    private static final double VIP_MONTHLY_RATE = 6000.0;
-    private LocalDateTime expiryTime;
+class VIPMembership extends Ticket implements Renewable {
+    private static final long VIP_MONTHLY_RATE_KURUS = Money.ofLira(6000);
+    private volatile long expiryMillis;
     private boolean hasValetService;
     private boolean hasChargingAccess;
 
     public VIPMembership(String ticketId, Customer customer, Vehicle vehicle) {
         super(ticketId, customer, vehicle);
-        this.expiryTime = getIssueTime().plusMonths(1);
+        this.expiryMillis = getClock().toMillis(getIssueTime().plusMonths(1));
+        this.hasValetService = true;
+        this.hasChargingAccess = true;
+    }
+
+    public VIPMembership(String ticketId, Customer customer, Vehicle vehicle,
+                         ParkingClock clock, long issueMillis) {
+        super(ticketId, customer, vehicle, clock, issueMillis);
+        this.expiryMillis = clock.toMillis(getIssueTime().plusMonths(1));
         this.hasValetService = true;
         this.hasChargingAccess = true;
     }
@@ -221,18 +395,32 @@ class VIPMembership extends Ticket {
         return "VIP Membership";
     }
 
+    @Override
+    public TicketCategory getTicketCategory() {
+        return TicketCategory.VIP;
+    }
+
     @Override
     public double calculateFee(Duration parkingDuration) {
         return 0.0; // VIP üyelik ücretsiz park
     }
 
+    @Override
+    public long calculateFeeKurus(long parkingMillis) {
+        return Money.ZERO;
+    }
+
     @Override
     public boolean isValid() {
-        return LocalDateTime.now().isBefore(expiryTime);
+        return isBefore(expiryMillis);
+    }
+
+    public long getMembershipFeeKurus() {
+        return VIP_MONTHLY_RATE_KURUS;
     }
 
     public double getMembershipFee() {
-        return VIP_MONTHLY_RATE;
+        return Money.toLira(getMembershipFeeKurus());
     }
 
     public boolean hasValetService() {
@@ -242,4 +430,28 @@ class VIPMembership extends Ticket {
     public boolean hasChargingAccess() {
         return hasChargingAccess;
     }
+
+    public LocalDateTime getExpiryTime() {
+        return getClock().toLocalDateTime(expiryMillis);
+    }
+
+    @Override
+    public long getExpiryMillis() {
+        return expiryMillis;
+    }
+
+    @Override
+    public long getRenewalFeeKurus() {
+        return getMembershipFeeKurus();
+    }
+
+    @Override
+    public long expiryAfter(int periods) {
+        return getClock().toMillis(getExpiryTime().plusMonths(periods));
+    }
+
+    @Override
+    public void renewTo(long expiryMillis) {
+        this.expiryMillis = expiryMillis;
+    }
 }
\ No newline at end of file
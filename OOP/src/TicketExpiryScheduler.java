@@ -0,0 +1,212 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Süre dolumu olayları - ParkingLot bildirim servisine bağlar
+interface TicketTimerListener {
+    void onReminder(Ticket ticket, int hoursRemaining);
+
+    void onExpired(Ticket ticket);
+}
+
+// Bir biletin sıradaki zamanlayıcısı: hatırlatma aşamaları, son aşama bitiş
+class TicketTimer extends TimerEntry {
+    final Ticket ticket;
+    final long expiryMillis; // Kurulduğu andaki bitiş - yenileme bununla anlaşılır
+    final int stage;
+
+    TicketTimer(Ticket ticket, long expiryMillis, int stage, long deadlineMillis) {
+        super(deadlineMillis);
+        this.ticket = ticket;
+        this.expiryMillis = expiryMillis;
+        this.stage = stage;
+    }
+}
+
+// TicketExpiryScheduler - Bilet bitişlerini ve "N saat kaldı" hatırlatmalarını zamanında tetikler
+// Bilet başına tek canlı zamanlayıcı vardır; tetiklenince sıradaki aşama kurulur. Yenilenen
+// abonelik (bitiş değişmiş) tetiklendiğinde yeni bitişe göre yeniden kurulur, iptal gerekmez.
+public class TicketExpiryScheduler implements AutoCloseable {
+    public static final long DEFAULT_TICK_MILLIS = 60_000; // Dakika hassasiyeti yeterli
+    static final int[] DEFAULT_REMINDER_HOURS = {24, 2};
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final ParkingClock clock;
+    private final TimingWheel wheel;
+    private final int[] reminderHours; // Büyükten küçüğe
+    private final TicketTimerListener listener;
+    private final Map<String, TicketTimer> timers;
+    private final LongAdder remindersFired;
+    private final LongAdder expiriesFired;
+    private final LongAdder rescheduled;
+    private volatile Thread ticker;
+    private boolean startOnSchedule; // startLazily(): thread ilk zamanlayıcıyla açılır
+    private boolean closed;
+
+    public TicketExpiryScheduler(ParkingClock clock, TicketTimerListener listener) {
+        this(clock, listener, DEFAULT_TICK_MILLIS, DEFAULT_REMINDER_HOURS);
+    }
+
+    public TicketExpiryScheduler(ParkingClock clock, TicketTimerListener listener,
+                                 long tickMillis, int... reminderHours) {
+        this.clock = clock;
+        this.listener = listener;
+        this.wheel = new TimingWheel(tickMillis, clock.millis());
+        this.reminderHours = Arrays.stream(reminderHours).boxed()
+                .sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+        this.timers = new ConcurrentHashMap<>();
+        this.remindersFired = new LongAdder();
+        this.expiriesFired = new LongAdder();
+        this.rescheduled = new LongAdder();
+    }
+
+    // false: bilet süresiz (saatlik)
+    public boolean schedule(Ticket ticket) {
+        long expiry = ticket.getExpiryMillis();
+        if (expiry == Long.MAX_VALUE) {
+            return false;
+        }
+        TicketTimer timer = createTimer(ticket, expiry, firstStage(expiry, 0));
+        TicketTimer previous = timers.put(ticket.getTicketId(), timer);
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+        wheel.schedule(timer);
+        if (ticker == null) {
+            startIfRequested();
+        }
+        return true;
+    }
+
+    // Çıkışta çağrılır
+    public boolean cancel(String ticketId) {
+        TicketTimer timer = timers.remove(ticketId);
+        return timer != null && wheel.cancel(timer);
+    }
+
+    // Saate göre vadesi gelenleri tetikle - arka plan thread'i ya da sanal saatte çağıran kullanır
+    public int advance() {
+        return wheel.advanceTo(clock.millis(), entry -> fire((TicketTimer) entry));
+    }
+
+    private void fire(TicketTimer timer) {
+        Ticket ticket = timer.ticket;
+        String ticketId = ticket.getTicketId();
+        if (timers.get(ticketId) != timer) {
+            return; // İptal edilmiş ya da yerine yenisi kurulmuş
+        }
+        long expiry = ticket.getExpiryMillis();
+        if (expiry != timer.expiryMillis) {
+            // Abonelik yenilenmiş: hatırlatmalar yeni bitişe göre
+            TicketTimer next = createTimer(ticket, expiry, firstStage(expiry, 0));
+            if (timers.replace(ticketId, timer, next)) {
+                wheel.schedule(next);
+                rescheduled.increment();
+            }
+            return;
+        }
+
+        if (timer.stage == reminderHours.length) {
+            if (timers.remove(ticketId, timer)) {
+                expiriesFired.increment();
+                listener.onExpired(ticket);
+            }
+            return;
+        }
+
+        remindersFired.increment();
+        listener.onReminder(ticket, reminderHours[timer.stage]);
+        // Geride kalmış aşamalar atlanır (ör. sanal saat günlerce ilerletildiyse)
+        TicketTimer next = createTimer(ticket, expiry, firstStage(expiry, timer.stage + 1));
+        if (timers.replace(ticketId, timer, next)) {
+            wheel.schedule(next);
+        }
+    }
+
+    // Vakti henüz gelmemiş ilk hatırlatma aşaması; hiçbiri yoksa bitiş aşaması
+    private int firstStage(long expiry, int from) {
+        long now = clock.millis();
+        int stage = from;
+        while (stage < reminderHours.length && expiry - reminderHours[stage] * HOUR_MILLIS <= now) {
+            stage++;
+        }
+        return stage;
+    }
+
+    private TicketTimer createTimer(Ticket ticket, long expiry, int stage) {
+        long deadline = stage < reminderHours.length ? expiry - reminderHours[stage] * HOUR_MILLIS : expiry;
+        return new TicketTimer(ticket, expiry, stage, deadline);
+    }
+
+    // Thread'i ilk schedule() çağrısına ertele: bilet kesmeyen otopark thread açmaz
+    public synchronized void startLazily() {
+        startOnSchedule = true;
+        if (!timers.isEmpty()) {
+            start();
+        }
+    }
+
+    private synchronized void startIfRequested() {
+        if (startOnSchedule) {
+            start();
+        }
+    }
+
+    // Gerçek saat için: her tikte advance() çağıran daemon thread
+    public synchronized void start() {
+        if (ticker != null || closed) return;
+        long sleepMillis = Math.min(wheel.getTickMillis(), 1000);
+        Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    advance();
+                } catch (RuntimeException e) {
+                    System.err.println("Expiry timer failed: " + e.getMessage());
+                }
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "ticket-expiry-timer");
+        thread.setDaemon(true);
+        thread.start();
+        ticker = thread;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    public int getLiveTimers() {
+        return timers.size();
+    }
+
+    public long getRemindersFired() {
+        return remindersFired.sum();
+    }
+
+    public long getExpiriesFired() {
+        return expiriesFired.sum();
+    }
+
+    public long getRescheduled() {
+        return rescheduled.sum();
+    }
+
+    public void printStatistics() {
+        System.out.println("⏰ Expiry timers: " + getLiveTimers() + " live, " + getRemindersFired() +
+                " reminders, " + getExpiriesFired() + " expiries, " + getRescheduled() + " rescheduled");
+    }
+}
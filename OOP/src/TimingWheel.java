@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Zamanlayıcı kaydı - çift yönlü bağlı listede düğüm (ek liste nesnesi oluşturulmaz)
+// Ekleme ve iptal O(1): düğüm bulunduğu kovadan doğrudan çıkarılır.
+class TimerEntry {
+    private final long deadlineMillis;
+    long deadlineTick;
+    TimerEntry prev;
+    TimerEntry next;
+    int bucket = -1; // -1: çarkta değil
+
+    TimerEntry(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public boolean isScheduled() {
+        return bucket >= 0;
+    }
+}
+
+// TimingWheel - Hiyerarşik zamanlama çarkı (6 seviye x 64 kova)
+// Seviye 0'ın her kovası bir tik, üst seviyelerin kovaları 64 kat daha geniş aralık tutar.
+// Üst seviyedeki kova zamanı gelince alt seviyelere dağıtılır (cascade); her kayıt en fazla
+// seviye sayısı kadar taşınır. Canlı kayıt sayısından bağımsız olarak sadece vadesi gelen
+// kovalar işlenir - tüm biletleri tarayan periyodik kontrol gerekmez.
+public class TimingWheel {
+    static final int BITS = 6;
+    static final int SLOTS = 1 << BITS;
+    static final int MASK = SLOTS - 1;
+    static final int LEVELS = 6;
+    private static final long MAX_SPAN = 1L << (BITS * LEVELS); // tik
+    private static final int OVERDUE = SLOTS * LEVELS;           // vadesi geçmiş kayıtlar
+
+    private final long tickMillis;
+    private final TimerEntry[] buckets = new TimerEntry[SLOTS * LEVELS + 1];
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public synchronized void schedule(TimerEntry entry) {
+        if (entry.bucket >= 0) {
+            throw new IllegalStateException("Timer already scheduled");
+        }
+        // Tik sonuna yuvarlanır: kayıt hiçbir zaman vaktinden önce tetiklenmez
+        entry.deadlineTick = -Math.floorDiv(-entry.getDeadlineMillis(), tickMillis);
+        place(entry);
+        size++;
+    }
+
+    // false: kayıt zaten tetiklenmiş ya da iptal edilmiş
+    public synchronized boolean cancel(TimerEntry entry) {
+        if (entry.bucket < 0) {
+            return false;
+        }
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    // Saati nowMillis'e kadar ilerlet, vadesi gelenleri sırayla action'a ver (kilit dışında)
+    public int advanceTo(long nowMillis, Consumer<TimerEntry> action) {
+        List<TimerEntry> due = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = Math.floorDiv(nowMillis, tickMillis);
+            collect(OVERDUE, due);
+            while (currentTick < targetTick) {
+                if (size == 0) {
+                    currentTick = targetTick; // Boş çarkta tikleri tek tek dolaşma
+                    break;
+                }
+                currentTick++;
+                for (int level = 1; level < LEVELS; level++) {
+                    if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                        break;
+                    }
+                    cascade(level * SLOTS + (int) ((currentTick >>> (BITS * level)) & MASK));
+                }
+                collect((int) (currentTick & MASK), due);
+                collect(OVERDUE, due);
+            }
+        }
+        for (TimerEntry entry : due) {
+            action.accept(entry);
+        }
+        return due.size();
+    }
+
+    // Kayıt, tik farkının sığdığı en alt seviyeye konur
+    private void place(TimerEntry entry) {
+        long delta = entry.deadlineTick - currentTick;
+        int index;
+        if (delta <= 0) {
+            index = OVERDUE;
+        } else {
+            // Çok uzak vadeler en üst seviyenin son kovasında bekler, cascade'de yeniden yerleşir
+            long tick = delta >= MAX_SPAN ? currentTick + MAX_SPAN - 1 : entry.deadlineTick;
+            delta = tick - currentTick;
+            int level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+                level++;
+            }
+            index = level * SLOTS + (int) ((tick >>> (BITS * level)) & MASK);
+        }
+        entry.prev = null;
+        entry.next = buckets[index];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        buckets[index] = entry;
+        entry.bucket = index;
+    }
+
+    private void unlink(TimerEntry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            buckets[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.bucket = -1;
+    }
+
+    private void cascade(int index) {
+        TimerEntry entry = buckets[index];
+        buckets[index] = null;
+        while (entry != null) {
+            TimerEntry next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void collect(int index, List<TimerEntry> due) {
+        TimerEntry entry = buckets[index];
+        buckets[index] = null;
+        while (entry != null) {
+            TimerEntry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = -1;
+            if (entry.deadlineTick > currentTick) {
+                place(entry); // En üst seviyede bekleyen çok uzak vade
+            } else {
+                due.add(entry);
+                size--;
+            }
+            entry = next;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public synchronized long getCurrentMillis() {
+        return currentTick * tickMillis;
+    }
+}
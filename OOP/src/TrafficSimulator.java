@@ -0,0 +1,552 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Simülasyon ayarları - varsayılanlar bir haftalık orta yoğunlukta trafik
+class SimulationConfig {
+    private int days = 7;
+    private int gateCount = 4;
+    private int floors = 10;
+    private int spotsPerFloor = 500;
+    private double arrivalsPerHour = 400;      // rush hour dışındaki ortalama (Poisson)
+    private double rushHourMultiplier = 3.0;   // 07-10 ve 17-20 arası
+    private double meanStayMinutes = 180;      // üstel dağılım, en az 5 dk
+    private long sliceMillis = 60_000;         // sanal zaman adımı
+    private long seed = 42;
+    // Araç karışımı: Car, Motorcycle, Van, Truck, ElectricVehicle (ağırlık)
+    private int[] vehicleMix = {60, 15, 10, 5, 10};
+    // Bilet karışımı: HOURLY, DAILY, MONTHLY, YEARLY, VIP (ağırlık)
+    private int[] ticketMix = {70, 15, 8, 4, 3};
+
+    public SimulationConfig setDays(int days) {
+        this.days = days;
+        return this;
+    }
+
+    public SimulationConfig setGateCount(int gateCount) {
+        this.gateCount = gateCount;
+        return this;
+    }
+
+    public SimulationConfig setLotSize(int floors, int spotsPerFloor) {
+        this.floors = floors;
+        this.spotsPerFloor = spotsPerFloor;
+        return this;
+    }
+
+    public SimulationConfig setArrivalsPerHour(double arrivalsPerHour) {
+        this.arrivalsPerHour = arrivalsPerHour;
+        return this;
+    }
+
+    public SimulationConfig setRushHourMultiplier(double rushHourMultiplier) {
+        this.rushHourMultiplier = rushHourMultiplier;
+        return this;
+    }
+
+    public SimulationConfig setMeanStayMinutes(double meanStayMinutes) {
+        this.meanStayMinutes = meanStayMinutes;
+        return this;
+    }
+
+    public SimulationConfig setSliceMillis(long sliceMillis) {
+        this.sliceMillis = sliceMillis;
+        return this;
+    }
+
+    public SimulationConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SimulationConfig setVehicleMix(int car, int motorcycle, int van, int truck, int electric) {
+        this.vehicleMix = new int[]{car, motorcycle, van, truck, electric};
+        return this;
+    }
+
+    public SimulationConfig setTicketMix(int hourly, int daily, int monthly, int yearly, int vip) {
+        this.ticketMix = new int[]{hourly, daily, monthly, yearly, vip};
+        return this;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getGateCount() {
+        return gateCount;
+    }
+
+    public int getFloors() {
+        return floors;
+    }
+
+    public int getSpotsPerFloor() {
+        return spotsPerFloor;
+    }
+
+    public long getSliceMillis() {
+        return sliceMillis;
+    }
+
+    // Saate göre varış oranı (saatlik)
+    double arrivalRate(int hourOfDay) {
+        boolean rush = (hourOfDay >= 7 && hourOfDay < 10) || (hourOfDay >= 17 && hourOfDay < 20);
+        return rush ? arrivalsPerHour * rushHourMultiplier : arrivalsPerHour;
+    }
+
+    double getMeanStayMinutes() {
+        return meanStayMinutes;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int[] getVehicleMix() {
+        return vehicleMix;
+    }
+
+    int[] getTicketMix() {
+        return ticketMix;
+    }
+}
+
+// Gecikme histogramı - log-lineer kovalar (2'nin kuvvetleri x 16 alt kova, ~%6 hassasiyet)
+// Her kapı thread'inin kendi histogramı vardır, sonda birleştirilir: kayıt kilitsizdir.
+class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        counts[indexOf(nanos)]++;
+        total++;
+        max = Math.max(max, nanos);
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    // Yüzdelik (0-100) - kovanın üst sınırı döner
+    long percentile(double percent) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    long getCount() {
+        return total;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    private static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) Math.max(0, nanos);
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);   // >= 4
+        int shift = magnitude - 4;
+        int sub = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+        return (magnitude - 3) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int magnitude = index / SUB_BUCKETS + 3;
+        int sub = index % SUB_BUCKETS;
+        int shift = magnitude - 4;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
+
+// TrafficSimulator - Başsız, tekrarlanabilir yük üreteci
+// Varış/ayrılış takvimi tohumlu Random ile önceden üretilir (Poisson varış, rush hour,
+// araç ve bilet karışımı). N kapı thread'i takvimi sanal zaman adımlarıyla oynatır:
+// her adımın sonunda tüm kapılar bariyerde buluşur, sanal saat ileri alınır.
+// Otopark aynı VirtualParkingClock ile kurulur: bilet süreleri, ücretler ve abonelik
+// bitişleri sanal zamana göre hesaplanır. Bir haftalık trafik gerçek zamanda saniyeler sürer.
+//   java TrafficSimulator [gün] [kapı]
+public class TrafficSimulator {
+    private static final PrintStream CONSOLE = System.out;
+    private static final String[] TICKET_TYPES = {"HOURLY", "DAILY", "MONTHLY", "YEARLY", "VIP"};
+    private static final String[] VEHICLE_NAMES = {"Car", "Motorcycle", "Van", "Truck", "ElectricVehicle"};
+
+    private final SimulationConfig config;
+    private final ParkingLot parkingLot;
+    private final long startMillis;
+    private final long endMillis;
+    private final VirtualParkingClock clock;
+
+    // Ziyaretçi takvimi (ziyaretçi numarasıyla indekslenir)
+    private long[] arrivalTimes;
+    private long[] departureTimes; // -1: simülasyon bitene kadar çıkmaz
+    private byte[] vehicleTypes;
+    private byte[] ticketTypes;
+
+    // Sonuçlar
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder exits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder[] rejectionsByVehicle = new LongAdder[VEHICLE_NAMES.length];
+    private final LatencyHistogram entryLatency = new LatencyHistogram();
+    private final LatencyHistogram exitLatency = new LatencyHistogram();
+    private final AtomicInteger peakOccupancy = new AtomicInteger();
+    private final AtomicReference<Throwable> gateFailure = new AtomicReference<>(); // İlk kapı hatası
+    private long virtualRevenueKurus;
+    private long wallNanos;
+
+    // parkingLot, clock ile kurulmuş olmalı
+    public TrafficSimulator(SimulationConfig config, ParkingLot parkingLot, VirtualParkingClock clock) {
+        this.config = config;
+        this.parkingLot = parkingLot;
+        this.clock = clock;
+        this.startMillis = clock.millis();
+        this.endMillis = startMillis + config.getDays() * 86_400_000L;
+        for (int i = 0; i < rejectionsByVehicle.length; i++) {
+            rejectionsByVehicle[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulationConfig config = new SimulationConfig();
+        if (args.length > 0) config.setDays(Integer.parseInt(args[0]));
+        if (args.length > 1) config.setGateCount(Integer.parseInt(args[1]));
+
+        // Ödeme ve bildirim gibi otopark bağlamı olmayan nesneler de sanal saati kullansın
+        VirtualParkingClock clock = ParkingClock.virtual(IdGenerator.EPOCH_MILLIS);
+        ParkingClock.setDefault(clock);
+
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ParkingLot parkingLot;
+        try {
+            parkingLot = new ParkingLot("Simulated Lot", "Virtual",
+                    config.getFloors(), config.getSpotsPerFloor(), clock);
+        } finally {
+            System.setOut(original);
+        }
+
+        TrafficSimulator simulator = new TrafficSimulator(config, parkingLot, clock);
+        simulator.run();
+        simulator.printReport();
+        parkingLot.shutdown();
+    }
+
+    // Takvimi üret ve kapı thread'lerinde oynat
+    // Bir kapı hata verirse bariyer kırılır, diğer kapılar durur ve hata burada yeniden fırlatılır.
+    public void run() throws InterruptedException {
+        generateSchedule();
+        int gateCount = config.getGateCount();
+        List<int[]> gateEvents = partitionEvents(gateCount);
+        long slices = (endMillis - startMillis + config.getSliceMillis() - 1) / config.getSliceMillis();
+
+        CyclicBarrier barrier = new CyclicBarrier(gateCount, () -> {
+            clock.advanceMillis(config.getSliceMillis());
+            parkingLot.runDueTimers(); // Bitiş/hatırlatma zamanlayıcıları sanal saate göre
+            peakOccupancy.accumulateAndGet(parkingLot.getOccupiedSpots(), Math::max);
+        });
+
+        LatencyHistogram[] entryHistograms = new LatencyHistogram[gateCount];
+        LatencyHistogram[] exitHistograms = new LatencyHistogram[gateCount];
+        long[] revenue = new long[gateCount];
+        Thread[] gates = new Thread[gateCount];
+
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long wallStart = System.nanoTime();
+        try {
+            for (int g = 0; g < gateCount; g++) {
+                final int gate = g;
+                entryHistograms[g] = new LatencyHistogram();
+                exitHistograms[g] = new LatencyHistogram();
+                gates[g] = new Thread(() -> runGate(gateEvents.get(gate), slices, barrier,
+                        entryHistograms[gate], exitHistograms[gate], revenue, gate), "sim-gate-" + g);
+                gates[g].start();
+            }
+            for (Thread gate : gates) {
+                gate.join();
+            }
+            parkingLot.awaitSideEffects();
+        } finally {
+            wallNanos = System.nanoTime() - wallStart;
+            System.setOut(original);
+        }
+        Throwable failure = gateFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Simulation gate failed: " + failure, failure);
+        }
+
+        for (int g = 0; g < gateCount; g++) {
+            entryLatency.merge(entryHistograms[g]);
+            exitLatency.merge(exitHistograms[g]);
+            virtualRevenueKurus += revenue[g];
+        }
+    }
+
+    // Bir kapının olayları: kodlama = ziyaretçi * 2 (+1 ise çıkış), zamana göre sıralı
+    private void runGate(int[] events, long slices, CyclicBarrier barrier,
+                         LatencyHistogram entryHistogram, LatencyHistogram exitHistogram,
+                         long[] revenue, int gate) {
+        Map<Integer, Ticket> parked = new HashMap<>();
+        int next = 0;
+        try {
+            for (long slice = 1; slice <= slices; slice++) {
+                long sliceEnd = startMillis + slice * config.getSliceMillis();
+                while (next < events.length && eventTime(events[next]) < sliceEnd) {
+                    int event = events[next++];
+                    int visitor = event >>> 1;
+                    if ((event & 1) == 0) {
+                        enter(visitor, parked, entryHistogram);
+                    } else {
+                        revenue[gate] += exit(visitor, parked, exitHistogram);
+                    }
+                }
+                barrier.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (BrokenBarrierException e) {
+            // Başka bir kapı hata verdi - hata orada kaydedildi
+        } catch (Throwable e) {
+            // Kapı (ya da bariyer eylemi) hata verdi: kaydet ve diğer kapıları durdur
+            gateFailure.compareAndSet(null, e);
+            breakBarrier(barrier);
+        }
+    }
+
+    // Bariyeri kalıcı olarak kır: bekleyen ve sonradan gelen kapılar BrokenBarrierException alır.
+    // reset() yeni bir nesil başlatırdı - adımını henüz bitirmemiş kapı sonra gelip sonsuza kadar beklerdi.
+    // Sıfır süreli bekleme son gelen değilse zaman aşımıyla bariyeri kırar; son gelense adımı tamamlar
+    // ve diğerleri bir sonraki adımda tekrar gelince yeniden denenir.
+    private static void breakBarrier(CyclicBarrier barrier) {
+        while (barrier.getParties() > 1 && !barrier.isBroken()) {
+            try {
+                barrier.await(0, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Kesilen bekleme de bariyeri kırar
+                return;
+            } catch (BrokenBarrierException | TimeoutException e) {
+                // Kırıldı
+            }
+        }
+    }
+
+    private void enter(int visitor, Map<Integer, Ticket> parked, LatencyHistogram histogram) {
+        Vehicle vehicle = createVehicle(visitor);
+        Customer customer = new Customer("SIM" + visitor, "Simulated Driver", "05550000000",
+                "sim@parking.com", vehicle.getLicensePlate());
+        long start = System.nanoTime();
+        try {
+            Ticket ticket = parkingLot.enterVehicle(vehicle, customer, TICKET_TYPES[ticketTypes[visitor]]);
+            histogram.record(System.nanoTime() - start);
+            parked.put(visitor, ticket);
+            entries.increment();
+        } catch (SpotNotAvailableException e) {
+            histogram.record(System.nanoTime() - start);
+            rejectionsByVehicle[vehicleTypes[visitor]].increment();
+        } catch (ParkingException e) {
+            failures.increment();
+        }
+    }
+
+    // Dönen değer: sanal süreye göre ödenen ücret (kuruş)
+    // Saat adım içinde sabit olduğundan bu ücret ExitTransaction'ın hesapladığıyla aynıdır.
+    private long exit(int visitor, Map<Integer, Ticket> parked, LatencyHistogram histogram) {
+        Ticket ticket = parked.remove(visitor);
+        if (ticket == null) return 0; // Giriş reddedilmişti
+
+        long fee = ticket.calculateFeeKurus(clock.millis() - ticket.getIssueMillis());
+        long start = System.nanoTime();
+        try {
+            parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("SIMP" + visitor, fee, fee));
+            histogram.record(System.nanoTime() - start);
+            exits.increment();
+            return fee;
+        } catch (ParkingException e) {
+            failures.increment();
+            return 0;
+        }
+    }
+
+    // Tohumlu takvim: saat başına Poisson süreci (üstel ara varış süreleri)
+    private void generateSchedule() {
+        Random random = new Random(config.getSeed());
+        List<Long> arrivals = new ArrayList<>();
+        for (long hourStart = startMillis; hourStart < endMillis; hourStart += 3_600_000L) {
+            double ratePerMilli = config.arrivalRate(hourOfDay(hourStart)) / 3_600_000.0;
+            double time = hourStart - Math.log(1 - random.nextDouble()) / ratePerMilli;
+            while (time < hourStart + 3_600_000L) {
+                arrivals.add((long) time);
+                time -= Math.log(1 - random.nextDouble()) / ratePerMilli;
+            }
+        }
+
+        int visitors = arrivals.size();
+        arrivalTimes = new long[visitors];
+        departureTimes = new long[visitors];
+        vehicleTypes = new byte[visitors];
+        ticketTypes = new byte[visitors];
+        for (int i = 0; i < visitors; i++) {
+            arrivalTimes[i] = arrivals.get(i);
+            double stayMinutes = Math.max(5, -Math.log(1 - random.nextDouble()) * config.getMeanStayMinutes());
+            long departure = arrivalTimes[i] + (long) (stayMinutes * 60_000);
+            departureTimes[i] = departure < endMillis ? departure : -1;
+            vehicleTypes[i] = (byte) pick(random, config.getVehicleMix());
+            ticketTypes[i] = (byte) pick(random, config.getTicketMix());
+        }
+    }
+
+    // Saatin bölgesindeki yerel saat: rush hour yaz saati geçişinde de duvar saatine göre
+    int hourOfDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(clock.getZone()).getHour();
+    }
+
+    // Ziyaretçi, kapısına göre dağıtılır - giriş ve çıkış aynı kapıdan (bilet kapıda kalır)
+    private List<int[]> partitionEvents(int gateCount) {
+        List<List<Integer>> perGate = new ArrayList<>();
+        for (int g = 0; g < gateCount; g++) {
+            perGate.add(new ArrayList<>());
+        }
+        for (int visitor = 0; visitor < arrivalTimes.length; visitor++) {
+            List<Integer> events = perGate.get(visitor % gateCount);
+            events.add(visitor << 1);
+            if (departureTimes[visitor] >= 0) {
+                events.add((visitor << 1) | 1);
+            }
+        }
+
+        List<int[]> result = new ArrayList<>();
+        for (List<Integer> events : perGate) {
+            Integer[] sorted = events.toArray(new Integer[0]);
+            Arrays.sort(sorted, (a, b) -> Long.compare(eventTime(a), eventTime(b)));
+            result.add(Arrays.stream(sorted).mapToInt(Integer::intValue).toArray());
+        }
+        return result;
+    }
+
+    private long eventTime(int event) {
+        int visitor = event >>> 1;
+        return (event & 1) == 0 ? arrivalTimes[visitor] : departureTimes[visitor];
+    }
+
+    private Vehicle createVehicle(int visitor) {
+        String plate = "34SIM" + visitor;
+        switch (vehicleTypes[visitor]) {
+            case 1:
+                return new Motorcycle(plate, "Black", "Honda", "CBR", 600);
+            case 2:
+                return new Van(plate, "White", "Ford", "Transit", 9);
+            case 3:
+                return new Truck(plate, "Red", "Volvo", "FH", 18.0);
+            case 4:
+                ElectricVehicle ev = new ElectricVehicle(plate, "Blue", "Tesla", "Model 3", 4, 75);
+                ev.setNeedsCharging(visitor % 3 == 0);
+                return ev;
+            default:
+                return new Car(plate, "Gray", "Toyota", "Corolla", 4);
+        }
+    }
+
+    private static int pick(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    public void printReport() {
+        long attempts = arrivalTimes.length;
+        long rejected = 0;
+        for (LongAdder adder : rejectionsByVehicle) {
+            rejected += adder.sum();
+        }
+        double wallSeconds = wallNanos / 1_000_000_000.0;
+        long operations = entries.sum() + exits.sum();
+
+        CONSOLE.println("\n=== TRAFFIC SIMULATION REPORT ===");
+        CONSOLE.println("Lot: " + config.getFloors() + "x" + config.getSpotsPerFloor() + " (" +
+                parkingLot.getTotalCapacity() + " spots), gates: " + config.getGateCount());
+        CONSOLE.println("Virtual time: " + config.getDays() + " days in " +
+                String.format("%.2f", wallSeconds) + " s wall (" +
+                String.format("%.0f", (endMillis - startMillis) / 1000.0 / wallSeconds) + "x)");
+        CONSOLE.println("Arrivals: " + attempts + ", entries: " + entries.sum() +
+                ", exits: " + exits.sum() + ", failures: " + failures.sum());
+        CONSOLE.println("Rejections: " + rejected + " (" +
+                String.format("%.2f", attempts == 0 ? 0 : rejected * 100.0 / attempts) + "%)");
+        for (int i = 0; i < VEHICLE_NAMES.length; i++) {
+            if (rejectionsByVehicle[i].sum() > 0) {
+                CONSOLE.println("  - " + VEHICLE_NAMES[i] + ": " + rejectionsByVehicle[i].sum());
+            }
+        }
+        CONSOLE.println("Peak occupancy: " + peakOccupancy.get() + "/" + parkingLot.getTotalCapacity());
+        TicketExpiryScheduler timers = parkingLot.getExpiryScheduler();
+        CONSOLE.println("Expiry timers: " + timers.getRemindersFired() + " reminders, " +
+                timers.getExpiriesFired() + " expiries, " + timers.getLiveTimers() + " still live");
+        CONSOLE.println("Throughput: " + String.format("%.0f", operations / wallSeconds) + " gate ops/sec");
+        printLatency("Entry latency", entryLatency);
+        printLatency("Exit latency", exitLatency);
+        CONSOLE.println("Simulated revenue: " + String.format("%.2f", virtualRevenueKurus / 100.0) + " TL");
+        CONSOLE.println("=================================\n");
+    }
+
+    private static void printLatency(String label, LatencyHistogram histogram) {
+        CONSOLE.println(label + " (us): p50 " + micros(histogram.percentile(50)) +
+                ", p90 " + micros(histogram.percentile(90)) +
+                ", p99 " + micros(histogram.percentile(99)) +
+                ", p99.9 " + micros(histogram.percentile(99.9)) +
+                ", max " + micros(histogram.getMax()));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    public long getEntries() {
+        return entries.sum();
+    }
+
+    public long getRejections() {
+        long rejected = 0;
+        for (LongAdder adder : rejectionsByVehicle) {
+            rejected += adder.sum();
+        }
+        return rejected;
+    }
+
+    public long getVirtualMillis() {
+        return clock.millis();
+    }
+}
@@ -3,16 +3,29 @@ import java.time.Duration;
 
 // Abstract Transaction sınıfı
 public abstract class Transaction {
-    private String transactionId;
-    private LocalDateTime transactionTime;
+    private String transactionId; // null: numaradan ilk okunduğunda biçimlenir
+    private final String idPrefix;
+    private final long idNumber;
+    private long transactionMillis; // epoch-millis, biletin saatinden
     private Ticket ticket;
     private Employee processedBy;
 
     public Transaction(String transactionId, Ticket ticket, Employee processedBy) {
+        this(transactionId, null, -1, ticket, processedBy);
+    }
+
+    // Sayısal ID (IdGenerator) - giriş/çıkış yolunda String oluşturulmaz
+    protected Transaction(String idPrefix, long idNumber, Ticket ticket, Employee processedBy) {
+        this(null, idPrefix, idNumber, ticket, processedBy);
+    }
+
+    private Transaction(String transactionId, String idPrefix, long idNumber, Ticket ticket, Employee processedBy) {
         this.transactionId = transactionId;
+        this.idPrefix = idPrefix;
+        this.idNumber = idNumber;
         this.ticket = ticket;
         this.processedBy = processedBy;
-        this.transactionTime = LocalDateTime.now();
+        this.transactionMillis = ticket.getClock().millis();
     }
 
     // Abstract methods
@@ -21,11 +34,25 @@ public abstract class Transaction {
 
     // Getters
     public String getTransactionId() {
-        return transactionId;
+        String id = transactionId;
+        if (id == null) {
+            id = IdGenerator.format(idPrefix, idNumber); // Yarış zararsız: aynı metin
+            transactionId = id;
+        }
+        return id;
+    }
+
+    // Sayısal kısım ("ET123" -> 123), yoksa -1
+    public long getTransactionNumber() {
+        return transactionId == null ? idNumber : IdGenerator.parse(transactionId);
     }
 
     public LocalDateTime getTransactionTime() {
-        return transactionTime;
+        return ticket.getClock().toLocalDateTime(transactionMillis);
+    }
+
+    public long getTransactionMillis() {
+        return transactionMillis;
     }
 
     public Ticket getTicket() {
@@ -38,9 +65,9 @@ public abstract class Transaction {
 
     @Override
     public String toString() {
-        return "Transaction ID: " + transactionId +
+        return "Transaction ID: " + getTransactionId() +
                 ", Type: " + getTransactionType() +
-                ", Time: " + transactionTime +
+                ", Time: " + getTransactionTime() +
                 ", Processed by: " + processedBy.getName();
     }
 }
@@ -55,6 +82,12 @@ class EntryTransaction extends Transaction {
         this.assignedSpot = assignedSpot;
     }
 
+    public EntryTransaction(String idPrefix, long idNumber, Ticket ticket,
+                            Employee processedBy, ParkingSpot assignedSpot) {
+        super(idPrefix, idNumber, ticket, processedBy);
+        this.assignedSpot = assignedSpot;
+    }
+
     @Override
     public String getTransactionType() {
         return "ENTRY";
@@ -95,7 +128,7 @@ class EntryTransaction extends Transaction {
 // ExitTransaction - Çıkış işlemi
 class ExitTransaction extends Transaction {
     private Payment payment;
-    private double totalFee;
+    private long totalFeeKurus;
     private Duration parkingDuration;
 
     public ExitTransaction(String transactionId, Ticket ticket,
@@ -105,19 +138,26 @@ class ExitTransaction extends Transaction {
         calculateTotalFee();
     }
 
+    public ExitTransaction(String idPrefix, long idNumber, Ticket ticket,
+                           Employee processedBy) {
+        super(idPrefix, idNumber, ticket, processedBy);
+        calculateParkingDuration();
+        calculateTotalFee();
+    }
+
     @Override
     public String getTransactionType() {
         return "EXIT";
     }
 
     private void calculateParkingDuration() {
-        LocalDateTime entryTime = getTicket().getIssueTime();
-        LocalDateTime exitTime = getTransactionTime();
-        this.parkingDuration = Duration.between(entryTime, exitTime);
+        // Nesne oluşturmadan: iki epoch-millis farkı
+        this.parkingDuration = Duration.ofMillis(
+                Math.max(0, getTransactionMillis() - getTicket().getIssueMillis()));
     }
 
     private void calculateTotalFee() {
-        this.totalFee = getTicket().calculateFee(parkingDuration);
+        this.totalFeeKurus = getTicket().calculateFeeKurus(parkingDuration.toMillis());
     }
 
     @Override
@@ -133,14 +173,14 @@ class ExitTransaction extends Transaction {
             System.out.println("=== EXIT TRANSACTION ===");
             System.out.println("Vehicle: " + getTicket().getVehicle().getLicensePlate());
             System.out.println("Parking Duration: " + formatDuration(parkingDuration));
-            System.out.println("Total Fee: " + totalFee + " TL");
+            System.out.println("Total Fee: " + Money.format(totalFeeKurus) + " TL");
             System.out.println("========================");
 
             // Ödeme yapılmadıysa işlem tamamlanamaz
-            if (payment == null && totalFee > 0) {
+            if (payment == null && totalFeeKurus > 0) {
                 throw new PaymentFailedException(
                         "Payment required before exit!",
-                        totalFee,
+                        totalFeeKurus,
                         "NONE"
                 );
             }
@@ -157,13 +197,13 @@ class ExitTransaction extends Transaction {
     }
 
     public void processPayment(Payment payment) throws PaymentFailedException {
-        if (payment.processPayment(totalFee)) {
+        if (payment.processPayment(totalFeeKurus)) {
             this.payment = payment;
             System.out.println("Payment processed successfully!");
         } else {
             throw new PaymentFailedException(
                     "Payment processing failed!",
-                    totalFee,
+                    totalFeeKurus,
                     payment.getPaymentMethod()
             );
         }
@@ -175,8 +215,13 @@ class ExitTransaction extends Transaction {
         return hours + " hours, " + minutes + " minutes";
     }
 
+    public long getTotalFeeKurus() {
+        return totalFeeKurus;
+    }
+
+    // Gösterim için TL
     public double getTotalFee() {
-        return totalFee;
+        return Money.toLira(totalFeeKurus);
     }
 
     public Duration getParkingDuration() {
@@ -191,14 +236,14 @@ class ExitTransaction extends Transaction {
 // PaymentTransaction - Ödeme işlemi
 class PaymentTransaction extends Transaction {
     private Payment payment;
-    private double amount;
+    private long amountKurus;
     private boolean isSuccessful;
 
     public PaymentTransaction(String transactionId, Ticket ticket,
-                              Employee processedBy, Payment payment, double amount) {
+                              Employee processedBy, Payment payment, long amountKurus) {
         super(transactionId, ticket, processedBy);
         this.payment = payment;
-        this.amount = amount;
+        this.amountKurus = amountKurus;
         this.isSuccessful = false;
     }
 
@@ -211,16 +256,16 @@ class PaymentTransaction extends Transaction {
     public void execute() throws ParkingException {
         try {
             System.out.println("=== PROCESSING PAYMENT ===");
-            System.out.println("Amount: " + amount + " TL");
+            System.out.println("Amount: " + Money.format(amountKurus) + " TL");
             System.out.println("Method: " + payment.getPaymentMethod());
 
-            boolean success = payment.processPayment(amount);
+            boolean success = payment.processPayment(amountKurus);
             this.isSuccessful = success;
 
             if (!success) {
                 throw new PaymentFailedException(
                         "Payment could not be processed!",
-                        amount,
+                        amountKurus,
                         payment.getPaymentMethod()
                 );
             }
@@ -231,7 +276,7 @@ class PaymentTransaction extends Transaction {
         } catch (Exception e) {
             throw new PaymentFailedException(
                     "Payment transaction failed: " + e.getMessage(),
-                    amount,
+                    amountKurus,
                     payment.getPaymentMethod()
             );
         }
@@ -241,8 +286,8 @@ class PaymentTransaction extends Transaction {
         return payment;
     }
 
-    public double getAmount() {
-        return amount;
+    public long getAmountKurus() {
+        return amountKurus;
     }
 
     public boolean isSuccessful() {
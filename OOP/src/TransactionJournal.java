@@ -0,0 +1,563 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// TransactionJournal - Sadece eklemeli, bellek eşlemeli (mmap) işlem günlüğü
+// İşlemler nesne grafiği yerine 48 baytlık sabit başlık + uzunluk önekli metinlerden oluşan
+// kayıtlar olarak segment dosyalarına yazılır. Segment dolunca yenisine geçilir.
+// Giriş/çıkış kaydı diske inmeden dönmez; aynı anda bekleyen kapılar tek fsync'i paylaşır (group commit).
+//
+// Kayıt yerleşimi (little endian):
+//   0  byte  kayıt tipi (1=ENTRY, 2=EXIT, 3=PAYMENT, 0=boş)
+//   1  byte  araç kategorisi       2  byte bilet kategorisi     3  byte yer kategorisi
+//   4  short kat                    6  byte ödeme yöntemi        7  byte (ayrılmış)
+//   8  int   kattaki yer sırası     12 int  kayıt uzunluğu (bayt)
+//   16 long  işlem no               24 long bilet no
+//   32 long  zaman (epoch ms)       40 long tutar (kuruş)
+//   48 short plaka uzunluğu + plaka (UTF-8), ardından short müşteri no uzunluğu + müşteri no
+public class TransactionJournal implements AutoCloseable {
+    public static final int HEADER_SIZE = 48;
+    public static final int MAX_TEXT_BYTES = 256;
+    public static final int MAX_RECORD_SIZE = HEADER_SIZE + 2 * (2 + MAX_TEXT_BYTES);
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20; // 64 MB
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 10;
+
+    public static final byte TYPE_ENTRY = 1;
+    public static final byte TYPE_EXIT = 2;
+    public static final byte TYPE_PAYMENT = 3;
+
+    static final int LENGTH_OFFSET = 12;
+    static final int PLATE_OFFSET = HEADER_SIZE;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Thread flusher;
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentNumber;
+    private long recordCount;
+    private long highestId; // Kayıtlardaki en büyük işlem/bilet no - ID üreteci buradan devam eder
+    private long syncedPosition; // syncLock altında: bu konuma kadar her şey diskte
+    private volatile boolean closed;
+
+    public TransactionJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_GROUP_COMMIT_MILLIS);
+    }
+
+    public TransactionJournal(Path directory, int segmentSize, long groupCommitMillis) throws IOException {
+        if (segmentSize < MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + MAX_RECORD_SIZE);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        this.segmentNumber = segments.isEmpty() ? 0 : segmentNumberOf(segments.get(segments.size() - 1));
+        openSegment(segmentNumber);
+        this.syncedPosition = getPosition();
+        // Kayıtlar değişken uzunlukta: sayı, başlıklar üzerinden atlanarak bulunur
+        try (JournalCursor cursor = openCursor()) {
+            while (cursor.next()) {
+                recordCount++;
+                highestId = Math.max(highestId, Math.max(cursor.getTransactionId(), cursor.getTicketId()));
+            }
+        }
+
+        // Ham appendRecord() çağrıları için periyodik fsync (giriş/çıkış zaten kendisi bekler)
+        this.flusher = new Thread(() -> {
+            while (!closed) {
+                try {
+                    Thread.sleep(groupCommitMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sync();
+            }
+        }, "journal-group-commit");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Giriş kaydı - kayıt diske inince döner
+    public long appendEntry(EntryTransaction entry) {
+        Ticket ticket = entry.getTicket();
+        long position = append(TYPE_ENTRY, ticket, entry.getAssignedSpot(),
+                entry.getTransactionNumber(), toEpochMillis(entry), 0, (byte) 0);
+        awaitDurable(position);
+        return position;
+    }
+
+    // Çıkış kaydı (ödemeli ise ardından PAYMENT kaydı da yazılır) - ikisi tek fsync ile diske iner
+    public long appendExit(ExitTransaction exit) {
+        Ticket ticket = exit.getTicket();
+        long txId = exit.getTransactionNumber();
+        long time = toEpochMillis(exit);
+        long fee = exit.getTotalFeeKurus();
+
+        long position = append(TYPE_EXIT, ticket, ticket.getAssignedSpot(), txId, time, fee, (byte) 0);
+        if (exit.getPayment() != null) {
+            position = append(TYPE_PAYMENT, ticket, ticket.getAssignedSpot(), txId, time, fee,
+                    paymentMethodCode(exit.getPayment()));
+        }
+        awaitDurable(position);
+        return position;
+    }
+
+    // Kayıt ekle - dönen değer kaydın bittiği konum. Diske inmesi için awaitDurable() beklenir.
+    public long append(byte type, Ticket ticket, ParkingSpot spot,
+                       long transactionId, long epochMillis,
+                       long amountKurus, byte paymentMethod) {
+        // Metin kodlaması kilit dışında
+        byte[] plate = textBytes("License plate", ticket.getVehicle().getLicensePlate());
+        byte[] customer = textBytes("Customer ID", ticket.getCustomer().getId());
+        int length = recordLength(plate, customer);
+        synchronized (this) {
+            int offset = reserve(length);
+            encode(buffer, offset, type,
+                    ticket.getVehicle().getVehicleCategory().ordinal(),
+                    ticket.getTicketCategory().ordinal(),
+                    spot == null ? -1 : spot.getSpotCategory().ordinal(),
+                    spot == null ? -1 : spot.getFloor(),
+                    spot == null ? -1 : spot.getSlot(),
+                    paymentMethod, transactionId, IdGenerator.parse(ticket.getTicketId()),
+                    epochMillis, amountKurus, plate, customer);
+            return advance(offset, length);
+        }
+    }
+
+    // Önceden kodlanmış kaydı ekle (yük üreteçleri ve araçlar için) - uzunluk kaydın başlığından okunur
+    public synchronized long appendRecord(byte[] record) {
+        int length = ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN).getInt(LENGTH_OFFSET);
+        int offset = reserve(length);
+        for (int i = 1; i < length; i++) {
+            buffer.put(offset + i, record[i]);
+        }
+        buffer.put(offset, record[0]);
+        return advance(offset, length);
+    }
+
+    private int reserve(int length) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (buffer.remaining() < length) {
+            rollSegment();
+        }
+        return buffer.position();
+    }
+
+    private long advance(int offset, int length) {
+        buffer.position(offset + length);
+        recordCount++;
+        highestId = Math.max(highestId, Math.max(buffer.getLong(offset + 16), buffer.getLong(offset + 24)));
+        return getPosition();
+    }
+
+    // Ham alanlardan kayıt kodla - dönen değer kayıt uzunluğu
+    static int encode(ByteBuffer target, int offset, byte type,
+                      int vehicleCategory, int ticketCategory, int spotCategory,
+                      int floor, int slot, byte paymentMethod,
+                      long transactionId, long ticketId, long epochMillis, long amountKurus,
+                      String licensePlate, String customerId) {
+        return encode(target, offset, type, vehicleCategory, ticketCategory, spotCategory, floor, slot,
+                paymentMethod, transactionId, ticketId, epochMillis, amountKurus,
+                textBytes("License plate", licensePlate), textBytes("Customer ID", customerId));
+    }
+
+    // Tip baytı en son yazılır, okuyucu yarım kaydı görmez
+    private static int encode(ByteBuffer target, int offset, byte type,
+                              int vehicleCategory, int ticketCategory, int spotCategory,
+                              int floor, int slot, byte paymentMethod,
+                              long transactionId, long ticketId, long epochMillis, long amountKurus,
+                              byte[] plate, byte[] customer) {
+        int length = recordLength(plate, customer);
+        target.put(offset + 1, (byte) vehicleCategory);
+        target.put(offset + 2, (byte) ticketCategory);
+        target.put(offset + 3, (byte) spotCategory);
+        target.putShort(offset + 4, (short) floor);
+        target.put(offset + 6, paymentMethod);
+        target.putInt(offset + 8, slot);
+        target.putInt(offset + LENGTH_OFFSET, length);
+        target.putLong(offset + 16, transactionId);
+        target.putLong(offset + 24, ticketId);
+        target.putLong(offset + 32, epochMillis);
+        target.putLong(offset + 40, amountKurus);
+        int textOffset = putText(target, offset + PLATE_OFFSET, plate);
+        putText(target, textOffset, customer);
+        target.put(offset, type);
+        return length;
+    }
+
+    private static int recordLength(byte[] plate, byte[] customer) {
+        return HEADER_SIZE + 2 + plate.length + 2 + customer.length;
+    }
+
+    // Verilen konuma kadar yazılmış kayıtlar diske inene kadar bekle.
+    // Tek fsync o ana kadar yazılan her şeyi kapsar: aynı anda bekleyen kapılar bir sonraki
+    // fsync'i paylaşır, fsync sırasında yeni kayıt eklenebilir.
+    public void awaitDurable(long position) {
+        synchronized (syncLock) {
+            if (syncedPosition >= position) return;
+            long upTo;
+            MappedByteBuffer current;
+            synchronized (this) {
+                upTo = getPosition();
+                current = buffer; // Önceki segmentler geçişte zaten diske zorlandı
+            }
+            current.force();
+            syncedPosition = upTo;
+        }
+    }
+
+    // Bekleyen kayıtları diske zorla (fsync)
+    public void sync() {
+        if (closed) return;
+        awaitDurable(getPosition());
+    }
+
+    // Mevcut yazma konumu: (segment no << 32) | segment içi ofset
+    public synchronized long getPosition() {
+        return ((long) segmentNumber << 32) | buffer.position();
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized long getHighestId() {
+        return highestId;
+    }
+
+    // Konum ve kayıt sayısı tek kilit altında - ayrı ayrı okununca araya ekleme girebilir
+    public synchronized JournalMark mark() {
+        return new JournalMark(getPosition(), recordCount);
+    }
+
+    // Baştan sıralı okuma
+    public JournalCursor openCursor() {
+        return openCursor(0);
+    }
+
+    // Verilen konumdan itibaren sıralı okuma (snapshot sonrası kuyruk için)
+    public JournalCursor openCursor(long position) {
+        return new JournalCursor(this, (int) (position >>> 32), (int) position);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        buffer.force();
+        closed = true;
+        flusher.interrupt();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    Path segmentPath(int number) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%08d", number) + SEGMENT_SUFFIX);
+    }
+
+    private void rollSegment() {
+        buffer.force();
+        try {
+            channel.close();
+            openSegment(segmentNumber + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal segment roll failed", e);
+        }
+    }
+
+    private void openSegment(int number) throws IOException {
+        this.segmentNumber = number;
+        this.channel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Yeniden açılışta ilk boş kayda kadar ilerle
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize && buffer.get(offset) != 0) {
+            offset += checkedLength(buffer, offset, segmentPath(number));
+        }
+        buffer.position(offset);
+    }
+
+    // Başlıktaki uzunluk - bozuk ya da eski biçimli kayıtta sonsuz döngü yerine hata
+    static int checkedLength(ByteBuffer segment, int offset, Path path) {
+        int length = segment.getInt(offset + LENGTH_OFFSET);
+        if (length < HEADER_SIZE + 4 || length > MAX_RECORD_SIZE || offset + length > segment.capacity()) {
+            throw new IllegalStateException("Corrupt journal record at " + path + ":" + offset);
+        }
+        return length;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static int segmentNumberOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Metin alanı en fazla MAX_TEXT_BYTES UTF-8 bayt olabilir (Türkçe harfler 2 bayt sayılır)
+    static boolean fitsText(String text) {
+        return text == null || text.length() * 3 <= MAX_TEXT_BYTES
+                || text.getBytes(StandardCharsets.UTF_8).length <= MAX_TEXT_BYTES;
+    }
+
+    static void checkText(String field, String text) {
+        if (!fitsText(text)) {
+            throw new IllegalArgumentException(field + " is longer than " +
+                    MAX_TEXT_BYTES + " UTF-8 bytes and cannot be journaled");
+        }
+    }
+
+    private static byte[] textBytes(String field, String text) {
+        checkText(field, text);
+        return text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Dönen değer metnin bittiği ofset
+    private static int putText(ByteBuffer target, int offset, byte[] bytes) {
+        target.putShort(offset, (short) bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            target.put(offset + 2 + i, bytes[i]);
+        }
+        return offset + 2 + bytes.length;
+    }
+
+    private long toEpochMillis(Transaction transaction) {
+        return transaction.getTransactionMillis();
+    }
+
+    static byte paymentMethodCode(Payment payment) {
+        if (payment instanceof CashPayment) return 1;
+        if (payment instanceof CreditCardPayment) return 2;
+        if (payment instanceof MobilePayment) return 3;
+        if (payment instanceof OnlinePayment) return 4;
+        return 0;
+    }
+}
+
+// JournalRecord - Bir tampon üzerindeki kaydın okuma görünümü
+// Günlük imleci ve snapshot okuyucusu aynı alan erişimcilerini kullanır.
+class JournalRecord {
+    protected ByteBuffer recordBuffer;
+    protected int recordOffset;
+
+    // Görünümü başka bir kayda taşı
+    void moveTo(ByteBuffer buffer, int offset) {
+        this.recordBuffer = buffer;
+        this.recordOffset = offset;
+    }
+
+    public byte getType() {
+        return recordBuffer.get(recordOffset);
+    }
+
+    public VehicleCategory getVehicleCategory() {
+        return VehicleCategory.values()[recordBuffer.get(recordOffset + 1)];
+    }
+
+    public TicketCategory getTicketCategory() {
+        return TicketCategory.values()[recordBuffer.get(recordOffset + 2)];
+    }
+
+    public int getSpotCategoryIndex() {
+        return recordBuffer.get(recordOffset + 3);
+    }
+
+    public int getFloor() {
+        return recordBuffer.getShort(recordOffset + 4);
+    }
+
+    public byte getPaymentMethod() {
+        return recordBuffer.get(recordOffset + 6);
+    }
+
+    public int getSlot() {
+        return recordBuffer.getInt(recordOffset + 8);
+    }
+
+    public int getLength() {
+        return recordBuffer.getInt(recordOffset + TransactionJournal.LENGTH_OFFSET);
+    }
+
+    public long getTransactionId() {
+        return recordBuffer.getLong(recordOffset + 16);
+    }
+
+    public long getTicketId() {
+        return recordBuffer.getLong(recordOffset + 24);
+    }
+
+    public long getEpochMillis() {
+        return recordBuffer.getLong(recordOffset + 32);
+    }
+
+    public long getAmountKurus() {
+        return recordBuffer.getLong(recordOffset + 40);
+    }
+
+    public String getLicensePlate() {
+        return getText(recordOffset + TransactionJournal.PLATE_OFFSET);
+    }
+
+    public String getCustomerId() {
+        int plateOffset = recordOffset + TransactionJournal.PLATE_OFFSET;
+        return getText(plateOffset + 2 + recordBuffer.getShort(plateOffset));
+    }
+
+    // Ham kaydın kopyası (kayıt uzunluğunda)
+    public byte[] copyRecord() {
+        byte[] copy = new byte[getLength()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = recordBuffer.get(recordOffset + i);
+        }
+        return copy;
+    }
+
+    private String getText(int start) {
+        byte[] bytes = new byte[recordBuffer.getShort(start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = recordBuffer.get(start + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
+
+// JournalCursor - Günlüğü sıralı okuyan imleç
+// Her next() çağrısı aynı nesneyi bir sonraki kayda taşır, kayıt başına nesne oluşmaz.
+class JournalCursor extends JournalRecord implements AutoCloseable {
+    private final TransactionJournal journal;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentNumber;
+    private int offset;
+
+    JournalCursor(TransactionJournal journal, int segmentNumber, int offset) {
+        this.journal = journal;
+        this.segmentNumber = segmentNumber;
+        this.offset = offset;
+        map(segmentNumber);
+    }
+
+    // Sonraki kayda geç - kayıt yoksa false
+    public boolean next() {
+        while (buffer != null) {
+            if (hasRecordAt(offset)) {
+                moveTo(buffer, offset);
+                offset += TransactionJournal.checkedLength(buffer, offset, journal.segmentPath(segmentNumber));
+                return true;
+            }
+            // Yazılmamış alan: sonraki segment yoksa günlüğün sonu
+            if (!Files.exists(journal.segmentPath(segmentNumber + 1))) {
+                return false;
+            }
+            // Segment geçişinden sonra bu segmente yazılmaz - arada yazılmış kayıt varsa önce o okunur
+            if (hasRecordAt(offset)) {
+                continue;
+            }
+            map(segmentNumber + 1);
+            offset = 0;
+        }
+        return false;
+    }
+
+    private boolean hasRecordAt(int position) {
+        return position + TransactionJournal.HEADER_SIZE <= buffer.capacity() && buffer.get(position) != 0;
+    }
+
+    // İmlecin şu anki konumu (bir sonraki okunacak kayıt)
+    public long getPosition() {
+        return ((long) segmentNumber << 32) | offset;
+    }
+
+    @Override
+    public void close() {
+        closeChannel();
+        buffer = null;
+    }
+
+    private void map(int number) {
+        closeChannel();
+        segmentNumber = number;
+        Path path = journal.segmentPath(number);
+        if (!Files.exists(path)) {
+            buffer = null;
+            return;
+        }
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal segment could not be read: " + path, e);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Okuma tarafı, kapatma hatası önemsiz
+            }
+            channel = null;
+        }
+    }
+}
+
+// JournalMark - Günlüğün bir andaki konumu ve o ana kadarki kayıt sayısı (değişmez)
+final class JournalMark {
+    private final long position;
+    private final long recordCount;
+
+    JournalMark(long position, long recordCount) {
+        this.position = position;
+        this.recordCount = recordCount;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+}
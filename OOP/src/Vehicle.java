@@ -1,3 +1,12 @@
+// Araç kategorileri - ücret tabloları ve kayıtlarda dizi indeksi olarak kullanılır
+enum VehicleCategory {
+    CAR,
+    MOTORCYCLE,
+    VAN,
+    TRUCK,
+    ELECTRIC
+}
+
 // Temel araç sınıfı (Abstract)
 public abstract class Vehicle {
     private String licensePlate;
@@ -14,7 +23,12 @@ public abstract class Vehicle {
 
     // Abstract methods
     public abstract String getVehicleType();
-    public abstract double getSizeMultiplier(); // Ücret hesabı için
+    public abstract VehicleCategory getVehicleCategory();
+
+    // Ücret çarpanı tek yerde tutulur (TariffRates) - yeniden yüklenen tarifeyi de izler
+    public double getSizeMultiplier() {
+        return TariffTable.getDefault().getRates().getVehicleMultiplier(getVehicleCategory());
+    }
 
     // Getters and Setters
     public String getLicensePlate() {
@@ -56,8 +70,8 @@ class Car extends Vehicle {
     }
 
     @Override
-    public double getSizeMultiplier() {
-        return 1.0; // Normal ücret
+    public VehicleCategory getVehicleCategory() {
+        return VehicleCategory.CAR;
     }
 
     public int getNumberOfDoors() {
@@ -81,8 +95,8 @@ class Motorcycle extends Vehicle {
     }
 
     @Override
-    public double getSizeMultiplier() {
-        return 0.5; // Daha ucuz
+    public VehicleCategory getVehicleCategory() {
+        return VehicleCategory.MOTORCYCLE;
     }
 
     public int getEngineCapacity() {
@@ -106,8 +120,8 @@ class Van extends Vehicle {
     }
 
     @Override
-    public double getSizeMultiplier() {
-        return 1.5; // Daha pahalı
+    public VehicleCategory getVehicleCategory() {
+        return VehicleCategory.VAN;
     }
 
     public int getCapacity() {
@@ -131,8 +145,8 @@ class Truck extends Vehicle {
     }
 
     @Override
-    public double getSizeMultiplier() {
-        return 2.0; // En pahalı
+    public VehicleCategory getVehicleCategory() {
+        return VehicleCategory.TRUCK;
     }
 
     public double getLoadCapacity() {
@@ -158,8 +172,8 @@ class ElectricVehicle extends Car {
     }
 
     @Override
-    public double getSizeMultiplier() {
-        return 1.2; // Şarj hizmeti için ek ücret
+    public VehicleCategory getVehicleCategory() {
+        return VehicleCategory.ELECTRIC;
     }
 
     public int getBatteryCapacity() {
@@ -0,0 +1,214 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// VehicleAccessLog - Plaka başına giriş/çıkış geçmişi, sütunlu ve ilkel dizilerde
+// Plakalar bir kez int kimliğe çevrilir; her olay tek long: (epochMillis, yön, yer indeksi).
+// Olay başına 8 bayt (metin kaydı ~100+ bayt). Saklama süresini aşan olaylar sıkıştırmada
+// atılır, geçmişi boşalan plakanın kimliği yeniden kullanılır. Hâlâ içeride olan aracın (son olayı
+// ENTRY) girişi atılmaz: kimliği korunur, sonraki çıkış kaydı düşmez. Metin sadece okunurken üretilir.
+class VehicleAccessLog {
+    public static final long DEFAULT_RETENTION_MILLIS = 90L * 24 * 3_600_000L;
+    static final int COMPACT_EVERY = 1 << 16; // Bu kadar eklemede bir sıkıştırma
+
+    // Paket düzeni: [millis: 43 bit][yön: 1 bit][yer: 20 bit]
+    private static final int SPOT_BITS = 20;
+    private static final long SPOT_MASK = (1L << SPOT_BITS) - 1;
+    private static final long EXIT_BIT = 1L << SPOT_BITS;
+    private static final int TIME_SHIFT = SPOT_BITS + 1;
+    private static final long MAX_MILLIS = (1L << (64 - TIME_SHIFT)) - 1; // ~2248 yılı
+
+    private final ParkingClock clock;
+    private final long retentionMillis;
+    private final Map<String, Integer> plateIds = new HashMap<>();
+    private String[] plates = new String[256];
+    private long[][] events = new long[256][];
+    private int[] counts = new int[256];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int plateCount; // Kullanılan en yüksek kimlik + 1
+    private final Map<String, Integer> spotIds = new HashMap<>();
+    private String[] spots = new String[64];
+    private long eventCount;
+    private int appendsSinceCompaction;
+    private long compactedEvents;
+
+    VehicleAccessLog(ParkingClock clock) {
+        this(clock, DEFAULT_RETENTION_MILLIS);
+    }
+
+    VehicleAccessLog(ParkingClock clock, long retentionMillis) {
+        this.clock = clock;
+        this.retentionMillis = retentionMillis;
+    }
+
+    synchronized void recordEntry(String licensePlate, String spotId, long epochMillis) {
+        append(intern(licensePlate), false, spotId, epochMillis);
+    }
+
+    // Eski davranış: girişi hiç görülmemiş plakanın çıkışı kaydedilmez
+    synchronized boolean recordExit(String licensePlate, String spotId, long epochMillis) {
+        Integer id = plateIds.get(licensePlate);
+        if (id == null) {
+            return false;
+        }
+        append(id, true, spotId, epochMillis);
+        return true;
+    }
+
+    private void append(int id, boolean exit, String spotId, long epochMillis) {
+        if (epochMillis < 0 || epochMillis > MAX_MILLIS) {
+            throw new IllegalArgumentException("Timestamp out of range: " + epochMillis);
+        }
+        long[] row = events[id];
+        int count = counts[id];
+        if (row == null) {
+            row = events[id] = new long[4];
+        } else if (count == row.length) {
+            row = events[id] = Arrays.copyOf(row, count + (count >> 1));
+        }
+        row[count] = epochMillis << TIME_SHIFT | (exit ? EXIT_BIT : 0) | spotIndex(spotId);
+        counts[id] = count + 1;
+        eventCount++;
+        if (++appendsSinceCompaction >= COMPACT_EVERY) {
+            compact(clock.millis());
+        }
+    }
+
+    private int intern(String licensePlate) {
+        Integer existing = plateIds.get(licensePlate);
+        if (existing != null) {
+            return existing;
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = plateCount++;
+            if (id == plates.length) {
+                int capacity = id * 2;
+                plates = Arrays.copyOf(plates, capacity);
+                events = Arrays.copyOf(events, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+        plates[id] = licensePlate;
+        plateIds.put(licensePlate, id);
+        return id;
+    }
+
+    // Yer kimlikleri otopark boyutuyla sınırlı - silinmez
+    private long spotIndex(String spotId) {
+        Integer existing = spotIds.get(spotId);
+        if (existing != null) {
+            return existing;
+        }
+        int index = spotIds.size();
+        if (index > SPOT_MASK) {
+            throw new IllegalStateException("Too many spots for access log: " + index);
+        }
+        if (index == spots.length) {
+            spots = Arrays.copyOf(spots, index * 2);
+        }
+        spots[index] = spotId;
+        spotIds.put(spotId, index);
+        return index;
+    }
+
+    // Saklama süresinden eski olayları at; boşalan plakaları serbest bırak, şişmiş dizileri küçült
+    synchronized long compact(long nowMillis) {
+        appendsSinceCompaction = 0;
+        long cutoff = nowMillis - retentionMillis;
+        long removed = 0;
+        for (int id = 0; id < plateCount; id++) {
+            long[] row = events[id];
+            if (row == null) continue;
+            int count = counts[id];
+            // Olaylar zaman sırasında eklenir: ilk saklanacak olay ikili aramayla bulunur
+            int keepFrom = firstAtOrAfter(row, count, cutoff);
+            if (keepFrom == count && count > 0 && (row[count - 1] & EXIT_BIT) == 0) {
+                keepFrom = count - 1; // Açık giriş: araç hâlâ otoparkta
+            }
+            if (keepFrom == 0 && count >= row.length / 4) continue;
+            removed += keepFrom;
+            int kept = count - keepFrom;
+            if (kept == 0) {
+                plateIds.remove(plates[id]);
+                plates[id] = null;
+                events[id] = null;
+                counts[id] = 0;
+                if (freeCount == freeIds.length) {
+                    freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+                }
+                freeIds[freeCount++] = id;
+            } else {
+                events[id] = Arrays.copyOfRange(row, keepFrom, keepFrom + Math.max(kept, 4));
+                counts[id] = kept;
+            }
+        }
+        eventCount -= removed;
+        compactedEvents += removed;
+        return removed;
+    }
+
+    private static int firstAtOrAfter(long[] row, int count, long cutoffMillis) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if ((row[mid] >>> TIME_SHIFT) < cutoffMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Plakanın geçmişi: paketli değerlerin kopyası, satırlar get() çağrısında biçimlenir
+    synchronized List<String> history(String licensePlate) {
+        Integer id = plateIds.get(licensePlate);
+        if (id == null) {
+            return null;
+        }
+        long[] snapshot = Arrays.copyOf(events[id], counts[id]);
+        String[] spotNames = spots; // Sadece büyür: mevcut indeksler geçerli kalır
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return format(snapshot[index], spotNames);
+            }
+
+            @Override
+            public int size() {
+                return snapshot.length;
+            }
+        };
+    }
+
+    private String format(long packed, String[] spotNames) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(packed >>> TIME_SHIFT), clock.getZone());
+        String direction = (packed & EXIT_BIT) != 0 ? "EXIT: " : "ENTRY: ";
+        return direction + time + " @ " + spotNames[(int) (packed & SPOT_MASK)];
+    }
+
+    synchronized int getTrackedVehicles() {
+        return plateIds.size();
+    }
+
+    synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    synchronized long getCompactedEvents() {
+        return compactedEvents;
+    }
+
+    long getRetentionMillis() {
+        return retentionMillis;
+    }
+}
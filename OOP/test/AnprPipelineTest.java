@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// ANPR: okunamayan plakalar başka kamerayla denenmeli, aşırı yükte kayıt yolu beklememeli
+class AnprPipelineTest {
+
+    @Test
+    void failedReadsAreRetriedOnAlternateCameras() throws Exception {
+        int floors = 4;
+        int vehicles = 500;
+        SecuritySystem security = TestSupport.quietly(() -> {
+            SecuritySystem system = new SecuritySystem();
+            system.initializeCameras(floors);
+            return system;
+        });
+        AnprPipeline pipeline = new AnprPipeline(security.getCameraIndex(),
+                new StubPlateRecognizer(2, 0.30, 21), 16);
+        security.setAnprPipeline(pipeline);
+        Customer customer = TestSupport.customer("AN1", "34AN0");
+        List<Ticket> tickets = new ArrayList<>();
+        try {
+            TestSupport.quietly(() -> {
+                for (int i = 0; i < vehicles; i++) {
+                    Car car = new Car("34AN" + i, "Gray", "Fiat", "Egea", 4);
+                    Ticket ticket = new HourlyTicket("AT" + i, customer, car);
+                    tickets.add(ticket);
+                    security.logVehicleEntry(car, new RegularSpot("F" + (i % floors) + "-S" + i, i % floors), ticket);
+                }
+            });
+            assertTrue(pipeline.awaitIdle(60_000));
+        } finally {
+            security.setAnprPipeline(null);
+            pipeline.close();
+        }
+
+        int matched = 0;
+        int unknown = 0;
+        for (Ticket ticket : tickets) {
+            String plate = ticket.getRecognizedPlate();
+            if (PlateRecognizer.UNKNOWN.equals(plate)) {
+                unknown++;
+            } else if (ticket.getVehicle().getLicensePlate().equals(plate)) {
+                matched++;
+            }
+        }
+        assertEquals(vehicles, matched + unknown);
+        assertTrue(pipeline.getRetries() > 0);
+        assertTrue(unknown < vehicles * 0.30 / 4, unknown + " unknown after retries");
+        assertEquals(pipeline.getSubmitted(), pipeline.getRecognized() + pipeline.getUnrecognized());
+    }
+
+    // Aşırı yük: tek işçi, küçük kuyruk - fazla işler reddedilir, kayıt yolu yine beklemez
+    @Test
+    void overloadRejectsInsteadOfBlocking() throws Exception {
+        SecuritySystem security = TestSupport.quietly(() -> {
+            SecuritySystem system = new SecuritySystem();
+            system.initializeCameras(1);
+            return system;
+        });
+        AnprPipeline overloaded = new AnprPipeline(security.getCameraIndex(),
+                new StubPlateRecognizer(50, 0.0, 22), 1, 64, 1, null);
+        security.setAnprPipeline(overloaded);
+        LatencyHistogram latency = new LatencyHistogram();
+        try {
+            TestSupport.quietly(() -> {
+                for (int i = 0; i < 500; i++) {
+                    Car car = new Car("34OV" + i, "Gray", "Fiat", "Egea", 4);
+                    long t = System.nanoTime();
+                    security.logVehicleEntry(car, new RegularSpot("F0-S" + i, 0), null);
+                    latency.record(System.nanoTime() - t);
+                }
+            });
+        } finally {
+            security.setAnprPipeline(null);
+            overloaded.close();
+        }
+        assertTrue(overloaded.getRejected() > 0);
+        assertTrue(overloaded.getMaxQueueDepth() <= 64);
+        assertTrue(latency.percentile(99) < 50_000_000L, "logVehicleEntry p99 " + latency.percentile(99) + " ns");
+    }
+}
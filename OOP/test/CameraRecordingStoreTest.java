@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Kayıt deposu: aylarca kayıt sonrası bellek/disk sınırlı kalmalı; olay penceresi sorgusu
+// tüm kayıtların taranmasıyla aynı sonucu vermeli
+class CameraRecordingStoreTest {
+    private static final long START = 1_700_000_000_000L;
+
+    private Path directory;
+    private VirtualParkingClock clock;
+    private SecuritySystem security;
+    private SecurityCamera camera;
+
+    @BeforeEach
+    void createStore() throws Exception {
+        directory = Files.createTempDirectory("parking-recordings");
+        clock = ParkingClock.virtual(START);
+        TestSupport.quietly(() -> {
+            security = new SecuritySystem(clock);
+            camera = new SecurityCamera("CAM_TEST", CameraLocation.CENTER_AREA, 0, "4K", clock);
+            security.addCamera(camera);
+            security.enableRecordingSpill(directory);
+        });
+    }
+
+    @AfterEach
+    void closeStore() throws Exception {
+        security.closeRecordingStores();
+        TestSupport.deleteDirectory(directory);
+    }
+
+    @Test
+    void storeStaysBoundedAndWindowQueriesMatchAFullScan() throws Exception {
+        int recordingCount = 150_000;
+        CameraRecordingStore store = camera.getRecordingStore();
+        // Her 30 saniyede bir kayıt başlar, 1-20 dakika sürer (aynı anda birkaç kayıt açık)
+        Random random = new Random(42);
+        Map<CameraRecording, Long> stopAt = new IdentityHashMap<>();
+        PriorityQueue<CameraRecording> running = new PriorityQueue<>(Comparator.comparingLong(stopAt::get));
+        for (int i = 0; i < recordingCount; i++) {
+            long next = START + i * 30_000L;
+            while (!running.isEmpty() && stopAt.get(running.peek()) <= next) {
+                CameraRecording done = running.poll();
+                clock.setMillis(stopAt.remove(done));
+                done.stopRecording();
+            }
+            clock.setMillis(next);
+            CameraRecording recording = camera.startRecording(i % 10 == 0 ? "INCIDENT" : "ROUTINE");
+            stopAt.put(recording, next + (1 + random.nextInt(20)) * 60_000L);
+            running.add(recording);
+        }
+        long now = clock.millis();
+
+        // Sınırlar: en eski kayıt 30 günden yeni, toplam boyut bütçe içinde
+        List<CameraRecording> all = store.findOverlapping(Long.MIN_VALUE / 4, Long.MAX_VALUE / 4);
+        assertEquals(store.size(), all.size());
+        assertTrue(store.getSpilled() > 0 && store.getExpired() > 0);
+        assertTrue(store.getTotalSizeMB() <= CameraRecordingStore.DEFAULT_MAX_SIZE_MB);
+        assertTrue(store.recent().size() <= CameraRecordingStore.DEFAULT_RING_CAPACITY);
+        assertTrue(all.stream().allMatch(r -> r.getStartMillis() >= now - CameraRecordingStore.DEFAULT_MAX_AGE_MILLIS));
+
+        // Doğruluk: pencere sorgusu = tüm kayıtları tarayıp süzmek
+        long oldest = all.stream().mapToLong(CameraRecording::getStartMillis).min().orElse(now);
+        for (int q = 0; q < 500; q++) {
+            long incident = oldest + (long) (random.nextDouble() * (now - oldest));
+            long from = incident - SecuritySystem.INCIDENT_WINDOW_MILLIS;
+            long to = incident + SecuritySystem.INCIDENT_WINDOW_MILLIS;
+            List<CameraRecording> result = store.findOverlapping(from, to);
+            Set<String> expected = new HashSet<>();
+            for (CameraRecording r : all) {
+                if (r.getStartMillis() <= to && (r.getEndMillis() == 0 || r.getEndMillis() >= from)) {
+                    expected.add(r.getRecordingId());
+                }
+            }
+            Set<String> actual = new HashSet<>();
+            for (CameraRecording r : result) {
+                actual.add(r.getRecordingId());
+            }
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), result.size());
+        }
+
+        // Uçtan uca: olay raporu eski bir kaydı diskten getirir
+        CameraRecording target = all.get(all.size() / 3);
+        IncidentReport report = TestSupport.quietly(() -> security.createIncidentReport("THEFT", "test",
+                clock.toLocalDateTime(target.getStartMillis() + 1), "Center Area", 0, null));
+        assertTrue(report.getRelatedRecordings().stream()
+                .anyMatch(r -> r.getRecordingId().equals(target.getRecordingId())));
+    }
+
+    // Yeniden başlatma: segment silinmez, disk indeksi dosyadan kurulur, yeni kayıtlar sona eklenir
+    @Test
+    void segmentSurvivesRestart() throws Exception {
+        SecurityCamera first = new SecurityCamera("CAM_RESTART", CameraLocation.CENTER_AREA, 0, "4K", clock);
+        CameraRecordingStore store = new CameraRecordingStore(first, 8, CameraRecordingStore.DEFAULT_MAX_AGE_MILLIS,
+                CameraRecordingStore.DEFAULT_MAX_SIZE_MB);
+        store.spillTo(directory);
+        for (int i = 0; i < 100; i++) {
+            long start = START + i * 60_000L;
+            store.add(new CameraRecording("R" + i, first, "ROUTINE", start, start + 30_000L, 10));
+        }
+        long sizeMB = store.getTotalSizeMB();
+        store.close();
+
+        SecurityCamera second = new SecurityCamera("CAM_RESTART", CameraLocation.CENTER_AREA, 0, "4K", clock);
+        CameraRecordingStore reopened = new CameraRecordingStore(second, 8,
+                CameraRecordingStore.DEFAULT_MAX_AGE_MILLIS, CameraRecordingStore.DEFAULT_MAX_SIZE_MB);
+        reopened.spillTo(directory);
+        try {
+            // Bellekteki son 8 kayıt diske inmemişti; diskteki 92 kayıt geri gelir
+            assertEquals(92, reopened.size());
+            assertEquals(sizeMB - 8 * 10, reopened.getTotalSizeMB());
+            long start = START + 200 * 60_000L;
+            for (int i = 0; i < 20; i++) {
+                reopened.add(new CameraRecording("N" + i, second, "ROUTINE", start + i, start + i + 1_000L, 10));
+            }
+            List<CameraRecording> old = reopened.findOverlapping(START, START + 1);
+            assertEquals(1, old.size());
+            assertEquals("R0", old.get(0).getRecordingId());
+            assertEquals(112, reopened.size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    // Uzun kayıt düşünce sorgu alt sınırı da küçülür
+    @Test
+    void maxDurationShrinksAfterLongClipIsEvicted() {
+        SecurityCamera local = new SecurityCamera("CAM_SHRINK", CameraLocation.CENTER_AREA, 0, "4K", clock);
+        CameraRecordingStore store = new CameraRecordingStore(local, 4, CameraRecordingStore.DEFAULT_MAX_AGE_MILLIS,
+                CameraRecordingStore.DEFAULT_MAX_SIZE_MB);
+        long longClip = 10 * 3_600_000L;
+        store.add(new CameraRecording("LONG", local, "ROUTINE", START, START + longClip, 10));
+        assertTrue(store.getMaxDurationMillis() >= longClip);
+        for (int i = 1; i <= 4; i++) {
+            long start = START + longClip + i * 60_000L;
+            store.add(new CameraRecording("S" + i, local, "ROUTINE", start, start + 30_000L, 10));
+        }
+        // Halka 4 kayıt tutar: uzun kayıt düştü, sınır kısa kayıtların süresine iner (en fazla 2 katı)
+        assertEquals(4, store.size());
+        assertTrue(store.getMaxDurationMillis() >= 30_000L && store.getMaxDurationMillis() < 60_000L,
+                "max duration " + store.getMaxDurationMillis());
+    }
+}
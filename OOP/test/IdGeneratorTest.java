@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Çok iş parçacıklı ID üretimi: çakışma olmamalı, ID'den düğüm ve zaman geri okunmalı
+class IdGeneratorTest {
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int idsPerThread = 200_000;
+        IdGenerator generator = new IdGenerator(1);
+        long[][] generated = new long[threadCount][idsPerThread];
+
+        ExecutorService workers = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final long[] target = generated[t];
+            futures.add(workers.submit(() -> {
+                start.await();
+                for (int i = 0; i < target.length; i++) {
+                    target[i] = generator.nextId();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+
+        long[] all = new long[threadCount * idsPerThread];
+        for (int t = 0; t < threadCount; t++) {
+            System.arraycopy(generated[t], 0, all, t * idsPerThread, idsPerThread);
+        }
+        Arrays.sort(all);
+        int duplicates = 0;
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) duplicates++;
+        }
+        assertEquals(0, duplicates);
+    }
+
+    @Test
+    void idCarriesNodeAndPrefixRoundTrips() {
+        IdGenerator generator = new IdGenerator(7);
+        long before = System.currentTimeMillis();
+        long id = generator.nextId();
+        assertEquals(7, IdGenerator.nodeOf(id));
+        assertEquals(before, IdGenerator.timestampOf(id), 1_000);
+        assertEquals(id, IdGenerator.parse(IdGenerator.format("T", id)));
+        assertEquals(-1, IdGenerator.parse("TICKET"));
+    }
+
+    // Bir ms'de 4096'dan fazla ID: zaman saatin önüne geçmez, saat ilerleyene kadar beklenir
+    @Test
+    void sequenceOverflowWaitsForClock() throws Exception {
+        long t0 = IdGenerator.EPOCH_MILLIS + 1_000_000;
+        AtomicLong now = new AtomicLong(t0);
+        IdGenerator generator = new IdGenerator(2, now::get);
+        for (int i = 0; i < 4096; i++) {
+            assertEquals(t0, IdGenerator.timestampOf(generator.nextId()));
+        }
+
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> overflow = worker.submit(() -> generator.nextId());
+            Thread.sleep(50);
+            assertFalse(overflow.isDone());
+            now.incrementAndGet();
+            long id = overflow.get(5, TimeUnit.SECONDS);
+            assertEquals(t0 + 1, IdGenerator.timestampOf(id));
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    // Yeniden başlatma: saati geride kalan üreteç, kurtarmada görülen ID'den sonrasını üretir
+    @Test
+    void advancePastSkipsRecoveredIds() {
+        long t0 = IdGenerator.EPOCH_MILLIS + 5_000_000;
+        long previousRun = new IdGenerator(3, () -> t0).nextId();
+
+        IdGenerator restarted = new IdGenerator(3, () -> t0 - 1_000);
+        restarted.advancePast(previousRun);
+        long id = restarted.nextId();
+        assertTrue(id > previousRun, id + " <= " + previousRun);
+        assertEquals(3, IdGenerator.nodeOf(id));
+    }
+}
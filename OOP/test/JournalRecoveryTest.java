@@ -0,0 +1,186 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Yeniden başlatma: günlükten aktif biletleri, gelir ve ziyaret sayılarını kur
+class JournalRecoveryTest {
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("parking-recovery");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws Exception {
+        TestSupport.deleteDirectory(directory);
+    }
+
+    @Test
+    void snapshotPlusTailAndFullReplayRebuildTheSameState() throws Exception {
+        int totalRecords = 100_000;
+        int activeTarget = 500;
+        int customerCount = 2_000;
+
+        // Sentetik geçmiş: araç sayısı activeTarget'a kadar dolar, sonra çıkış/giriş sırayla
+        ParkingLot layout = TestSupport.quietly(() -> new ParkingLot("Recovery Lot", "Test", 10, 500));
+        Car probe = new Car("34PRB1", "Gray", "Fiat", "Egea", 4);
+        Deque<ParkingSpot> freeSpots = new ArrayDeque<>();
+        for (Floor floor : layout.getFloors()) {
+            for (ParkingSpot spot : floor.getSpots()) {
+                if (spot.canFitVehicle(probe)) {
+                    freeSpots.add(spot);
+                }
+            }
+        }
+        TestSupport.quietly(layout::shutdown);
+
+        TransactionJournal journal = new TransactionJournal(directory);
+        JournalSnapshotter snapshotter = new JournalSnapshotter(journal, 0);
+        byte[] record = new byte[TransactionJournal.MAX_RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN);
+        Deque<Long> parked = new ArrayDeque<>();
+        Map<Long, ParkingSpot> spotOf = new HashMap<>();
+        int[] expectedVisits = new int[customerCount];
+        Random random = new Random(42);
+        long entryMillis = System.currentTimeMillis() - 30 * 60_000;
+        long expectedRevenueKurus = 0;
+        long nextTicket = 1;
+        boolean snapshotTaken = false;
+
+        while (journal.getRecordCount() < totalRecords) {
+            if (!snapshotTaken && journal.getRecordCount() >= totalRecords * 95L / 100) {
+                snapshotter.snapshotNow(); // Son %5 kuyruk olarak kalır
+                snapshotTaken = true;
+            }
+            if (parked.size() < activeTarget) {
+                long ticketId = nextTicket++;
+                int customer = (int) (ticketId % customerCount);
+                ParkingSpot spot = freeSpots.poll();
+                TransactionJournal.encode(view, 0, TransactionJournal.TYPE_ENTRY,
+                        VehicleCategory.CAR.ordinal(), TicketCategory.HOURLY.ordinal(),
+                        spot.getSpotCategory().ordinal(), spot.getFloor(), spot.getSlot(), (byte) 0,
+                        ticketId, ticketId, entryMillis, 0, "34RC" + ticketId, "C" + customer);
+                journal.appendRecord(record);
+                expectedVisits[customer]++;
+                parked.add(ticketId);
+                spotOf.put(ticketId, spot);
+            } else {
+                long ticketId = parked.poll();
+                ParkingSpot spot = spotOf.remove(ticketId);
+                long fee = 1500 + random.nextInt(5000);
+                for (byte type : new byte[]{TransactionJournal.TYPE_EXIT, TransactionJournal.TYPE_PAYMENT}) {
+                    TransactionJournal.encode(view, 0, type,
+                            VehicleCategory.CAR.ordinal(), TicketCategory.HOURLY.ordinal(),
+                            spot.getSpotCategory().ordinal(), spot.getFloor(), spot.getSlot(),
+                            type == TransactionJournal.TYPE_PAYMENT ? (byte) 1 : (byte) 0,
+                            ticketId, ticketId, entryMillis, fee, "34RC" + ticketId,
+                            "C" + (ticketId % customerCount));
+                    journal.appendRecord(record);
+                }
+                expectedRevenueKurus += fee;
+                freeSpots.add(spot);
+            }
+        }
+        journal.close();
+        assertTrue(snapshotTaken);
+
+        List<Customer> knownCustomers = new ArrayList<>();
+        for (int i = 0; i < customerCount; i++) {
+            knownCustomers.add(new Customer("C" + i, "Recovered", "05550000000",
+                    "recovery@parking.com", "34RC" + i));
+        }
+
+        // 1) Snapshot + kuyruk replay
+        recoverAndVerify(directory, knownCustomers, parked.size(), expectedRevenueKurus, expectedVisits);
+
+        // 2) Snapshot olmadan tam replay
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith("snapshot-")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        recoverAndVerify(directory, knownCustomers, parked.size(), expectedRevenueKurus, expectedVisits);
+    }
+
+    // Ziyaret sayıları sınırlı: en uzun süredir gelmeyen müşteri düşer, sıra snapshot'tan sonra da korunur
+    @Test
+    void visitCountsAreCappedByRecency() throws Exception {
+        TransactionJournal journal = new TransactionJournal(directory);
+        byte[] record = new byte[TransactionJournal.MAX_RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN);
+        String[] visits = {"A", "B", "A", "C"};
+        for (int i = 0; i < visits.length; i++) {
+            TransactionJournal.encode(view, 0, TransactionJournal.TYPE_ENTRY,
+                    VehicleCategory.CAR.ordinal(), TicketCategory.HOURLY.ordinal(), 0, 0, i, (byte) 0,
+                    i + 1, i + 1, System.currentTimeMillis(), 0, "34CAP" + i, visits[i]);
+            journal.appendRecord(record);
+        }
+        JournalRecovery state = JournalRecovery.recover(journal, 2);
+        assertEquals(Map.of("A", 2, "C", 1), state.getVisitCounts());
+
+        JournalSnapshot.write(directory, state);
+        TransactionJournal.encode(view, 0, TransactionJournal.TYPE_ENTRY,
+                VehicleCategory.CAR.ordinal(), TicketCategory.HOURLY.ordinal(), 0, 0, 9, (byte) 0,
+                10, 10, System.currentTimeMillis(), 0, "34CAP9", "D");
+        journal.appendRecord(record);
+        // Snapshot'taki sıra: A (eski), C (yeni) - D gelince A düşer
+        assertEquals(Map.of("C", 1, "D", 1), JournalRecovery.recover(journal, 2).getVisitCounts());
+        journal.close();
+    }
+
+    static void recoverAndVerify(Path directory, List<Customer> knownCustomers, int expectedActive,
+                                 long expectedRevenueKurus, int[] expectedVisits) throws Exception {
+        for (Customer customer : knownCustomers) {
+            customer.restoreVisitCount(0);
+        }
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Recovery Lot", "Test", 10, 500));
+        TransactionJournal journal = new TransactionJournal(directory);
+        parkingLot.enableJournal(journal, 0);
+        try {
+            parkingLot.recoverFromJournal(knownCustomers);
+
+            int freeSpots = 0;
+            for (Floor floor : parkingLot.getFloors()) {
+                freeSpots += floor.getAvailableSpotCount();
+            }
+            assertEquals(expectedActive, parkingLot.getOccupiedSpots());
+            assertEquals(expectedActive, parkingLot.getTotalCapacity() - freeSpots);
+            assertEquals(expectedRevenueKurus, parkingLot.getParkingRevenueKurus());
+            for (int i = 0; i < expectedVisits.length; i++) {
+                assertEquals(expectedVisits[i], knownCustomers.get(i).getVisitCount(),
+                        "visits of " + knownCustomers.get(i).getId());
+            }
+
+            // Rapor sayaçları da günlükten kurulur (kayıtlar son yarım saate ait: bugün ya da dün)
+            long entries = 0;
+            for (int visits : expectedVisits) {
+                entries += visits;
+            }
+            ParkingMetrics metrics = parkingLot.getMetrics();
+            assertEquals(entries, metrics.getLifetimeEntries());
+            assertEquals(entries, metrics.getToday().getEntries() + metrics.getPreviousDay().getEntries());
+            assertEquals(expectedRevenueKurus,
+                    metrics.getToday().getRevenueKurus() + metrics.getPreviousDay().getRevenueKurus());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+}
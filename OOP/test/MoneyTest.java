@@ -0,0 +1,46 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Kuruş aritmetiği: eşzamanlı tahsilat toplamı her thread'in kendi toplamına eşit olmalı
+class MoneyTest {
+
+    @Test
+    void concurrentRevenueReconciles() throws Exception {
+        int threadCount = 4;
+        int paymentsPerThread = 500_000;
+        MoneyAccumulator revenue = new MoneyAccumulator();
+        long[] threadTotals = new long[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int index = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(index);
+                long total = 0;
+                for (int i = 0; i < paymentsPerThread; i++) {
+                    // 0.01 - 999.99 TL arası, araç çarpanı uygulanmış ücret
+                    long fee = Money.multiplyByRate(1 + random.nextInt(99_999), 1.2);
+                    revenue.add(fee);
+                    total = Money.add(total, fee);
+                }
+                threadTotals[index] = total;
+            }, "money-" + t);
+            threads[t].start();
+        }
+        long expected = 0;
+        for (int t = 0; t < threadCount; t++) {
+            threads[t].join();
+            expected += threadTotals[t];
+        }
+        assertEquals(expected, revenue.sum());
+    }
+
+    @Test
+    void liraConversionRoundsToKurus() {
+        assertEquals(1050, Money.fromLira(10.5));
+        assertEquals(10, Money.fromLira(0.1));
+        assertEquals(30, Money.fromLira(0.1 + 0.2));
+        assertEquals("12.50", Money.format(1250));
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Özet modu: aynı filo trafiği özetsiz ve özetli; ardından küçük tamponla bellek baskısı
+class NotificationDigestTest {
+
+    @Test
+    void fleetTrafficIsCoalesced() throws Exception {
+        int fleets = 10;
+        int vehiclesPerFleet = 20;
+        int hours = 4;
+        long[] sent = new long[2];
+        for (int mode = 0; mode < 2; mode++) {
+            sent[mode] = runFleetTraffic(mode == 1, fleets, vehiclesPerFleet, hours);
+        }
+        assertTrue(sent[1] * 10 <= sent[0], sent[0] + " messages without digest, " + sent[1] + " with");
+    }
+
+    private static long runFleetTraffic(boolean digestMode, int fleets, int vehiclesPerFleet, int hours)
+            throws Exception {
+        NotificationService service = NotificationService.getInstance();
+        VirtualParkingClock clock = ParkingClock.virtual(1_700_000_000_000L);
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Digest Lot", "Test", 4, 250, clock));
+        NotificationDigest digest = digestMode
+                ? parkingLot.enableNotificationDigest(NotificationDigest.DEFAULT_WINDOW_MILLIS) : null;
+        Customer[] customers = new Customer[fleets];
+        for (int f = 0; f < fleets; f++) {
+            customers[f] = new Customer("FLEET" + f, "Fleet " + f, "0555100" + f, "fleet" + f + "@test.com", "34FL" + f);
+            if (digest != null) digest.enroll(customers[f].getId());
+        }
+        Ticket[] parked = new Ticket[fleets * vehiclesPerFleet];
+        Random random = new Random(11);
+        long before = service.getTotalSentCount();
+        TestSupport.quietly(() -> {
+            try {
+                for (int minute = 0; minute < hours * 60; minute++) {
+                    clock.advanceMillis(60_000);
+                    for (int f = 0; f < fleets; f++) {
+                        int v = f * vehiclesPerFleet + random.nextInt(vehiclesPerFleet);
+                        if (parked[v] == null) {
+                            parked[v] = parkingLot.enterVehicle(new Car("34FL" + v, "Gray", "Fiat", "Egea", 4),
+                                    customers[f], "HOURLY");
+                        } else {
+                            Ticket ticket = parked[v];
+                            long fee = ticket.calculateFeeKurus(clock.millis() - ticket.getIssueMillis());
+                            parkingLot.exitVehicle(ticket.getTicketId(),
+                                    CashPayment.ofKurus("DP" + v + "-" + minute, fee, fee));
+                            parked[v] = null;
+                        }
+                    }
+                    parkingLot.awaitSideEffects();
+                    parkingLot.runDueTimers();
+                }
+            } finally {
+                parkingLot.shutdown(); // Açık pencereler kapanışta gönderilir
+            }
+        });
+        return service.getTotalSentCount() - before;
+    }
+
+    // Bellek baskısı: 10.000 müşteri, en fazla 1.000 olay tamponda - en eski pencereler erken gönderilir
+    @Test
+    void bufferStaysBoundedUnderPressure() {
+        VirtualParkingClock clock = ParkingClock.virtual(1_700_000_000_000L);
+        long[] sunk = new long[2]; // digest, olay
+        NotificationDigest bounded = new NotificationDigest(clock, 60 * 60_000L, 1_000, 20, window -> {
+            sunk[0]++;
+            sunk[1] += window.getEventCount();
+        });
+        int maxBuffered = 0;
+        int offered = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Customer customer = new Customer("PC" + i, "Pressure " + i, "0555", "p@test.com", "34PR" + i);
+            bounded.enroll(customer.getId());
+            for (int e = 0; e < 3; e++) {
+                bounded.offerEntry(customer, "34PR" + i, "F1-S" + e, clock.millis());
+                offered++;
+            }
+            maxBuffered = Math.max(maxBuffered, bounded.getBufferedEvents());
+            clock.advanceMillis(100);
+        }
+        bounded.close();
+        assertTrue(maxBuffered <= 1_000, "max buffered " + maxBuffered);
+        assertTrue(bounded.getPressureFlushes() > 0);
+        assertEquals(offered, sunk[1]);
+        assertEquals(0, bounded.getOpenWindows());
+    }
+}
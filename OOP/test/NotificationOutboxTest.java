@@ -0,0 +1,143 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Outbox: üreticiler sağlayıcıyı beklemeden yazar; hatalara rağmen her mesaj en az bir kez teslim
+// edilmeli, sağlayıcı çökükken kuyruğa alınanlar yeniden başlatmadan sonra teslim edilmeli
+class NotificationOutboxTest {
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("parking-outbox");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws Exception {
+        TestSupport.deleteDirectory(directory);
+    }
+
+    @Test
+    void deliversEveryMessageDespiteProviderFailures() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        StubNotificationProvider provider = new StubNotificationProvider(1, 0.10, 3);
+        NotificationOutbox outbox = new NotificationOutbox(directory, provider, 50_000,
+                NotificationOutbox.DEFAULT_BATCH_SIZE, NotificationOutbox.DEFAULT_MAX_ATTEMPTS, 20);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        String id = "N" + producer + "-" + i;
+                        outbox.enqueue(i % 2 == 0
+                                ? new SMSNotification(id, "0555000" + i, "Aracınız park edildi. Bilet: " + id)
+                                : new EmailNotification(id, "user" + i + "@test.com", "Otopark Giriş Bildirimi",
+                                "Sayın müşterimiz,\n\nAracınız başarıyla park edilmiştir.\nBilet No: " + id));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertTrue(outbox.awaitDelivered(60_000));
+            int total = producers * perProducer;
+            assertEquals(total, outbox.getDeliveredCount());
+            assertEquals(total, provider.getDelivered().size());
+            assertTrue(outbox.getRetriedCount() > 0);
+        } finally {
+            pool.shutdown();
+            outbox.close();
+        }
+    }
+
+    @Test
+    void messagesQueuedWhileProviderIsDownSurviveRestart() throws Exception {
+        int messages = 5_000;
+        // Sağlayıcı çökük: mesajlar sadece kayıtta birikir, outbox kapatılır
+        StubNotificationProvider down = new StubNotificationProvider(0, 1.0, 4);
+        NotificationOutbox failing = new NotificationOutbox(directory, down, 50_000, 500, 1_000, 10);
+        for (int i = 0; i < messages; i++) {
+            failing.enqueue(new SMSNotification("R" + i, "0555111" + i, "Hatırlatma: kalan süre 2 saat"));
+        }
+        Thread.sleep(100);
+        failing.close();
+
+        // Yeniden başlatma: sağlayıcı düzeldi
+        StubNotificationProvider healthy = new StubNotificationProvider(1, 0.0, 5);
+        NotificationOutbox restarted = TestSupport.quietly(() -> new NotificationOutbox(directory, healthy));
+        try {
+            assertTrue(restarted.awaitDelivered(60_000));
+            assertEquals(messages, restarted.getRecoveredCount());
+            assertEquals(messages, healthy.getDelivered().size());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    // Kapasiteden büyük birikim: açılış hata vermemeli, boşaldıktan sonra kapasite kadar yer açılmalı
+    @Test
+    void recoveredBacklogLargerThanCapacity() throws Exception {
+        NotificationOutbox failing = new NotificationOutbox(directory, new StubNotificationProvider(0, 1.0, 7),
+                1_000, 100, 1_000, 10);
+        for (int i = 0; i < 300; i++) {
+            failing.enqueue(new SMSNotification("B" + i, "0555222" + i, "Hatırlatma"));
+        }
+        failing.close();
+
+        StubNotificationProvider healthy = new StubNotificationProvider(0, 0.0, 8);
+        NotificationOutbox restarted = TestSupport.quietly(() ->
+                new NotificationOutbox(directory, healthy, 100, 100, 8, 10));
+        try {
+            assertTrue(restarted.awaitDelivered(60_000));
+            assertEquals(300, restarted.getRecoveredCount());
+            for (int i = 0; i < 100; i++) {
+                restarted.enqueue(new SMSNotification("A" + i, "0555333" + i, "Giriş"));
+            }
+            assertTrue(restarted.awaitDelivered(60_000));
+            assertEquals(400, healthy.getDelivered().size());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    // Kapıdan geçiş sağlayıcıyı beklememeli: bildirimler outbox'tan toplu gider
+    @Test
+    void lotNotificationsGoThroughTheOutbox() throws Exception {
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Outbox Lot", "Test", 4, 250));
+        parkingLot.enableNotificationOutbox(directory, new StubNotificationProvider(50, 0.0, 6));
+        Random random = new Random(9);
+        try {
+            TestSupport.quietly(() -> {
+                for (int i = 0; i < 500; i++) {
+                    Vehicle vehicle = TestSupport.randomVehicle(random, "O" + i);
+                    Ticket ticket = parkingLot.enterVehicle(vehicle,
+                            TestSupport.customer("OC" + i, vehicle.getLicensePlate()), "HOURLY");
+                    long fee = ticket.calculateFeeKurus(0);
+                    parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("OP" + i, fee, fee));
+                }
+                parkingLot.awaitSideEffects();
+            });
+            NotificationOutbox lotOutbox = parkingLot.getNotificationOutbox();
+            assertTrue(lotOutbox.awaitDelivered(60_000));
+            assertTrue(lotOutbox.getDeliveredCount() >= 1_000);
+            assertTrue(lotOutbox.getBatchCount() < lotOutbox.getDeliveredCount());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+// Tekil servis: eşzamanlı erişimde tek örnek, sınırlı geçmiş, kayıpsız sayaçlar
+class NotificationServiceTest {
+
+    @Test
+    void concurrentLookupsSeeOneInstance() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Set<NotificationService> instances = ConcurrentHashMap.newKeySet();
+        List<Callable<Object>> lookups = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            lookups.add(() -> instances.add(NotificationService.getInstance()));
+        }
+        pool.invokeAll(lookups);
+        pool.shutdown();
+        assertEquals(1, instances.size());
+    }
+
+    @Test
+    void historyStaysBoundedAndCountersAreExact() throws Exception {
+        int threads = 4;
+        int perThread = 20_000;
+        NotificationService service = NotificationService.getInstance();
+        Customer customer = TestSupport.customer("HC1", "34HIS01");
+        Ticket ticket = new HourlyTicket("HT1", customer, new Car("34HIS01", "Gray", "Toyota", "Corolla", 4));
+        long smsBefore = service.getSentCount(NotificationChannel.SMS);
+        long pushBefore = service.getSentCount(NotificationChannel.PUSH);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        TestSupport.quietly(() -> {
+            List<Callable<Object>> senders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                senders.add(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        if (i % 4 == 0) {
+                            service.sendPaymentReminderNotification(customer, 12.5);
+                        } else {
+                            service.sendReminderNotification(customer, ticket, i % 24);
+                        }
+                    }
+                    return null;
+                });
+            }
+            pool.invokeAll(senders);
+        });
+        pool.shutdown();
+
+        long sms = service.getSentCount(NotificationChannel.SMS) - smsBefore;
+        long push = service.getSentCount(NotificationChannel.PUSH) - pushBefore;
+        assertEquals((long) threads * perThread, sms + push);
+        assertEquals(NotificationService.HISTORY_CAPACITY, service.getNotificationHistory().size());
+    }
+}
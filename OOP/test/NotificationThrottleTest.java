@@ -0,0 +1,179 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+// Alıcı başına hız sınırı ve tekrar önleme
+class NotificationThrottleTest {
+    private static final long HOUR = 3_600_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    // Kova: 10 SMS ani gönderim, saatte 10 dolum; kanal ve alıcı ayrı kovalar
+    @Test
+    void tokenBucketPerRecipientAndChannel() {
+        NotificationThrottle throttle = new NotificationThrottle();
+        int burst = 0;
+        for (int i = 0; i < 20; i++) {
+            if (throttle.tryAcquire(NotificationChannel.SMS, "C1", NotificationKind.REMINDER_SMS, "T" + i, T0)) burst++;
+        }
+        int refilled = 0;
+        for (int i = 20; i < 40; i++) {
+            if (throttle.tryAcquire(NotificationChannel.SMS, "C1", NotificationKind.REMINDER_SMS, "T" + i, T0 + HOUR / 2)) {
+                refilled++;
+            }
+        }
+        assertEquals(10, burst);
+        assertEquals(5, refilled);
+        assertTrue(throttle.tryAcquire(NotificationChannel.EMAIL, "C1", NotificationKind.ENTRY_EMAIL, "T0", T0));
+        assertTrue(throttle.tryAcquire(NotificationChannel.SMS, "C2", NotificationKind.REMINDER_SMS, "T0", T0));
+    }
+
+    // Kesirli dolum: boş kovayı dakikada bir yoklamak saatte tam 10 SMS verir (kesir kaybolmaz)
+    @Test
+    void refillKeepsFractionBetweenChecks() {
+        NotificationThrottle throttle = new NotificationThrottle();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire(NotificationChannel.SMS, "C9", NotificationKind.REMINDER_SMS, "B" + i, T0));
+        }
+        int refilled = 0;
+        for (int minute = 1; minute <= 60; minute++) {
+            if (throttle.tryAcquire(NotificationChannel.SMS, "C9", NotificationKind.REMINDER_SMS, "M" + minute,
+                    T0 + minute * 60_000L)) {
+                refilled++;
+            }
+        }
+        assertEquals(10, refilled);
+    }
+
+    // Aynı bildirimi eşzamanlı gönderen thread'lerden yalnızca biri geçer
+    @Test
+    void concurrentDuplicatesAllowedOnce() throws Exception {
+        int threads = 8;
+        for (int round = 0; round < 200; round++) {
+            NotificationThrottle throttle = new NotificationThrottle();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Callable<Boolean>> senders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                senders.add(() -> {
+                    start.await();
+                    return throttle.tryAcquire(NotificationChannel.PUSH, "C8", NotificationKind.PAYMENT_PUSH, "T1", T0);
+                });
+            }
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> sender : senders) {
+                results.add(pool.submit(sender));
+            }
+            start.countDown();
+            int passed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) passed++;
+            }
+            pool.shutdown();
+            assertEquals(1, passed);
+            assertEquals(threads - 1, throttle.getDuplicates(NotificationChannel.PUSH));
+        }
+    }
+
+    // Tekrar: aynı (alıcı, bildirim türü, bilet) pencere içinde bir kez
+    @Test
+    void duplicateSuppressedWithinWindow() {
+        NotificationThrottle throttle = new NotificationThrottle();
+        assertTrue(throttle.tryAcquire(NotificationChannel.PUSH, "C3", NotificationKind.PAYMENT_PUSH, null, T0));
+        assertFalse(throttle.tryAcquire(NotificationChannel.PUSH, "C3", NotificationKind.PAYMENT_PUSH, null, T0 + 60_000));
+        assertTrue(throttle.tryAcquire(NotificationChannel.PUSH, "C3", NotificationKind.PAYMENT_PUSH, null,
+                T0 + NotificationThrottle.DEFAULT_DEDUP_WINDOW_MILLIS));
+    }
+
+    // Servis üzerinden: aynı giriş bildirimi iki kez gönderilirse ikincisi bastırılır
+    @Test
+    void serviceSuppressesRepeatedEntryNotification() throws Exception {
+        NotificationService service = NotificationService.getInstance();
+        NotificationThrottle throttle = new NotificationThrottle();
+        NotificationRoute route = new NotificationRoute();
+        route.setThrottle(throttle);
+        Customer customer = TestSupport.customer("TC1", "34THR01");
+        Ticket ticket = new HourlyTicket("TT1", customer, new Car("34THR01", "Gray", "Fiat", "Egea", 4));
+        ParkingSpot spot = new RegularSpot("F1-S1", 1);
+        long sentBefore = service.getTotalSentCount();
+        TestSupport.quietly(() -> {
+            service.sendEntryNotification(route, customer, ticket, spot);
+            service.sendEntryNotification(route, customer, ticket, spot);
+        });
+        assertEquals(2, service.getTotalSentCount() - sentBefore);
+        assertEquals(2, throttle.getSuppressed());
+
+        // Kısıtlama sadece o gönderim yoluna ait - başka bir otoparkın gönderimi bastırılmaz
+        long otherBefore = service.getTotalSentCount();
+        TestSupport.quietly(() -> service.sendEntryNotification(new NotificationRoute(), customer, ticket, spot));
+        assertEquals(2, service.getTotalSentCount() - otherBefore);
+        assertEquals(2, throttle.getSuppressed());
+    }
+
+    // Her otopark kendi kısıtlamasını tutar; aynı otoparkta ikinci kez açmak reddedilir
+    @Test
+    void throttleIsPerLot() throws Exception {
+        ParkingLot first = TestSupport.quietly(() -> new ParkingLot("Throttle A", "Test", 1, 5));
+        ParkingLot second = TestSupport.quietly(() -> new ParkingLot("Throttle B", "Test", 1, 5));
+        try {
+            NotificationThrottle throttle = first.enableNotificationThrottle();
+            assertSame(throttle, first.getNotificationThrottle());
+            assertNull(second.getNotificationThrottle());
+            assertThrows(IllegalStateException.class, first::enableNotificationThrottle);
+        } finally {
+            TestSupport.quietly(first::shutdown);
+            TestSupport.quietly(second::shutdown);
+        }
+    }
+
+    // Bellek sınırı: tablo boyutundan çok alıcı - eski kayıtlar düşmeli
+    @Test
+    void tablesEvictInsteadOfGrowing() {
+        NotificationThrottle bounded = new NotificationThrottle();
+        int recipients = NotificationThrottle.DEFAULT_CAPACITY * 4;
+        for (int i = 0; i < recipients; i++) {
+            bounded.tryAcquire(NotificationChannel.SMS, "R" + i, NotificationKind.ENTRY_SMS, "T", T0 + i);
+        }
+        assertTrue(bounded.getEvictions() > 0);
+    }
+
+    // Eşzamanlı kontrol: her çağrı ya izin ya bastırma olarak tam bir kez sayılır
+    @Test
+    void concurrentChecksAreAllCounted() throws Exception {
+        int threads = 4;
+        int perThread = 100_000;
+        NotificationThrottle shared = new NotificationThrottle();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Callable<Object>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers.add(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int n = i * 31 + seed;
+                    NotificationChannel channel = NotificationChannel.values()[n % 3];
+                    shared.tryAcquire(channel, "HOT" + (n & 63), NotificationKind.REMINDER_SMS,
+                            "TK" + ((n >>> 6) & 1023), T0 + i * 10L);
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(workers);
+        pool.shutdown();
+        long counted = shared.getSuppressed();
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            counted += shared.getAllowed(channel);
+        }
+        assertEquals((long) threads * perThread, counted);
+    }
+}
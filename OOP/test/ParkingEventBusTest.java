@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Olay hattı: kapanışla yarışan yayınlar kaybolmamalı, durmuş kanal yayınlayanı bekletmemeli
+class ParkingEventBusTest {
+
+    private static final class CountingHandler implements ParkingEventHandler {
+        final AtomicLong entered = new AtomicLong();
+
+        @Override
+        public String getHandlerName() {
+            return "counting";
+        }
+
+        @Override
+        public void onVehicleEntered(VehicleEnteredEvent event) {
+            entered.incrementAndGet();
+        }
+    }
+
+    private static VehicleEnteredEvent event(int i) {
+        Car car = new Car("34EV" + i, "Gray", "Fiat", "Egea", 4);
+        return new VehicleEnteredEvent(new HourlyTicket("E" + i, TestSupport.customer("EC" + i, "34EV" + i), car),
+                new RegularSpot("F0-S" + i, 0));
+    }
+
+    @Test
+    void publishesRacingShutdownAreAllHandled() throws Exception {
+        int publishers = 4;
+        int perPublisher = 20_000;
+        CountingHandler handler = new CountingHandler();
+        ParkingEventBus bus = new ParkingEventBus();
+        bus.register(handler, 64); // Küçük kuyruk: yayınlayanlar da bekler
+        VehicleEnteredEvent sample = event(0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(publishers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perPublisher; i++) {
+                    bus.publish(sample);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        Thread.sleep(5);
+        bus.shutdown(5, TimeUnit.SECONDS); // Yayınlar sürerken
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(bus.isShutdown());
+        assertEquals((long) publishers * perPublisher, handler.entered.get());
+        ParkingEventBus.HandlerChannel channel = bus.getChannels().get(0);
+        assertEquals(channel.getPublishedCount(), channel.getProcessedCount());
+    }
+
+    @Test
+    void publishAfterShutdownRunsOnCaller() throws Exception {
+        CountingHandler handler = new CountingHandler();
+        ParkingEventBus bus = new ParkingEventBus();
+        bus.register(handler, 1);
+        bus.shutdown(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            bus.publish(event(i)); // Kuyruk kapasitesi 1: put() ile bekleseydi takılırdı
+        }
+        assertEquals(10, handler.entered.get());
+    }
+}
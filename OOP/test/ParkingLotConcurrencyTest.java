@@ -0,0 +1,133 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Çok kapılı eşzamanlı giriş/çıkış: çift rezervasyon, kayıp gelir ve yaşam döngüsü
+class ParkingLotConcurrencyTest {
+
+    @Test
+    void concurrentGatesNeverDoubleBookOrLoseRevenue() throws Exception {
+        int gateCount = 8;
+        int entriesPerGate = 2_000;
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Stress Lot", "Test", 10, 500));
+        ConcurrentHashMap<ParkingSpot, Vehicle> claimedSpots = new ConcurrentHashMap<>();
+        MoneyAccumulator expectedRevenue = new MoneyAccumulator();
+        AtomicLong violations = new AtomicLong();
+
+        ExecutorService gates = Executors.newFixedThreadPool(gateCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int g = 0; g < gateCount; g++) {
+            final int gate = g;
+            futures.add(gates.submit(() -> {
+                Random random = new Random(gate);
+                Deque<Ticket> parked = new ArrayDeque<>();
+                start.await();
+                for (int i = 0; i < entriesPerGate; i++) {
+                    Vehicle vehicle = TestSupport.randomVehicle(random, gate + "-" + i);
+                    Customer customer = TestSupport.customer("C" + gate + "-" + i, vehicle.getLicensePlate());
+                    try {
+                        Ticket ticket = parkingLot.enterVehicle(vehicle, customer, "HOURLY");
+                        if (claimedSpots.putIfAbsent(ticket.getAssignedSpot(), vehicle) != null) {
+                            violations.incrementAndGet();
+                        }
+                        parked.add(ticket);
+                    } catch (SpotNotAvailableException e) {
+                        // Dolu - kapı bir sonraki araca geçer
+                    }
+                    // Yarı yarıya çıkış yap, kuyruk çok uzarsa boşalt
+                    while (!parked.isEmpty() && (random.nextBoolean() || parked.size() > 50)) {
+                        Ticket ticket = parked.poll();
+                        long fee = ticket.calculateFeeKurus(0);
+                        // Yer serbest kalmadan önce kayıttan düş
+                        claimedSpots.remove(ticket.getAssignedSpot());
+                        parkingLot.exitVehicle(ticket.getTicketId(),
+                                CashPayment.ofKurus("P" + ticket.getTicketId(), fee, fee));
+                        expectedRevenue.add(fee);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        try {
+            TestSupport.quietly(() -> {
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            });
+
+            int occupied = 0;
+            int indexedFree = 0;
+            int totalSpots = 0;
+            for (Floor floor : parkingLot.getFloors()) {
+                for (ParkingSpot spot : floor.getSpots()) {
+                    totalSpots++;
+                    if (spot.isOccupied()) occupied++;
+                }
+                indexedFree += floor.getAvailableSpotCount();
+            }
+            assertEquals(0, violations.get(), "double-booked spots");
+            assertEquals(occupied, parkingLot.getOccupiedSpots());
+            assertEquals(occupied, claimedSpots.size());
+            assertEquals(totalSpots - occupied, indexedFree);
+            assertEquals(expectedRevenue.sum(), parkingLot.getParkingRevenueKurus());
+        } finally {
+            gates.shutdown();
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+
+    // Kapatılan otoparkın servisleri (güvenlik, olay hattı dinleyicileri) bellekte kalmamalı
+    @Test
+    void shutDownLotsBecomeUnreachable() throws Exception {
+        int lotCount = 20;
+        List<WeakReference<SecuritySystem>> references = new ArrayList<>();
+        TestSupport.quietly(() -> {
+            for (int i = 0; i < lotCount; i++) {
+                ParkingLot lot = new ParkingLot("Lifecycle " + i, "Test", 2, 10);
+                references.add(new WeakReference<>(lot.getSecuritySystem()));
+                lot.shutdown();
+            }
+        });
+        long alive = lotCount;
+        for (int i = 0; i < 10 && alive > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+            alive = references.stream().filter(reference -> reference.get() != null).count();
+        }
+        assertEquals(0, alive, "shut down lots still reachable");
+    }
+
+    // Geçmiş kopyası: kapılar eklerken gezinmek ConcurrentModificationException vermemeli
+    @Test
+    void transactionHistoryIsASnapshot() throws Exception {
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("History Lot", "Test", 2, 50));
+        try {
+            Car car = new Car("34HS01", "Gray", "Fiat", "Egea", 4);
+            Ticket ticket = TestSupport.quietly(() ->
+                    parkingLot.enterVehicle(car, TestSupport.customer("H1", "34HS01"), "HOURLY"));
+            List<Transaction> before = parkingLot.getTransactionHistory();
+            long fee = ticket.calculateFeeKurus(0);
+            TestSupport.quietly(() -> parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("PH1", fee, fee)));
+            assertEquals(1, before.size());
+            assertTrue(parkingLot.getTransactionHistory().size() > before.size());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import org.junit.jupiter.api.Test;
+
+// Günlük rapor sayaçları: trafikle birebir, gün değişiminde sıfırlanır
+class ParkingMetricsTest {
+
+    @Test
+    void countersMatchTraffic() throws Exception {
+        int cycles = 5_000;
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Report Lot", "Test", 4, 250));
+        try {
+            TestSupport.quietly(() -> {
+                for (int i = 0; i < cycles; i++) {
+                    Car car = new Car("34RP" + i, "Gray", "Fiat", "Egea", 4);
+                    Ticket ticket = parkingLot.enterVehicle(car, TestSupport.customer("C" + i, car.getLicensePlate()),
+                            "HOURLY");
+                    long fee = ticket.calculateFeeKurus(0);
+                    parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("P" + i, fee, fee));
+                }
+                parkingLot.generateDailyReport();
+            });
+            DailyCounters today = parkingLot.getMetrics().getToday();
+            // Gece yarısı geçildiyse sayaçlar iki güne bölünür
+            DailyCounters yesterday = parkingLot.getMetrics().getPreviousDay();
+            long entries = today.getEntries() + yesterday.getEntries();
+            assertEquals(cycles, entries);
+            assertEquals(cycles, parkingLot.getMetrics().getLifetimeEntries());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+
+    @Test
+    void dayRolloverKeepsPreviousDay() {
+        ParkingMetrics metrics = new ParkingMetrics(1);
+        long midnight = LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault())
+                .toInstant().toEpochMilli();
+        ParkingSpot spot = new RegularSpot("F0-S1", 0);
+        metrics.recordEntry(midnight - 1, spot);
+        metrics.recordEntry(midnight + 1, spot);
+        metrics.recordExit(midnight + 2, Money.ofLira(10));
+        assertNotNull(metrics.getPreviousDay());
+        assertEquals(1, metrics.getPreviousDay().getEntries());
+        assertEquals(2, metrics.getLifetimeEntries());
+    }
+
+    // "Dün" takvim günüdür: arada trafiksiz gün varsa sıfır, son trafikli gün değil
+    @Test
+    void previousDayIsCalendarYesterday() {
+        ZoneId zone = ZoneId.of("Europe/Istanbul");
+        long monday = LocalDate.of(2024, 6, 3).atStartOfDay(zone).toInstant().toEpochMilli();
+        VirtualParkingClock clock = new VirtualParkingClock(zone, monday + 3_600_000L);
+        ParkingMetrics metrics = new ParkingMetrics(1, clock);
+        ParkingSpot spot = new RegularSpot("F0-S1", 0);
+        metrics.recordEntry(clock.millis(), spot);
+
+        clock.setMillis(monday + 2 * 86_400_000L + 3_600_000L); // Çarşamba, salı trafiksiz
+        assertEquals(LocalDate.of(2024, 6, 4), metrics.getPreviousDay().getDate());
+        assertEquals(0, metrics.getPreviousDay().getEntries());
+
+        metrics.recordEntry(clock.millis(), spot);
+        clock.setMillis(monday + 3 * 86_400_000L + 3_600_000L); // Perşembe
+        assertEquals(LocalDate.of(2024, 6, 5), metrics.getPreviousDay().getDate());
+        assertEquals(1, metrics.getPreviousDay().getEntries());
+    }
+
+    // Yaz saati günlerinde saat dilimi yerel saatten alınır
+    @Test
+    void hourBucketsFollowLocalTimeOnDstDays() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        ParkingSpot spot = new RegularSpot("F0-S1", 0);
+
+        // İleri alma: gece yarısından 3,5 saat sonra yerel saat 04:30
+        long spring = LocalDate.of(2024, 3, 10).atStartOfDay(zone).toInstant().toEpochMilli();
+        ParkingMetrics springMetrics = new ParkingMetrics(1, new VirtualParkingClock(zone, spring));
+        springMetrics.recordEntry(spring + 3 * 3_600_000L + 1_800_000L, spot);
+        assertEquals(1, springMetrics.getToday().getEntriesInHour(4));
+
+        // Geri alma: 01:30 iki kez yaşanır, ikisi de 01 diliminde
+        long fall = LocalDate.of(2024, 11, 3).atStartOfDay(zone).toInstant().toEpochMilli();
+        ParkingMetrics fallMetrics = new ParkingMetrics(1, new VirtualParkingClock(zone, fall));
+        fallMetrics.recordExit(fall + 1_800_000L * 3, 0);
+        fallMetrics.recordExit(fall + 1_800_000L * 5, 0);
+        assertEquals(2, fallMetrics.getToday().getExitsInHour(1));
+        assertEquals(0, fallMetrics.getToday().getExitsInHour(2));
+    }
+}
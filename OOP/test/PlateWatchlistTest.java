@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// İzleme listesi: gece yeniden yüklemesi sürerken iki nesilde de listede olan plaka hiçbir an
+// "yok" dönmemeli; girişte otomatik olay raporu açılmalı
+class PlateWatchlistTest {
+
+    @Test
+    void reloadNeverHidesPlatesListedInBothGenerations() throws Exception {
+        int plateCount = 200_000;
+        Random random = new Random(25);
+        List<String> stable = new ArrayList<>(plateCount);
+        for (int i = 0; i < plateCount; i++) {
+            stable.add(String.format("%02d%c%c%04d", 1 + i % 81, (char) ('A' + random.nextInt(26)),
+                    (char) ('A' + random.nextInt(26)), i % 10_000));
+        }
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            removed.add("82RM" + i); // Sadece 1. nesilde
+            added.add("83AD" + i);   // Sadece 2. nesilde
+        }
+        PlateWatchlist watchlist = new PlateWatchlist();
+        List<String> first = new ArrayList<>(stable);
+        first.addAll(removed);
+        TestSupport.quietly(() -> watchlist.reload(first, WatchlistReason.STOLEN));
+
+        // 2. nesil gece dosyası: "PLAKA,NEDEN"
+        Path file = Files.createTempFile("watchlist", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# nightly export\n");
+            for (String plate : stable) {
+                writer.write(plate);
+                writer.write(",STOLEN\n");
+            }
+            for (String plate : added) {
+                writer.write(plate.substring(0, 2) + " " + plate.substring(2) + ",banned\n"); // Boşluklu yazım
+            }
+        }
+
+        AtomicLong falseNegatives = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            Random readerRandom = new Random(r);
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                while (!stop.get()) {
+                    String plate = stable.get(readerRandom.nextInt(stable.size()));
+                    if (watchlist.check(plate) != WatchlistReason.STOLEN) falseNegatives.incrementAndGet();
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        int reloaded;
+        try {
+            started.await();
+            reloaded = TestSupport.quietly(() -> watchlist.reload(file));
+            Thread.sleep(50);
+        } finally {
+            stop.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            Files.delete(file);
+        }
+
+        assertEquals(0, falseNegatives.get());
+        assertEquals(new HashSet<>(stable).size() + added.size(), reloaded);
+        for (String plate : added) {
+            assertEquals(WatchlistReason.BANNED, watchlist.check(plate), plate);
+        }
+        for (String plate : removed) {
+            assertFalse(watchlist.isListed(plate), plate);
+        }
+        assertNull(watchlist.check("34ZZ9999"));
+    }
+
+    // 1M plakada liste HashSet<String>'in üçte birinden az yer tutmalı (tablo heap dışında, GC taramaz)
+    @Test
+    void millionPlatesFitInAThirdOfHashSetMemory() throws Exception {
+        int plateCount = 1_000_000;
+        PlateWatchlist watchlist = new PlateWatchlist();
+        TestSupport.quietly(() -> watchlist.reload(millionPlates(plateCount), WatchlistReason.STOLEN));
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        HashSet<String> hashSet = new HashSet<>(millionPlates(plateCount));
+        System.gc();
+        long hashSetBytes = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+
+        assertEquals(plateCount, hashSet.size());
+        assertEquals(plateCount, watchlist.size());
+        assertTrue(watchlist.getMemoryBytes() * 3 < hashSetBytes,
+                "watchlist " + watchlist.getMemoryBytes() / 1024 + " KB, HashSet " + hashSetBytes / 1024 + " KB");
+    }
+
+    private static List<String> millionPlates(int plateCount) {
+        List<String> plates = new ArrayList<>(plateCount);
+        for (int i = 0; i < plateCount; i++) {
+            plates.add(String.format("%02d%c%c%c%d", 1 + i % 81, (char) ('A' + i / 81 % 26),
+                    (char) ('A' + i / 2106 % 26), (char) ('A' + i / 54756 % 26), i % 1000));
+        }
+        return plates;
+    }
+
+    // Uçtan uca: listedeki araç girer, görevli olmadan da rapor açılır
+    @Test
+    void listedVehicleEntryRaisesIncident() throws Exception {
+        List<IncidentReport> reports = TestSupport.quietly(() -> {
+            SecuritySystem security = new SecuritySystem();
+            security.initializeCameras(2);
+            security.getWatchlist().reload(List.of("06 STL 42"), WatchlistReason.STOLEN);
+            security.logVehicleEntry(new Car("34AB123", "Gray", "Fiat", "Egea", 4), new RegularSpot("F1-S1", 1));
+            security.logVehicleEntry(new Car("06STL42", "Black", "Ford", "Focus", 4), new RegularSpot("F1-S2", 1));
+            return security.getIncidentReports();
+        });
+        assertEquals(1, reports.size());
+        IncidentReport incident = reports.get(0);
+        assertEquals("STOLEN_VEHICLE", incident.getIncidentType());
+        assertEquals("CRITICAL", incident.getSeverity());
+        assertTrue(incident.getInvolvedVehicles().contains("06STL42"));
+        assertFalse(incident.getRelatedRecordings().isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Dakika bazlı simüle trafik: aralık sorguları ham olayların toplamıyla aynı olmalı
+class RollupStoreTest {
+
+    @Test
+    void rangeQueriesMatchSimulatedTraffic() {
+        int days = 60;
+        ZoneId zone = ZoneId.systemDefault();
+        RollupStore rollups = new RollupStore(zone);
+        long minute = RollupResolution.MINUTE.getWidthMillis();
+        long end = LocalDate.now().atStartOfDay(zone).toInstant().toEpochMilli();
+        long start = LocalDate.now().minusDays(days).atStartOfDay(zone).toInstant().toEpochMilli();
+        long recentFrom = LocalDate.now().minusDays(20).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        SpotCategory[] spotTypes = SpotCategory.values();
+        VehicleCategory[] vehicleTypes = VehicleCategory.values();
+        // Bekleyen çıkışlar: {çıkış zamanı, yer tipi, araç tipi}
+        PriorityQueue<long[]> departures = new PriorityQueue<>(Comparator.comparingLong(d -> d[0]));
+        Random random = new Random(7);
+        long expectedRevenue = 0;
+        long[] expectedRecentBySpot = new long[spotTypes.length];
+        long entries = 0;
+
+        for (long time = start; time < end; time += minute) {
+            while (!departures.isEmpty() && departures.peek()[0] <= time) {
+                long[] departure = departures.poll();
+                long fee = 1500 + random.nextInt(5000);
+                rollups.recordExit(departure[0], spotTypes[(int) departure[1]],
+                        vehicleTypes[(int) departure[2]], fee);
+                expectedRevenue += fee;
+                if (departure[0] >= recentFrom) {
+                    expectedRecentBySpot[(int) departure[1]] += fee;
+                }
+            }
+            int arrivals = random.nextInt(5);
+            for (int i = 0; i < arrivals; i++) {
+                int spot = random.nextInt(spotTypes.length);
+                int vehicle = random.nextInt(vehicleTypes.length);
+                long arrival = time + random.nextInt((int) minute);
+                rollups.recordEntry(arrival, spotTypes[spot], vehicleTypes[vehicle]);
+                long departure = arrival + (30 + random.nextInt(270)) * minute;
+                if (departure < end) {
+                    departures.add(new long[]{departure, spot, vehicle});
+                }
+                entries++;
+            }
+        }
+
+        // Son 20 gün, saatlik, park yeri tipine göre gelir
+        long[][] hourly = rollups.seriesBySpotCategory(RollupResolution.HOUR, recentFrom, end,
+                RollupMetric.REVENUE_KURUS);
+        for (int s = 0; s < spotTypes.length; s++) {
+            long sum = 0;
+            for (long[] bucket : hourly) {
+                sum += bucket[s];
+            }
+            assertEquals(expectedRecentBySpot[s], sum, "revenue of " + spotTypes[s]);
+        }
+
+        // Tüm dönem, birleştirilmiş kovalarla tek toplam
+        RollupTotals total = rollups.total(start, end, null, null);
+        assertEquals(expectedRevenue, total.getRevenueKurus());
+        assertEquals(entries, total.getEntries());
+    }
+}
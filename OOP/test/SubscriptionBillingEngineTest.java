@@ -0,0 +1,143 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Toplu abonelik yenilemesi: temiz tur, yarıda çöken tur + yeniden başlatma, tek tahsilat.
+// Sağlayıcı her gönderimi tahsil eder (ID tekrarını ayıklamaz); müşteri başına sayılır,
+// ikinci tahsilat çift çekim sayılır. Belirsiz ödemeler ekstreye göre kapatılır.
+class SubscriptionBillingEngineTest {
+
+    @Test
+    void crashedRunResumesWithoutChargingTwice() throws Exception {
+        int customerCount = 5_000;
+        int crashAfterGroups = 1_500;
+        long startMillis = LocalDate.of(2025, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        VirtualParkingClock clock = ParkingClock.virtual(startMillis);
+        clock.advance(Duration.ofDays(62));
+        long asOf = clock.millis();
+
+        // Beklenen tahsilat: aynı abonelik kümesinden, motordan bağımsız hesap
+        long expectedKurus = 0;
+        Set<String> dueCustomers = new HashSet<>();
+        for (Ticket ticket : createSubscriptions(customerCount, clock).dueUntil(asOf)) {
+            expectedKurus += SubscriptionBillingEngine.computeRenewal(ticket, asOf).chargeKurus;
+            dueCustomers.add(ticket.getCustomer().getId());
+        }
+
+        // 1) Temiz tur
+        Path cleanDirectory = Files.createTempDirectory("parking-billing");
+        BillingRunResult clean;
+        try (SubscriptionBillingEngine engine = billingEngine(createSubscriptions(customerCount, clock),
+                cleanDirectory, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), -1)) {
+            clean = engine.runBilling(asOf);
+        } finally {
+            TestSupport.deleteDirectory(cleanDirectory);
+        }
+        assertEquals(expectedKurus, clean.getCollectedKurus());
+        assertEquals(0, clean.getFailedPayments());
+
+        // 2) Çöken tur: crashAfterGroups ödemeden sonra süreç "ölür", tampondaki kayıtlar kaybolur
+        Path directory = Files.createTempDirectory("parking-billing");
+        ConcurrentHashMap<String, Long> ledger = new ConcurrentHashMap<>();      // ödeme ID -> tahsil edilen
+        ConcurrentHashMap<String, Integer> charges = new ConcurrentHashMap<>();  // müşteri -> tahsilat sayısı
+        try {
+            SubscriptionBillingEngine crashing = billingEngine(createSubscriptions(customerCount, clock), directory,
+                    ledger, charges, crashAfterGroups);
+            assertThrows(RuntimeException.class, () -> crashing.runBilling(asOf));
+
+            // 3) Yeniden başlatma: abonelikler eski hâliyle yüklenir, kayıttan kurtarılır ve tur tamamlanır.
+            // Belirsiz ödemeler sağlayıcı ekstresiyle kapatılır; tahsil edilmemişler sonraki turda alınır.
+            SubscriptionExpiryIndex index = createSubscriptions(customerCount, clock);
+            try (SubscriptionBillingEngine engine = billingEngine(index, directory, ledger, charges, -1)) {
+                BillingRecoveryResult recovery = engine.recover();
+                assertNotNull(recovery.getResumedRun());
+                Map<String, Long> unresolved = engine.getInDoubtPayments();
+                assertEquals(unresolved.size(), recovery.getInDoubtPayments());
+                for (String paymentId : unresolved.keySet()) {
+                    engine.resolveInDoubt(paymentId, ledger.containsKey(paymentId));
+                }
+                engine.runBilling(asOf);
+            }
+            assertTrue(index.getNextExpiryMillis() > asOf, "all due subscriptions renewed");
+        } finally {
+            TestSupport.deleteDirectory(directory);
+        }
+
+        long ledgerKurus = 0;
+        for (long amount : ledger.values()) {
+            ledgerKurus += amount;
+        }
+        assertEquals(0, charges.values().stream().filter(count -> count > 1).count(), "customers charged twice");
+        assertEquals(dueCustomers.size(), charges.size());
+        assertEquals(expectedKurus, ledgerKurus);
+    }
+
+    // Her müşteriye aylık abonelik; her 3. müşteriye VIP, her 10.'na yıllık. Başlangıçlar 30 güne yayılır.
+    private static SubscriptionExpiryIndex createSubscriptions(int customerCount, VirtualParkingClock clock) {
+        long base = clock.millis() - Duration.ofDays(62).toMillis();
+        SubscriptionExpiryIndex index = new SubscriptionExpiryIndex();
+        for (int i = 0; i < customerCount; i++) {
+            String plate = "34SB" + i;
+            Customer customer = new Customer("SC" + i, "Subscriber", "05550000000", "sub@test.com", plate);
+            Vehicle vehicle = new Car(plate, "Gray", "Toyota", "Corolla", 4);
+            long issued = base + (i % 30) * 86_400_000L + (i % 24) * 3_600_000L;
+            index.add(new MonthlySubscription("SM" + i, customer, vehicle, clock, issued));
+            if (i % 3 == 0) {
+                index.add(new VIPMembership("SV" + i, customer, vehicle, clock, issued));
+            }
+            if (i % 10 == 0) {
+                index.add(new YearlySubscription("SY" + i, customer, vehicle, i % 20 == 0, clock, issued));
+            }
+        }
+        return index;
+    }
+
+    // crashAfterGroups >= 0: o kadar ödemeden sonra istisna fırlatır (çökme benzetimi)
+    private static SubscriptionBillingEngine billingEngine(SubscriptionExpiryIndex index, Path directory,
+                                                           ConcurrentHashMap<String, Long> ledger,
+                                                           ConcurrentHashMap<String, Integer> charges,
+                                                           int crashAfterGroups) throws IOException {
+        AtomicLong issued = new AtomicLong();
+        return new SubscriptionBillingEngine(index, directory, ForkJoinPool.commonPool(),
+                SubscriptionBillingEngine.DEFAULT_SYNC_EVERY, (group, paymentId) -> {
+                    if (crashAfterGroups >= 0 && issued.incrementAndGet() > crashAfterGroups) {
+                        throw new IllegalStateException("Simulated crash");
+                    }
+                    return new Payment(paymentId, group.getTotalKurus()) {
+                        @Override
+                        public boolean validate() {
+                            return true;
+                        }
+
+                        @Override
+                        public String getPaymentMethod() {
+                            return "Ledger";
+                        }
+
+                        @Override
+                        public boolean processPayment(long amountKurus) {
+                            // Her gönderim tahsil edilir - aynı ID tekrar gelirse tutar iki kez yazılır
+                            ledger.merge(getPaymentId(), amountKurus, Long::sum);
+                            charges.merge(group.getCustomer().getId(), 1, Integer::sum);
+                            setSuccessful(true);
+                            return true;
+                        }
+                    };
+                });
+    }
+}
@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Tarife tablosu eski double formülle aynı kuruşu vermeli; yeniden yükleme karışık ücret üretmemeli
+class TariffTableTest {
+
+    @Test
+    void tableMatchesLegacyFormula() throws Exception {
+        ParkingLot layout = TestSupport.quietly(() -> new ParkingLot("Tariff Lot", "Test", 4, 250));
+        List<ParkingSpot> spots = new ArrayList<>();
+        for (Floor floor : layout.getFloors()) {
+            spots.addAll(floor.getSpots());
+        }
+        TestSupport.quietly(layout::shutdown);
+
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            Vehicle vehicle = TestSupport.randomVehicle(random, String.valueOf(i));
+            Customer customer = TestSupport.customer("TC" + i, vehicle.getLicensePlate());
+            Ticket ticket = random.nextBoolean()
+                    ? new HourlyTicket("T" + i, customer, vehicle)
+                    : new DailyTicket("T" + i, customer, vehicle);
+            ticket.setAssignedSpot(spots.get(random.nextInt(spots.size())));
+            long duration = (long) (random.nextDouble() * 5 * 86_400_000L);
+            assertEquals(Math.round(legacyFee(ticket, duration) * 100), ticket.calculateFeeKurus(duration),
+                    "fee of " + ticket.getTicketId());
+        }
+    }
+
+    // Okuyucu thread her ücreti eski ya da yeni tarifeyle görmeli, karışık değil
+    @Test
+    void hotReloadIsAtomic() throws Exception {
+        Customer customer = TestSupport.customer("TR1", "34TR01");
+        Ticket probe = new HourlyTicket("TR1", customer, new Car("34TR01", "Gray", "Fiat", "Egea", 4));
+        probe.setAssignedSpot(new RegularSpot("F1-S1", 1));
+        TariffTable table = TariffTable.getDefault();
+        TariffRates original = table.getRates();
+        TariffRates doubled = original.withRate(TicketCategory.HOURLY,
+                original.getUnitRateKurus(TicketCategory.HOURLY) * 2);
+        long before = probe.calculateFeeKurus(3_600_000L);
+        AtomicLong inconsistent = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 500_000; i++) {
+                long fee = probe.calculateFeeKurus(3_600_000L);
+                if (fee != before && fee != before * 2) {
+                    inconsistent.incrementAndGet();
+                }
+            }
+        });
+        try {
+            TestSupport.quietly(() -> {
+                reader.start();
+                for (int i = 0; i < 200; i++) {
+                    table.reload(i % 2 == 0 ? doubled : original);
+                }
+                reader.join();
+            });
+        } finally {
+            TestSupport.quietly(() -> table.reload(original));
+        }
+        assertEquals(0, inconsistent.get());
+        assertEquals(before, probe.calculateFeeKurus(3_600_000L));
+    }
+
+    // Tablodan önceki ücret formülü
+    static double legacyFee(Ticket ticket, long parkingMillis) {
+        double rate;
+        long units;
+        if (ticket instanceof HourlyTicket) {
+            rate = 100;
+            units = parkingMillis / 3_600_000L;
+        } else {
+            rate = 500;
+            units = parkingMillis / 86_400_000L;
+        }
+        if (units == 0) units = 1;
+        double spotMultiplier = ticket.getAssignedSpot() != null ?
+                legacySpotMultiplier(ticket.getAssignedSpot().getSpotCategory()) : 1.0;
+        return units * rate * legacyVehicleMultiplier(ticket.getVehicle().getVehicleCategory()) * spotMultiplier;
+    }
+
+    // Alt sınıflarda sabit duran eski çarpanlar
+    private static double legacyVehicleMultiplier(VehicleCategory category) {
+        switch (category) {
+            case MOTORCYCLE: return 0.5;
+            case VAN: return 1.5;
+            case TRUCK: return 2.0;
+            case ELECTRIC: return 1.2;
+            default: return 1.0;
+        }
+    }
+
+    private static double legacySpotMultiplier(SpotCategory category) {
+        switch (category) {
+            case DISABLED: return 0.5;
+            case COMPACT: return 0.8;
+            case VIP: return 2.5;
+            case ELECTRIC: return 1.8;
+            default: return 1.0;
+        }
+    }
+
+    // Araç ve yer çarpanları tarifeden okunur: yeniden yükleme eski double hesaba da yansır
+    @Test
+    void multipliersFollowReloadedRates() {
+        TariffTable table = TariffTable.getDefault();
+        TariffRates original = table.getRates();
+        Van van = new Van("34VN01", "White", "Ford", "Transit", 9);
+        VIPSpot spot = new VIPSpot("F1-V1", 1, false);
+        assertEquals(1.5, van.getSizeMultiplier());
+        assertEquals(2.5, spot.getPriceMultiplier());
+        long version = table.reload(original.withVehicleMultiplier(VehicleCategory.VAN, 1.75)
+                .withSpotMultiplier(SpotCategory.VIP, 3.0));
+        try {
+            assertEquals(version, table.getVersion());
+            assertEquals(1.75, van.getSizeMultiplier());
+            assertEquals(3.0, spot.getPriceMultiplier());
+        } finally {
+            table.reload(original);
+        }
+        assertEquals(1.5, van.getSizeMultiplier());
+    }
+}
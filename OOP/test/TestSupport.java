@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+// Testlerin ortak yardımcıları - konsol susturma, geçici dizin, rastgele araç
+final class TestSupport {
+    private TestSupport() {
+    }
+
+    // Servislerin konsol çıktısı test raporunu doldurmasın
+    static <T> T quietly(Callable<T> action) throws Exception {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return action.call();
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    static void quietly(ThrowingRunnable action) throws Exception {
+        quietly(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    static Vehicle randomVehicle(Random random, String suffix) {
+        String plate = "34ST" + suffix;
+        switch (random.nextInt(4)) {
+            case 0:
+                return new Motorcycle(plate, "Black", "Honda", "CBR", 600);
+            case 1:
+                return new Van(plate, "White", "Ford", "Transit", 9);
+            default:
+                return new Car(plate, "Gray", "Toyota", "Corolla", 4);
+        }
+    }
+
+    static Customer customer(String id, String plate) {
+        return new Customer(id, "Test Customer", "05550000000", "test@parking.com", plate);
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Otopark entegrasyonu: günlük ve aylık biletler, bir kısmı çıkış yapar, bir kısmı yenilenir
+class TicketExpirySchedulerTest {
+
+    @Test
+    void remindersAndExpiriesFireOnceAndRenewalsReschedule() throws Exception {
+        int ticketsPerType = 100;
+        long startMillis = LocalDate.of(2025, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        VirtualParkingClock clock = ParkingClock.virtual(startMillis);
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Timer Lot", "Test", 4, 250, clock));
+        Random random = new Random(5);
+
+        List<Ticket> daily = new ArrayList<>();
+        List<Ticket> monthly = new ArrayList<>();
+        int[] renewed = new int[1];
+        try {
+            TestSupport.quietly(() -> {
+                for (int i = 0; i < ticketsPerType * 2; i++) {
+                    String type = i % 2 == 0 ? "DAILY" : "MONTHLY";
+                    Vehicle vehicle = TestSupport.randomVehicle(random, "X" + i);
+                    Customer customer = TestSupport.customer("XC" + i, vehicle.getLicensePlate());
+                    (i % 2 == 0 ? daily : monthly).add(parkingLot.enterVehicle(vehicle, customer, type));
+                }
+                // Her 4. günlük bilet erken çıkar: zamanlayıcısı iptal edilmeli
+                for (int i = 0; i < daily.size(); i += 4) {
+                    long fee = daily.get(i).calculateFeeKurus(0);
+                    parkingLot.exitVehicle(daily.get(i).getTicketId(), CashPayment.ofKurus("XP" + i, fee, fee));
+                }
+
+                SubscriptionExpiryIndex index = parkingLot.getSubscriptionIndex();
+                for (int hour = 1; hour <= 40 * 24; hour++) {
+                    clock.advance(Duration.ofHours(1));
+                    // 20. gün: aylık biletlerin yarısı yenilenir - bitiş olayı gelmemeli
+                    if (hour == 20 * 24) {
+                        for (int i = 0; i < monthly.size(); i += 2) {
+                            Renewable subscription = (Renewable) monthly.get(i);
+                            if (index.renew(monthly.get(i), subscription.expiryAfter(1))) renewed[0]++;
+                        }
+                    }
+                    parkingLot.runDueTimers();
+                }
+                parkingLot.awaitSideEffects();
+            });
+
+            TicketExpiryScheduler scheduler = parkingLot.getExpiryScheduler();
+            int parkedDaily = daily.size() - (daily.size() + 3) / 4;
+            int expiredMonthly = monthly.size() - renewed[0];
+            // Günlük: 24 saat hatırlatması kesimde geçmiş sayılır -> sadece 2 saat + bitiş.
+            // Yenilenenlerin hatırlatmaları yeni bitişe (pencere dışına) kayar.
+            assertEquals(parkedDaily + 2L * expiredMonthly, scheduler.getRemindersFired());
+            assertEquals(parkedDaily + expiredMonthly, scheduler.getExpiriesFired());
+            assertEquals(renewed[0], scheduler.getLiveTimers());
+            assertEquals(renewed[0], scheduler.getRescheduled());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+
+    // Gerçek saat: thread ilk abonelik biletine kadar açılmaz, shutdown() sonrası yeniden açılmaz
+    @Test
+    void realClockTickerStartsOnFirstSubscriptionAndStopsOnShutdown() throws Exception {
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Lazy Lot", "Test", 2, 10));
+        TicketExpiryScheduler scheduler = parkingLot.getExpiryScheduler();
+        try {
+            assertFalse(scheduler.isRunning());
+            TestSupport.quietly(() -> parkingLot.enterVehicle(new Car("34LZ1", "Gray", "Fiat", "Egea", 4),
+                    TestSupport.customer("LZ1", "34LZ1"), "HOURLY"));
+            assertFalse(scheduler.isRunning()); // Saatlik bilet süresiz: zamanlayıcı yok
+            TestSupport.quietly(() -> parkingLot.enterVehicle(new Car("34LZ2", "Gray", "Fiat", "Egea", 4),
+                    TestSupport.customer("LZ2", "34LZ2"), "DAILY"));
+            assertTrue(scheduler.isRunning());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+        assertFalse(scheduler.isRunning());
+        scheduler.start(); // Kapanmış zamanlayıcı yeniden başlamaz
+        assertFalse(scheduler.isRunning());
+    }
+}
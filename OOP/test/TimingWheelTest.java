@@ -0,0 +1,48 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Çark: rastgele vadeli zamanlayıcılar eklenir, yarısı iptal edilir, saat günlerce ilerletilir.
+// Her tetikleme vaktinde (en geç bir tik sonra) olmalı, iptal edilenler hiç tetiklenmemeli.
+class TimingWheelTest {
+
+    @Test
+    void firesEveryLiveTimerInItsWindowAndNoCancelledOne() {
+        int timerCount = 200_000;
+        int days = 30;
+        long tick = TicketExpiryScheduler.DEFAULT_TICK_MILLIS;
+        long startMillis = 1_735_689_600_000L; // 2025-01-01 UTC
+        long horizon = days * 86_400_000L;
+        TimingWheel wheel = new TimingWheel(tick, startMillis);
+        Random random = new Random(11);
+
+        TimerEntry[] entries = new TimerEntry[timerCount];
+        for (int i = 0; i < timerCount; i++) {
+            entries[i] = new TimerEntry(startMillis + 1 + (long) (random.nextDouble() * horizon));
+            wheel.schedule(entries[i]);
+        }
+        int cancelled = 0;
+        for (int i = 0; i < timerCount; i += 2) {
+            if (wheel.cancel(entries[i])) cancelled++;
+        }
+        assertEquals(timerCount / 2, cancelled);
+
+        long[] fired = new long[1];
+        long[] late = new long[1];
+        long[] now = {startMillis};
+        long step = 3_600_000L;
+        for (long t = startMillis + step; t <= startMillis + horizon + step; t += step) {
+            now[0] = t;
+            wheel.advanceTo(t, entry -> {
+                fired[0]++;
+                long deadline = entry.getDeadlineMillis();
+                // Saatlik adım: vade (now - adım, now] aralığına + bir tik yuvarlamaya düşmeli
+                if (deadline > now[0] || deadline <= now[0] - step - tick) late[0]++;
+            });
+        }
+        assertEquals(timerCount - cancelled, fired[0]);
+        assertEquals(0, late[0], "timers fired out of window");
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+// Simülatör: kapı hatası diğer kapıları kilitlememeli, rush hour yerel saate göre
+class TrafficSimulatorTest {
+
+    // Bir kapıda beklenmeyen hata: run() takılmadan hatayı fırlatır
+    @Test
+    void gateFailureStopsOtherGates() throws Exception {
+        VirtualParkingClock clock = ParkingClock.virtual(IdGenerator.EPOCH_MILLIS);
+        AtomicInteger calls = new AtomicInteger();
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Failing Lot", "Test", 2, 100, clock) {
+            @Override
+            public Ticket enterVehicle(Vehicle vehicle, Customer customer, String ticketType)
+                    throws ParkingException {
+                if (calls.incrementAndGet() == 20) {
+                    throw new IllegalStateException("gate down");
+                }
+                return super.enterVehicle(vehicle, customer, ticketType);
+            }
+        });
+        SimulationConfig config = new SimulationConfig().setDays(1).setGateCount(4).setLotSize(2, 100);
+        TrafficSimulator simulator = new TrafficSimulator(config, parkingLot, clock);
+        try {
+            IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                    () -> assertThrows(IllegalStateException.class, simulator::run));
+            assertTrue(failure.getCause().getMessage().contains("gate down"));
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+
+    // Yaz saati başlangıcı: gece yarısından 3 saat sonra yerel saat 04'tür
+    @Test
+    void hourOfDayFollowsClockZone() throws Exception {
+        ZoneId zone = ZoneId.of("America/New_York");
+        long midnight = LocalDate.of(2024, 3, 10).atStartOfDay(zone).toInstant().toEpochMilli();
+        VirtualParkingClock clock = new VirtualParkingClock(zone, midnight);
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Zone Lot", "Test", 1, 10, clock));
+        try {
+            TrafficSimulator simulator = new TrafficSimulator(new SimulationConfig(), parkingLot, clock);
+            assertEquals(4, simulator.hourOfDay(midnight + 3 * 3_600_000L));
+            assertEquals(18, simulator.hourOfDay(midnight + 17 * 3_600_000L));
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Günlük üzerinden giriş/çıkış: geri okuma, segment geçişi ve sabit heap kontrolü
+class TransactionJournalTest {
+    private static final long HEAP_GROWTH_LIMIT = 4L * 1024 * 1024;
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("parking-journal");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws Exception {
+        TestSupport.deleteDirectory(directory);
+    }
+
+    @Test
+    void readBackMatchesLotAndHeapStaysBounded() throws Exception {
+        int cycles = 50_000;
+        // Küçük segmentler: segment geçişleri de teste girsin
+        TransactionJournal journal = new TransactionJournal(directory, 800_000,
+                TransactionJournal.DEFAULT_GROUP_COMMIT_MILLIS);
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Journal Lot", "Test", 4, 250));
+        parkingLot.enableJournal(journal);
+        // Güvenlik kaydı, bildirim ve şarj kendi geçmişini tutar - büyüme ölçümünü bozmasın
+        for (String handler : new String[]{"security", "notification", "charging"}) {
+            parkingLot.getEventBus().unregister(handler);
+        }
+        // Sabit müşteri havuzu: müşteri kaydı her döngüde büyümesin
+        Customer[] customers = new Customer[1_000];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = TestSupport.customer("C" + i, "34JR" + i);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        long[] heapBefore = new long[1];
+        TestSupport.quietly(() -> {
+            for (int i = 0; i < cycles; i++) {
+                if (i == cycles / 10) {
+                    parkingLot.awaitSideEffects();
+                    System.gc();
+                    heapBefore[0] = runtime.totalMemory() - runtime.freeMemory();
+                }
+                Car car = new Car("34JR" + i, "Gray", "Fiat", "Egea", 4);
+                Ticket ticket = parkingLot.enterVehicle(car, customers[i % customers.length], "HOURLY");
+                long fee = ticket.calculateFeeKurus(0);
+                parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("P" + i, fee, fee));
+            }
+            parkingLot.awaitSideEffects();
+        });
+        System.gc();
+        long heapGrowth = runtime.totalMemory() - runtime.freeMemory() - heapBefore[0];
+
+        long records = 0;
+        long revenueKurus = 0;
+        try (JournalCursor cursor = journal.openCursor()) {
+            while (cursor.next()) {
+                records++;
+                if (cursor.getType() == TransactionJournal.TYPE_PAYMENT) {
+                    revenueKurus += cursor.getAmountKurus();
+                }
+            }
+        }
+        TestSupport.quietly(parkingLot::shutdown);
+
+        assertEquals(journal.getRecordCount(), records);
+        assertEquals(parkingLot.getParkingRevenueKurus(), revenueKurus);
+        // Günlük açıkken geçmiş sınırlı tutulur; döngü başına kalıcı nesne birikmemeli
+        assertTrue(heapGrowth < HEAP_GROWTH_LIMIT, "journal cycles retained " + heapGrowth / 1024 + " KB");
+    }
+
+    // Uzun ve çok baytlı müşteri no kabul edilmeli ve kurtarmada aynen geri gelmeli
+    @Test
+    void longAndMultiByteTextRecovers() throws Exception {
+        Customer longId = new Customer("CUSTOMER-000000001", "Uzun No", "05550000001",
+                "long@parking.com", "34LNG1");
+        Customer turkishId = new Customer("MÜŞTERİ-ÇĞ", "Çok Baytlı", "05550000002",
+                "tr@parking.com", "34TR1");
+
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Recovery Lot", "Test", 10, 500));
+        TransactionJournal journal = new TransactionJournal(directory);
+        parkingLot.enableJournal(journal, 0);
+        TestSupport.quietly(() -> parkingLot.enterVehicle(
+                new Car("34LNG1", "Gray", "Fiat", "Egea", 4), longId, "HOURLY"));
+        TestSupport.quietly(() -> parkingLot.enterVehicle(
+                new Car("34TR1", "Gray", "Fiat", "Egea", 4), turkishId, "HOURLY"));
+        journal.close();
+        TestSupport.quietly(parkingLot::shutdown);
+
+        JournalRecoveryTest.recoverAndVerify(directory, java.util.Arrays.asList(longId, turkishId),
+                2, 0, new int[]{1, 1});
+    }
+
+    // Yeniden açılan günlük en büyük ID'yi bilir; otoparka bağlanınca ID üreteci ondan devam eder
+    @Test
+    void reopenedJournalSeedsIdGenerator() throws Exception {
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Seed Lot", "Test", 2, 10));
+        TransactionJournal journal = new TransactionJournal(directory);
+        parkingLot.enableJournal(journal, 0);
+        Ticket ticket = TestSupport.quietly(() -> parkingLot.enterVehicle(
+                new Car("34SD1", "Gray", "Fiat", "Egea", 4), TestSupport.customer("SD1", "34SD1"), "HOURLY"));
+        long highest = journal.getHighestId();
+        journal.close();
+        TestSupport.quietly(parkingLot::shutdown);
+
+        assertTrue(highest >= IdGenerator.parse(ticket.getTicketId()));
+        try (TransactionJournal reopened = new TransactionJournal(directory)) {
+            assertEquals(highest, reopened.getHighestId());
+        }
+        assertTrue(IdGenerator.getDefault().nextId() > highest);
+    }
+}
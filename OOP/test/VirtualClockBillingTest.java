@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Sanal saat: saatlik/günlük/aylık biletler günlerce ilerletilir, ücret ve bitişler doğrulanır
+class VirtualClockBillingTest {
+
+    @Test
+    void virtualTimeDrivesFeesAndExpiries() throws Exception {
+        int days = 35;
+        int ticketsPerType = 100;
+        long startMillis = LocalDate.of(2025, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        VirtualParkingClock clock = ParkingClock.virtual(startMillis);
+        ParkingLot parkingLot = TestSupport.quietly(() -> new ParkingLot("Billing Lot", "Test", 4, 250, clock));
+
+        Random random = new Random(7);
+        List<Ticket> hourly = new ArrayList<>();
+        List<Ticket> subscriptions = new ArrayList<>();
+        TestSupport.quietly(() -> {
+            for (String type : new String[]{"HOURLY", "DAILY", "MONTHLY"}) {
+                for (int i = 0; i < ticketsPerType; i++) {
+                    Vehicle vehicle = TestSupport.randomVehicle(random, type.charAt(0) + String.valueOf(i));
+                    Customer customer = TestSupport.customer("BC" + type + i, vehicle.getLicensePlate());
+                    Ticket ticket = parkingLot.enterVehicle(vehicle, customer, type);
+                    (type.equals("HOURLY") ? hourly : subscriptions).add(ticket);
+                }
+            }
+        });
+
+        // Saatlik biletler 1..72 saat arası kalır; beklenen ücret sanal süreden hesaplanır
+        int[] stayHours = new int[hourly.size()];
+        long expectedRevenue = 0;
+        for (int i = 0; i < hourly.size(); i++) {
+            stayHours[i] = 1 + (i * 7) % 72;
+            expectedRevenue += hourly.get(i).calculateFeeKurus(stayHours[i] * 3_600_000L);
+        }
+
+        long[] expiredAt = new long[subscriptions.size()];
+        try {
+            TestSupport.quietly(() -> {
+                for (int hour = 1; hour <= days * 24; hour++) {
+                    clock.advance(Duration.ofHours(1));
+                    for (int i = 0; i < hourly.size(); i++) {
+                        if (stayHours[i] == hour) {
+                            Ticket ticket = hourly.get(i);
+                            long fee = ticket.calculateFeeKurus(hour * 3_600_000L);
+                            parkingLot.exitVehicle(ticket.getTicketId(), CashPayment.ofKurus("BP" + i, fee, fee));
+                        }
+                    }
+                    for (int i = 0; i < subscriptions.size(); i++) {
+                        if (expiredAt[i] == 0 && !subscriptions.get(i).isValid()) {
+                            expiredAt[i] = clock.millis();
+                        }
+                    }
+                }
+                parkingLot.awaitSideEffects();
+            });
+
+            // Saatlik adımlarla ilerlendiği için bitiş tam olarak beklenen saatte görülmeli
+            for (int i = 0; i < subscriptions.size(); i++) {
+                Ticket ticket = subscriptions.get(i);
+                long expected = ticket instanceof DailyTicket
+                        ? ((DailyTicket) ticket).getExpiryMillis()
+                        : ((MonthlySubscription) ticket).getExpiryMillis();
+                assertEquals(expected, expiredAt[i], "expiry of " + ticket.getTicketId());
+            }
+            assertEquals(expectedRevenue, parkingLot.getTotalRevenueKurus());
+        } finally {
+            TestSupport.quietly(parkingLot::shutdown);
+        }
+    }
+}